@@ -39,6 +39,7 @@ import boofcv.gui.feature.VisualizeFeatures;
 import boofcv.gui.feature.VisualizeShapes;
 import boofcv.io.UtilIO;
 import boofcv.io.image.ConvertBufferedImage;
+import boofcv.misc.RuntimeProfiler;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageBase;
@@ -73,7 +74,8 @@ public class DetectQrCodeApp<T extends ImageGray<T>>
 		extends DetectBlackShapeAppBase<T> implements ShapeGuiListener, DetectQrCodeMessagePanel.Listener
 {
 	QrCodePreciseDetector<T> detector;
-
+	// If true the detector is profiled and the time of each stage is printed after every image
+	boolean profiling = false;
 
 	//--------- ONLY INVOKE IN THE GUI ------------
 	DetectQrCodeControlPanel controlPanel;
@@ -169,7 +171,7 @@ public class DetectQrCodeApp<T extends ImageGray<T>>
 			config.threshold = controls.getThreshold().createConfig();
 
 			detector = FactoryFiducial.qrcode(config,imageClass);
-			detector.setProfilerState(true);
+			detector.setProfilerState(profiling);
 		}
 	}
 
@@ -210,6 +212,14 @@ public class DetectQrCodeApp<T extends ImageGray<T>>
 			detector.process((T)input);
 			long after = System.nanoTime();
 			timeInSeconds = (after-before)*1e-9;
+
+			if( profiling ) {
+				System.out.print("qrcode:");
+				for (RuntimeProfiler.Stage s : detector.getProfiler().getStages()) {
+					System.out.printf(" %s %5.2f", s.getName(), s.getAverageMilli());
+				}
+				System.out.println();
+			}
 		}
 
 		// create a local copy so that gui and processing thread's dont conflict
@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.simd;
+
+import boofcv.abst.filter.binary.GlobalFixedBinaryFilter;
+import boofcv.abst.filter.binary.InputToBinary;
+import boofcv.alg.filter.blur.BOverrideBlurImageOps;
+import boofcv.alg.filter.convolve.BOverrideConvolveImage;
+import boofcv.alg.filter.convolve.BOverrideConvolveImageMean;
+import boofcv.alg.filter.convolve.BOverrideConvolveImageNormalized;
+import boofcv.alg.filter.convolve.ConvolveImageMean;
+import boofcv.alg.filter.convolve.border.ConvolveJustBorder_General_SB;
+import boofcv.alg.filter.convolve.normalized.ConvolveNormalized_JustBorder_SB;
+import boofcv.alg.filter.kernel.KernelMath;
+import boofcv.core.image.BOverrideConvertImage;
+import boofcv.factory.filter.binary.BOverrideFactoryThresholdBinary;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.border.ImageBorder;
+import boofcv.struct.border.ImageBorder_F32;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.*;
+
+/**
+ * <p>
+ * Registers SIMD implementations of image processing hot paths with BoofCV's override mechanism. Once registered,
+ * functions like {@link boofcv.alg.filter.convolve.ConvolveImage}, {@link boofcv.alg.filter.blur.BlurImageOps},
+ * {@link boofcv.factory.filter.binary.FactoryThresholdBinary#globalFixed} and
+ * {@link boofcv.core.image.ConvertImage} will use them automatically. Image types, kernels and sizes which
+ * aren't supported throw an exception which causes the override to fall back to the regular Java code.
+ * </p>
+ *
+ * <ul>
+ *     <li>Convolution with a {@link Kernel1D_F32}. Normalized convolution and with an image border.</li>
+ *     <li>Gaussian blur of {@link GrayF32}, which is computed with normalized convolution</li>
+ *     <li>Mean blur of {@link GrayF32}, with re-weighted borders or an image border. Only the vertical
+ *     pass uses SIMD</li>
+ *     <li>Vertical pass of the mean filter for {@link GrayF32}</li>
+ *     <li>Global fixed threshold of {@link GrayF32} and {@link GrayU8}</li>
+ *     <li>Conversion from {@link GrayU8} to {@link GrayF32}</li>
+ * </ul>
+ *
+ * <p>
+ * The Vector API is an incubator module and must be enabled with "--add-modules jdk.incubator.vector".
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BoofSimd {
+	// Preallocated since it's thrown every time an unsupported input is encountered
+	static final UnsupportedOperationException UNSUPPORTED =
+			new UnsupportedOperationException("Not supported by SIMD. Use the Java implementation.");
+
+	static final ConvolveNormalized convolveNormalized = new ConvolveNormalized();
+	static final ConvolveBorder convolveBorder = new ConvolveBorder();
+	static final ConvolveMean convolveMean = new ConvolveMean();
+	static final BlurMean blurMean = new BlurMean();
+	static final BlurGaussian blurGaussian = new BlurGaussian();
+	static final ThresholdFixed thresholdFixed = new ThresholdFixed();
+	static final Convert convert = new Convert();
+
+	/**
+	 * Returns true if the Vector API can be used in this JVM
+	 */
+	public static boolean isAvailable() {
+		return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+	}
+
+	/**
+	 * Registers all the SIMD implementations. If the Vector API isn't available nothing is changed.
+	 *
+	 * @return true if they were registered
+	 */
+	public static boolean register() {
+		if( !isAvailable() )
+			return false;
+
+		BOverrideConvolveImageNormalized.horizontal = convolveNormalized;
+		BOverrideConvolveImageNormalized.vertical = convolveNormalized;
+		BOverrideConvolveImage.horizontal = convolveBorder;
+		BOverrideConvolveImage.vertical = convolveBorder;
+		BOverrideConvolveImageMean.vertical = convolveMean;
+		BOverrideBlurImageOps.mean = blurMean;
+		BOverrideBlurImageOps.gaussian = blurGaussian;
+		BOverrideFactoryThresholdBinary.globalFixed = thresholdFixed;
+		BOverrideConvertImage.convert = convert;
+		return true;
+	}
+
+	/**
+	 * Removes the SIMD implementations. Other overrides are not modified.
+	 */
+	public static void unregister() {
+		if( BOverrideConvolveImageNormalized.horizontal == convolveNormalized )
+			BOverrideConvolveImageNormalized.horizontal = null;
+		if( BOverrideConvolveImageNormalized.vertical == convolveNormalized )
+			BOverrideConvolveImageNormalized.vertical = null;
+		if( BOverrideConvolveImage.horizontal == convolveBorder )
+			BOverrideConvolveImage.horizontal = null;
+		if( BOverrideConvolveImage.vertical == convolveBorder )
+			BOverrideConvolveImage.vertical = null;
+		if( BOverrideConvolveImageMean.vertical == convolveMean )
+			BOverrideConvolveImageMean.vertical = null;
+		if( BOverrideBlurImageOps.mean == blurMean )
+			BOverrideBlurImageOps.mean = null;
+		if( BOverrideBlurImageOps.gaussian == blurGaussian )
+			BOverrideBlurImageOps.gaussian = null;
+		if( BOverrideFactoryThresholdBinary.globalFixed == thresholdFixed )
+			BOverrideFactoryThresholdBinary.globalFixed = null;
+		if( BOverrideConvertImage.convert == convert )
+			BOverrideConvertImage.convert = null;
+	}
+
+	/**
+	 * Same as {@link boofcv.alg.filter.convolve.ConvolveImageNormalized} but with the inner image computed
+	 * using SIMD
+	 */
+	static class ConvolveNormalized
+			implements BOverrideConvolveImageNormalized.Horizontal, BOverrideConvolveImageNormalized.Vertical {
+		@Override
+		public void horizontal( Kernel1D kernel, ImageBase input, ImageBase output ) {
+			if( !(kernel instanceof Kernel1D_F32 && input instanceof GrayF32) || kernel.width >= input.width )
+				throw UNSUPPORTED;
+			Kernel1D_F32 k = normalize((Kernel1D_F32)kernel);
+			ImplSimdConvolve_F32.horizontal(k, (GrayF32)input, (GrayF32)output);
+			ConvolveNormalized_JustBorder_SB.horizontal(k, (GrayF32)input, (GrayF32)output);
+		}
+
+		@Override
+		public void vertical( Kernel1D kernel, ImageBase input, ImageBase output ) {
+			if( !(kernel instanceof Kernel1D_F32 && input instanceof GrayF32) || kernel.width >= input.height )
+				throw UNSUPPORTED;
+			Kernel1D_F32 k = normalize((Kernel1D_F32)kernel);
+			ImplSimdConvolve_F32.vertical(k, (GrayF32)input, (GrayF32)output);
+			ConvolveNormalized_JustBorder_SB.vertical(k, (GrayF32)input, (GrayF32)output);
+		}
+
+		private static Kernel1D_F32 normalize( Kernel1D_F32 kernel ) {
+			if( Math.abs(kernel.computeSum() - 1.0f) > 1e-4f ) {
+				kernel = kernel.copy();
+				KernelMath.normalizeSumToOne(kernel);
+			}
+			return kernel;
+		}
+	}
+
+	/**
+	 * Same as {@link boofcv.alg.filter.convolve.ConvolveImage} but with the inner image computed using SIMD
+	 */
+	static class ConvolveBorder implements BOverrideConvolveImage.Horizontal, BOverrideConvolveImage.Vertical {
+		@Override
+		public void horizontal( Kernel1D kernel, ImageBase input, ImageBase output, ImageBorder border ) {
+			if( !(kernel instanceof Kernel1D_F32 && input instanceof GrayF32 && border instanceof ImageBorder_F32) )
+				throw UNSUPPORTED;
+			border.setImage(input);
+			ImplSimdConvolve_F32.horizontal((Kernel1D_F32)kernel, (GrayF32)input, (GrayF32)output);
+			ConvolveJustBorder_General_SB.horizontal((Kernel1D_F32)kernel, (ImageBorder_F32)border, (GrayF32)output);
+		}
+
+		@Override
+		public void vertical( Kernel1D kernel, ImageBase input, ImageBase output, ImageBorder border ) {
+			if( !(kernel instanceof Kernel1D_F32 && input instanceof GrayF32 && border instanceof ImageBorder_F32) )
+				throw UNSUPPORTED;
+			border.setImage(input);
+			ImplSimdConvolve_F32.vertical((Kernel1D_F32)kernel, (GrayF32)input, (GrayF32)output);
+			ConvolveJustBorder_General_SB.vertical((Kernel1D_F32)kernel, (ImageBorder_F32)border, (GrayF32)output);
+		}
+	}
+
+	/**
+	 * Same as {@link boofcv.alg.filter.convolve.ConvolveImageMean#vertical} but with the inner image computed
+	 * using SIMD
+	 */
+	static class ConvolveMean implements BOverrideConvolveImageMean.Vertical {
+		@Override
+		public void vertical( ImageBase input, ImageBase output, int offset, int length ) {
+			if( !(input instanceof GrayF32) || length > input.height )
+				throw UNSUPPORTED;
+			Kernel1D_F32 kernel = FactoryKernel.table1D_F32(offset, length, true);
+			ConvolveNormalized_JustBorder_SB.vertical(kernel, (GrayF32)input, (GrayF32)output);
+			ImplSimdConvolve_F32.verticalMean((GrayF32)input, (GrayF32)output, offset, length);
+		}
+	}
+
+	/**
+	 * Same as {@link boofcv.alg.filter.blur.BlurImageOps#mean} and {@link boofcv.alg.filter.blur.BlurImageOps#meanB}
+	 * for {@link GrayF32}. The horizontal running sum is computed with the regular code.
+	 */
+	static class BlurMean implements BOverrideBlurImageOps.Mean {
+		@Override
+		public void processMeanWeighted( ImageBase input, ImageBase output, int radiusX, int radiusY, ImageBase storage ) {
+			if( !(input instanceof GrayF32) || radiusY*2 + 1 > input.height )
+				throw UNSUPPORTED;
+			ConvolveImageMean.horizontal((GrayF32)input, (GrayF32)storage, radiusX, radiusX*2 + 1);
+			convolveMean.vertical(storage, output, radiusY, radiusY*2 + 1);
+		}
+
+		@Override
+		public void processMeanBorder( ImageBase input, ImageBase output, int radiusX, int radiusY,
+									   ImageBorder border, ImageBase storage ) {
+			int length = radiusY*2 + 1;
+			if( !(input instanceof GrayF32) || !(border == null || border instanceof ImageBorder_F32) ||
+					length > input.height )
+				throw UNSUPPORTED;
+			ConvolveImageMean.horizontal((GrayF32)input, (GrayF32)storage, radiusX, radiusX*2 + 1,
+					(ImageBorder_F32)border);
+			if( border != null ) {
+				border.setImage(storage);
+				Kernel1D_F32 kernel = FactoryKernel.table1D_F32(radiusY, length, true);
+				ConvolveJustBorder_General_SB.vertical(kernel, (ImageBorder_F32)border, (GrayF32)output);
+			}
+			ImplSimdConvolve_F32.verticalMean((GrayF32)storage, (GrayF32)output, radiusY, length);
+		}
+	}
+
+	/**
+	 * Same as {@link boofcv.alg.filter.blur.BlurImageOps#gaussian} for {@link GrayF32}
+	 */
+	static class BlurGaussian implements BOverrideBlurImageOps.Gaussian {
+		@Override
+		public void processGaussian( ImageBase input, ImageBase output,
+									 double sigmaX, int radiusX, double sigmaY, int radiusY, ImageBase storage ) {
+			if( !(input instanceof GrayF32) )
+				throw UNSUPPORTED;
+			Kernel1D_F32 kernelX = FactoryKernelGaussian.gaussian(Kernel1D_F32.class, sigmaX, radiusX);
+			Kernel1D_F32 kernelY = sigmaX == sigmaY && radiusX == radiusY ?
+					kernelX : FactoryKernelGaussian.gaussian(Kernel1D_F32.class, sigmaY, radiusY);
+			if( kernelX.width >= input.width || kernelY.width >= input.height )
+				throw UNSUPPORTED;
+
+			convolveNormalized.horizontal(kernelX, input, storage);
+			convolveNormalized.vertical(kernelY, storage, output);
+		}
+	}
+
+	/**
+	 * Creates a SIMD global threshold filter when the image type is supported
+	 */
+	static class ThresholdFixed implements BOverrideFactoryThresholdBinary.GlobalFixed {
+		@Override
+		public <T extends ImageGray<T>>
+		InputToBinary<T> handle( double threshold, boolean down, Class<T> inputType ) {
+			if( inputType == GrayF32.class || inputType == GrayU8.class )
+				return new SimdGlobalFixedBinaryFilter<>(threshold, down, ImageType.single(inputType));
+			return new GlobalFixedBinaryFilter<>(threshold, down, ImageType.single(inputType));
+		}
+	}
+
+	/**
+	 * Same as {@link boofcv.core.image.ConvertImage} for the supported image types
+	 */
+	static class Convert implements BOverrideConvertImage.Convert {
+		@Override
+		public void convert( ImageBase input, ImageBase output ) {
+			if( input instanceof GrayU8 && output instanceof GrayF32 )
+				ImplSimdConvertImage.convert((GrayU8)input, (GrayF32)output);
+			else
+				throw UNSUPPORTED;
+		}
+	}
+}
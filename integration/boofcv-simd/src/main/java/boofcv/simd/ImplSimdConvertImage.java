@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.simd;
+
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Image type conversion using the Vector API. Produces the same results as
+ * {@link boofcv.core.image.impl.ImplConvertImage}.
+ *
+ * @author Peter Abeles
+ */
+public class ImplSimdConvertImage {
+	static final VectorSpecies<Byte> SPECIES_U8 = ByteVector.SPECIES_PREFERRED;
+	static final VectorSpecies<Float> SPECIES_F32 = FloatVector.SPECIES_PREFERRED;
+
+	public static void convert( GrayU8 input, GrayF32 output ) {
+		// A byte vector is split into several float vectors since floats are 4x larger
+		final int parts = SPECIES_U8.length()/SPECIES_F32.length();
+		final int widthVector = SPECIES_U8.loopBound(input.width);
+
+		for (int y = 0; y < input.height; y++) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			int x = 0;
+			for (; x < widthVector; x += SPECIES_U8.length()) {
+				ByteVector v = ByteVector.fromArray(SPECIES_U8, input.data, indexIn + x);
+				for (int part = 0; part < parts; part++) {
+					FloatVector f = (FloatVector)v.convertShape(VectorOperators.B2F, SPECIES_F32, part);
+					// undo the sign extension
+					f = f.add(256.0f, f.compare(VectorOperators.LT, 0.0f));
+					f.intoArray(output.data, indexOut + x + part*SPECIES_F32.length());
+				}
+			}
+
+			for (; x < input.width; x++) {
+				output.data[indexOut + x] = input.data[indexIn + x] & 0xFF;
+			}
+		}
+	}
+}
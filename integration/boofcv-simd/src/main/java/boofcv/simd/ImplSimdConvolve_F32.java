@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.simd;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.GrayF32;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * <p>
+ * Convolution across the inner portion of a {@link GrayF32} image using the Vector API. Pixels along the image
+ * border are not modified and need to be handled by the caller. Produces the same results as
+ * {@link boofcv.alg.filter.convolve.noborder.ConvolveImageStandard_SB}.
+ * </p>
+ *
+ * <p>
+ * Horizontal convolution processes several adjacent output pixels at once and vertical convolution processes
+ * several columns at once. In both cases each lane is the scalar algorithm and the pixels left over at the end
+ * of a row are computed with scalar code.
+ * </p>
+ *
+ * <p>
+ * The vertical mean filter uses a running sum for each column, like
+ * {@link boofcv.alg.filter.convolve.noborder.ImplConvolveMean}, and updates several columns at once. The horizontal
+ * running sum can't be computed in parallel lanes and is left to the scalar code.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplSimdConvolve_F32 {
+	static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+	public static void horizontal( Kernel1D_F32 kernel, GrayF32 src, GrayF32 dst ) {
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopBlocks(0, src.height, ( y0, y1 ) -> horizontal(kernel, src, dst, y0, y1));
+		} else {
+			horizontal(kernel, src, dst, 0, src.height);
+		}
+	}
+
+	public static void vertical( Kernel1D_F32 kernel, GrayF32 src, GrayF32 dst ) {
+		final int yEnd = src.height - (kernel.getWidth() - kernel.getOffset() - 1);
+		if( yEnd <= kernel.getOffset() )
+			return;
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopBlocks(kernel.getOffset(), yEnd, ( y0, y1 ) -> vertical(kernel, src, dst, y0, y1));
+		} else {
+			vertical(kernel, src, dst, kernel.getOffset(), yEnd);
+		}
+	}
+
+	/**
+	 * Vertical mean filter along the inner portion of the image.
+	 *
+	 * @see boofcv.alg.filter.convolve.noborder.ImplConvolveMean#vertical
+	 */
+	public static void verticalMean( GrayF32 src, GrayF32 dst, int offset, int length ) {
+		final int yEnd = src.height - (length - offset - 1);
+		if( yEnd <= offset )
+			return;
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopBlocks(offset, yEnd, length, ( y0, y1 ) -> verticalMean(src, dst, offset, length, y0, y1));
+		} else {
+			verticalMean(src, dst, offset, length, offset, yEnd);
+		}
+	}
+
+	static void horizontal( Kernel1D_F32 kernel, GrayF32 src, GrayF32 dst, int y0, int y1 ) {
+		final float[] dataSrc = src.data;
+		final float[] dataDst = dst.data;
+		final float[] dataKer = kernel.data;
+
+		final int offset = kernel.getOffset();
+		final int kernelWidth = kernel.getWidth();
+
+		// Number of output pixels in a row which can be computed without going outside the image
+		final int length = src.width - (kernelWidth - 1);
+		final int lengthVector = SPECIES.loopBound(Math.max(0, length));
+
+		for (int y = y0; y < y1; y++) {
+			final int indexSrc = src.startIndex + y*src.stride;
+			final int indexDst = dst.startIndex + y*dst.stride + offset;
+
+			int x = 0;
+			for (; x < lengthVector; x += SPECIES.length()) {
+				FloatVector total = FloatVector.zero(SPECIES);
+				for (int k = 0; k < kernelWidth; k++) {
+					FloatVector v = FloatVector.fromArray(SPECIES, dataSrc, indexSrc + x + k);
+					total = total.add(v.mul(dataKer[k]));
+				}
+				total.intoArray(dataDst, indexDst + x);
+			}
+
+			for (; x < length; x++) {
+				float total = 0;
+				for (int k = 0; k < kernelWidth; k++) {
+					total += dataSrc[indexSrc + x + k]*dataKer[k];
+				}
+				dataDst[indexDst + x] = total;
+			}
+		}
+	}
+
+	static void vertical( Kernel1D_F32 kernel, GrayF32 src, GrayF32 dst, int y0, int y1 ) {
+		final float[] dataSrc = src.data;
+		final float[] dataDst = dst.data;
+		final float[] dataKer = kernel.data;
+
+		final int offset = kernel.getOffset();
+		final int kernelWidth = kernel.getWidth();
+
+		final int width = src.width;
+		final int widthVector = SPECIES.loopBound(width);
+
+		for (int y = y0; y < y1; y++) {
+			final int indexSrc = src.startIndex + (y - offset)*src.stride;
+			final int indexDst = dst.startIndex + y*dst.stride;
+
+			int x = 0;
+			for (; x < widthVector; x += SPECIES.length()) {
+				FloatVector total = FloatVector.zero(SPECIES);
+				for (int k = 0; k < kernelWidth; k++) {
+					FloatVector v = FloatVector.fromArray(SPECIES, dataSrc, indexSrc + k*src.stride + x);
+					total = total.add(v.mul(dataKer[k]));
+				}
+				total.intoArray(dataDst, indexDst + x);
+			}
+
+			for (; x < width; x++) {
+				float total = 0;
+				for (int k = 0; k < kernelWidth; k++) {
+					total += dataSrc[indexSrc + k*src.stride + x]*dataKer[k];
+				}
+				dataDst[indexDst + x] = total;
+			}
+		}
+	}
+
+	static void verticalMean( GrayF32 src, GrayF32 dst, int offset, int length, int y0, int y1 ) {
+		final float[] dataSrc = src.data;
+		final float[] dataDst = dst.data;
+		final float divisor = length;
+
+		final int width = src.width;
+		final int widthVector = SPECIES.loopBound(width);
+		final int backStep = length*src.stride;
+		final int offsetEnd = length - offset - 1;
+
+		// Sum of each column inside the filter
+		final float[] totals = new float[width];
+
+		// Sum up the first row
+		int indexSrc = src.startIndex + (y0 - offset)*src.stride;
+		for (int k = 0; k < length; k++, indexSrc += src.stride) {
+			int x = 0;
+			for (; x < widthVector; x += SPECIES.length()) {
+				FloatVector.fromArray(SPECIES, totals, x).
+						add(FloatVector.fromArray(SPECIES, dataSrc, indexSrc + x)).intoArray(totals, x);
+			}
+			for (; x < width; x++) {
+				totals[x] += dataSrc[indexSrc + x];
+			}
+		}
+		int indexDst = dst.startIndex + y0*dst.stride;
+		for (int x = 0; x < width; x++) {
+			dataDst[indexDst + x] = totals[x]/divisor;
+		}
+
+		// Remaining rows are found by adding the row entering the filter and removing the one which left
+		for (int y = y0 + 1; y < y1; y++) {
+			indexSrc = src.startIndex + (y + offsetEnd)*src.stride;
+			indexDst = dst.startIndex + y*dst.stride;
+
+			int x = 0;
+			for (; x < widthVector; x += SPECIES.length()) {
+				FloatVector total = FloatVector.fromArray(SPECIES, totals, x).
+						sub(FloatVector.fromArray(SPECIES, dataSrc, indexSrc - backStep + x)).
+						add(FloatVector.fromArray(SPECIES, dataSrc, indexSrc + x));
+				total.intoArray(totals, x);
+				total.div(divisor).intoArray(dataDst, indexDst + x);
+			}
+			for (; x < width; x++) {
+				float total = totals[x] - dataSrc[indexSrc - backStep + x];
+				totals[x] = total += dataSrc[indexSrc + x];
+				dataDst[indexDst + x] = total/divisor;
+			}
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.simd;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import jdk.incubator.vector.*;
+
+/**
+ * Global thresholding using the Vector API. Produces the same results as
+ * {@link boofcv.alg.filter.binary.ThresholdImageOps#threshold}.
+ *
+ * @author Peter Abeles
+ */
+public class ImplSimdThreshold {
+	static final VectorSpecies<Float> SPECIES_F32 = FloatVector.SPECIES_PREFERRED;
+	static final VectorSpecies<Byte> SPECIES_U8 = ByteVector.SPECIES_PREFERRED;
+
+	public static void threshold( GrayF32 input, GrayU8 output, float threshold, boolean down ) {
+		output.reshape(input.width, input.height);
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopBlocks(0, input.height, ( y0, y1 ) -> threshold(input, output, threshold, down, y0, y1));
+		} else {
+			threshold(input, output, threshold, down, 0, input.height);
+		}
+	}
+
+	public static void threshold( GrayU8 input, GrayU8 output, int threshold, boolean down ) {
+		output.reshape(input.width, input.height);
+
+		// Handle thresholds outside of the pixel range here so that the threshold can be stored in a byte
+		if( threshold < 0 ) {
+			ImageMiscOps.fill(output, down ? 0 : 1);
+			return;
+		} else if( threshold >= 255 ) {
+			ImageMiscOps.fill(output, down ? 1 : 0);
+			return;
+		}
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopBlocks(0, input.height, ( y0, y1 ) -> threshold(input, output, threshold, down, y0, y1));
+		} else {
+			threshold(input, output, threshold, down, 0, input.height);
+		}
+	}
+
+	static void threshold( GrayF32 input, GrayU8 output, float threshold, boolean down, int y0, int y1 ) {
+		final VectorOperators.Comparison op = down ? VectorOperators.LE : VectorOperators.GT;
+		final int widthVector = SPECIES_F32.loopBound(input.width);
+
+		for (int y = y0; y < y1; y++) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			int x = 0;
+			for (; x < widthVector; x += SPECIES_F32.length()) {
+				long bits = FloatVector.fromArray(SPECIES_F32, input.data, indexIn + x).compare(op, threshold).toLong();
+				for (int i = 0; i < SPECIES_F32.length(); i++) {
+					output.data[indexOut + x + i] = (byte)((bits >>> i) & 1);
+				}
+			}
+
+			for (; x < input.width; x++) {
+				float v = input.data[indexIn + x];
+				output.data[indexOut + x] = (byte)((down ? v <= threshold : v > threshold) ? 1 : 0);
+			}
+		}
+	}
+
+	static void threshold( GrayU8 input, GrayU8 output, int threshold, boolean down, int y0, int y1 ) {
+		final VectorOperators.Comparison op = down ? VectorOperators.LE : VectorOperators.GT;
+		final int widthVector = SPECIES_U8.loopBound(input.width);
+
+		// Bytes are signed. Flipping the sign bit turns an unsigned comparison into a signed comparison
+		final byte flippedThreshold = (byte)(threshold ^ 0x80);
+		final ByteVector ones = ByteVector.broadcast(SPECIES_U8, (byte)1);
+		final ByteVector zeros = ByteVector.zero(SPECIES_U8);
+
+		for (int y = y0; y < y1; y++) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			int x = 0;
+			for (; x < widthVector; x += SPECIES_U8.length()) {
+				ByteVector v = ByteVector.fromArray(SPECIES_U8, input.data, indexIn + x);
+				VectorMask<Byte> mask = v.lanewise(VectorOperators.XOR, (byte)0x80).compare(op, flippedThreshold);
+				zeros.blend(ones, mask).intoArray(output.data, indexOut + x);
+			}
+
+			for (; x < input.width; x++) {
+				int v = input.data[indexIn + x] & 0xFF;
+				output.data[indexOut + x] = (byte)((down ? v <= threshold : v > threshold) ? 1 : 0);
+			}
+		}
+	}
+}
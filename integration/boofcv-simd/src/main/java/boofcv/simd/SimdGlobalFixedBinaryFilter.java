@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.simd;
+
+import boofcv.abst.filter.binary.InputToBinary;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+
+/**
+ * SIMD version of {@link boofcv.abst.filter.binary.GlobalFixedBinaryFilter}. Supports {@link GrayF32} and
+ * {@link GrayU8}.
+ *
+ * @author Peter Abeles
+ */
+public class SimdGlobalFixedBinaryFilter<T extends ImageGray<T>> implements InputToBinary<T> {
+
+	ImageType<T> inputType;
+
+	double threshold;
+	boolean down;
+
+	public SimdGlobalFixedBinaryFilter( double threshold, boolean down, ImageType<T> inputType ) {
+		this.threshold = threshold;
+		this.down = down;
+		this.inputType = inputType;
+	}
+
+	@Override
+	public void process( T input, GrayU8 output ) {
+		if( input instanceof GrayF32 ) {
+			ImplSimdThreshold.threshold((GrayF32)input, output, (float)threshold, down);
+		} else if( input instanceof GrayU8 ) {
+			ImplSimdThreshold.threshold((GrayU8)input, output, (int)threshold, down);
+		} else {
+			throw new IllegalArgumentException("Unsupported image type "+input.getClass().getSimpleName());
+		}
+	}
+
+	@Override
+	public ImageType<T> getInputType() {
+		return inputType;
+	}
+}
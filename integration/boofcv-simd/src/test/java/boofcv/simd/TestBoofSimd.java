@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.simd;
+
+import boofcv.abst.filter.binary.InputToBinary;
+import boofcv.alg.filter.blur.BOverrideBlurImageOps;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.filter.convolve.ConvolveImage;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.core.image.ConvertImage;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.factory.filter.binary.FactoryThresholdBinary;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.border.ImageBorder_F32;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the results with and without SIMD through the regular BoofCV functions
+ *
+ * @author Peter Abeles
+ */
+class TestBoofSimd {
+	Random rand = new Random(234);
+	int width = 67, height = 43;
+
+	@AfterEach
+	void cleanUp() {
+		BoofSimd.unregister();
+	}
+
+	@Test
+	void gaussian() {
+		GrayF32 input = createF32();
+
+		GrayF32 expected = BlurImageOps.gaussian(input, null, -1, 4, null);
+		assertTrue(BoofSimd.register());
+		GrayF32 found = BlurImageOps.gaussian(input, null, -1, 4, null);
+
+		BoofTesting.assertEquals(expected, found, 1e-4);
+	}
+
+	@Test
+	void mean() {
+		GrayF32 input = createF32();
+
+		GrayF32 expected = BlurImageOps.mean(input, null, 3, null, null);
+		assertTrue(BoofSimd.register());
+		GrayF32 found = BlurImageOps.mean(input, null, 3, null, null);
+
+		BoofTesting.assertEquals(expected, found, 1e-4);
+
+		// the filter is taller than the image and the regular code is used
+		BoofSimd.unregister();
+		expected = BlurImageOps.mean(input, null, 2, height/2 + 1, null, null);
+		assertTrue(BoofSimd.register());
+		found = BlurImageOps.mean(input, null, 2, height/2 + 1, null, null);
+
+		BoofTesting.assertEquals(expected, found, 1e-4);
+	}
+
+	@Test
+	void gaussian_xy() {
+		GrayF32 input = createF32();
+
+		GrayF32 expected = BlurImageOps.gaussian(input, null, -1, 2, -1, 5, null);
+		// call it directly since the override silently falls back to the regular code if it fails
+		GrayF32 found = input.createSameShape();
+		BoofSimd.blurGaussian.processGaussian(input, found, -1, 2, -1, 5, input.createSameShape());
+
+		BoofTesting.assertEquals(expected, found, 1e-4);
+	}
+
+	@Test
+	void mean_direct() {
+		GrayF32 input = createF32();
+		ImageBorder_F32 border = FactoryImageBorder.single(BorderType.REFLECT, GrayF32.class);
+
+		GrayF32 expected = BlurImageOps.meanB(input, null, 2, 4, border, null, null);
+		GrayF32 found = input.createSameShape();
+		BoofSimd.blurMean.processMeanBorder(input, found, 2, 4, border, input.createSameShape());
+		BoofTesting.assertEquals(expected, found, 1e-4);
+
+		expected = BlurImageOps.mean(input, null, 2, 4, null, null);
+		BoofSimd.blurMean.processMeanWeighted(input, found, 2, 4, input.createSameShape());
+
+		BoofTesting.assertEquals(expected, found, 1e-4);
+	}
+
+	/**
+	 * The blur functions should be replaced directly and not just through convolution
+	 */
+	@Test
+	void register_unregister() {
+		assertTrue(BoofSimd.register());
+		assertSame(BoofSimd.blurMean, BOverrideBlurImageOps.mean);
+		assertSame(BoofSimd.blurGaussian, BOverrideBlurImageOps.gaussian);
+
+		BoofSimd.unregister();
+		assertNull(BOverrideBlurImageOps.mean);
+		assertNull(BOverrideBlurImageOps.gaussian);
+	}
+
+	@Test
+	void convolveBorder() {
+		GrayF32 input = createF32();
+		Kernel1D_F32 kernel = FactoryKernel.random1D_F32(7, 3, -1, 1, rand);
+		ImageBorder_F32 border = FactoryImageBorder.single(BorderType.REFLECT, GrayF32.class);
+
+		GrayF32 expected = input.createSameShape();
+		GrayF32 found = input.createSameShape();
+		ConvolveImage.horizontal(kernel, input, expected, border);
+		assertTrue(BoofSimd.register());
+		ConvolveImage.horizontal(kernel, input, found, border);
+		BoofTesting.assertEquals(expected, found, 1e-4);
+
+		BoofSimd.unregister();
+		ConvolveImage.vertical(kernel, input, expected, border);
+		assertTrue(BoofSimd.register());
+		ConvolveImage.vertical(kernel, input, found, border);
+		BoofTesting.assertEquals(expected, found, 1e-4);
+	}
+
+	@Test
+	void thresholdFixed() {
+		GrayF32 input = createF32();
+
+		GrayU8 expected = new GrayU8(width, height);
+		GrayU8 found = new GrayU8(width, height);
+		FactoryThresholdBinary.globalFixed(50, true, GrayF32.class).process(input, expected);
+		assertTrue(BoofSimd.register());
+		InputToBinary<GrayF32> alg = FactoryThresholdBinary.globalFixed(50, true, GrayF32.class);
+		assertTrue(alg instanceof SimdGlobalFixedBinaryFilter);
+		alg.process(input, found);
+
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	@Test
+	void convert() {
+		GrayU8 input = new GrayU8(width, height);
+		ImageMiscOps.fillUniform(input, rand, 0, 256);
+
+		GrayF32 expected = ConvertImage.convert(input, (GrayF32)null);
+		assertTrue(BoofSimd.register());
+		GrayF32 found = ConvertImage.convert(input, (GrayF32)null);
+
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	/**
+	 * Image types which aren't supported should be processed by the regular code
+	 */
+	@Test
+	void fallBack() {
+		GrayU8 input = new GrayU8(width, height);
+		ImageMiscOps.fillUniform(input, rand, 0, 256);
+
+		GrayU8 expectedBlur = BlurImageOps.gaussian(input, null, -1, 4, null);
+		GrayU16 expectedConvert = ConvertImage.convert(input, (GrayU16)null);
+		assertTrue(BoofSimd.register());
+		GrayU8 foundBlur = BlurImageOps.gaussian(input, null, -1, 4, null);
+		GrayU16 foundConvert = ConvertImage.convert(input, (GrayU16)null);
+
+		BoofTesting.assertEquals(expectedBlur, foundBlur, 0);
+		BoofTesting.assertEquals(expectedConvert, foundConvert, 0);
+	}
+
+	private GrayF32 createF32() {
+		GrayF32 input = new GrayF32(width, height);
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
+		return input;
+	}
+}
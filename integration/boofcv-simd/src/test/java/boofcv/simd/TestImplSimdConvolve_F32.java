@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.simd;
+
+import boofcv.alg.filter.convolve.ConvolveImageNoBorder;
+import boofcv.alg.filter.convolve.noborder.ImplConvolveMean;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+class TestImplSimdConvolve_F32 {
+	Random rand = new Random(234);
+
+	// sizes which aren't a multiple of the vector length
+	int[] widths = new int[]{5, 31, 67};
+	int height = 23;
+
+	@Test
+	void horizontal() {
+		for (int width : widths) {
+			for (int kernelWidth : new int[]{1, 3, 6, 11}) {
+				Kernel1D_F32 kernel = FactoryKernel.random1D_F32(kernelWidth, kernelWidth/2, -1, 1, rand);
+				GrayF32 input = createInput(width);
+				GrayF32 expected = createOutput(width);
+				GrayF32 found = BoofTesting.createSubImageOf(expected.clone());
+
+				ConvolveImageNoBorder.horizontal(kernel, input, expected);
+				ImplSimdConvolve_F32.horizontal(kernel, input, found);
+
+				BoofTesting.assertEquals(expected, found, 1e-4);
+			}
+		}
+	}
+
+	@Test
+	void vertical() {
+		for (int width : widths) {
+			for (int kernelWidth : new int[]{1, 3, 6, 11}) {
+				Kernel1D_F32 kernel = FactoryKernel.random1D_F32(kernelWidth, kernelWidth/2, -1, 1, rand);
+				GrayF32 input = createInput(width);
+				GrayF32 expected = createOutput(width);
+				GrayF32 found = BoofTesting.createSubImageOf(expected.clone());
+
+				ConvolveImageNoBorder.vertical(kernel, input, expected);
+				ImplSimdConvolve_F32.vertical(kernel, input, found);
+
+				BoofTesting.assertEquals(expected, found, 1e-4);
+			}
+		}
+	}
+
+	@Test
+	void verticalMean() {
+		for (int width : widths) {
+			for (int radius : new int[]{1, 2, 5}) {
+				int length = radius*2 + 1;
+				GrayF32 input = createInput(width);
+				GrayF32 expected = createOutput(width);
+				GrayF32 found = BoofTesting.createSubImageOf(expected.clone());
+
+				ImplConvolveMean.vertical(input, expected, radius, length, null);
+				ImplSimdConvolve_F32.verticalMean(input, found, radius, length);
+
+				BoofTesting.assertEquals(expected, found, 1e-4);
+			}
+		}
+	}
+
+	private GrayF32 createInput( int width ) {
+		GrayF32 input = new GrayF32(width, height);
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
+		return BoofTesting.createSubImageOf(input);
+	}
+
+	/**
+	 * Output is filled with random values to make sure the border isn't modified
+	 */
+	private GrayF32 createOutput( int width ) {
+		GrayF32 output = new GrayF32(width, height);
+		ImageMiscOps.fillUniform(output, rand, 0, 100);
+		return output;
+	}
+}
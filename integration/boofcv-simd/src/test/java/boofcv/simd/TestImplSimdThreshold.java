@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.simd;
+
+import boofcv.alg.filter.binary.ThresholdImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+class TestImplSimdThreshold {
+	Random rand = new Random(234);
+
+	@Test
+	void threshold_F32() {
+		GrayF32 input = BoofTesting.createSubImageOf(new GrayF32(71, 30));
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
+
+		for (boolean down : new boolean[]{true, false}) {
+			for (float threshold : new float[]{-1, 0, 40.5f, 100}) {
+				GrayU8 expected = ThresholdImageOps.threshold(input, null, threshold, down);
+				GrayU8 found = BoofTesting.createSubImageOf(new GrayU8(71, 30));
+				ImplSimdThreshold.threshold(input, found, threshold, down);
+
+				BoofTesting.assertEquals(expected, found, 0);
+			}
+		}
+	}
+
+	@Test
+	void threshold_U8() {
+		GrayU8 input = BoofTesting.createSubImageOf(new GrayU8(71, 30));
+		ImageMiscOps.fillUniform(input, rand, 0, 256);
+
+		for (boolean down : new boolean[]{true, false}) {
+			// include values outside of the pixel range and values which are negative as signed bytes
+			for (int threshold : new int[]{-1, 0, 100, 128, 200, 255, 300}) {
+				GrayU8 expected = ThresholdImageOps.threshold(input, null, threshold, down);
+				GrayU8 found = BoofTesting.createSubImageOf(new GrayU8(71, 30));
+				ImplSimdThreshold.threshold(input, found, threshold, down);
+
+				BoofTesting.assertEquals(expected, found, 0);
+			}
+		}
+	}
+}
@@ -23,6 +23,7 @@ import boofcv.abst.feature.associate.ScoreAssociation;
 import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.associate.ConfigAssociateGreedy;
 import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.struct.feature.TupleDesc_B;
 import boofcv.struct.feature.TupleDesc_F64;
 import org.ddogleg.struct.FastQueue;
 import org.openjdk.jmh.annotations.*;
@@ -61,6 +62,14 @@ public class BenchmarkAssociationSpeedRandom {
 	AssociateDescription<TupleDesc_F64> kdtree;
 	AssociateDescription<TupleDesc_F64> forest;
 
+	// Binary descriptors. Destination is a noisy version of the source so that there are good matches
+	FastQueue<TupleDesc_B> binaryA = createBinarySet(rand);
+	FastQueue<TupleDesc_B> binaryB = createNoisyBinarySet(rand,binaryA);
+	ScoreAssociation<TupleDesc_B> scoreHamming = FactoryAssociation.scoreHamming(TupleDesc_B.class);
+
+	AssociateDescription<TupleDesc_B> greedyHamming;
+	AssociateDescription<TupleDesc_B> multiIndexHamming;
+
 	@Setup
 	public void setup() {
 		BoofConcurrency.USE_CONCURRENT = concurrent;
@@ -69,6 +78,8 @@ public class BenchmarkAssociationSpeedRandom {
 		greedyBackwards = FactoryAssociation.greedy(new ConfigAssociateGreedy(true),score);
 		kdtree = FactoryAssociation.kdtree(null,DOF);
 		forest = FactoryAssociation.kdRandomForest(null,DOF,15,5,1233445565);
+		greedyHamming = FactoryAssociation.greedy(new ConfigAssociateGreedy(true),scoreHamming);
+		multiIndexHamming = FactoryAssociation.greedyHammingMultiIndex(new ConfigAssociateGreedy(true));
 
 //		kdtree.setSource(listA);
 	}
@@ -94,6 +105,20 @@ public class BenchmarkAssociationSpeedRandom {
 		forest.associate();
 	}
 
+	@Benchmark
+	public void greedyHamming() {
+		greedyHamming.setSource(binaryA);
+		greedyHamming.setDestination(binaryB);
+		greedyHamming.associate();
+	}
+
+	@Benchmark
+	public void multiIndexHamming() {
+		multiIndexHamming.setSource(binaryA);
+		multiIndexHamming.setDestination(binaryB);
+		multiIndexHamming.associate();
+	}
+
 //	@Benchmark
 //	public void kdtree_fixed_src() {
 ////		kdtree.setSource(listA);
@@ -113,4 +138,30 @@ public class BenchmarkAssociationSpeedRandom {
 		return ret;
 	}
 
+	private FastQueue<TupleDesc_B> createBinarySet( Random rand ) {
+		FastQueue<TupleDesc_B> ret = new FastQueue<>(() -> new TupleDesc_B(256));
+
+		for( int i = 0; i < NUM_FEATURES; i++ ) {
+			TupleDesc_B t = ret.grow();
+			for( int j = 0; j < t.data.length; j++ ) {
+				t.data[j] = rand.nextInt();
+			}
+		}
+		return ret;
+	}
+
+	private FastQueue<TupleDesc_B> createNoisyBinarySet( Random rand , FastQueue<TupleDesc_B> src ) {
+		FastQueue<TupleDesc_B> ret = new FastQueue<>(() -> new TupleDesc_B(256));
+
+		for( int i = 0; i < src.size; i++ ) {
+			TupleDesc_B t = ret.grow();
+			t.setTo(src.get(i));
+			// flip 10% of the bits
+			for( int j = 0; j < 25; j++ ) {
+				int bit = rand.nextInt(t.numBits);
+				t.data[bit/32] ^= 1 << (bit%32);
+			}
+		}
+		return ret;
+	}
 }
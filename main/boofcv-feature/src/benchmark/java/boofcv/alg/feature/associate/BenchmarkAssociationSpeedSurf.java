@@ -21,114 +21,123 @@ package boofcv.alg.feature.associate;
 import boofcv.abst.feature.associate.AssociateDescription;
 import boofcv.abst.feature.associate.ScoreAssociation;
 import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.associate.ConfigAssociateGreedy;
 import boofcv.factory.feature.associate.ConfigAssociateNearestNeighbor;
 import boofcv.factory.feature.associate.FactoryAssociation;
 import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
 import boofcv.io.UtilIO;
-import boofcv.io.image.ConvertBufferedImage;
-import boofcv.misc.Performer;
-import boofcv.misc.ProfileOperation;
+import boofcv.io.image.UtilImageIO;
 import boofcv.struct.feature.TupleDesc_F64;
 import boofcv.struct.image.GrayF32;
 import org.ddogleg.struct.FastArray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 
 /**
+ * Benchmarks association using SURF features detected in real images
+ *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkAssociationSpeedSurf {
 
 	static final String image1 = UtilIO.pathExample("apartment_building_01.jpg");
 	static final String image2 = UtilIO.pathExample("apartment_building_02.jpg");
 
-
-	static final long TEST_TIME = 1000;
+	@Param({"true","false"})
+	boolean concurrent;
 
 	FastArray<TupleDesc_F64> listA;
 	FastArray<TupleDesc_F64> listB;
 
-	DetectDescribePoint<GrayF32,TupleDesc_F64> detector;
+	AssociateDescription<TupleDesc_F64> greedy;
+	AssociateDescription<TupleDesc_F64> greedyBackwards;
+	AssociateDescription<TupleDesc_F64> kdtree;
+	AssociateDescription<TupleDesc_F64> forest;
 
-	public BenchmarkAssociationSpeedSurf() {
-		detector = (DetectDescribePoint)FactoryDetectDescribe.surfStable(null, null, null, GrayF32.class);
-		listA = createSet(image1);
-		listB = createSet(image2);
-		
-		System.out.println("Size A = "+listA.size()+"  B = "+listB.size());
-	}
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+
+		DetectDescribePoint<GrayF32,TupleDesc_F64> detector =
+				FactoryDetectDescribe.surfStable(null, null, null, GrayF32.class);
+		listA = createSet(detector, image1);
+		listB = createSet(detector, image2);
+
+		ScoreAssociation<TupleDesc_F64> score = FactoryAssociation.scoreEuclidean(TupleDesc_F64.class,true);
+		int DOF = detector.createDescription().size();
 
-	public Performer createProfile( String name, AssociateDescription<TupleDesc_F64> alg ) {
-		return new General(name,alg);
+		var configKD = new ConfigAssociateNearestNeighbor();
+		configKD.maxNodesSearched = 800;
+
+		greedy = FactoryAssociation.greedy(new ConfigAssociateGreedy(false),score);
+		greedyBackwards = FactoryAssociation.greedy(new ConfigAssociateGreedy(true),score);
+		kdtree = FactoryAssociation.kdtree(configKD,DOF);
+		forest = FactoryAssociation.kdRandomForest(configKD,DOF, 15, 5, 1233445565);
 	}
 
-	public class General implements Performer {
+	private static FastArray<TupleDesc_F64> createSet( DetectDescribePoint<GrayF32,TupleDesc_F64> detector,
+													   String imageName ) {
+		GrayF32 gray = UtilImageIO.loadImage(imageName, GrayF32.class);
+		if( gray == null )
+			throw new RuntimeException("Can't load "+imageName);
 
-		AssociateDescription<TupleDesc_F64> alg;
-		String name;
+		FastArray<TupleDesc_F64> ret = new FastArray<>(TupleDesc_F64.class);
 
-		public General(String name, AssociateDescription<TupleDesc_F64> alg) {
-			this.alg = alg;
-			this.name = name;
-		}
+		detector.detect(gray);
 
-		@Override
-		public void process() {
-			alg.setSource(listA);
-			alg.setDestination(listB);
-			alg.associate();
+		for( int i = 0; i < detector.getNumberOfFeatures(); i++ ) {
+			ret.add( detector.getDescription(i).copy() );
 		}
 
-		@Override
-		public String getName() {
-			return name;
-		}
+		return ret;
 	}
 
-	private FastArray<TupleDesc_F64> createSet( String imageName ) {
-
-		try {
-			BufferedImage image = ImageIO.read(new File(imageName));
-			GrayF32 gray = ConvertBufferedImage.convertFrom(image, (GrayF32) null);
-
-			FastArray<TupleDesc_F64> ret = new FastArray<>(TupleDesc_F64.class);
+	@Benchmark
+	public void greedy() {
+		greedy.setSource(listA);
+		greedy.setDestination(listB);
+		greedy.associate();
+	}
 
-			detector.detect(gray);
-			
-			for( int i = 0; i < detector.getNumberOfFeatures(); i++ ) {
-				ret.add( detector.getDescription(i).copy() );
-			}
-			
-			return ret;
-			
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		}
+	@Benchmark
+	public void greedyBackwards() {
+		greedyBackwards.setSource(listA);
+		greedyBackwards.setDestination(listB);
+		greedyBackwards.associate();
 	}
 
-	public static void main( String[] args ) {
-		BenchmarkAssociationSpeedSurf app = new BenchmarkAssociationSpeedSurf();
+	@Benchmark
+	public void kdtree() {
+		kdtree.setSource(listA);
+		kdtree.setDestination(listB);
+		kdtree.associate();
+	}
 
-		ScoreAssociation<TupleDesc_F64> score = FactoryAssociation.scoreEuclidean(TupleDesc_F64.class,true);
-		
-		int DOF = app.detector.createDescription().size();
+	@Benchmark
+	public void forest() {
+		forest.setSource(listA);
+		forest.setDestination(listB);
+		forest.associate();
+	}
 
-		var configKD = new ConfigAssociateNearestNeighbor();
-		configKD.maxNodesSearched = 800;
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkAssociationSpeedSurf.class.getSimpleName())
+				.build();
 
-		ProfileOperation.printOpsPerSec(app.createProfile("Greedy",
-				FactoryAssociation.greedy(new ConfigAssociateGreedy(false),score)),TEST_TIME);
-		ProfileOperation.printOpsPerSec(app.createProfile("Greedy Backwards",
-				FactoryAssociation.greedy(new ConfigAssociateGreedy(true),score)),TEST_TIME);
-		ProfileOperation.printOpsPerSec(app.createProfile("KD-Tree",
-				FactoryAssociation.kdtree(configKD,DOF)),TEST_TIME);
-		ProfileOperation.printOpsPerSec(app.createProfile("Random Forest",
-				FactoryAssociation.kdRandomForest(configKD,DOF, 15, 5, 1233445565)),TEST_TIME);
-		
+		new Runner(opt).run();
 	}
 }
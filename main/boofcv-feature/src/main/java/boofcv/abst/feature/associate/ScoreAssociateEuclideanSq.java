@@ -22,6 +22,7 @@ import boofcv.alg.descriptor.DescriptorDistance;
 import boofcv.struct.feature.MatchScoreType;
 import boofcv.struct.feature.TupleDesc_F32;
 import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.feature.TupleDesc_U8;
 
 /**
  * Scores based on Euclidean distance squared
@@ -41,4 +42,9 @@ public interface ScoreAssociateEuclideanSq<Desc> extends ScoreAssociation<Desc>
 		@Override public double score(TupleDesc_F64 a, TupleDesc_F64 b) { return DescriptorDistance.euclideanSq(a, b); }
 		@Override public MatchScoreType getScoreType()                  { return MatchScoreType.NORM_ERROR; }
 	}
+
+	class U8 implements ScoreAssociateEuclideanSq<TupleDesc_U8> {
+		@Override public double score(TupleDesc_U8 a, TupleDesc_U8 b)   { return DescriptorDistance.euclideanSq(a, b); }
+		@Override public MatchScoreType getScoreType()                  { return MatchScoreType.NORM_ERROR; }
+	}
 }
@@ -23,7 +23,7 @@ import boofcv.alg.feature.describe.DescribePointSift;
 import boofcv.alg.feature.detect.interest.SiftScaleSpace;
 import boofcv.alg.feature.detect.interest.UnrollSiftScaleSpaceGradient;
 import boofcv.core.image.GConvertImage;
-import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
@@ -31,12 +31,14 @@ import boofcv.struct.image.ImageType;
 /**
  * Allows you to use SIFT features independent of the SIFT detector.  A SIFT scale-space is computed with all octaves
  * and most of the scales saved.  When a few feature is requested it looks up the closest scale image and uses
- * that as the input image.
+ * that as the input image. The descriptor can be {@link boofcv.struct.feature.TupleDesc_F64},
+ * {@link boofcv.struct.feature.TupleDesc_F32}, or {@link boofcv.struct.feature.TupleDesc_U8}, and is computed
+ * directly in that format.
  *
  * @author Peter Abeles
  */
-public class DescribeRegionPoint_SIFT <T extends ImageGray<T>>
-	implements DescribeRegionPoint<T,TupleDesc_F64>
+public class DescribeRegionPoint_SIFT <T extends ImageGray<T>, Desc extends TupleDesc>
+	implements DescribeRegionPoint<T,Desc>
 {
 	// expected type of input image.  All image types are converted to floats since that's what
 	// the scale-space requires
@@ -51,11 +53,15 @@ public class DescribeRegionPoint_SIFT <T extends ImageGray<T>>
 	// used as temporary storage for the input image if it needs to be converted
 	GrayF32 imageFloat = new GrayF32(1,1);
 
+	// type of descriptor which is computed
+	Class<Desc> descType;
+
 	public DescribeRegionPoint_SIFT(SiftScaleSpace scaleSpace,
 									DescribePointSift<GrayF32> describe,
-									Class<T> imageType ) {
+									Class<T> imageType , Class<Desc> descType ) {
 		this.scaleSpace = new UnrollSiftScaleSpaceGradient(scaleSpace);
 		this.describe = describe;
+		this.descType = descType;
 
 		this.imageType = ImageType.single(imageType);
 	}
@@ -75,7 +81,7 @@ public class DescribeRegionPoint_SIFT <T extends ImageGray<T>>
 	}
 
 	@Override
-	public boolean process(double x, double y, double orientation, double radius, TupleDesc_F64 description) {
+	public boolean process(double x, double y, double orientation, double radius, Desc description) {
 
 		// get the blur sigma for the radius
 		double sigma = radius / BoofDefaults.SIFT_SCALE_TO_RADIUS;
@@ -112,12 +118,12 @@ public class DescribeRegionPoint_SIFT <T extends ImageGray<T>>
 	}
 
 	@Override
-	public TupleDesc_F64 createDescription() {
-		return new TupleDesc_F64(describe.getDescriptorLength());
+	public Desc createDescription() {
+		return describe.createDescription(descType);
 	}
 
 	@Override
-	public Class<TupleDesc_F64> getDescriptionType() {
-		return TupleDesc_F64.class;
+	public Class<Desc> getDescriptionType() {
+		return descType;
 	}
 }
@@ -20,16 +20,19 @@ package boofcv.abst.feature.describe;
 
 import boofcv.alg.feature.describe.DescribePointSurf;
 import boofcv.alg.transform.ii.GIntegralImageOps;
-import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 
 
 /**
+ * Wrapper around {@link DescribePointSurf} for {@link DescribeRegionPoint}. The descriptor can be
+ * {@link boofcv.struct.feature.TupleDesc_F64} or {@link boofcv.struct.feature.TupleDesc_F32}.
+ *
  * @author Peter Abeles
  */
-public class WrapDescribeSurf<T extends ImageGray<T>, II extends ImageGray<II>>
-		implements DescribeRegionPoint<T, TupleDesc_F64> {
+public class WrapDescribeSurf<T extends ImageGray<T>, II extends ImageGray<II>, Desc extends TupleDesc>
+		implements DescribeRegionPoint<T, Desc> {
 
 	// computes SURF feature descriptor
 	DescribePointSurf<II> surf;
@@ -39,16 +42,20 @@ public class WrapDescribeSurf<T extends ImageGray<T>, II extends ImageGray<II>>
 	ImageType<T> imageType;
 	final double canonicalRadius;
 
-	public WrapDescribeSurf(DescribePointSurf<II> surf , Class<T> imageType)
+	// type of descriptor which is computed
+	Class<Desc> descType;
+
+	public WrapDescribeSurf(DescribePointSurf<II> surf , Class<T> imageType, Class<Desc> descType)
 	{
 		this.surf = surf;
+		this.descType = descType;
 		this.imageType = ImageType.single(imageType);
 		this.canonicalRadius = surf.getCanonicalWidth()/2.0;
 	}
 
 	@Override
-	public TupleDesc_F64 createDescription() {
-		return new TupleDesc_F64(surf.getDescriptionLength());
+	public Desc createDescription() {
+		return surf.createDescription(descType);
 	}
 
 	@Override
@@ -63,7 +70,7 @@ public class WrapDescribeSurf<T extends ImageGray<T>, II extends ImageGray<II>>
 	}
 
 	@Override
-	public boolean process(double x, double y, double orientation , double radius, TupleDesc_F64 storage) {
+	public boolean process(double x, double y, double orientation , double radius, Desc storage) {
 		double scale = radius/canonicalRadius;
 		surf.describe(x,y, orientation, scale, true, storage);
 		return true;
@@ -90,7 +97,7 @@ public class WrapDescribeSurf<T extends ImageGray<T>, II extends ImageGray<II>>
 	}
 
 	@Override
-	public Class<TupleDesc_F64> getDescriptionType() {
-		return TupleDesc_F64.class;
+	public Class<Desc> getDescriptionType() {
+		return descType;
 	}
 }
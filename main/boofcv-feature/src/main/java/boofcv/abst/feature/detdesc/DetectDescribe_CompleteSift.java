@@ -20,7 +20,7 @@ package boofcv.abst.feature.detdesc;
 
 import boofcv.alg.feature.detdesc.CompleteSift;
 import boofcv.core.image.GConvertImage;
-import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
@@ -31,25 +31,25 @@ import georegression.struct.point.Point2D_F64;
  *
  * @author Peter Abeles
  */
-public class DetectDescribe_CompleteSift<I extends ImageGray<I>>
-		implements DetectDescribePoint<I, TupleDesc_F64> {
+public class DetectDescribe_CompleteSift<I extends ImageGray<I>, Desc extends TupleDesc<Desc>>
+		implements DetectDescribePoint<I, Desc> {
 
-	CompleteSift alg;
+	CompleteSift<Desc> alg;
 	GrayF32 imageFloat = new GrayF32(1,1);
 	ImageType<I> inputType;
 
-	public DetectDescribe_CompleteSift(CompleteSift alg, Class<I> inputType) {
+	public DetectDescribe_CompleteSift(CompleteSift<Desc> alg, Class<I> inputType) {
 		this.alg = alg;
 		this.inputType = ImageType.single(inputType);
 	}
 
 	@Override
-	public TupleDesc_F64 createDescription() {
-		return new TupleDesc_F64(alg.getDescriptorLength());
+	public Desc createDescription() {
+		return alg.createDescription();
 	}
 
 	@Override
-	public TupleDesc_F64 getDescription(int index) {
+	public Desc getDescription(int index) {
 		return alg.getDescriptions().data[index];
 	}
 
@@ -59,8 +59,8 @@ public class DetectDescribe_CompleteSift<I extends ImageGray<I>>
 	}
 
 	@Override
-	public Class<TupleDesc_F64> getDescriptionType() {
-		return TupleDesc_F64.class;
+	public Class<Desc> getDescriptionType() {
+		return alg.getDescriptionType();
 	}
 
 	@Override
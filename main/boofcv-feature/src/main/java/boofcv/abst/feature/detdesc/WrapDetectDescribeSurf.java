@@ -24,7 +24,7 @@ import boofcv.alg.feature.describe.DescribePointSurf;
 import boofcv.alg.feature.detect.interest.FastHessianFeatureDetector;
 import boofcv.alg.transform.ii.GIntegralImageOps;
 import boofcv.struct.feature.ScalePoint;
-import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 import georegression.struct.point.Point2D_F64;
@@ -34,7 +34,8 @@ import org.ddogleg.struct.GrowQueue_F64;
 import java.util.List;
 
 /**
- * Wrapper around SURF algorithms for {@link DetectDescribePoint}.
+ * Wrapper around SURF algorithms for {@link DetectDescribePoint}. The descriptor can be
+ * {@link boofcv.struct.feature.TupleDesc_F64} or {@link boofcv.struct.feature.TupleDesc_F32}.
  *
  * @link FastHessianFeatureDetector
  * @link OrientationIntegral
@@ -42,12 +43,13 @@ import java.util.List;
  *
  * @param <T> Input image type
  * @param <II> Integral image type
+ * @param <Desc> Descriptor type
  *
  * @author Peter Abeles
  */
 public class WrapDetectDescribeSurf
-		<T extends ImageGray<T>, II extends ImageGray<II>>
-	implements DetectDescribePoint<T, TupleDesc_F64>
+		<T extends ImageGray<T>, II extends ImageGray<II>, Desc extends TupleDesc>
+	implements DetectDescribePoint<T, Desc>
 {
 	// SURF algorithms
 	protected FastHessianFeatureDetector<II> detector;
@@ -58,7 +60,9 @@ public class WrapDetectDescribeSurf
 	protected II ii;
 
 	// storage for computed features
-	protected FastQueue<TupleDesc_F64> features;
+	protected FastQueue<Desc> features;
+	// type of descriptor which is computed
+	protected Class<Desc> descType;
 	// detected scale points
 	protected List<ScalePoint> foundPoints;
 	// orientation of features
@@ -69,23 +73,24 @@ public class WrapDetectDescribeSurf
 	public WrapDetectDescribeSurf(FastHessianFeatureDetector<II> detector,
 								  OrientationIntegral<II> orientation,
 								  DescribePointSurf<II> describe,
-								  Class<T> imageType )
+								  Class<T> imageType, Class<Desc> descType )
 	{
 		this.detector = detector;
 		this.orientation = orientation;
 		this.describe = describe;
 		this.imageType = ImageType.single(imageType);
+		this.descType = descType;
 
-		features = new FastQueue<>(describe::createDescription);
+		features = new FastQueue<>(this::createDescription);
 	}
 
 	@Override
-	public TupleDesc_F64 createDescription() {
-		return describe.createDescription();
+	public Desc createDescription() {
+		return describe.createDescription(descType);
 	}
 
 	@Override
-	public TupleDesc_F64 getDescription(int index) {
+	public Desc getDescription(int index) {
 		return features.get(index);
 	}
 
@@ -95,8 +100,8 @@ public class WrapDetectDescribeSurf
 	}
 
 	@Override
-	public Class<TupleDesc_F64> getDescriptionType() {
-		return TupleDesc_F64.class;
+	public Class<Desc> getDescriptionType() {
+		return descType;
 	}
 
 	@Override
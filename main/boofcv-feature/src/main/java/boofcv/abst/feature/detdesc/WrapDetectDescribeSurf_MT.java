@@ -24,6 +24,7 @@ import boofcv.alg.feature.describe.DescribePointSurf;
 import boofcv.alg.feature.detect.interest.FastHessianFeatureDetector;
 import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.image.ImageGray;
 
 /**
@@ -31,14 +32,14 @@ import boofcv.struct.image.ImageGray;
  *
  * @author Peter Abeles
  */
-public class WrapDetectDescribeSurf_MT<T extends ImageGray<T>, II extends ImageGray<II>>
-		extends WrapDetectDescribeSurf<T,II> {
+public class WrapDetectDescribeSurf_MT<T extends ImageGray<T>, II extends ImageGray<II>, Desc extends TupleDesc>
+		extends WrapDetectDescribeSurf<T,II,Desc> {
 
 	public WrapDetectDescribeSurf_MT(FastHessianFeatureDetector<II> detector,
 									 OrientationIntegral<II> orientation,
 									 DescribePointSurf<II> describe,
-									 Class<T> inputType ) {
-		super(detector, orientation, describe, inputType );
+									 Class<T> inputType, Class<Desc> descType ) {
+		super(detector, orientation, describe, inputType, descType );
 	}
 
 	@Override
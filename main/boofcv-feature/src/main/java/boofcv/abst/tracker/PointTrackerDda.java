@@ -19,6 +19,8 @@
 package boofcv.abst.tracker;
 
 import boofcv.alg.tracker.dda.DetectDescribeAssociateTracker;
+import boofcv.misc.ProfilesRuntime;
+import boofcv.misc.RuntimeProfiler;
 import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.image.ImageGray;
 
@@ -32,7 +34,7 @@ import java.util.List;
  * @author Peter Abeles
  */
 public class PointTrackerDda<I extends ImageGray<I>, TD extends TupleDesc>
-	implements PointTracker<I>
+	implements PointTracker<I>, ProfilesRuntime
 {
 	DetectDescribeAssociateTracker<I,TD> tracker;
 
@@ -50,6 +52,8 @@ public class PointTrackerDda<I extends ImageGray<I>, TD extends TupleDesc>
 	@Override public boolean dropTrack(PointTrack track) {return tracker.dropTrack(track);}
 	@Override public void dropTracks(Dropper dropper) {tracker.dropTracks(dropper);}
 	@Override public void spawnTracks() { tracker.spawnTracks(); }
+	@Override public RuntimeProfiler getProfiler() { return tracker.getProfiler(); }
+	@Override public void setProfiler( RuntimeProfiler profiler ) { tracker.setProfiler(profiler); }
 
 	@Override
 	public List<PointTrack> getActiveTracks( @Nullable List<PointTrack> list ) {
@@ -24,6 +24,8 @@ import boofcv.alg.interpolate.InterpolateRectangle;
 import boofcv.alg.tracker.PruneCloseTracks;
 import boofcv.alg.tracker.klt.*;
 import boofcv.alg.transform.pyramid.PyramidOps;
+import boofcv.misc.ProfilesRuntime;
+import boofcv.misc.RuntimeProfiler;
 import boofcv.struct.QueueCorner;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
@@ -44,7 +46,7 @@ import java.util.List;
  * @author Peter Abeles
  */
 public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D>>
-		implements PointTracker<I>
+		implements PointTracker<I>, ProfilesRuntime
 {
 	// If this is a positive number it specifies the maximum number of allowed tracks
 	public @Getter @Setter int maximumAllowedTracks = -1;
@@ -95,6 +97,9 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 	PruneCloseTracks<PyramidKltFeature> pruneClose;
 	List<PyramidKltFeature> closeDropped = new ArrayList<>();
 
+	// Records how long each stage takes
+	protected @Getter @Setter RuntimeProfiler profiler = new RuntimeProfiler();
+
 	/**
 	 * Constructor which specified the KLT track manager and how the image pyramids are computed.
 	 *  @param config KLT tracker configuration
@@ -241,11 +246,14 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 			detector.setFeatureLimit(maximumAllowedTracks - excludeList.size);
 		} else
 			detector.setFeatureLimit(-1);
+		profiler.begin("klt.spawn");
 		detector.process(currPyr.basePyramid.getLayer(0), currPyr.derivX[0], currPyr.derivY[0], null, null, null);
 
 		// Create new tracks from the detected features
 		addToTracks(scaleBottom, detector.getMinimums());
 		addToTracks(scaleBottom, detector.getMaximums());
+		profiler.end("klt.spawn");
+		profiler.count("klt.spawned", spawned.size());
 	}
 
 	private void addToTracks(float scaleBottom, QueueCorner found) {
@@ -314,46 +322,34 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 		dropped.clear();
 
 		// update image pyramids
+		profiler.begin("klt.pyramid");
 		currPyr.update(image);
+		profiler.end("klt.pyramid");
 
 		// track features
-		tracker.setImage(currPyr.basePyramid,currPyr.derivX,currPyr.derivY);
-		for (int i = active.size()-1; i >= 0; i--) {
-			PyramidKltFeature t = active.get(i);
-			KltTrackFault ret = tracker.track(t);
-
-			boolean success = false;
-
-			if( ret == KltTrackFault.SUCCESS ) {
-				// discard a track if its center drifts outside the image.
-				if( image.isInBounds((int)t.x,(int)t.y) && tracker.setDescription(t) ) {
-					PointTrack p = t.getCookie();
-					p.pixel.set(t.x,t.y);
-					p.lastSeenFrameID = frameID;
-					success = true;
-				}
-			}
-
-			if( !success ) {
-				active.remove( i );
-				dropped.add( t );
-				unused.add( t );
-			}
-		}
+		profiler.begin("klt.track");
+		trackActive();
+		profiler.end("klt.track");
 
 		if( toleranceFB >= 0 ) {
 			// If there are no tracks it must have been reset or this is the first frame
+			profiler.begin("klt.validate");
 			if( activeTracks ) {
 				backwardsTrackValidate();
 			} else {
 				this.prevPyr.update(image);
 			}
+			profiler.end("klt.validate");
 		}
 
 		// If configured to, drop features which are close by each other
 		if( pruneClose != null ) {
+			profiler.begin("klt.prune");
 			pruneCloseTracks();
+			profiler.end("klt.prune");
 		}
+		profiler.count("klt.active", active.size());
+		profiler.count("klt.dropped", dropped.size());
 	}
 
 	/**
@@ -366,6 +362,40 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 		dropped.addAll(closeDropped);
 	}
 
+	/**
+	 * Tracks all the active features into the current image and drops the ones which failed
+	 */
+	protected void trackActive() {
+		tracker.setImage(currPyr.basePyramid,currPyr.derivX,currPyr.derivY);
+		for (int i = active.size()-1; i >= 0; i--) {
+			if( !trackForwards(tracker, active.get(i)) ) {
+				dropActive(i);
+			}
+		}
+	}
+
+	/**
+	 * Tracks a single feature into the current image and updates its description. Only modifies the feature
+	 * and the tracker, so different features can be processed at the same time with different trackers.
+	 *
+	 * @return true if the track was successful and should be kept
+	 */
+	protected boolean trackForwards( PyramidKltTracker<I,D> tracker , PyramidKltFeature t ) {
+		KltTrackFault ret = tracker.track(t);
+
+		if( ret != KltTrackFault.SUCCESS )
+			return false;
+
+		// discard a track if its center drifts outside the image.
+		if( !input.isInBounds((int)t.x,(int)t.y) || !tracker.setDescription(t) )
+			return false;
+
+		PointTrack p = t.getCookie();
+		p.pixel.set(t.x,t.y);
+		p.lastSeenFrameID = frameID;
+		return true;
+	}
+
 	/**
 	 * Track back to the previous frame and see if the original coordinate is found again. This assumes that all
 	 * tracks in active list existed in the previous frame and were not spawned.
@@ -375,25 +405,44 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 
 		tracker.setImage(prevPyr.basePyramid,prevPyr.derivX,prevPyr.derivY);
 		for (int i = active.size()-1; i >= 0; i--) {
-			PyramidKltFeature t = active.get(i);
-			PointTrackMod p = t.getCookie();
-
-			KltTrackFault ret = tracker.track(t);
-
-			if( ret != KltTrackFault.SUCCESS || p.prev.distance2(t.x,t.y) > tol2 ) {
-				active.remove(i);
-				dropped.add( t );
-				unused.add( t );
-			} else {
-				// the new previous will be the current location
-				p.prev.set(p.pixel);
-				// Revert the update by KLT
-				t.x = (float)p.pixel.x;
-				t.y = (float)p.pixel.y;
+			if( !trackBackwards(tracker, active.get(i), tol2) ) {
+				dropActive(i);
 			}
 		}
 	}
 
+	/**
+	 * Tracks a single feature back into the previous image. If it lands within tolerance of where it started
+	 * the KLT update is reverted and the previous location is updated.
+	 *
+	 * @param tol2 Square of the forwards-backwards tolerance
+	 * @return true if the track passed validation and should be kept
+	 */
+	protected boolean trackBackwards( PyramidKltTracker<I,D> tracker , PyramidKltFeature t , double tol2 ) {
+		PointTrackMod p = t.getCookie();
+
+		KltTrackFault ret = tracker.track(t);
+
+		if( ret != KltTrackFault.SUCCESS || p.prev.distance2(t.x,t.y) > tol2 )
+			return false;
+
+		// the new previous will be the current location
+		p.prev.set(p.pixel);
+		// Revert the update by KLT
+		t.x = (float)p.pixel.x;
+		t.y = (float)p.pixel.y;
+		return true;
+	}
+
+	/**
+	 * Removes the active track at the specified index and marks it as dropped
+	 */
+	protected void dropActive( int index ) {
+		PyramidKltFeature t = active.remove(index);
+		dropped.add( t );
+		unused.add( t );
+	}
+
 	@Override
 	public boolean dropTrack(PointTrack track) {
 		if( active.remove((PyramidKltFeature)track.getDescription()) ) {
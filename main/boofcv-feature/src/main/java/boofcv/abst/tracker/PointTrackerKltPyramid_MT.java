@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.tracker;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
+import boofcv.alg.interpolate.InterpolateRectangle;
+import boofcv.alg.tracker.klt.ConfigKlt;
+import boofcv.alg.tracker.klt.KltTracker;
+import boofcv.alg.tracker.klt.PyramidKltFeature;
+import boofcv.alg.tracker.klt.PyramidKltTracker;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import org.ddogleg.struct.Factory;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+
+/**
+ * Concurrent version of {@link PointTrackerKltPyramid}. Active tracks are split into blocks which are tracked
+ * in parallel, with each thread having its own {@link PyramidKltTracker}. The success of each track is recorded
+ * by index and tracks are dropped afterwards in the same order as the single threaded version, so the
+ * active, dropped, and unused lists are identical.
+ *
+ * @author Peter Abeles
+ */
+public class PointTrackerKltPyramid_MT<I extends ImageGray<I>,D extends ImageGray<D>>
+		extends PointTrackerKltPyramid<I,D>
+{
+	// KLT trackers for each thread. They are not thread safe since they contain interpolation and work space
+	FastQueue<PyramidKltTracker<I,D>> trackers;
+
+	// true if the track at the same index in the active list should be kept
+	GrowQueue_B keep = new GrowQueue_B();
+
+	/**
+	 * Same as {@link PointTrackerKltPyramid} but interpolation is specified with factories since each thread
+	 * needs its own instance.
+	 *
+	 * @param factoryInterpInput Creates interpolation for the input image
+	 * @param factoryInterpDeriv Creates interpolation for gradient images
+	 */
+	public PointTrackerKltPyramid_MT(ConfigKlt config,
+									 double toleranceFB,
+									 int templateRadius,
+									 boolean performPruneClose, PyramidDiscrete<I> pyramid,
+									 GeneralFeatureDetector<I, D> detector,
+									 ImageGradient<I, D> gradient,
+									 Factory<InterpolateRectangle<I>> factoryInterpInput,
+									 Factory<InterpolateRectangle<D>> factoryInterpDeriv,
+									 Class<D> derivType) {
+		super(config, toleranceFB, templateRadius, performPruneClose, pyramid, detector, gradient,
+				factoryInterpInput.newInstance(), factoryInterpDeriv.newInstance(), derivType);
+
+		trackers = new FastQueue<>(()->new PyramidKltTracker<>(new KltTracker<>(
+				factoryInterpInput.newInstance(), factoryInterpDeriv.newInstance(), this.config)));
+	}
+
+	@Override
+	protected void trackActive() {
+		keep.resize(active.size());
+		BoofConcurrency.loopBlocks(0,active.size(),trackers,(tracker,idx0,idx1)->{
+			tracker.setImage(currPyr.basePyramid,currPyr.derivX,currPyr.derivY);
+			for (int i = idx0; i < idx1; i++) {
+				keep.data[i] = trackForwards(tracker, active.get(i));
+			}
+		});
+		dropRejected();
+	}
+
+	@Override
+	protected void backwardsTrackValidate() {
+		final double tol2 = toleranceFB * toleranceFB;
+
+		keep.resize(active.size());
+		BoofConcurrency.loopBlocks(0,active.size(),trackers,(tracker,idx0,idx1)->{
+			tracker.setImage(prevPyr.basePyramid,prevPyr.derivX,prevPyr.derivY);
+			for (int i = idx0; i < idx1; i++) {
+				keep.data[i] = trackBackwards(tracker, active.get(i), tol2);
+			}
+		});
+		dropRejected();
+	}
+
+	/**
+	 * Drops tracks which were not kept. Iterates in the same order as the single threaded code
+	 */
+	private void dropRejected() {
+		for (int i = active.size()-1; i >= 0; i--) {
+			if( !keep.data[i] ) {
+				dropActive(i);
+			}
+		}
+	}
+}
@@ -19,6 +19,7 @@
 package boofcv.alg.descriptor;
 
 import boofcv.struct.feature.NccFeature;
+import boofcv.struct.feature.TupleDesc_F32;
 import boofcv.struct.feature.TupleDesc_F64;
 import boofcv.struct.feature.TupleDesc_S8;
 import boofcv.struct.feature.TupleDesc_U8;
@@ -52,6 +53,52 @@ public class ConvertDescriptors {
 		}
 	}
 
+	/**
+	 * Converts a floating point description with all positive values into the 8-bit integer descriptor by
+	 * multiplying each element by a fixed scale factor. Values are rounded and saturate at 255. Unlike
+	 * {@link #positive(TupleDesc_F64, TupleDesc_U8)} every descriptor is scaled the same, so the distance
+	 * between two converted descriptors is proportional to the distance between the originals.
+	 *
+	 * @param input Description with elements that are all positive
+	 * @param scale Scale factor applied to each element
+	 * @param output Unsigned 8-bit output
+	 */
+	public static void positive( TupleDesc_F64 input , double scale , TupleDesc_U8 output ) {
+		for( int i = 0; i < input.size(); i++ ) {
+			int v = (int)(scale*input.value[i] + 0.5);
+			output.value[i] = (byte)(v > 255 ? 255 : Math.max(v, 0));
+		}
+	}
+
+	/**
+	 * Converts a 32-bit floating point description with all positive values into the 8-bit integer descriptor by
+	 * multiplying each element by a fixed scale factor.
+	 *
+	 * @see #positive(TupleDesc_F64, double, TupleDesc_U8)
+	 *
+	 * @param input Description with elements that are all positive
+	 * @param scale Scale factor applied to each element
+	 * @param output Unsigned 8-bit output
+	 */
+	public static void positive( TupleDesc_F32 input , float scale , TupleDesc_U8 output ) {
+		for( int i = 0; i < input.size(); i++ ) {
+			int v = (int)(scale*input.value[i] + 0.5f);
+			output.value[i] = (byte)(v > 255 ? 255 : Math.max(v, 0));
+		}
+	}
+
+	/**
+	 * Converts a 64-bit floating point description into a 32-bit floating point description
+	 *
+	 * @param input Description
+	 * @param output 32-bit output
+	 */
+	public static void float32( TupleDesc_F64 input , TupleDesc_F32 output ) {
+		for( int i = 0; i < input.size(); i++ ) {
+			output.value[i] = (float)input.value[i];
+		}
+	}
+
 	/**
 	 * Converts a floating point description with real values into the 8-bit integer descriptor by
 	 * dividing each element in the input by the element maximum absolute value and multiplying by 127.
@@ -81,6 +81,24 @@ public class DescriptorDistance {
 		return total;
 	}
 
+	/**
+	 * Returns the Euclidean distance squared between the two descriptors.
+	 *
+	 * @param a First descriptor
+	 * @param b Second descriptor
+	 * @return Euclidean distance squared
+	 */
+	public static int euclideanSq(TupleDesc_U8 a, TupleDesc_U8 b) {
+		final int N = a.value.length;
+		int total = 0;
+		for( int i = 0; i < N; i++ ) {
+			int d = (a.value[i] & 0xFF)-(b.value[i] & 0xFF);
+			total += d*d;
+		}
+
+		return total;
+	}
+
 	/**
 	 * Correlation score
 	 *
@@ -23,6 +23,7 @@ import boofcv.abst.feature.associate.AssociateDescriptionSets2D;
 import boofcv.abst.feature.describe.DescriptorInfo;
 import boofcv.abst.feature.detdesc.DetectDescribePoint;
 import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.feature.TupleDesc_F32;
 import boofcv.struct.feature.TupleDesc_F64;
 import georegression.struct.point.Point2D_F64;
 import org.ddogleg.struct.FastAccess;
@@ -110,6 +111,28 @@ public class UtilFeature {
 		}
 	}
 
+	/**
+	 * Normalizes the 32-bit tuple such that its L2 norm is one.
+	 *
+	 * @see #normalizeL2(TupleDesc_F64)
+	 *
+	 * @param desc tuple
+	 */
+	public static void normalizeL2( TupleDesc_F32 desc ) {
+		float norm = 0;
+		for (int i = 0; i < desc.size(); i++) {
+			float v = desc.value[i];
+			norm += v*v;
+		}
+		if( norm == 0 )
+			return;
+
+		norm = (float)Math.sqrt(norm);
+		for (int i = 0; i < desc.size(); i++) {
+			desc.value[i] /= norm;
+		}
+	}
+
 	/**
 	 * <p>
 	 * Normalized the tuple such that it's sum is equal to 1.
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociation;
+import lombok.Getter;
+import org.ddogleg.struct.FastAccess;
+import org.ddogleg.struct.GrowQueue_F64;
+
+/**
+ * <p>
+ * Variant of {@link AssociateGreedyDesc} which doesn't save the src x dst score matrix. Instead only the best and
+ * second best score for each src feature and the two best scores for each dst feature are saved. That's all the
+ * information needed by the ratio test and backwards validation, so memory scales with O(src + dst) instead
+ * of O(src*dst). Results are identical to {@link AssociateGreedyDesc}.
+ * </p>
+ *
+ * <p>
+ * With backwards validation, a match is rejected if any other src feature has a score which is less than or
+ * equal to the match's score with the same dst feature. This is the case if the best score for the dst feature
+ * is less than the match's score or if the second best score is less than or equal to it.
+ * </p>
+ *
+ * @param <D> Feature description type.
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"Duplicates"})
+public class AssociateGreedyDescSparse<D> extends AssociateGreedyDescBase<D> {
+
+	/** The lowest score for each dst feature across all src features */
+	@Getter GrowQueue_F64 dstBest = new GrowQueue_F64();
+	/** The second lowest score for each dst feature. If there's a tie this will be the same as the best score */
+	@Getter GrowQueue_F64 dstSecond = new GrowQueue_F64();
+
+	/**
+	 * Configure association
+	 *
+	 * @param score Computes the association score.
+	 */
+	public AssociateGreedyDescSparse(ScoreAssociation<D> score) {
+		super(score);
+	}
+
+	/**
+	 * Associates the two sets objects against each other by minimizing fit score.
+	 *
+	 * @param src Source list.
+	 * @param dst Destination list.
+	 */
+	@Override
+	public void associate(final FastAccess<D> src , final FastAccess<D> dst )
+	{
+		setupForAssociate(src.size,dst.size);
+
+		for( int i = 0; i < src.size; i++ ) {
+			associateSrc(i,src.data[i],dst,dstBest.data,dstSecond.data);
+		}
+
+		if( backwardsValidation ) {
+			for( int i = 0; i < src.size; i++ ) {
+				forwardsBackwardsSparse(i);
+			}
+		}
+	}
+
+	/**
+	 * Doesn't declare the score matrix. Only memory which scales linearly with the number of features
+	 */
+	@Override
+	protected void setupForAssociate( int sizeSrc , int sizeDst ) {
+		fitQuality.reset();
+		pairs.reset();
+
+		pairs.resize(sizeSrc);
+		fitQuality.resize(sizeSrc);
+
+		dstBest.resize(sizeDst);
+		dstSecond.resize(sizeDst);
+		dstBest.fill(Double.MAX_VALUE);
+		dstSecond.fill(Double.MAX_VALUE);
+	}
+
+	/**
+	 * Finds the best match for a single src feature and updates the two best scores for each dst feature
+	 *
+	 * @param indexSrc Index of the src feature
+	 * @param a The src feature
+	 * @param dst List of dst features
+	 * @param dstBest (Output) Lowest score for each dst feature
+	 * @param dstSecond (Output) Second lowest score for each dst feature
+	 */
+	protected final void associateSrc( final int indexSrc , final D a , final FastAccess<D> dst ,
+									   final double[] dstBest , final double[] dstSecond ) {
+		double bestScore = maxFitError;
+		double secondBest = bestScore;
+		int bestIndex = -1;
+
+		for( int j = 0; j < dst.size; j++ ) {
+			double fit = score.score(a,dst.data[j]);
+
+			if( fit <= bestScore ) {
+				bestIndex = j;
+				secondBest = bestScore;
+				bestScore = fit;
+			} else if( fit < secondBest ) {
+				secondBest = fit;
+			}
+
+			// keep track of the two best scores for each dst, including ties
+			if( fit < dstBest[j] ) {
+				dstSecond[j] = dstBest[j];
+				dstBest[j] = fit;
+			} else if( fit < dstSecond[j] ) {
+				dstSecond[j] = fit;
+			}
+		}
+
+		if( ratioTest < 1.0 && bestIndex != -1 && bestScore != 0.0 ) {
+			pairs.data[indexSrc] = secondBest*ratioTest >= bestScore ? bestIndex : -1;
+		} else {
+			pairs.data[indexSrc] = bestIndex;
+		}
+
+		fitQuality.data[indexSrc] = bestScore;
+	}
+
+	/**
+	 * Uses the two best scores for each dst feature to validate the assignment of src feature `indexSrc`
+	 *
+	 * @param indexSrc Index of source feature being validated
+	 */
+	public final void forwardsBackwardsSparse( final int indexSrc ) {
+		// Look up the index that this src feature was matched with
+		final int indexDst = pairs.data[indexSrc];
+		if( indexDst == -1 )
+			return;
+
+		double scoreToBeat = fitQuality.data[indexSrc];
+
+		// See if another src feature has a score that's at least as good
+		if( dstBest.data[indexDst] < scoreToBeat || dstSecond.data[indexDst] <= scoreToBeat ) {
+			pairs.data[indexSrc] = -1;
+			fitQuality.data[indexSrc] = Double.MAX_VALUE;
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import org.ddogleg.struct.FastAccess;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Arrays;
+
+/**
+ * Concurrent version of {@link AssociateGreedyDescSparse}. Each thread keeps track of the two best scores
+ * for each dst feature using its own work space. These are then merged once all src features have been processed.
+ *
+ * @param <D> Feature description type.
+ *
+ * @author Peter Abeles
+ */
+public class AssociateGreedyDescSparse_MT<D> extends AssociateGreedyDescSparse<D> {
+
+	// Two best scores for each dst feature in each thread
+	FastQueue<DstScores> workspace = new FastQueue<>(DstScores.class,DstScores::new);
+
+	/**
+	 * Configure association
+	 *
+	 * @param score Computes the association score.
+	 */
+	public AssociateGreedyDescSparse_MT(ScoreAssociation<D> score) {
+		super(score);
+	}
+
+	@Override
+	public void associate(final FastAccess<D> src , final FastAccess<D> dst )
+	{
+		setupForAssociate(src.size,dst.size);
+
+		workspace.reset();
+		BoofConcurrency.loopBlocks(0, src.size, workspace, new IntRangeObjectConsumer<DstScores>() {
+			@Override
+			public void accept( DstScores scores, int minInclusive, int maxExclusive ) {
+				scores.reset(dst.size);
+				for (int i = minInclusive; i < maxExclusive; i++) {
+					associateSrc(i,src.data[i],dst,scores.best,scores.second);
+				}
+			}
+		});
+
+		// Combine the results from each thread
+		for (int i = 0; i < workspace.size; i++) {
+			DstScores scores = workspace.get(i);
+			for (int j = 0; j < dst.size; j++) {
+				mergeScore(j,scores.best[j]);
+				mergeScore(j,scores.second[j]);
+			}
+		}
+
+		if( backwardsValidation ) {
+			BoofConcurrency.loopFor(0, src.size, this::forwardsBackwardsSparse);
+		}
+	}
+
+	/**
+	 * Adds the score to the two best scores for the dst feature
+	 */
+	private void mergeScore( int indexDst , double fit ) {
+		if( fit < dstBest.data[indexDst] ) {
+			dstSecond.data[indexDst] = dstBest.data[indexDst];
+			dstBest.data[indexDst] = fit;
+		} else if( fit < dstSecond.data[indexDst] ) {
+			dstSecond.data[indexDst] = fit;
+		}
+	}
+
+	/**
+	 * Two best scores for each dst feature
+	 */
+	static class DstScores {
+		double[] best = new double[0];
+		double[] second = new double[0];
+
+		void reset( int sizeDst ) {
+			if( best.length < sizeDst ) {
+				best = new double[sizeDst];
+				second = new double[sizeDst];
+			}
+			Arrays.fill(best,0,sizeDst,Double.MAX_VALUE);
+			Arrays.fill(second,0,sizeDst,Double.MAX_VALUE);
+		}
+	}
+}
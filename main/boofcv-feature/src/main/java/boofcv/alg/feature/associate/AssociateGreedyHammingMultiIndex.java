@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.struct.feature.TupleDesc_B;
+import lombok.Getter;
+import org.ddogleg.struct.FastAccess;
+
+/**
+ * <p>
+ * Greedy association of binary descriptors using {@link HammingMultiIndexHashing} to find the best match instead of
+ * brute force. Association is exact, produces the same results as {@link AssociateGreedyDesc} with
+ * {@link ScoreAssociateHamming_B}, and supports the same ratio test and backwards validation. How much faster
+ * it is depends on how close the matches are. Descriptors with a small Hamming distance will be found quickly
+ * while the search will degrade towards brute force as the distance increases. Setting
+ * {@link #setMaxFitError a maximum error} limits how far it will search.
+ * </p>
+ *
+ * <p>Memory scales with the number of features and no src x dst score matrix is declared.</p>
+ *
+ * @author Peter Abeles
+ */
+public class AssociateGreedyHammingMultiIndex extends AssociateGreedyDescBase<TupleDesc_B> {
+
+	/** Look up tables for the dst features */
+	@Getter HammingMultiIndexHashing indexDst = new HammingMultiIndexHashing();
+	/** Look up tables for the src features. Only used with backwards validation */
+	@Getter HammingMultiIndexHashing indexSrc = new HammingMultiIndexHashing();
+
+	public AssociateGreedyHammingMultiIndex() {
+		super(new ScoreAssociateHamming_B());
+	}
+
+	@Override
+	public void associate( final FastAccess<TupleDesc_B> src, final FastAccess<TupleDesc_B> dst ) {
+		setupForAssociate(src.size,dst.size);
+
+		// Distances are integers so anything which has a fractional part can be rounded down
+		final int maxDistance = maxFitError >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int)maxFitError;
+		final boolean needSecond = ratioTest < 1.0;
+
+		indexDst.setDescriptions(dst);
+		for (int i = 0; i < src.size; i++) {
+			indexDst.searchBest(src.data[i],maxDistance,needSecond);
+
+			final int bestIndex = indexDst.getBestIndex();
+			double bestScore = bestIndex == -1 ? maxFitError : indexDst.getBestDistance();
+			double secondBest = indexDst.getSecondDistance() == Integer.MAX_VALUE ?
+					maxFitError : indexDst.getSecondDistance();
+
+			if( ratioTest < 1.0 && bestIndex != -1 && bestScore != 0.0 ) {
+				pairs.data[i] = secondBest*ratioTest >= bestScore ? bestIndex : -1;
+			} else {
+				pairs.data[i] = bestIndex;
+			}
+
+			fitQuality.data[i] = bestScore;
+		}
+
+		if( backwardsValidation ) {
+			indexSrc.setDescriptions(src);
+			for (int i = 0; i < src.size; i++) {
+				final int indexDst = pairs.data[i];
+				if( indexDst == -1 )
+					continue;
+
+				// If there are two src features with a score at least this good then the match isn't unique
+				int scoreToBeat = (int)fitQuality.data[i];
+				indexSrc.searchBest(dst.data[indexDst],scoreToBeat,true);
+				if( indexSrc.getSecondDistance() <= scoreToBeat ) {
+					pairs.data[i] = -1;
+					fitQuality.data[i] = Double.MAX_VALUE;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Doesn't declare the score matrix. Only memory which scales linearly with the number of features
+	 */
+	@Override
+	protected void setupForAssociate( int sizeSrc , int sizeDst ) {
+		fitQuality.reset();
+		pairs.reset();
+
+		pairs.resize(sizeSrc);
+		fitQuality.resize(sizeSrc);
+	}
+}
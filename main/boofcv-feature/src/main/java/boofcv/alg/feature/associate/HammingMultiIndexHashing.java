@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.alg.descriptor.DescriptorDistance;
+import boofcv.struct.feature.TupleDesc_B;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.struct.FastAccess;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Multi-index hashing [1] for finding the closest binary descriptors by Hamming distance. Each descriptor is split
+ * into 16-bit substrings and each substring is used as a key into its own look up table. The tables are
+ * stored as arrays which are directly indexed by the substring's value. If two descriptors have a Hamming distance
+ * less than m*(s+1), where m is the number of substrings, then at least one of their substrings will have
+ * a distance of s or less. Candidates are found by searching all the tables with substrings that are within
+ * an increasing radius s of the query's substrings, then the exact distance is computed for each candidate. Once
+ * the best solution is guaranteed to have been found the search stops.
+ * </p>
+ *
+ * <p>
+ * The number of keys which need to be searched grows quickly with the radius. If the radius exceeds
+ * {@link #maxSubstringRadius} then the remaining descriptors are checked using brute force. Results are always
+ * exact.
+ * </p>
+ *
+ * <p>
+ * [1] Norouzi, Mohammad, Ali Punjani, and David J. Fleet. "Fast search in hamming space with multi-index hashing."
+ * 2012 IEEE Conference on Computer Vision and Pattern Recognition. IEEE, 2012.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HammingMultiIndexHashing {
+	// Number of bits in a substring
+	static final int SUBSTRING_BITS = 16;
+	static final int NUM_KEYS = 1 << SUBSTRING_BITS;
+
+	/** The largest radius a substring will be searched at before it switches to brute force */
+	@Getter @Setter int maxSubstringRadius = 2;
+
+	// Descriptors which are being searched
+	FastAccess<TupleDesc_B> list;
+
+	// Number of substrings in a descriptor
+	int numSubstrings;
+
+	// For each substring, the index of the first element in 'entries' with a key. keyStart[t][key]
+	// The last element is the total number of entries.
+	int[][] keyStart = new int[0][];
+	// For each substring, the index of descriptors sorted by key
+	int[][] entries = new int[0][];
+
+	// Used to mark which descriptors have already been checked for the current query
+	int[] marks = new int[0];
+	int queryID;
+
+	/** Index of the best descriptor or -1 if none was found */
+	@Getter int bestIndex;
+	/** Distance of the best descriptor */
+	@Getter int bestDistance;
+	/** Distance of the second best descriptor. Integer.MAX_VALUE if none was found */
+	@Getter int secondDistance;
+
+	/**
+	 * Creates the look up tables for the list of descriptors. A reference to the list is saved.
+	 *
+	 * @param list List of descriptors. All must have the same number of bits.
+	 */
+	public void setDescriptions( FastAccess<TupleDesc_B> list ) {
+		this.list = list;
+		final int N = list.size;
+
+		numSubstrings = N == 0 ? 0 : list.get(0).data.length*2;
+		if( keyStart.length != numSubstrings ) {
+			keyStart = new int[numSubstrings][];
+			entries = new int[numSubstrings][];
+		}
+		for (int t = 0; t < numSubstrings; t++) {
+			if( keyStart[t] == null )
+				keyStart[t] = new int[NUM_KEYS+1];
+			if( entries[t] == null || entries[t].length < N )
+				entries[t] = new int[N];
+		}
+		if( marks.length < N )
+			marks = new int[N];
+		Arrays.fill(marks,0,N,0);
+		queryID = 0;
+
+		for (int t = 0; t < numSubstrings; t++) {
+			final int[] start = keyStart[t];
+			final int[] entries = this.entries[t];
+			Arrays.fill(start,0);
+
+			// count number of descriptors with each key
+			for (int i = 0; i < N; i++) {
+				start[substring(list.get(i),t)+1]++;
+			}
+			// convert the counts into the index of the first element with each key
+			for (int key = 0; key < NUM_KEYS; key++) {
+				start[key+1] += start[key];
+			}
+			// Save the index of each descriptor. 'start' is shifted by one key after this loop
+			for (int i = 0; i < N; i++) {
+				entries[start[substring(list.get(i),t)]++] = i;
+			}
+			// shift it back
+			System.arraycopy(start,0,start,1,NUM_KEYS);
+			start[0] = 0;
+		}
+	}
+
+	/**
+	 * Searches for the descriptor with the smallest Hamming distance. Ties are resolved by selecting the descriptor
+	 * with the largest index. Results are stored in {@link #bestIndex}, {@link #bestDistance}, and
+	 * {@link #secondDistance}.
+	 *
+	 * @param query The descriptor being searched for
+	 * @param maxDistance Only descriptors with a distance &le; this value are considered.
+	 * @param needSecond If true then the second best distance is also found.
+	 */
+	public void searchBest( TupleDesc_B query , int maxDistance , boolean needSecond ) {
+		bestIndex = -1;
+		bestDistance = Integer.MAX_VALUE;
+		secondDistance = Integer.MAX_VALUE;
+
+		if( list.size == 0 || maxDistance < 0 )
+			return;
+
+		if( ++queryID == Integer.MAX_VALUE ) {
+			Arrays.fill(marks,0,list.size,0);
+			queryID = 1;
+		}
+
+		for (int radius = 0; radius <= maxSubstringRadius; radius++) {
+			for (int t = 0; t < numSubstrings; t++) {
+				searchSubstring(query, t, radius, maxDistance);
+			}
+
+			// All descriptors with a distance less than this have been found
+			final long covered = (long)numSubstrings*(radius+1)-1;
+			if( covered >= maxDistance )
+				return;
+			if( bestDistance <= covered && (!needSecond || secondDistance <= covered) )
+				return;
+			if( radius >= SUBSTRING_BITS )
+				return;
+		}
+
+		// The search radius is too large. Examine everything which hasn't been checked yet
+		for (int i = 0; i < list.size; i++) {
+			if( marks[i] != queryID )
+				checkCandidate(query,i,maxDistance);
+		}
+	}
+
+	/**
+	 * Examines all descriptors with a key that has a Hamming distance of exactly 'radius' from the query's key
+	 */
+	void searchSubstring( TupleDesc_B query , int t , int radius , int maxDistance ) {
+		final int key = substring(query,t);
+
+		if( radius == 0 ) {
+			checkKey(query,t,key,maxDistance);
+			return;
+		}
+
+		// Go through all combinations of 'radius' bits being flipped using Gosper's hack
+		int flip = (1 << radius)-1;
+		while( flip < NUM_KEYS ) {
+			checkKey(query,t,key^flip,maxDistance);
+
+			int c = flip & -flip;
+			int r = flip + c;
+			flip = (((r^flip) >>> 2)/c) | r;
+		}
+	}
+
+	/**
+	 * Checks all the descriptors with the specified key
+	 */
+	private void checkKey( TupleDesc_B query , int t , int key , int maxDistance ) {
+		final int[] start = keyStart[t];
+		final int[] entries = this.entries[t];
+
+		final int idx1 = start[key+1];
+		for (int idx = start[key]; idx < idx1; idx++) {
+			int i = entries[idx];
+			if( marks[i] == queryID )
+				continue;
+			marks[i] = queryID;
+			checkCandidate(query,i,maxDistance);
+		}
+	}
+
+	/**
+	 * Computes the exact distance and sees if it's better than the best or second best solutions
+	 */
+	private void checkCandidate( TupleDesc_B query , int i , int maxDistance ) {
+		int distance = DescriptorDistance.hamming(query,list.get(i));
+		if( distance > maxDistance )
+			return;
+
+		if( distance < bestDistance || (distance == bestDistance && i > bestIndex) ) {
+			secondDistance = bestDistance;
+			bestDistance = distance;
+			bestIndex = i;
+		} else if( distance < secondDistance ) {
+			secondDistance = distance;
+		}
+	}
+
+	/**
+	 * Returns the value of substring 't' in the descriptor
+	 */
+	static int substring( TupleDesc_B desc , int t ) {
+		int word = desc.data[t/2];
+		return (t%2 == 0 ? word : word >>> 16) & 0xFFFF;
+	}
+}
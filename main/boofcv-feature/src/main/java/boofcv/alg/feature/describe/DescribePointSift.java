@@ -18,9 +18,13 @@
 
 package boofcv.alg.feature.describe;
 
+import boofcv.alg.descriptor.ConvertDescriptors;
 import boofcv.core.image.FactoryGImageGray;
 import boofcv.core.image.GImageGray;
+import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.feature.TupleDesc_F32;
 import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.feature.TupleDesc_U8;
 import boofcv.struct.image.ImageGray;
 import georegression.metric.UtilAngle;
 
@@ -57,9 +61,18 @@ public class DescribePointSift<Deriv extends ImageGray> extends DescribeSiftComm
 	// spacial derivatives of input image
 	GImageGray imageDerivX, imageDerivY;
 
+	/**
+	 * Scale factor applied to the normalized descriptor when it's quantized into 8-bits. Same as Lowe's
+	 * reference implementation.
+	 */
+	public static final double QUANTIZE_SCALE_U8 = 512.0;
+
 	// conversion from scale-space sigma to image pixels
 	double sigmaToPixels;
 
+	// work space used when computing 8-bit descriptors
+	TupleDesc_F32 workspace = new TupleDesc_F32(1);
+
 
 	/**
 	 * Configures the descriptor.
@@ -111,6 +124,72 @@ public class DescribePointSift<Deriv extends ImageGray> extends DescribeSiftComm
 		normalizeDescriptor(descriptor,maxDescriptorElementValue);
 	}
 
+	/**
+	 * Computes the SIFT descriptor using 32-bit floats. The descriptor is accumulated and normalized
+	 * directly inside the output.
+	 *
+	 * @see #process(double, double, double, double, TupleDesc_F64)
+	 */
+	public void process( double c_x , double c_y , double sigma , double orientation , TupleDesc_F32 descriptor )
+	{
+		descriptor.fill(0);
+
+		computeRawDescriptor(c_x, c_y, sigma, orientation, descriptor);
+
+		normalizeDescriptor(descriptor,maxDescriptorElementValue);
+	}
+
+	/**
+	 * Computes the SIFT descriptor and quantizes it into 8-bits using {@link #QUANTIZE_SCALE_U8}. This
+	 * requires 1/8 the memory of the 64-bit descriptor. The histogram is accumulated in a 32-bit work space
+	 * since the interpolation weights are fractional.
+	 *
+	 * @see #process(double, double, double, double, TupleDesc_F64)
+	 */
+	public void process( double c_x , double c_y , double sigma , double orientation , TupleDesc_U8 descriptor )
+	{
+		if( workspace.size() != getDescriptorLength() )
+			workspace = new TupleDesc_F32(getDescriptorLength());
+
+		process(c_x, c_y, sigma, orientation, workspace);
+		ConvertDescriptors.positive(workspace, (float)QUANTIZE_SCALE_U8, descriptor);
+	}
+
+	/**
+	 * Computes the SIFT descriptor for any of the supported descriptor types, {@link TupleDesc_F64},
+	 * {@link TupleDesc_F32}, and {@link TupleDesc_U8}. Use this when the type is only known at runtime.
+	 */
+	public void process( double c_x , double c_y , double sigma , double orientation , TupleDesc descriptor )
+	{
+		if( descriptor instanceof TupleDesc_F64 ) {
+			process(c_x, c_y, sigma, orientation, (TupleDesc_F64)descriptor);
+		} else if( descriptor instanceof TupleDesc_F32 ) {
+			process(c_x, c_y, sigma, orientation, (TupleDesc_F32)descriptor);
+		} else if( descriptor instanceof TupleDesc_U8 ) {
+			process(c_x, c_y, sigma, orientation, (TupleDesc_U8)descriptor);
+		} else {
+			throw new IllegalArgumentException("Unsupported descriptor type "+descriptor.getClass().getSimpleName());
+		}
+	}
+
+	/**
+	 * Creates a new descriptor of the specified type
+	 *
+	 * @param type {@link TupleDesc_F64}, {@link TupleDesc_F32}, or {@link TupleDesc_U8}
+	 * @return New descriptor
+	 */
+	public <Desc extends TupleDesc> Desc createDescription( Class<Desc> type ) {
+		int dof = getDescriptorLength();
+		if( type == TupleDesc_F64.class )
+			return (Desc)new TupleDesc_F64(dof);
+		else if( type == TupleDesc_F32.class )
+			return (Desc)new TupleDesc_F32(dof);
+		else if( type == TupleDesc_U8.class )
+			return (Desc)new TupleDesc_U8(dof);
+		else
+			throw new IllegalArgumentException("Unsupported descriptor type "+type.getSimpleName());
+	}
+
 	/**
 	 * Computes the descriptor by sampling the input image.  This is raw because the descriptor hasn't been massaged
 	 * yet.
@@ -163,4 +242,56 @@ public class DescribePointSift<Deriv extends ImageGray> extends DescribeSiftComm
 			}
 		}
 	}
+
+	/**
+	 * 32-bit version of {@link #computeRawDescriptor(double, double, double, double, TupleDesc_F64)}
+	 */
+	void computeRawDescriptor(double c_x, double c_y, double sigma, double orientation, TupleDesc_F32 descriptor) {
+		double c = Math.cos(orientation);
+		double s = Math.sin(orientation);
+
+		float fwidthSubregion = widthSubregion;
+		int sampleWidth = widthGrid*widthSubregion;
+		double sampleRadius = sampleWidth/2;
+
+		double sampleToPixels = sigma*sigmaToPixels;
+
+		Deriv image = (Deriv)imageDerivX.getImage();
+
+		for (int sampleY = 0; sampleY < sampleWidth; sampleY++) {
+			float subY = sampleY/fwidthSubregion;
+			double y = sampleToPixels*(sampleY-sampleRadius);
+
+			for (int sampleX = 0; sampleX < sampleWidth; sampleX++) {
+				// coordinate of samples in terms of sub-region.  Center of sample point, hence + 0.5f
+				float subX = sampleX/fwidthSubregion;
+				// recentered local pixel sample coordinate
+				double x = sampleToPixels*(sampleX-sampleRadius);
+
+				// pixel coordinate in the image that is to be sampled.  Note the rounding
+				// If the pixel coordinate is -1 < x < 0 then it will round to 0 instead of -1, but the rounding
+				// method below is WAY faster than Math.round() so this is a small loss.
+				int pixelX = (int)(x*c - y*s + c_x + 0.5);
+				int pixelY = (int)(x*s + y*c + c_y + 0.5);
+
+				// skip pixels outside of the image
+				if( image.isInBounds(pixelX,pixelY) ) {
+					// spacial image derivative at this point
+					float spacialDX = imageDerivX.unsafe_getF(pixelX, pixelY);
+					float spacialDY = imageDerivY.unsafe_getF(pixelX, pixelY);
+
+					double adjDX =  c*spacialDX + s*spacialDY;
+					double adjDY = -s*spacialDX + c*spacialDY;
+
+					double angle = UtilAngle.domain2PI(Math.atan2(adjDY,adjDX));
+
+					float weightGaussian = gaussianWeight[sampleY*sampleWidth+sampleX];
+					float weightGradient = (float)Math.sqrt(spacialDX*spacialDX + spacialDY*spacialDY);
+
+					// trilinear interpolation intro descriptor
+					trilinearInterpolation(weightGaussian*weightGradient,subX,subY,angle, descriptor);
+				}
+			}
+		}
+	}
 }
@@ -18,9 +18,12 @@
 
 package boofcv.alg.feature.describe;
 
+import boofcv.alg.descriptor.ConvertDescriptors;
 import boofcv.alg.descriptor.UtilFeature;
 import boofcv.factory.filter.kernel.FactoryKernelGaussian;
 import boofcv.struct.convolve.Kernel2D_F64;
+import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.feature.TupleDesc_F32;
 import boofcv.struct.feature.TupleDesc_F64;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.sparse.GradientValue;
@@ -91,6 +94,9 @@ public class DescribePointSurf<II extends ImageGray<II>> {
 	// does not include sample kernel size
 	protected int radiusDescriptor;
 
+	// work space used when computing compact descriptors
+	protected TupleDesc_F64 workspace = new TupleDesc_F64(1);
+
 	/**
 	 * Creates a SURF descriptor of arbitrary dimension by changing how the local region is sampled.
 	 *
@@ -141,6 +147,22 @@ public class DescribePointSurf<II extends ImageGray<II>> {
 		return new TupleDesc_F64(featureDOF);
 	}
 
+	/**
+	 * Creates a new descriptor of the specified type. SURF has signed elements so only floating point
+	 * descriptors are supported.
+	 *
+	 * @param type {@link TupleDesc_F64} or {@link TupleDesc_F32}
+	 * @return New descriptor
+	 */
+	public <Desc extends TupleDesc> Desc createDescription( Class<Desc> type ) {
+		if( type == TupleDesc_F64.class )
+			return (Desc)new TupleDesc_F64(featureDOF);
+		else if( type == TupleDesc_F32.class )
+			return (Desc)new TupleDesc_F32(featureDOF);
+		else
+			throw new IllegalArgumentException("Unsupported descriptor type "+type.getSimpleName());
+	}
+
 	public void setImage( II integralImage ) {
 		ii = integralImage;
 		gradient.setImage(ii);
@@ -183,6 +205,34 @@ public class DescribePointSurf<II extends ImageGray<II>> {
 			UtilFeature.normalizeL2(ret);
 	}
 
+	/**
+	 * Computes the SURF descriptor and stores it using 32-bit floats.
+	 *
+	 * @see #describe(double, double, double, double, boolean, TupleDesc_F64)
+	 */
+	public void describe(double x, double y, double angle, double scale, boolean normalize, TupleDesc_F32 ret)
+	{
+		if( workspace.size() != featureDOF )
+			workspace = new TupleDesc_F64(featureDOF);
+		describe(x, y, angle, scale, normalize, workspace);
+		ConvertDescriptors.float32(workspace, ret);
+	}
+
+	/**
+	 * Computes the SURF descriptor for any of the supported descriptor types, {@link TupleDesc_F64} and
+	 * {@link TupleDesc_F32}. Use this when the type is only known at runtime.
+	 */
+	public void describe(double x, double y, double angle, double scale, boolean normalize, TupleDesc ret)
+	{
+		if( ret instanceof TupleDesc_F64 ) {
+			describe(x, y, angle, scale, normalize, (TupleDesc_F64)ret);
+		} else if( ret instanceof TupleDesc_F32 ) {
+			describe(x, y, angle, scale, normalize, (TupleDesc_F32)ret);
+		} else {
+			throw new IllegalArgumentException("Unsupported descriptor type "+ret.getClass().getSimpleName());
+		}
+	}
+
 	/**
 	 * <p>
 	 * Computes features in the SURF descriptor.
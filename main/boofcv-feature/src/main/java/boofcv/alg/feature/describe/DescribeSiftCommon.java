@@ -22,6 +22,7 @@ import boofcv.alg.descriptor.UtilFeature;
 import boofcv.alg.filter.kernel.KernelMath;
 import boofcv.factory.filter.kernel.FactoryKernelGaussian;
 import boofcv.struct.convolve.Kernel2D_F32;
+import boofcv.struct.feature.TupleDesc_F32;
 import boofcv.struct.feature.TupleDesc_F64;
 import georegression.metric.UtilAngle;
 
@@ -97,6 +98,22 @@ public class DescribeSiftCommon {
 		UtilFeature.normalizeL2(descriptor);
 	}
 
+	/**
+	 * 32-bit version of {@link #normalizeDescriptor(TupleDesc_F64, double)}
+	 */
+	public static void normalizeDescriptor(TupleDesc_F32 descriptor , double maxDescriptorElementValue ) {
+		UtilFeature.normalizeL2(descriptor);
+
+		float maxValue = (float)maxDescriptorElementValue;
+		for (int i = 0; i < descriptor.size(); i++) {
+			if( descriptor.value[i] > maxValue ) {
+				descriptor.value[i] = maxValue;
+			}
+		}
+
+		UtilFeature.normalizeL2(descriptor);
+	}
+
 	/**
 	 * Creates a gaussian weighting kernel with an even number of elements along its width
 	 */
@@ -130,6 +147,29 @@ public class DescribeSiftCommon {
 		}
 	}
 
+	/**
+	 * Applies trilinear interpolation across a 32-bit descriptor
+	 */
+	protected void trilinearInterpolation( float weight , float sampleX , float sampleY , double angle , TupleDesc_F32 descriptor )
+	{
+		for (int i = 0; i < widthGrid; i++) {
+			float weightGridY = 1.0f - Math.abs(sampleY-i);
+			if( weightGridY <= 0) continue;
+			for (int j = 0; j < widthGrid; j++) {
+				float weightGridX = 1.0f - Math.abs(sampleX-j);
+				if( weightGridX <= 0 ) continue;
+				for (int k = 0; k < numHistogramBins; k++) {
+					double angleBin = k*histogramBinWidth;
+					float weightHistogram = (float)(1.0 - UtilAngle.dist(angle,angleBin)/histogramBinWidth);
+					if( weightHistogram <= 0 ) continue;
+
+					int descriptorIndex = (i*widthGrid + j)*numHistogramBins + k;
+					descriptor.value[descriptorIndex] += weight*weightGridX*weightGridY*weightHistogram;
+				}
+			}
+		}
+	}
+
 	/**
 	 * Number of elements in the descriptor.
 	 */
@@ -27,7 +27,7 @@ import boofcv.alg.feature.detect.selector.FeatureSelectLimitIntensity;
 import boofcv.alg.feature.orientation.OrientationHistogramSift;
 import boofcv.factory.filter.derivative.FactoryDerivative;
 import boofcv.struct.feature.ScalePoint;
-import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.image.GrayF32;
 import org.ddogleg.struct.FastAccess;
 import org.ddogleg.struct.FastArray;
@@ -36,7 +36,8 @@ import org.ddogleg.struct.GrowQueue_F64;
 
 /**
  * SIFT combined together to simultaneously detect and describe the key points it finds.  Memory is conserved by
- * only having one octave of the scale-space in memory at any given time.
+ * only having one octave of the scale-space in memory at any given time. Descriptors are computed directly in
+ * the requested format, see {@link DescribePointSift#createDescription(Class)}.
  *
  * @see OrientationHistogramSift
  * @see DescribePointSift
@@ -44,14 +45,16 @@ import org.ddogleg.struct.GrowQueue_F64;
  *
  * @author Peter Abeles
  */
-public class CompleteSift extends SiftDetector
+public class CompleteSift<Desc extends TupleDesc<Desc>> extends SiftDetector
 {
 	// estimate orientation
 	OrientationHistogramSift<GrayF32> orientation;
 	// describes the keypoints
 	DescribePointSift<GrayF32> describe;
 	// storage for found features
-	FastQueue<TupleDesc_F64> features;
+	FastQueue<Desc> features;
+	// type of descriptor which is computed
+	Class<Desc> descType;
 	// found orientations and feature locations
 	FastArray<ScalePoint> locations = new FastArray<>(ScalePoint.class);
 	GrowQueue_F64 orientations = new GrowQueue_F64();
@@ -71,19 +74,21 @@ public class CompleteSift extends SiftDetector
 	 * @param extractor Finds minimums and maximums.  See {@link SiftDetector#SiftDetector}
 	 * @param orientation Estimates feature orientation(s)
 	 * @param describe Describes a SIFT feature
+	 * @param descType Type of descriptor which is computed
 	 */
 	public CompleteSift(SiftScaleSpace scaleSpace,
 						FeatureSelectLimitIntensity<ScalePoint> selectFeaturesAll,
 						double edgeR, NonMaxLimiter extractor,
 						OrientationHistogramSift<GrayF32> orientation,
-						DescribePointSift<GrayF32> describe) {
+						DescribePointSift<GrayF32> describe,
+						Class<Desc> descType ) {
 		super(scaleSpace,selectFeaturesAll, edgeR, extractor);
 
 		this.orientation = orientation;
 		this.describe = describe;
+		this.descType = descType;
 
-		final int dof = describe.getDescriptorLength();
-		features = new FastQueue<>(()->new TupleDesc_F64(dof));
+		features = new FastQueue<>(this::createDescription);
 	}
 
 	@Override
@@ -135,10 +140,18 @@ public class CompleteSift extends SiftDetector
 		return locations;
 	}
 
-	public FastAccess<TupleDesc_F64> getDescriptions() {
+	public FastAccess<Desc> getDescriptions() {
 		return features;
 	}
 
+	public Desc createDescription() {
+		return describe.createDescription(descType);
+	}
+
+	public Class<Desc> getDescriptionType() {
+		return descType;
+	}
+
 	public GrowQueue_F64 getOrientations() {
 		return orientations;
 	}
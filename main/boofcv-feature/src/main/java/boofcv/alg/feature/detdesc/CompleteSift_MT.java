@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.detect.extract.NonMaxLimiter;
+import boofcv.alg.feature.describe.DescribePointSift;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace;
+import boofcv.alg.feature.detect.selector.FeatureSelectLimitIntensity;
+import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.Factory;
+import org.ddogleg.struct.FastArray;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+
+/**
+ * Concurrent implementation of {@link CompleteSift}. Orientation estimation and description of the features
+ * detected in each scale are done in parallel with each thread having its own copy of the algorithms. Results
+ * are then added in the same order as the single threaded version, making the output identical. Construction of
+ * the scale-space and non-maximum suppression are concurrent when {@link BoofConcurrency#USE_CONCURRENT} is true
+ * and are handled by the algorithms they are built on.
+ *
+ * @author Peter Abeles
+ */
+public class CompleteSift_MT<Desc extends TupleDesc<Desc>> extends CompleteSift<Desc> {
+
+	// Detections in the current scale which have yet to be described
+	FastArray<ScalePoint> pending = new FastArray<>(ScalePoint.class);
+	// Orientations and descriptions for each pending detection
+	FastQueue<DetectionResults> results;
+	// Orientation and description algorithms for each thread
+	FastQueue<ThreadData> threads;
+
+	/**
+	 * Configures SIFT. See {@link CompleteSift#CompleteSift} for a description of the parameters.
+	 *
+	 * @param factoryOrientation Creates a new orientation estimator for each thread
+	 * @param factoryDescribe Creates a new describe algorithm for each thread
+	 */
+	public CompleteSift_MT(SiftScaleSpace scaleSpace,
+						   FeatureSelectLimitIntensity<ScalePoint> selectFeaturesAll,
+						   double edgeR, NonMaxLimiter extractor,
+						   Factory<OrientationHistogramSift<GrayF32>> factoryOrientation,
+						   Factory<DescribePointSift<GrayF32>> factoryDescribe,
+						   Class<Desc> descType ) {
+		super(scaleSpace, selectFeaturesAll, edgeR, extractor,
+				factoryOrientation.newInstance(), factoryDescribe.newInstance(), descType);
+
+		results = new FastQueue<>(DetectionResults::new);
+		threads = new FastQueue<>(()->new ThreadData(factoryOrientation.newInstance(),factoryDescribe.newInstance()));
+	}
+
+	@Override
+	protected void detectFeatures(int scaleIndex) {
+		pending.reset();
+		// computes the gradient and then finds the features, which are saved in handleDetection()
+		super.detectFeatures(scaleIndex);
+
+		if( pending.size == 0 )
+			return;
+
+		results.resize(pending.size);
+		BoofConcurrency.loopBlocks(0,pending.size,threads,(data,idx0,idx1)->{
+			data.orientation.setImageGradient(derivX,derivY);
+			data.describe.setImageGradient(derivX,derivY);
+
+			for (int i = idx0; i < idx1; i++) {
+				describeDetection(data,pending.get(i),results.get(i));
+			}
+		});
+
+		// Add the results in the same order as the single threaded version
+		for (int i = 0; i < pending.size; i++) {
+			ScalePoint p = pending.get(i);
+			DetectionResults r = results.get(i);
+			for (int j = 0; j < r.angles.size; j++) {
+				features.grow().setTo(r.descriptions.get(j));
+				orientations.add(r.angles.get(j));
+				locations.add(p);
+			}
+		}
+	}
+
+	/**
+	 * Estimates the orientations of a detection and describes it at each orientation
+	 */
+	private void describeDetection( ThreadData data , ScalePoint p , DetectionResults r ) {
+		r.angles.reset();
+		r.descriptions.reset();
+
+		// adjust the image for the down sampling in each octave
+		double localX = p.pixel.x / pixelScaleToInput;
+		double localY = p.pixel.y / pixelScaleToInput;
+		double localSigma = p.scale / pixelScaleToInput;
+
+		data.orientation.process(localX,localY,localSigma);
+
+		GrowQueue_F64 angles = data.orientation.getOrientations();
+		for (int i = 0; i < angles.size; i++) {
+			data.describe.process(localX,localY,localSigma,angles.get(i),r.descriptions.grow());
+			r.angles.add(angles.get(i));
+		}
+	}
+
+	@Override
+	protected void handleDetection(ScalePoint p) {
+		// p is owned by detectionsAll and won't be recycled until the next image is processed
+		pending.add(p);
+	}
+
+	/**
+	 * Orientations and descriptions found for a single detection
+	 */
+	class DetectionResults {
+		GrowQueue_F64 angles = new GrowQueue_F64();
+		FastQueue<Desc> descriptions = new FastQueue<>(CompleteSift_MT.this::createDescription);
+	}
+
+	/**
+	 * Algorithms which have internal state and need to be unique for each thread
+	 */
+	static class ThreadData {
+		OrientationHistogramSift<GrayF32> orientation;
+		DescribePointSift<GrayF32> describe;
+
+		ThreadData(OrientationHistogramSift<GrayF32> orientation, DescribePointSift<GrayF32> describe) {
+			this.orientation = orientation;
+			this.describe = describe;
+		}
+	}
+}
@@ -19,8 +19,6 @@
 package boofcv.alg.feature.disparity.sgm;
 
 import boofcv.alg.misc.GImageMiscOps;
-import boofcv.concurrency.BoofConcurrency;
-import boofcv.concurrency.IntRangeObjectConsumer;
 import boofcv.struct.image.GrayU16;
 import boofcv.struct.image.Planar;
 import org.ddogleg.struct.FastQueue;
@@ -64,8 +62,15 @@ public class SgmCostAggregation {
 	// Lr(x,d) = Lr.get(d,x)
 	// Lr(y,x,d) = Lr.getBand(y).get(d,x)
 
-	// TODO compute forward then reverse. In forward save read cost. In reverse add results to local cache before
-	//      adding to aggregated. This could reduce cache misses
+	/**
+	 * Directions which paths can be scored along. The first N are used, where N is determined by the number
+	 * of paths considered
+	 */
+	static final int[][] DIRECTIONS = new int[][]{
+			{ 1, 0},{-1, 0},{ 0, 1},{ 0,-1},
+			{ 1, 1},{-1,-1},{-1, 1},{ 1,-1},
+			{ 1, 2},{ 2, 1},{ 2,-1},{ 1,-2},{-1,-2},{-2,-1},{-2, 1},{-1, 2}};
+
 	protected SgmHelper helper = new SgmHelper();
 
 	// Contains aggregated cost. The image is being used to store a tensor.
@@ -91,7 +96,6 @@ public class SgmCostAggregation {
 	// Book keeping for concurrency
 	FastQueue<Trajectory> trajectories = new FastQueue<>(Trajectory.class,Trajectory::new);
 	FastQueue<WorkSpace> workspace = new FastQueue<>(WorkSpace.class, WorkSpace::new);
-	ComputeBlock computeBlock = new ComputeBlock();
 
 	/**
 	 * Configures the minimum disparity. The range is specified implicitly by the cost tensor.
@@ -111,43 +115,57 @@ public class SgmCostAggregation {
 	public void process( Planar<GrayU16> costYXD ) {
 		init(costYXD);
 
-		if( pathsConsidered >= 1 ) {
-			scoreDirection(1, 0);
-		}
-		if( pathsConsidered >= 2 ) {
-			scoreDirection(-1, 0);
-		}
-		if( pathsConsidered >= 4 ) {
-			scoreDirection(0, 1);
-			scoreDirection(0, -1);
-		}
-		if( pathsConsidered >= 8 ) {
-			scoreDirection(1, 1);
-			scoreDirection(-1, -1);
-			scoreDirection(-1, 1);
-			scoreDirection(1, -1);
-		}
-		if( pathsConsidered >= 16 ) {
-			scoreDirection(1, 2);
-			scoreDirection(2, 1);
-			scoreDirection(2, -1);
-			scoreDirection(1, -2);
-			scoreDirection(-1, -2);
-			scoreDirection(-2, -1);
-			scoreDirection(-2, 1);
-			scoreDirection(-1, 2);
+		final int numDirections = numberOfDirections();
+		for (int i = 0; i < numDirections; i++) {
+			scoreDirection(DIRECTIONS[i][0], DIRECTIONS[i][1]);
 		}
 	}
 
+	/**
+	 * Aggregates the cost and passes it to the consumer. This implementation computes the aggregated
+	 * cost for the entire image at once and passes it along as a single strip. Children can
+	 * break it up into smaller strips to reduce memory usage.
+	 *
+	 * @param costYXD Cost for all possible combinations of x,y,d in input image.
+	 * @param consumer Processes the aggregated cost
+	 */
+	public void process( Planar<GrayU16> costYXD , StripConsumer consumer ) {
+		process(costYXD);
+		consumer.process(0,lengthY,aggregated);
+	}
+
+	/**
+	 * Number of directions which are scored given the number of paths considered
+	 */
+	int numberOfDirections() {
+		if( pathsConsidered >= 16 )
+			return 16;
+		else if( pathsConsidered >= 8 )
+			return 8;
+		else if( pathsConsidered >= 4 )
+			return 4;
+		else if( pathsConsidered >= 2 )
+			return 2;
+		else
+			return 1;
+	}
+
 	/**
 	 * Initializes data structures
 	 */
 	void init(Planar<GrayU16> costYXD) {
+		initShape(costYXD);
+		aggregated.reshape(costYXD);
+		GImageMiscOps.fill(aggregated,0);
+	}
+
+	/**
+	 * Sanity checks the configuration and saves the shape of the cost tensor
+	 */
+	void initShape(Planar<GrayU16> costYXD) {
 		if( pathsConsidered < 1 || pathsConsidered > 16 )
 			throw new IllegalArgumentException("Number of paths must be 1 to 16, inclusive. Not "+ pathsConsidered);
 		this.costYXD = costYXD;
-		aggregated.reshape(costYXD);
-		GImageMiscOps.fill(aggregated,0);
 
 		this.lengthX = costYXD.getHeight();
 		this.lengthD = costYXD.getWidth();
@@ -193,27 +211,18 @@ public class SgmCostAggregation {
 			}
 		}
 
-		if( BoofConcurrency.USE_CONCURRENT ) {
-			BoofConcurrency.loopBlocks(0,trajectories.size,1,workspace,computeBlock);
-		} else {
-			WorkSpace w= workspace.get(0);
-			w.checkSize();
-			for (int i = 0; i < trajectories.size; i++) {
-				Trajectory t = trajectories.get(i);
-				scorePath(t.x0, t.y0, t.dx, t.dy, w.workCostLr);
-			}
-		}
+		scoreTrajectories();
 	}
 
-	private class ComputeBlock implements IntRangeObjectConsumer<WorkSpace> {
-		@Override
-		public void accept(WorkSpace workspace, int minInclusive, int maxExclusive) {
-			workspace.checkSize();
-
-			for (int i = minInclusive; i < maxExclusive; i++) {
-				Trajectory t = trajectories.get(i);
-				scorePath(t.x0,t.y0,t.dx,t.dy,workspace.workCostLr);
-			}
+	/**
+	 * Scores all the paths in {@link #trajectories}. Each path is independent of all the others
+	 */
+	void scoreTrajectories() {
+		WorkSpace w= workspace.get(0);
+		w.checkSize();
+		for (int i = 0; i < trajectories.size; i++) {
+			Trajectory t = trajectories.get(i);
+			scorePath(t.x0, t.y0, t.dx, t.dy, w.workCostLr);
 		}
 	}
 
@@ -237,26 +246,10 @@ public class SgmCostAggregation {
 
 		// there is no previous disparity score so simply fill the cost for d=0
 		{
-			int minCost = Integer.MAX_VALUE;
 			final GrayU16 costXD = costYXD.getBand(y0);
 			final int idxCost = costXD.getIndex(0,x0);   // C(0,0)
 			final int localRangeD = helper.localDisparityRangeLeft(x0+disparityMin);
-			for (int d = 0; d < localRangeD; d++) {
-				int v = costXD.data[idxCost + d]&0xFFFF; // Lr(0,d) = C(0,d)
-				workCostLr[d] = (short)v;
-				minCost = Math.min(minCost,v);
-			}
-			// The modified equation 13. Cost Equation 12 - min[k] Lr(p,k)
-			for (int d = 0; d < localRangeD; d++) {
-				workCostLr[d] = (short)((workCostLr[d]&0xFFFF)-minCost);
-			}
-			// In the for loop below it needs the previous cost at index localRangeD[i]-1.
-			// If we are on the left side of the image then localRangeD[i] < localRangeD[i+1]!
-			// That's a problem because if we read localRangeD[i+1]-1 it will be unassigned and have
-			// an unknown value! We get around that by just copying the cost at the end.
-			if( localRangeD != helper.disparityRange) {
-				workCostLr[localRangeD] = workCostLr[localRangeD-1];
-			}
+			computeStartLr(costXD.data, idxCost, localRangeD, workCostLr, 0);
 		}
 
 		// Compute the cost of rest of the path recursively
@@ -271,30 +264,83 @@ public class SgmCostAggregation {
 			// Index for the previous cost in this path
 			int idxLrPrev = (i-1)*lengthD;
 
-			// Score the inner portion of disparity first to avoid bounds checks
-			computeCostInnerD(costXD.data, idxCost, idxLrPrev, localRangeD, workCostLr);
+			computeNextLr(costXD.data, idxCost, localRangeD, workCostLr, idxLrPrev, workCostLr, idxLrPrev+lengthD);
+		}
 
-			// Now handle the borders at d=0 and d=N-1
-			computeCostBorderD(idxCost,idxLrPrev,0,costXD, localRangeD, workCostLr);
-			computeCostBorderD(idxCost,idxLrPrev,localRangeD-1,costXD, localRangeD, workCostLr);
+		saveWorkToAggregated(x0,y0,dx,dy,lengthPath, workCostLr);
+	}
 
-			// see comments above for what's going on here
-			if( localRangeD != helper.disparityRange) {
-				workCostLr[idxLrPrev+lengthD+localRangeD] = workCostLr[idxLrPrev+lengthD+localRangeD-1];
-			}
+	/**
+	 * Computes Lr for the first element in a path. There is no previous disparity score so it's simply the cost.
+	 *
+	 * @param costXD Cost in X-D plane
+	 * @param idxCost Index of C(p,0)
+	 * @param localRangeD Number of disparity values which can be considered at 'p'
+	 * @param dstLr Array that Lr(p,:) is written to
+	 * @param idxLr Index of Lr(p,0)
+	 */
+	final void computeStartLr( final short[] costXD, final int idxCost, final int localRangeD,
+							   final short[] dstLr , final int idxLr ) {
+		int minCost = Integer.MAX_VALUE;
+		for (int d = 0; d < localRangeD; d++) {
+			int v = costXD[idxCost + d]&0xFFFF; // Lr(0,d) = C(0,d)
+			dstLr[idxLr+d] = (short)v;
+			minCost = Math.min(minCost,v);
+		}
+		// The modified equation 13. Cost Equation 12 - min[k] Lr(p,k)
+		for (int d = 0; d < localRangeD; d++) {
+			dstLr[idxLr+d] = (short)((dstLr[idxLr+d]&0xFFFF)-minCost);
+		}
+		// In the next step it needs the previous cost at index localRangeD[i]-1.
+		// If we are on the left side of the image then localRangeD[i] < localRangeD[i+1]!
+		// That's a problem because if we read localRangeD[i+1]-1 it will be unassigned and have
+		// an unknown value! We get around that by just copying the cost at the end.
+		padLocalRange(dstLr, idxLr, localRangeD);
+	}
 
-			// The modified equation 13. Cost Equation 12 - min[k] Lr(p,k)
-			int minCost = Integer.MAX_VALUE;
-			int idxLr = i*lengthD;
-			for (int d = 0; d < localRangeD; d++) {
-				minCost = Math.min(minCost,workCostLr[idxLr+d]&0xFFFF);
-			}
-			for (int d = 0; d < localRangeD; d++) {
-				workCostLr[idxLr+d] = (short)((workCostLr[idxLr+d]&0xFFFF)- minCost);
-			}
+	/**
+	 * Computes Lr(p,:) from Lr(p-r,:) and the cost at 'p'. Lr(p,:) has the minimum value subtracted from it.
+	 *
+	 * @param costXD Cost in X-D plane
+	 * @param idxCost Index of C(p,0)
+	 * @param localRangeD Number of disparity values which can be considered at 'p'
+	 * @param prevLr Array containing Lr(p-r,:)
+	 * @param idxLrPrev Index of Lr(p-r,0)
+	 * @param dstLr Array that Lr(p,:) is written to
+	 * @param idxLr Index of Lr(p,0)
+	 */
+	final void computeNextLr( final short[] costXD, final int idxCost, final int localRangeD,
+							  final short[] prevLr, final int idxLrPrev, final short[] dstLr , final int idxLr ) {
+		// Score the inner portion of disparity first to avoid bounds checks
+		computeCostInnerD(costXD, idxCost, prevLr, idxLrPrev, dstLr, idxLr, localRangeD);
+
+		// Now handle the borders at d=0 and d=N-1
+		computeCostBorderD(costXD, idxCost, prevLr, idxLrPrev, dstLr, idxLr, 0, localRangeD);
+		computeCostBorderD(costXD, idxCost, prevLr, idxLrPrev, dstLr, idxLr, localRangeD-1, localRangeD);
+
+		// see comments in computeStartLr() for what's going on here
+		padLocalRange(dstLr, idxLr, localRangeD);
+
+		// The modified equation 13. Cost Equation 12 - min[k] Lr(p,k)
+		int minCost = Integer.MAX_VALUE;
+		for (int d = 0; d < localRangeD; d++) {
+			minCost = Math.min(minCost,dstLr[idxLr+d]&0xFFFF);
+		}
+		for (int d = 0; d < localRangeD; d++) {
+			dstLr[idxLr+d] = (short)((dstLr[idxLr+d]&0xFFFF)- minCost);
 		}
+	}
 
-		saveWorkToAggregated(x0,y0,dx,dy,lengthPath, workCostLr);
+	/**
+	 * Copies the last valid Lr into the elements just past the local disparity range. A path can move
+	 * at most two pixels along the x-axis, so that's the most the range can grow by in a single step.
+	 */
+	private void padLocalRange( final short[] dstLr , final int idxLr , final int localRangeD ) {
+		final int end = Math.min(localRangeD+2,helper.disparityRange);
+		final short last = dstLr[idxLr+localRangeD-1];
+		for (int d = localRangeD; d < end; d++) {
+			dstLr[idxLr+d] = last;
+		}
 	}
 
 	/**
@@ -324,24 +370,38 @@ public class SgmCostAggregation {
 	 * @param idxLrPrev index of work at the previous location in the path, i.e. Lr(p-r,0)
 	 */
 	void computeCostInnerD( final short[] costXD, final int idxCost, int idxLrPrev, final int lengthLocalD , final short[] workCostLr) {
-		final int nextRow  = this.lengthD-1; // idxLrPrev is +1
+		computeCostInnerD(costXD, idxCost, workCostLr, idxLrPrev, workCostLr, idxLrPrev+lengthD, lengthLocalD);
+	}
+
+	/**
+	 * Same as {@link #computeCostInnerD(short[], int, int, int, short[])} but the previous and the
+	 * output Lr can be stored in different arrays.
+	 *
+	 * @param prevLr Array containing Lr(p-r,:)
+	 * @param idxLrPrev index of Lr(p-r,0)
+	 * @param dstLr Array that Lr(p,:) is written to
+	 * @param idxLr index of Lr(p,0)
+	 */
+	void computeCostInnerD( final short[] costXD, final int idxCost,
+							final short[] prevLr, int idxLrPrev, final short[] dstLr, final int idxLr,
+							final int lengthLocalD ) {
 		final int penalty1 = this.penalty1;
 		final int penalty2 = this.penalty2;
 
 		idxLrPrev += 1; // start at d=1
 
 		// initialize the sampling at d=1. elements will be exchanged inside the loop
-		int c1 = workCostLr[idxLrPrev-1]&0xFFFF;  // Lr(p-r,d-1)
-		int c2 = workCostLr[idxLrPrev  ]&0xFFFF;  // Lr(p-r,d  )
+		int c1 = prevLr[idxLrPrev-1]&0xFFFF;  // Lr(p-r,d-1)
+		int c2 = prevLr[idxLrPrev  ]&0xFFFF;  // Lr(p-r,d  )
 		idxLrPrev += 1; // avoid extra addition later on
 
 		for (int d = 1; d < lengthLocalD-1; d++, idxLrPrev++) {
 			int cost = costXD[idxCost+d] & 0xFFFF; // C(p,d)
 
-			int c0=c1; // workCostLr[idxLrPrev-1]&0xFFFF; // Lr(p-r,d-1)
-			c1=c2;     // workCostLr[idxLrPrev  ]&0xFFFF; // Lr(p-r,d  )
-			           // workCostLr[idxLrPrev+1]&0xFFFF; // Lr(p-r,d+1)
-			c2 = workCostLr[idxLrPrev]&0xFFFF;            // Lr(p-r,d+1)
+			int c0=c1; // prevLr[idxLrPrev-1]&0xFFFF; // Lr(p-r,d-1)
+			c1=c2;     // prevLr[idxLrPrev  ]&0xFFFF; // Lr(p-r,d  )
+			           // prevLr[idxLrPrev+1]&0xFFFF; // Lr(p-r,d+1)
+			c2 = prevLr[idxLrPrev]&0xFFFF;            // Lr(p-r,d+1)
 
 			// Add penalty terms
 			int a = c1;
@@ -360,7 +420,7 @@ public class SgmCostAggregation {
 //				throw new RuntimeException("Overflowed!");
 
 			// minCostPrev is done to reduce the rate at which the cost increases
-			workCostLr[idxLrPrev+nextRow] = (short)(cost + a);
+			dstLr[idxLr+d] = (short)(cost + a);
 			// Lr(p,d) = above
 		}
 	}
@@ -374,14 +434,29 @@ public class SgmCostAggregation {
 	 * @param costXD cost in X-D plane
 	 */
 	void computeCostBorderD(int idxCost , int idxLrPrev , int d , GrayU16 costXD , int localRangeD , short[] workCostLr) {
-		int cost = costXD.data[idxCost+d] & 0xFFFF;  // C(p,d)
+		computeCostBorderD(costXD.data, idxCost, workCostLr, idxLrPrev, workCostLr, idxLrPrev+lengthD, d, localRangeD);
+	}
+
+	/**
+	 * Same as {@link #computeCostBorderD(int, int, int, GrayU16, int, short[])} but the previous and the
+	 * output Lr can be stored in different arrays.
+	 *
+	 * @param prevLr Array containing Lr(p-r,:)
+	 * @param idxLrPrev index of Lr(p-r,0)
+	 * @param dstLr Array that Lr(p,:) is written to
+	 * @param idxLr index of Lr(p,0)
+	 */
+	void computeCostBorderD( final short[] costXD , final int idxCost ,
+							 final short[] prevLr, final int idxLrPrev, final short[] dstLr, final int idxLr,
+							 final int d , final int localRangeD ) {
+		int cost = costXD[idxCost+d] & 0xFFFF;  // C(p,d)
 
 		// Sample previously computed aggregate costs with bounds checking
-		int a = workCostLr[idxLrPrev+d]&0xFFFF; // Lr(p-r,d)
-		int b = d > 0 ? workCostLr[idxLrPrev+d-1]&0xFFFF : SgmDisparityCost.MAX_COST; // Lr(p-r,d-1)
-		int c = d < localRangeD-1 ? workCostLr[idxLrPrev+d+1]&0xFFFF : SgmDisparityCost.MAX_COST; // Lr(p-r,d+1)
+		int a = prevLr[idxLrPrev+d]&0xFFFF; // Lr(p-r,d)
+		int b = d > 0 ? prevLr[idxLrPrev+d-1]&0xFFFF : SgmDisparityCost.MAX_COST; // Lr(p-r,d-1)
+		int c = d < localRangeD-1 ? prevLr[idxLrPrev+d+1]&0xFFFF : SgmDisparityCost.MAX_COST; // Lr(p-r,d+1)
 
-		// NOTE: See comments in scorePath() for why 'a' doesn't have problems with 'idxLrPrev+d' going outside
+		// NOTE: See comments in computeStartLr() for why 'a' doesn't have problems with 'idxLrPrev+d' going outside
 		// the disparity range of the previous step with d = localRangeD-1. In the previous step localRangeD
 		// could have had a smaller value
 
@@ -401,7 +476,7 @@ public class SgmCostAggregation {
 //			throw new RuntimeException("Overflowed!");
 
 		// minCostPrev is done to reduce the rate at which the cost increases. It has potential for overflow otherwise
-		workCostLr[idxLrPrev+this.lengthD+d] = (short)(cost + a);
+		dstLr[idxLr+d] = (short)(cost + a);
 	}
 
 	/**
@@ -450,7 +525,7 @@ public class SgmCostAggregation {
 	 * (x0,y0) is the initial coordinate
 	 * (dx,dy) is the direction
 	 */
-	private static class Trajectory {
+	static class Trajectory {
 		public int x0,y0,dx,dy;
 
 		public void set(int x0, int y0, int dx , int dy ) {
@@ -461,6 +536,18 @@ public class SgmCostAggregation {
 		}
 	}
 
+	/**
+	 * Processes the aggregated cost for a horizontal strip in the image.
+	 */
+	public interface StripConsumer {
+		/**
+		 * @param y0 First row in the strip, inclusive
+		 * @param y1 Last row in the strip, exclusive
+		 * @param aggregatedYXD Aggregated cost for the strip. Band 0 is row y0.
+		 */
+		void process( int y0 , int y1 , Planar<GrayU16> aggregatedYXD );
+	}
+
 	public Planar<GrayU16> getAggregated() {
 		return aggregated;
 	}
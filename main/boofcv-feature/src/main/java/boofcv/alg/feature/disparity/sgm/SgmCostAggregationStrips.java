@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.Planar;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Variant of {@link SgmCostAggregation} which computes the aggregated cost in horizontal strips. Only the
+ * aggregated cost for a single strip is stored in memory at any time, instead of the full H*W*D tensor. After
+ * a strip has been aggregated it's passed to a {@link StripConsumer}, e.g. the disparity selector, before the next
+ * strip is processed. The aggregated cost is identical to what {@link SgmCostAggregation} computes.
+ * </p>
+ *
+ * <p>
+ * Instead of scoring one path at a time, all the paths for a direction are advanced one row at a time. The
+ * previous Lr for each direction is stored in a ring buffer with |dy|+1 rows. Directions which move towards
+ * the top of the image can't be computed in the same top to bottom pass. To get around that problem an initial
+ * bottom to top pass is done for those directions and Lr is saved at the bottom of each strip. When the strip
+ * is processed Lr is then recomputed from the saved state. With 8 paths this increases the amount of computation
+ * by about 3/8, while the memory required to store the aggregated cost goes from H*W*D to stripHeight*W*D plus
+ * |dy| saved rows of W*D per strip for each upwards direction.
+ * </p>
+ *
+ * <p>
+ * The getAggregated() function will only return the aggregated cost for the last strip after
+ * {@link #process(Planar, StripConsumer)} has been called.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SgmCostAggregationStrips extends SgmCostAggregation {
+
+	// Maximum number of rows in a single strip
+	int stripHeight = 64;
+
+	// Directions which are being scored
+	FastQueue<Direction> directions = new FastQueue<>(Direction.class,Direction::new);
+
+	// Number of elements in a single row of Lr = effectiveLengthX*lengthD
+	int rowLength;
+
+	// References the bands in 'aggregated' which are used by the last strip when it's shorter than the others
+	Planar<GrayU16> partialStrip = new Planar<>(GrayU16.class,0);
+
+	/**
+	 * Specifies the maximum number of rows in each strip
+	 */
+	public SgmCostAggregationStrips( int stripHeight ) {
+		setStripHeight(stripHeight);
+	}
+
+	public SgmCostAggregationStrips() {
+	}
+
+	/**
+	 * Aggregates the cost one strip at a time. After a strip has been aggregated it's passed to the consumer.
+	 * Strips are processed from the top of the image to the bottom.
+	 *
+	 * @param costYXD Cost for all possible combinations of x,y,d in input image.
+	 * @param consumer Processes the aggregated cost for each strip
+	 */
+	@Override
+	public void process( Planar<GrayU16> costYXD , StripConsumer consumer ) {
+		initShape(costYXD);
+		this.rowLength = effectiveLengthX*lengthD;
+
+		final int numStrips = (lengthY+stripHeight-1)/stripHeight;
+		aggregated.reshape(lengthD,lengthX,Math.min(lengthY,stripHeight));
+
+		initDirections(numStrips);
+
+		// Lr at the bottom of each strip is needed when moving up
+		saveBottomOfStrips(numStrips);
+
+		for (int strip = 0; strip < numStrips; strip++) {
+			int y0 = strip*stripHeight;
+			int y1 = Math.min(lengthY,y0+stripHeight);
+
+			for (int band = 0; band < y1-y0; band++) {
+				ImageMiscOps.fill(aggregated.getBand(band),0);
+			}
+
+			for (int i = 0; i < directions.size; i++) {
+				Direction dir = directions.get(i);
+				if( dir.dy < 0 ) {
+					dir.restoreSaved(strip+1, y1);
+					for (int y = y1-1; y >= y0; y--) {
+						scoreRow(dir, y, y0);
+					}
+				} else {
+					for (int y = y0; y < y1; y++) {
+						scoreRow(dir, y, y0);
+					}
+				}
+			}
+
+			if( y1-y0 == aggregated.getNumBands() ) {
+				consumer.process(y0,y1,aggregated);
+			} else {
+				consumer.process(y0,y1,partialStrip(y1-y0));
+			}
+		}
+	}
+
+	/**
+	 * Returns an image which references the first 'rows' bands of the aggregated cost. Only declares new
+	 * memory if the number of rows has changed.
+	 */
+	Planar<GrayU16> partialStrip( int rows ) {
+		if( partialStrip.getNumBands() != rows )
+			partialStrip = new Planar<>(GrayU16.class,rows);
+		partialStrip.setWidth(aggregated.width);
+		partialStrip.setHeight(aggregated.height);
+		partialStrip.setStride(aggregated.stride);
+		for (int i = 0; i < rows; i++) {
+			partialStrip.setBand(i,aggregated.getBand(i));
+		}
+		return partialStrip;
+	}
+
+	/**
+	 * Declares memory for each direction which is going to be scored.
+	 */
+	void initDirections( int numStrips ) {
+		final int numDirections = numberOfDirections();
+		directions.resize(numDirections);
+		for (int i = 0; i < numDirections; i++) {
+			Direction dir = directions.get(i);
+			dir.dx = DIRECTIONS[i][0];
+			dir.dy = DIRECTIONS[i][1];
+			int k = Math.abs(dir.dy);
+
+			dir.ring = declareRows(dir.ring, dir.dy == 0 ? 1 : k+1, rowLength);
+			if( dir.dy < 0 ) {
+				dir.saved = declareRows(dir.saved,(numStrips-1)*k,rowLength);
+			}
+		}
+	}
+
+	/**
+	 * Runs through the directions which move up from the bottom of the image and saves the Lr in the rows
+	 * which are just below the top of each strip. These rows are then used to start the paths inside of each
+	 * strip.
+	 */
+	void saveBottomOfStrips( int numStrips ) {
+		if( numStrips <= 1 )
+			return;
+
+		for (int i = 0; i < directions.size; i++) {
+			Direction dir = directions.get(i);
+			if( dir.dy >= 0 )
+				continue;
+			final int k = -dir.dy;
+
+			// rows above the second strip are never needed
+			for (int y = lengthY-1; y >= stripHeight; y--) {
+				scoreRow(dir, y, -1);
+				// this row could be needed by multiple strips if they are smaller than k
+				for (int strip = y/stripHeight; strip >= 1 && strip*stripHeight+k > y; strip--) {
+					short[] src = dir.ring[dir.slot(y)];
+					short[] dst = dir.saved[(strip-1)*k + y-strip*stripHeight];
+					System.arraycopy(src,0,dst,0,rowLength);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes Lr for every path which intersects the row along the specified direction. The previous Lr has
+	 * to have already been computed. If y0 &ge; 0 then Lr is added to aggregated at row (y-y0)
+	 */
+	void scoreRow( Direction dir , int y , int y0 ) {
+		final int dx = dir.dx, dy = dir.dy;
+		final GrayU16 costXD = costYXD.getBand(y);
+		final short[] dstLr = dir.ring[dir.slot(y)];
+		final GrayU16 aggrXD = y0 >= 0 ? aggregated.getBand(y-y0) : null;
+
+		// If moving along the x-axis only then Lr depends on the previous element in this row. Make sure
+		// elements are processed in the correct order
+		final int xStart, xEnd, xStep;
+		if( dx < 0 ) {
+			xStart = effectiveLengthX-1; xEnd = -1; xStep = -1;
+		} else {
+			xStart = 0; xEnd = effectiveLengthX; xStep = 1;
+		}
+
+		for (int x = xStart; x != xEnd; x += xStep) {
+			if( !isOnPath(x,y,dx,dy) )
+				continue;
+
+			final int idxCost = costXD.getIndex(0,x);
+			final int localRangeD = helper.localDisparityRangeLeft(x+disparityMin);
+			final int idxLr = x*lengthD;
+
+			final int px = x-dx, py = y-dy;
+			if( px < 0 || px >= effectiveLengthX || py < 0 || py >= lengthY ) {
+				computeStartLr(costXD.data, idxCost, localRangeD, dstLr, idxLr);
+			} else {
+				computeNextLr(costXD.data, idxCost, localRangeD, dir.ring[dir.slot(py)], px*lengthD, dstLr, idxLr);
+			}
+
+			if( aggrXD == null )
+				continue;
+
+			int idxAggr = aggrXD.getIndex(0,x);
+			for (int d = 0; d < localRangeD; d++, idxAggr++) {
+				aggrXD.data[idxAggr] = (short)((aggrXD.data[idxAggr]&0xFFFF) + (dstLr[idxLr+d]&0xFFFF));
+			}
+		}
+	}
+
+	/**
+	 * Returns true if (x,y) is visited by one of the paths moving in direction (dx,dy). When a direction
+	 * moves by more than one pixel along an axis it's possible for a pixel to be skipped. This is
+	 * determined by walking backwards until it hits the image border and seeing if it's at a location
+	 * a path would have started from. See {@link #scoreDirection(int, int)}.
+	 */
+	boolean isOnPath( int x , int y , int dx , int dy ) {
+		int steps = Math.min(stepsToBorder(x,dx,effectiveLengthX),stepsToBorder(y,dy,lengthY));
+		int x0 = x - steps*dx;
+		int y0 = y - steps*dy;
+
+		return  (dx > 0 && x0 == 0) || (dx < 0 && x0 == effectiveLengthX-1) ||
+				(dy > 0 && y0 == 0) || (dy < 0 && y0 == lengthY-1);
+	}
+
+	/**
+	 * Number of steps that can be taken backwards before going outside the image
+	 */
+	private static int stepsToBorder( int t , int step , int length ) {
+		if( step > 0 )
+			return t/step;
+		else if( step < 0 )
+			return (length-1-t)/(-step);
+		else
+			return Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Ensures the array of rows has the specified shape. Data is not preserved if it needs to be resized
+	 */
+	static short[][] declareRows( short[][] rows , int numRows , int length ) {
+		if( rows.length != numRows )
+			rows = new short[numRows][];
+		for (int i = 0; i < numRows; i++) {
+			if( rows[i] == null || rows[i].length != length )
+				rows[i] = new short[length];
+		}
+		return rows;
+	}
+
+	/**
+	 * Storage for the state of all the paths moving in the same direction.
+	 */
+	class Direction {
+		// Direction being scored
+		int dx,dy;
+		// Lr(y,x,d) for the last |dy|+1 rows. Row 'y' is stored in slot y % (|dy|+1). Lr(x,d) = x*lengthD+d
+		short[][] ring = new short[0][];
+		// Lr for the first |dy| rows below the top of each strip, excluding the first strip.
+		// Row 'i' for strip 's' is stored at (s-1)*|dy| + i
+		short[][] saved = new short[0][];
+
+		int slot( int y ) {
+			return dy == 0 ? 0 : y % ring.length;
+		}
+
+		/**
+		 * Copies the saved Lr below the strip into the ring buffer. If the strip is at the bottom of the
+		 * image then nothing is done because the paths start inside the strip.
+		 *
+		 * @param strip Index of the strip just below the one being processed
+		 * @param y0 First row in the strip below
+		 */
+		void restoreSaved( int strip , int y0 ) {
+			final int k = -dy;
+			for (int i = 0; i < k && y0+i < lengthY; i++) {
+				System.arraycopy(saved[(strip-1)*k+i],0,ring[slot(y0+i)],0,rowLength);
+			}
+		}
+	}
+
+	public int getStripHeight() {
+		return stripHeight;
+	}
+
+	public void setStripHeight( int stripHeight ) {
+		if( stripHeight <= 0 )
+			throw new IllegalArgumentException("Strip height must be more than zero");
+		this.stripHeight = stripHeight;
+	}
+}
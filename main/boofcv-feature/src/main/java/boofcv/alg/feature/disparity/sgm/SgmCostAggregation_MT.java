@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+
+/**
+ * Concurrent version of {@link SgmCostAggregation}. The paths in each direction are split into blocks which
+ * are scored in parallel, with each thread having its own {@link WorkSpace}. Results are identical to the
+ * single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class SgmCostAggregation_MT extends SgmCostAggregation {
+
+	ComputeBlock computeBlock = new ComputeBlock();
+
+	@Override
+	void scoreTrajectories() {
+		BoofConcurrency.loopBlocks(0,trajectories.size,1,workspace,computeBlock);
+	}
+
+	private class ComputeBlock implements IntRangeObjectConsumer<WorkSpace> {
+		@Override
+		public void accept(WorkSpace workspace, int minInclusive, int maxExclusive) {
+			workspace.checkSize();
+
+			for (int i = minInclusive; i < maxExclusive; i++) {
+				Trajectory t = trajectories.get(i);
+				scorePath(t.x0,t.y0,t.dx,t.dy,workspace.workCostLr);
+			}
+		}
+	}
+}
@@ -18,7 +18,11 @@
 
 package boofcv.alg.feature.disparity.sgm;
 
+import boofcv.misc.ProfilesRuntime;
+import boofcv.misc.RuntimeProfiler;
 import boofcv.struct.image.*;
+import lombok.Getter;
+import lombok.Setter;
 
 /**
  * Base class for SGM stereo implementations. It combines the cost computation, cost aggregation, and disparity
@@ -26,12 +30,15 @@ import boofcv.struct.image.*;
  *
  * <p>NOTE: [1] suggests applying a median filter. This is not done by any of this class' children.</p>
  *
+ * <p>Profiling: Stages which are run at multiple scales are recorded once for each scale.</p>
+ *
  * <p>[1] Hirschmuller, Heiko. "Stereo processing by semiglobal matching and mutual information."
  * IEEE Transactions on pattern analysis and machine intelligence 30.2 (2007): 328-341.</p>
  *
  * @author Peter Abeles
  */
 public abstract class SgmStereoDisparity<T extends ImageBase<T>, C extends ImageBase<C>>
+		implements ProfilesRuntime
 {
 	// Defines the disparity search range
 	protected int disparityMin = 0;     // minimum disparity considered
@@ -48,6 +55,15 @@ public abstract class SgmStereoDisparity<T extends ImageBase<T>, C extends Image
 
 	// Storage for found disparity
 	protected GrayU8 disparity = new GrayU8(1,1);
+	// Sub-image of disparity for a strip of rows
+	protected GrayU8 disparityStrip = new GrayU8(1,1);
+
+	// The aggregated cost at d-1, d, d+1 for the selected disparity. Used to compute sub-pixel disparity without
+	// needing to save the entire aggregated cost tensor. See SgmCostAggregationStrips.
+	protected Planar<GrayU16> subpixelCost = new Planar<>(GrayU16.class,1,1,3);
+
+	// Records how long each stage takes
+	protected @Getter @Setter RuntimeProfiler profiler = new RuntimeProfiler();
 
 	public SgmStereoDisparity(SgmDisparityCost<C> sgmCost, SgmDisparitySelector selector) {
 		this.sgmCost = sgmCost;
@@ -62,25 +78,85 @@ public abstract class SgmStereoDisparity<T extends ImageBase<T>, C extends Image
 	 */
 	public abstract void process( T left , T right );
 
+	/**
+	 * Computes the cost tensor {@link #costYXD} using the current disparity range
+	 */
+	protected void computeCost( C left , C right ) {
+		profiler.begin("sgm.cost");
+		sgmCost.process(left,right,costYXD);
+		profiler.end("sgm.cost");
+	}
+
+	/**
+	 * Aggregates the cost in {@link #costYXD} and selects the best disparity for each pixel. Aggregation can be
+	 * done in horizontal strips, so disparity is selected one strip at a time.
+	 *
+	 * @param disparityMin Minimum disparity in the cost tensor
+	 */
+	protected void aggregateAndSelect( int disparityMin ) {
+		selector.setDisparityMin(disparityMin);
+		// The cost tensor might not be the same shape as the input image, e.g. inside an image pyramid
+		disparity.reshape(costYXD.height,costYXD.getNumBands());
+		subpixelCost.reshape(disparity.width,disparity.height);
+
+		profiler.begin("sgm.aggregate_select");
+		aggregation.process(costYXD, (y0, y1, aggregatedYXD) -> {
+			disparity.subimage(0,y0,disparity.width,y1,disparityStrip);
+			selector.select(costYXD,aggregatedYXD,disparityStrip);
+			saveSubpixelCost(y0,disparityMin,aggregatedYXD,disparityStrip);
+		});
+		profiler.end("sgm.aggregate_select");
+	}
+
+	/**
+	 * Saves the aggregated cost around the selected disparity so that sub-pixel disparity can be computed later on
+	 */
+	void saveSubpixelCost( int y0 , int disparityMin , Planar<GrayU16> aggregatedYXD , GrayU8 disparity ) {
+		final int lengthD = aggregatedYXD.width;
+		final GrayU16 cost0 = subpixelCost.getBand(0);
+		final GrayU16 cost1 = subpixelCost.getBand(1);
+		final GrayU16 cost2 = subpixelCost.getBand(2);
+
+		for (int i = 0; i < aggregatedYXD.getNumBands(); i++) {
+			GrayU16 costXD = aggregatedYXD.getBand(i);
+			for (int x = disparityMin; x < costXD.height; x++) {
+				int localMaxRange = Math.min(x-disparityMin+1,lengthD);
+				int d = disparity.unsafe_get(x,i);
+				if( d > 0 && d < localMaxRange-1) {
+					int adjX = x - disparityMin; // see how cost tensor is defined
+					cost0.unsafe_set(x,y0+i,costXD.unsafe_get(d-1,adjX));
+					cost1.unsafe_set(x,y0+i,costXD.unsafe_get(d  ,adjX));
+					cost2.unsafe_set(x,y0+i,costXD.unsafe_get(d+1,adjX));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes sub-pixel disparity using the aggregated cost around the selected disparity.
+	 *
+	 * @param src (Input) Disparity computed by the most recent call to {@link #process}
+	 * @param dst (Output) Sub-pixel disparity
+	 */
 	// TODO remove need to compute U8 first
 	public void subpixel( GrayU8 src , GrayF32 dst ) {
 		dst.reshape(src);
-		Planar<GrayU16> aggregatedYXD = aggregation.getAggregated();
+		final GrayU16 cost0 = subpixelCost.getBand(0);
+		final GrayU16 cost1 = subpixelCost.getBand(1);
+		final GrayU16 cost2 = subpixelCost.getBand(2);
 
-		for (int y = 0; y < aggregatedYXD.getNumBands(); y++) {
-			GrayU16 costXD = aggregatedYXD.getBand(y);
+		for (int y = 0; y < src.height; y++) {
 			for (int x = 0; x < disparityMin; x++) {
 				dst.unsafe_set(x,y,disparityRange); // make as invalid
 			}
-			for (int x = disparityMin; x < costXD.height; x++) {
+			for (int x = disparityMin; x < src.width; x++) {
 				int localMaxRange = helper.localDisparityRangeLeft(x);
 				int d = src.unsafe_get(x,y);
 				float subpixel;
 				if( d > 0 && d < localMaxRange-1) {
-					int adjX = x - disparityMin; // see how cost tensor is defined
-					int c0 = costXD.unsafe_get(d-1,adjX);
-					int c1 = costXD.unsafe_get(d  ,adjX);
-					int c2 = costXD.unsafe_get(d+1,adjX);
+					int c0 = cost0.unsafe_get(x,y);
+					int c1 = cost1.unsafe_get(x,y);
+					int c2 = cost2.unsafe_get(x,y);
 
 					float offset = (float)(c0-c2)/(float)(2*(c0-2*c1+c2));
 					subpixel = d + offset;
@@ -104,6 +180,17 @@ public abstract class SgmStereoDisparity<T extends ImageBase<T>, C extends Image
 		return aggregation;
 	}
 
+	/**
+	 * Changes which algorithm is used to aggregate the cost. Penalties and number of paths are copied over from
+	 * the previous algorithm.
+	 */
+	public void setAggregation( SgmCostAggregation aggregation ) {
+		aggregation.setPenalty1(this.aggregation.getPenalty1());
+		aggregation.setPenalty2(this.aggregation.getPenalty2());
+		aggregation.setPathsConsidered(this.aggregation.getPathsConsidered());
+		this.aggregation = aggregation;
+	}
+
 	public Planar<GrayU16> getCostYXD() {
 		return costYXD;
 	}
@@ -56,8 +56,10 @@ public class SgmStereoDisparityCensus<T extends ImageBase<T>,C extends ImageGray
 		InputSanityCheck.checkSameShape(left,right);
 
 		// Apply Census Transform to input images
+		profiler.begin("sgm.census");
 		censusTran.process(left,cleft);
 		censusTran.process(right,cright);
+		profiler.end("sgm.census");
 
 		disparity.reshape(left);
 		helper.configure(left.width,disparityMin,disparityRange);
@@ -65,12 +67,8 @@ public class SgmStereoDisparityCensus<T extends ImageBase<T>,C extends ImageGray
 		aggregation.configure(disparityMin);
 
 		// Compute the cost using mutual information
-		sgmCost.process(cleft,cright,costYXD);
-		// Aggregate the cost along all the paths
-		aggregation.process(costYXD);
-
-		// Select the best disparity for each pixel given the cost
-		selector.setDisparityMin(disparityMin);
-		selector.select(costYXD,aggregation.getAggregated(),disparity);
+		computeCost(cleft,cright);
+		// Aggregate the cost along all the paths and select the best disparity for each pixel
+		aggregateAndSelect(disparityMin);
 	}
 }
@@ -48,13 +48,9 @@ public class SgmStereoDisparityError<T extends ImageBase<T>>
 		aggregation.configure(disparityMin);
 
 		// Compute the cost using mutual information
-		sgmCost.process(left,right,costYXD);
-		// Aggregate the cost along all the paths
-		aggregation.process(costYXD);
-
-		// Select the best disparity for each pixel given the cost
-		selector.setDisparityMin(disparityMin);
-		selector.select(costYXD,aggregation.getAggregated(),disparity);
+		computeCost(left,right);
+		// Aggregate the cost along all the paths and select the best disparity for each pixel
+		aggregateAndSelect(disparityMin);
 	}
 
 }
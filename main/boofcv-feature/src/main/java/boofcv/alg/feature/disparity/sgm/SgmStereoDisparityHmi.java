@@ -108,8 +108,10 @@ public class SgmStereoDisparityHmi extends SgmStereoDisparityError<GrayU8> {
 		helper.configure(left.width,disparityMin,disparityRange);
 
 		// Create image pyramid
+		profiler.begin("sgm.pyramid");
 		pyrLeft.process(left);
 		pyrRight.process(right);
+		profiler.end("sgm.pyramid");
 
 		// Initialize MI by assuming pixels with a similar value are similar
 		// NOTE: Scaling by average pixel intensity seems to be a wash. helps/hurts equally.
@@ -141,27 +143,27 @@ public class SgmStereoDisparityHmi extends SgmStereoDisparityError<GrayU8> {
 			}
 			sgmCost.configure(levelDisparityMin,levelDisparityRange);
 			aggregation.configure(levelDisparityMin);
-			sgmCost.process(levelLeft,levelRight,costYXD);
-			aggregation.process(costYXD);
-			selector.setDisparityMin(levelDisparityMin); // todo move to function below
-			selector.select(costYXD,aggregation.getAggregated(),disparity);
+			computeCost(levelLeft,levelRight);
+			aggregateAndSelect(levelDisparityMin);
 
 			if( level > 0 ) {
 				int invalid = selector.getInvalidDisparity();
 				// Update the mutual information model using the latest disparity estimate
+				profiler.begin("sgm.mutual_info");
 				stereoMI.process(levelLeft, levelRight, levelDisparityMin, disparity, invalid);
 				stereoMI.precomputeScaledCost(SgmDisparityCost.MAX_COST);
+				profiler.end("sgm.mutual_info");
 			}
 		}
 		for (int i = 0; i < extraIterations; i++) {
+			profiler.begin("sgm.mutual_info");
 			stereoMI.process(left, right, disparityMin, disparity, selector.getInvalidDisparity());
 			stereoMI.precomputeScaledCost(SgmDisparityCost.MAX_COST);
+			profiler.end("sgm.mutual_info");
 			sgmCost.configure(disparityMin,disparityRange);
 			aggregation.configure(disparityMin);
-			sgmCost.process(left,right,costYXD);
-			aggregation.process(costYXD);
-			selector.setDisparityMin(disparityMin);
-			selector.select(costYXD,aggregation.getAggregated(),disparity);
+			computeCost(left,right);
+			aggregateAndSelect(disparityMin);
 		}
 	}
 
@@ -177,8 +179,10 @@ public class SgmStereoDisparityHmi extends SgmStereoDisparityError<GrayU8> {
 		InputSanityCheck.checkSameShape(left,right,disparityEst);
 
 		// Compute mutual information model given the initial disparity estimate
+		profiler.begin("sgm.mutual_info");
 		stereoMI.process(left, right, disparityMin, disparityEst, invalid);
 		stereoMI.precomputeScaledCost(SgmDisparityCost.MAX_COST);
+		profiler.end("sgm.mutual_info");
 
 		super.process(left,right);
 	}
@@ -21,12 +21,15 @@ package boofcv.alg.shapes.polygon;
 import boofcv.alg.filter.binary.ContourPacked;
 import boofcv.alg.shapes.edge.EdgeIntensityPolygon;
 import boofcv.misc.MovingAverage;
+import boofcv.misc.ProfilesRuntime;
+import boofcv.misc.RuntimeProfiler;
 import boofcv.struct.distort.PixelTransform;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 import georegression.struct.point.Point2D_F32;
 import georegression.struct.point.Point2D_I32;
 import georegression.struct.shapes.Polygon2D_F64;
+import lombok.Getter;
 import org.ddogleg.struct.FastQueue;
 
 import javax.annotation.Nullable;
@@ -40,7 +43,7 @@ import java.util.List;
  *
  * @author Peter Abeles
  */
-public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
+public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> implements ProfilesRuntime {
 
 	// Detects the polygons using a contour from a binary image
 	DetectPolygonFromContour<T> detector;
@@ -64,7 +67,9 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 	// threshold for pruning after refinement
 	double minimumRefineEdgeIntensity;
 
-	// timing for profiler
+	// timing for profiler. Shared with the detector
+	@Getter RuntimeProfiler profiler;
+	// always measured so that getMilliAdjustBias() works when the profiler is disabled
 	MovingAverage milliAdjustBias = new MovingAverage(0.8);
 
 	/**
@@ -91,6 +96,7 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 
 		this.edgeIntensity = new EdgeIntensityPolygon<>(1, 1.5, 15,
 				detector.getInputType());
+		this.profiler = detector.getProfiler();
 	}
 
 	/**
@@ -136,6 +142,13 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 		edgeIntensity.setTransform(null);
 	}
 
+	@Override
+	public void setProfiler( RuntimeProfiler profiler ) {
+		this.profiler = profiler;
+		detector.setProfiler(profiler);
+	}
+
+	@Override
 	public void resetRuntimeProfiling() {
 		detector.resetRuntimeProfiling();
 		milliAdjustBias.reset();
@@ -153,6 +166,7 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 		edgeIntensity.setImage(gray);
 
 		long time0 = System.nanoTime();
+		profiler.begin("polygon.adjust_bias");
 		FastQueue<DetectPolygonFromContour.Info> detections = detector.getFound();
 
 		if( adjustForBias != null ) {
@@ -167,13 +181,8 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 					detections.remove(i);
 			}
 		}
-		long time1 = System.nanoTime();
-
-		double milli = (time1-time0)*1e-6;
-
-		milliAdjustBias.update(milli);
-//		System.out.printf(" contour %7.2f shapes %7.2f adjust_bias %7.2f\n",
-//				detector.getMilliShapes(),detector.getMilliShapes(),milliAdjustBias);
+		profiler.end("polygon.adjust_bias");
+		milliAdjustBias.update((System.nanoTime()-time0)*1e-6);
 	}
 
 	/**
@@ -310,6 +319,9 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 		this.functionAdjust = functionAdjust;
 	}
 
+	/**
+	 * Average time to adjust polygons for threshold bias. Measured even if the profiler is disabled.
+	 */
 	public double getMilliAdjustBias() {
 		return milliAdjustBias.getAverage();
 	}
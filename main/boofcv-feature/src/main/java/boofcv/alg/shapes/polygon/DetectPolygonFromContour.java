@@ -24,6 +24,8 @@ import boofcv.abst.shapes.polyline.PointsToPolyline;
 import boofcv.alg.InputSanityCheck;
 import boofcv.alg.filter.binary.ContourPacked;
 import boofcv.misc.MovingAverage;
+import boofcv.misc.ProfilesRuntime;
+import boofcv.misc.RuntimeProfiler;
 import boofcv.struct.ConfigLength;
 import boofcv.struct.distort.PixelTransform;
 import boofcv.struct.image.GrayU8;
@@ -34,6 +36,8 @@ import georegression.struct.point.Point2D_F32;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point2D_I32;
 import georegression.struct.shapes.Polygon2D_F64;
+import lombok.Getter;
+import lombok.Setter;
 import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.GrowQueue_B;
 import org.ddogleg.struct.GrowQueue_I32;
@@ -70,7 +74,7 @@ import java.util.List;
  *
  * @author Peter Abeles
  */
-public class DetectPolygonFromContour<T extends ImageGray<T>> {
+public class DetectPolygonFromContour<T extends ImageGray<T>> implements ProfilesRuntime {
 
 	// minimum size of a shape's contour as a fraction of the image width
 	private ConfigLength minimumContourConfig;
@@ -127,6 +131,8 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 	List<Point2D_I32> polygonPixel = new ArrayList<>();
 
 	// times for internal profiling
+	@Getter @Setter RuntimeProfiler profiler = new RuntimeProfiler();
+	// always measured so that getMilliContour() and getMilliShapes() work when the profiler is disabled
 	MovingAverage milliContour = new MovingAverage(0.8);
 	MovingAverage milliShapes = new MovingAverage(0.8);
 
@@ -191,11 +197,6 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 		this.undistToDist = undistToDist;
 	}
 
-	public void resetRuntimeProfiling() {
-		milliContour.reset();
-		milliShapes.reset();
-	}
-
 	/**
 	 * Discard previously set lens distortion models
 	 */
@@ -237,20 +238,22 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 		long time0 = System.nanoTime();
 
 		// find all the contours
+		profiler.begin("polygon.contour");
 		contourFinder.process(binary);
+		profiler.end("polygon.contour");
 
 		long time1 = System.nanoTime();
 
 		// Using the contours find the polygons
+		profiler.begin("polygon.shapes");
 		findCandidateShapes();
+		profiler.end("polygon.shapes");
+		profiler.count("polygon.found", foundInfo.size);
 
 		long time2 = System.nanoTime();
 
-		double a = (time1-time0)*1e-6;
-		double b = (time2-time1)*1e-6;
-
-		milliContour.update(a);
-		milliShapes.update(b);
+		milliContour.update((time1-time0)*1e-6);
+		milliShapes.update((time2-time1)*1e-6);
 
 		if( verbose ) System.out.println("EXIT  DetectPolygonFromContour.process()");
 	}
@@ -605,10 +608,23 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 		return contourFinder;
 	}
 
+	@Override
+	public void resetRuntimeProfiling() {
+		profiler.reset();
+		milliContour.reset();
+		milliShapes.reset();
+	}
+
+	/**
+	 * Average time to find contours. Measured even if the profiler is disabled.
+	 */
 	public double getMilliContour() {
 		return milliContour.getAverage();
 	}
 
+	/**
+	 * Average time to fit shapes to contours. Measured even if the profiler is disabled.
+	 */
 	public double getMilliShapes() {
 		return milliShapes.getAverage();
 	}
@@ -25,6 +25,8 @@ import boofcv.abst.tracker.ConfigTrackerDda;
 import boofcv.abst.tracker.PointTrack;
 import boofcv.abst.tracker.PointTracker;
 import boofcv.alg.descriptor.UtilFeature;
+import boofcv.misc.ProfilesRuntime;
+import boofcv.misc.RuntimeProfiler;
 import boofcv.struct.feature.AssociatedIndex;
 import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.image.ImageGray;
@@ -50,6 +52,7 @@ import java.util.Random;
  * @author Peter Abeles
  */
 public class DetectDescribeAssociateTracker<I extends ImageGray<I>, TD extends TupleDesc>
+		implements ProfilesRuntime
 {
 	// associates features between two images together
 	protected AssociateDescriptionSets2D<TD> associate;
@@ -93,6 +96,9 @@ public class DetectDescribeAssociateTracker<I extends ImageGray<I>, TD extends T
 	protected GrowQueue_I32 srcSet = new GrowQueue_I32();
 	protected FastArray<Point2D_F64> srcPixels = new FastArray<>(Point2D_F64.class);
 
+	// Records how long each stage takes
+	protected @Getter @Setter RuntimeProfiler profiler = new RuntimeProfiler();
+
 	/**
 	 * Configures tracker
 	 *
@@ -160,9 +166,12 @@ public class DetectDescribeAssociateTracker<I extends ImageGray<I>, TD extends T
 		tracksDropped.clear();
 		tracksNew.clear();
 
+		profiler.begin("dda.detect");
 		detector.detect(input);
+		profiler.end("dda.detect");
 
 		final int N = detector.getNumberOfFeatures();
+		profiler.count("dda.detections", N);
 		// initialize data structures
 		dstDesc.resize(N);
 		dstSet.resize(N);
@@ -179,7 +188,9 @@ public class DetectDescribeAssociateTracker<I extends ImageGray<I>, TD extends T
 			return;
 		}
 
+		profiler.begin("dda.associate");
 		performTracking();
+		profiler.end("dda.associate");
 
 		// add unassociated to the list
 		GrowQueue_I32 unassociatedIdx = associate.getUnassociatedSource();
@@ -188,6 +199,8 @@ public class DetectDescribeAssociateTracker<I extends ImageGray<I>, TD extends T
 		}
 
 		dropExcessiveInactiveTracks(unassociatedIdx);
+		profiler.count("dda.active", tracksActive.size());
+		profiler.count("dda.inactive", tracksInactive.size());
 	}
 
 	/**
@@ -43,6 +43,12 @@ public class ConfigAssociateGreedy implements Configuration {
 	 */
 	public double maxErrorThreshold = -1.0;
 
+	/**
+	 * If true then the src x dst score matrix isn't saved. Memory will scale with the number of features instead
+	 * of the number of features squared. Results are identical.
+	 */
+	public boolean sparse = false;
+
 	public ConfigAssociateGreedy(boolean forwardsBackwards, double maxErrorThreshold) {
 		this.forwardsBackwards = forwardsBackwards;
 		this.maxErrorThreshold = maxErrorThreshold;
@@ -71,5 +77,6 @@ public class ConfigAssociateGreedy implements Configuration {
 		this.forwardsBackwards = src.forwardsBackwards;
 		this.scoreRatioThreshold = src.scoreRatioThreshold;
 		this.maxErrorThreshold = src.maxErrorThreshold;
+		this.sparse = src.sparse;
 	}
 }
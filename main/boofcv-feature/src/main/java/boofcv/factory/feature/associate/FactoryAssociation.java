@@ -20,13 +20,16 @@ package boofcv.factory.feature.associate;
 
 import boofcv.abst.feature.associate.*;
 import boofcv.abst.feature.describe.DescriptorInfo;
+import boofcv.alg.descriptor.KdTreeTuple_F32;
 import boofcv.alg.descriptor.KdTreeTuple_F64;
+import boofcv.alg.descriptor.KdTreeTuple_U8;
 import boofcv.alg.feature.associate.*;
 import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.ConfigLength;
 import boofcv.struct.feature.*;
 import org.ddogleg.nn.FactoryNearestNeighbor;
 import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.alg.KdTreeDistance;
 
 import javax.annotation.Nullable;
 
@@ -114,7 +117,13 @@ public class FactoryAssociation {
 			config = new ConfigAssociateGreedy();
 		AssociateGreedyDescBase<D> alg;
 
-		if(BoofConcurrency.USE_CONCURRENT ) {
+		if( config.sparse ) {
+			if(BoofConcurrency.USE_CONCURRENT ) {
+				alg = new AssociateGreedyDescSparse_MT<>(score);
+			} else {
+				alg = new AssociateGreedyDescSparse<>(score);
+			}
+		} else if(BoofConcurrency.USE_CONCURRENT ) {
 			alg = new AssociateGreedyDesc_MT<>(score);
 		} else {
 			alg = new AssociateGreedyDesc<>(score);
@@ -126,6 +135,27 @@ public class FactoryAssociation {
 		return new WrapAssociateGreedy<>(alg);
 	}
 
+	/**
+	 * Returns an algorithm for greedily associating binary features using multi-index hashing. Results are
+	 * the same as {@link #greedy} with a Hamming distance score, but the best match can be found without
+	 * examining every possible pair. See {@link AssociateGreedyHammingMultiIndex} for details.
+	 *
+	 * @param config Configuration
+	 * @return AssociateDescription
+	 */
+	public static AssociateDescription<TupleDesc_B>
+	greedyHammingMultiIndex( @Nullable ConfigAssociateGreedy config )
+	{
+		if( config == null )
+			config = new ConfigAssociateGreedy();
+
+		AssociateGreedyHammingMultiIndex alg = new AssociateGreedyHammingMultiIndex();
+		alg.setBackwardsValidation(config.forwardsBackwards);
+		alg.setMaxFitError(config.maxErrorThreshold);
+		alg.setRatioTest(config.scoreRatioThreshold);
+		return new WrapAssociateGreedy<>(alg);
+	}
+
 	/**
 	 * Returns an algorithm for associating features together which uses a brute force greedy algorithm.
 	 * See {@link AssociateGreedyDesc} for details.
@@ -172,9 +202,23 @@ public class FactoryAssociation {
 	 */
 	public static AssociateDescription<TupleDesc_F64> kdtree(
 			@Nullable ConfigAssociateNearestNeighbor configNN , int dimension ) {
+		return kdtree(configNN,new KdTreeTuple_F64(dimension));
+	}
+
+	/**
+	 * Approximate association using a K-D tree for any descriptor type. Use {@link KdTreeTuple_F32} or
+	 * {@link KdTreeTuple_U8} to index compact descriptors without converting them into {@link TupleDesc_F64}.
+	 *
+	 * @see #kdtree(ConfigAssociateNearestNeighbor, int)
+	 *
+	 * @param distance Specifies the descriptor's type, number of elements, and distance function.
+	 * @return Association using approximate nearest neighbor
+	 */
+	public static <D> AssociateDescription<D> kdtree(
+			@Nullable ConfigAssociateNearestNeighbor configNN , KdTreeDistance<D> distance ) {
 		if( configNN == null )
 			configNN = new ConfigAssociateNearestNeighbor();
-		NearestNeighbor nn = FactoryNearestNeighbor.kdtree(new KdTreeTuple_F64(dimension),configNN.maxNodesSearched);
+		NearestNeighbor<D> nn = FactoryNearestNeighbor.kdtree(distance,configNN.maxNodesSearched);
 
 		return associateNearestNeighbor(configNN,nn);
 	}
@@ -198,24 +242,38 @@ public class FactoryAssociation {
 																	  int numTrees ,
 																	  int numConsiderSplit ,
 																	  long randomSeed) {
+		return kdRandomForest(configNN,new KdTreeTuple_F64(dimension),numTrees,numConsiderSplit,randomSeed);
+	}
+
+	/**
+	 * Approximate association using a random forest of K-D trees for any descriptor type.
+	 *
+	 * @see #kdRandomForest(ConfigAssociateNearestNeighbor, int, int, int, long)
+	 *
+	 * @param distance Specifies the descriptor's type, number of elements, and distance function.
+	 */
+	public static <D> AssociateDescription<D> kdRandomForest( @Nullable ConfigAssociateNearestNeighbor configNN ,
+															  KdTreeDistance<D> distance,
+															  int numTrees ,
+															  int numConsiderSplit ,
+															  long randomSeed) {
 		if( configNN == null )
 			configNN = new ConfigAssociateNearestNeighbor();
-		NearestNeighbor nn = FactoryNearestNeighbor.kdRandomForest(
-				new KdTreeTuple_F64(dimension),
-				configNN.maxNodesSearched,numTrees,numConsiderSplit,randomSeed);
+		NearestNeighbor<D> nn = FactoryNearestNeighbor.kdRandomForest(
+				distance, configNN.maxNodesSearched,numTrees,numConsiderSplit,randomSeed);
 
 		return associateNearestNeighbor(configNN,nn);
 	}
 
-	public static AssociateNearestNeighbor<TupleDesc_F64>
-	associateNearestNeighbor( @Nullable ConfigAssociateNearestNeighbor config ,  NearestNeighbor nn )
+	public static <D> AssociateNearestNeighbor<D>
+	associateNearestNeighbor( @Nullable ConfigAssociateNearestNeighbor config ,  NearestNeighbor<D> nn )
 	{
 		if( config == null )
 			config = new ConfigAssociateNearestNeighbor();
 
 		config.checkValidity();
 
-		AssociateNearestNeighbor<TupleDesc_F64> assoc;
+		AssociateNearestNeighbor<D> assoc;
 		if( BoofConcurrency.USE_CONCURRENT ) {
 			assoc = new AssociateNearestNeighbor_MT<>(nn);
 		} else {
@@ -298,6 +356,9 @@ public class FactoryAssociation {
 		} else if( tupleType == TupleDesc_F32.class ) {
 			if( squared )
 				return (ScoreAssociation)new ScoreAssociateEuclideanSq.F32();
+		} else if( tupleType == TupleDesc_U8.class ) {
+			if( squared )
+				return (ScoreAssociation)new ScoreAssociateEuclideanSq.U8();
 		}
 
 		throw new IllegalArgumentException("Euclidean score not yet supported for type "+tupleType.getSimpleName());
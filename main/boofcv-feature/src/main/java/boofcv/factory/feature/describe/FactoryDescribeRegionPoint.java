@@ -31,7 +31,9 @@ import boofcv.factory.filter.blur.FactoryBlurFilter;
 import boofcv.struct.feature.NccFeature;
 import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.feature.TupleDesc_F32;
 import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.feature.TupleDesc_U8;
 import boofcv.struct.image.*;
 
 import javax.annotation.Nullable;
@@ -76,13 +78,28 @@ public class FactoryDescribeRegionPoint {
 	 */
 	public static <T extends ImageGray<T>, II extends ImageGray<II>>
 	DescribeRegionPoint<T,TupleDesc_F64> surfFast(@Nullable ConfigSurfDescribe.Fast config , Class<T> imageType) {
+		return surfFast(config, imageType, TupleDesc_F64.class);
+	}
 
+	/**
+	 * Variant of {@link #surfFast(ConfigSurfDescribe.Fast, Class)} which computes the descriptor directly
+	 * in the specified format. Using {@link TupleDesc_F32} halves the memory required to store descriptors.
+	 *
+	 * @param config SURF configuration. Pass in null for default options.
+	 * @param imageType Type of input image.
+	 * @param descType Type of descriptor. {@link TupleDesc_F64} or {@link TupleDesc_F32}
+	 * @return SURF description extractor
+	 */
+	public static <T extends ImageGray<T>, II extends ImageGray<II>, Desc extends TupleDesc>
+	DescribeRegionPoint<T,Desc> surfFast(@Nullable ConfigSurfDescribe.Fast config , Class<T> imageType,
+										 Class<Desc> descType ) {
+		checkSurfDescType(descType);
 
 		Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
 
 		DescribePointSurf<II> alg = FactoryDescribePointAlgs.surfSpeed( config, integralType);
 
-		return new WrapDescribeSurf( alg , imageType );
+		return new WrapDescribeSurf<>( alg , imageType, descType );
 	}
 
 	/**
@@ -126,12 +143,36 @@ public class FactoryDescribeRegionPoint {
 	 */
 	public static <T extends ImageGray<T>, II extends ImageGray<II>>
 	DescribeRegionPoint<T,TupleDesc_F64> surfStable(@Nullable ConfigSurfDescribe.Stability config, Class<T> imageType) {
+		return surfStable(config, imageType, TupleDesc_F64.class);
+	}
+
+	/**
+	 * Variant of {@link #surfStable(ConfigSurfDescribe.Stability, Class)} which computes the descriptor directly
+	 * in the specified format. Using {@link TupleDesc_F32} halves the memory required to store descriptors.
+	 *
+	 * @param config SURF configuration. Pass in null for default options.
+	 * @param imageType Type of input image.
+	 * @param descType Type of descriptor. {@link TupleDesc_F64} or {@link TupleDesc_F32}
+	 * @return SURF description extractor
+	 */
+	public static <T extends ImageGray<T>, II extends ImageGray<II>, Desc extends TupleDesc>
+	DescribeRegionPoint<T,Desc> surfStable(@Nullable ConfigSurfDescribe.Stability config, Class<T> imageType,
+										   Class<Desc> descType ) {
+		checkSurfDescType(descType);
 
 		Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
 
 		DescribePointSurf<II> alg = FactoryDescribePointAlgs.surfStability( config, integralType);
 
-		return new WrapDescribeSurf( alg , imageType );
+		return new WrapDescribeSurf<>( alg , imageType, descType );
+	}
+
+	/**
+	 * SURF descriptors have signed elements and can only be stored in floating point descriptors
+	 */
+	private static void checkSurfDescType( Class<?> descType ) {
+		if( descType != TupleDesc_F64.class && descType != TupleDesc_F32.class )
+			throw new IllegalArgumentException("SURF descriptors can't be "+descType.getSimpleName());
 	}
 
 	/**
@@ -178,6 +219,27 @@ public class FactoryDescribeRegionPoint {
 	DescribeRegionPoint<T,TupleDesc_F64> sift( @Nullable ConfigSiftScaleSpace configSS,
 											   @Nullable ConfigSiftDescribe configDescribe, Class<T> imageType)
 	{
+		return sift(configSS, configDescribe, imageType, TupleDesc_F64.class);
+	}
+
+	/**
+	 * Variant of {@link #sift(ConfigSiftScaleSpace, ConfigSiftDescribe, Class)} which computes the descriptor
+	 * directly in the specified format. {@link TupleDesc_U8} descriptors are quantized as described in
+	 * {@link DescribePointSift#QUANTIZE_SCALE_U8} and require 1/8 the memory of {@link TupleDesc_F64}.
+	 *
+	 * @param configSS SIFT scale-space configuration. Pass in null for default options.
+	 * @param configDescribe SIFT descriptor configuration.  Pass in null for default options.
+	 * @param descType Type of descriptor. {@link TupleDesc_F64}, {@link TupleDesc_F32}, or {@link TupleDesc_U8}
+	 * @return SIFT descriptor
+	 */
+	public static <T extends ImageGray<T>, Desc extends TupleDesc>
+	DescribeRegionPoint<T,Desc> sift( @Nullable ConfigSiftScaleSpace configSS,
+									  @Nullable ConfigSiftDescribe configDescribe, Class<T> imageType,
+									  Class<Desc> descType )
+	{
+		if( descType != TupleDesc_F64.class && descType != TupleDesc_F32.class && descType != TupleDesc_U8.class )
+			throw new IllegalArgumentException("SIFT descriptors can't be "+descType.getSimpleName());
+
 		if( configSS == null )
 			configSS = new ConfigSiftScaleSpace();
 		configSS.checkValidity();
@@ -187,7 +249,7 @@ public class FactoryDescribeRegionPoint {
 
 		DescribePointSift<GrayF32> alg = FactoryDescribePointAlgs.sift(configDescribe,GrayF32.class);
 
-		return new DescribeRegionPoint_SIFT<>(ss, alg, imageType);
+		return new DescribeRegionPoint_SIFT<>(ss, alg, imageType, descType);
 	}
 
 	/**
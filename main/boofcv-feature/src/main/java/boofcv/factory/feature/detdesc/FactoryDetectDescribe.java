@@ -47,7 +47,9 @@ import boofcv.factory.feature.detect.interest.FactoryInterestPointAlgs;
 import boofcv.factory.feature.orientation.FactoryOrientation;
 import boofcv.factory.feature.orientation.FactoryOrientationAlgs;
 import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.feature.TupleDesc_F32;
 import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.feature.TupleDesc_U8;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageMultiBand;
 import boofcv.struct.image.ImageType;
@@ -139,7 +141,24 @@ public class FactoryDetectDescribe {
 	public static <T extends ImageGray<T>>
 	DetectDescribePoint<T,TupleDesc_F64> sift( @Nullable ConfigCompleteSift config, Class<T> imageType)
 	{
-		CompleteSift dds = FactoryDetectDescribeAlgs.sift(config);
+		return sift(config, imageType, TupleDesc_F64.class);
+	}
+
+	/**
+	 * Variant of {@link #sift(ConfigCompleteSift, Class)} which computes descriptors directly in the specified
+	 * format. {@link TupleDesc_U8} descriptors require 1/8 the memory of {@link TupleDesc_F64}.
+	 *
+	 * @param config Configuration for the SIFT detector and descriptor.
+	 * @param descType Type of descriptor. {@link TupleDesc_F64}, {@link TupleDesc_F32}, or {@link TupleDesc_U8}
+	 * @return SIFT
+	 */
+	public static <T extends ImageGray<T>, Desc extends TupleDesc<Desc>>
+	DetectDescribePoint<T,Desc> sift( @Nullable ConfigCompleteSift config, Class<T> imageType, Class<Desc> descType )
+	{
+		if( descType != TupleDesc_F64.class && descType != TupleDesc_F32.class && descType != TupleDesc_U8.class )
+			throw new IllegalArgumentException("SIFT descriptors can't be "+descType.getSimpleName());
+
+		CompleteSift<Desc> dds = FactoryDetectDescribeAlgs.sift(config, descType);
 		return new DetectDescribe_CompleteSift<>(dds,imageType);
 	}
 
@@ -168,6 +187,21 @@ public class FactoryDetectDescribe {
 												   @Nullable ConfigSurfDescribe.Fast configDesc,
 												   @Nullable ConfigAverageIntegral configOrientation,
 												   Class<T> imageType) {
+		return surfFast(configDetector, configDesc, configOrientation, imageType, TupleDesc_F64.class);
+	}
+
+	/**
+	 * Variant of {@link #surfFast(ConfigFastHessian, ConfigSurfDescribe.Fast, ConfigAverageIntegral, Class)}
+	 * which computes descriptors directly in the specified format.
+	 *
+	 * @param descType Type of descriptor. {@link TupleDesc_F64} or {@link TupleDesc_F32}
+	 */
+	public static <T extends ImageGray<T>, II extends ImageGray<II>, Desc extends TupleDesc>
+	DetectDescribePoint<T,Desc> surfFast( @Nullable ConfigFastHessian configDetector ,
+										  @Nullable ConfigSurfDescribe.Fast configDesc,
+										  @Nullable ConfigAverageIntegral configOrientation,
+										  Class<T> imageType, Class<Desc> descType ) {
+		checkSurfDescType(descType);
 
 		Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
 
@@ -176,9 +210,9 @@ public class FactoryDetectDescribe {
 		OrientationIntegral<II> orientation = FactoryOrientationAlgs.average_ii(configOrientation, integralType);
 
 		if(BoofConcurrency.USE_CONCURRENT) {
-			return new WrapDetectDescribeSurf_MT<>(detector, orientation, describe, imageType);
+			return new WrapDetectDescribeSurf_MT<>(detector, orientation, describe, imageType, descType);
 		} else {
-			return new WrapDetectDescribeSurf<>(detector, orientation, describe, imageType);
+			return new WrapDetectDescribeSurf<>(detector, orientation, describe, imageType, descType);
 		}
 	}
 
@@ -259,6 +293,21 @@ public class FactoryDetectDescribe {
 													 @Nullable ConfigSurfDescribe.Stability configDescribe,
 													 @Nullable ConfigSlidingIntegral configOrientation,
 													 Class<T> imageType ) {
+		return surfStable(configDetector, configDescribe, configOrientation, imageType, TupleDesc_F64.class);
+	}
+
+	/**
+	 * Variant of {@link #surfStable(ConfigFastHessian, ConfigSurfDescribe.Stability, ConfigSlidingIntegral, Class)}
+	 * which computes descriptors directly in the specified format.
+	 *
+	 * @param descType Type of descriptor. {@link TupleDesc_F64} or {@link TupleDesc_F32}
+	 */
+	public static <T extends ImageGray<T>, II extends ImageGray<II>, Desc extends TupleDesc>
+	DetectDescribePoint<T,Desc> surfStable( @Nullable ConfigFastHessian configDetector,
+											@Nullable ConfigSurfDescribe.Stability configDescribe,
+											@Nullable ConfigSlidingIntegral configOrientation,
+											Class<T> imageType, Class<Desc> descType ) {
+		checkSurfDescType(descType);
 
 		Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
 
@@ -267,9 +316,9 @@ public class FactoryDetectDescribe {
 		OrientationIntegral<II> orientation = FactoryOrientationAlgs.sliding_ii(configOrientation, integralType);
 
 		if(BoofConcurrency.USE_CONCURRENT) {
-			return new WrapDetectDescribeSurf_MT<>(detector, orientation, describe, imageType);
+			return new WrapDetectDescribeSurf_MT<>(detector, orientation, describe, imageType, descType);
 		} else {
-			return new WrapDetectDescribeSurf<>(detector, orientation, describe, imageType);
+			return new WrapDetectDescribeSurf<>(detector, orientation, describe, imageType, descType);
 		}
 	}
 
@@ -315,6 +364,14 @@ public class FactoryDetectDescribe {
 		}
 	}
 
+	/**
+	 * SURF descriptors have signed elements and can only be stored in floating point descriptors
+	 */
+	private static void checkSurfDescType( Class<?> descType ) {
+		if( descType != TupleDesc_F64.class && descType != TupleDesc_F32.class )
+			throw new IllegalArgumentException("SURF descriptors can't be "+descType.getSimpleName());
+	}
+
 	/**
 	 * Given independent algorithms for feature detection, orientation, and describing, create a new
 	 * {@link DetectDescribePoint}.
@@ -26,13 +26,20 @@ import boofcv.abst.feature.detect.interest.ConfigSiftDetector;
 import boofcv.abst.feature.orientation.ConfigSiftOrientation;
 import boofcv.alg.feature.describe.DescribePointSift;
 import boofcv.alg.feature.detdesc.CompleteSift;
+import boofcv.alg.feature.detdesc.CompleteSift_MT;
 import boofcv.alg.feature.detect.interest.SiftScaleSpace;
 import boofcv.alg.feature.detect.selector.FeatureSelectLimitIntensity;
 import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
 import boofcv.factory.feature.detect.selector.FactorySelectLimit;
 import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.feature.TupleDesc_F32;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.feature.TupleDesc_U8;
 import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.Factory;
 
 import javax.annotation.Nullable;
 
@@ -40,20 +47,35 @@ import javax.annotation.Nullable;
  * @author Peter Abeles
  */
 public class FactoryDetectDescribeAlgs {
-	public static CompleteSift sift( @Nullable ConfigCompleteSift config) {
+	public static CompleteSift<TupleDesc_F64> sift( @Nullable ConfigCompleteSift config) {
+		return sift(config, TupleDesc_F64.class);
+	}
+
+	/**
+	 * Creates SIFT which computes descriptors directly in the specified format
+	 *
+	 * @param config Configuration for the SIFT detector and descriptor.
+	 * @param descType Type of descriptor. {@link TupleDesc_F64}, {@link TupleDesc_F32}, or {@link TupleDesc_U8}
+	 * @return SIFT
+	 */
+	public static <Desc extends TupleDesc<Desc>>
+	CompleteSift<Desc> sift( @Nullable ConfigCompleteSift config, Class<Desc> descType ) {
 		if( config == null )
 			config = new ConfigCompleteSift();
 
 		ConfigSiftScaleSpace configSS = config.scaleSpace;
 		ConfigSiftDetector configDetector = config.detector;
-		ConfigSiftOrientation configOri = config.orientation;
-		ConfigSiftDescribe configDesc = config.describe;
+		// copy the configurations since algorithms for each thread are created as they are needed
+		ConfigSiftOrientation configOri = new ConfigSiftOrientation();
+		ConfigSiftDescribe configDesc = new ConfigSiftDescribe();
+		configOri.setTo(config.orientation);
+		configDesc.setTo(config.describe);
 
 		SiftScaleSpace scaleSpace = new SiftScaleSpace(
 				configSS.firstOctave,configSS.lastOctave,configSS.numScales,configSS.sigma0);
-		OrientationHistogramSift<GrayF32> orientation = new OrientationHistogramSift<>(
+		Factory<OrientationHistogramSift<GrayF32>> factoryOrientation = ()->new OrientationHistogramSift<>(
 				configOri.histogramSize,configOri.sigmaEnlarge,GrayF32.class);
-		DescribePointSift<GrayF32> describe = new DescribePointSift<>(
+		Factory<DescribePointSift<GrayF32>> factoryDescribe = ()->new DescribePointSift<>(
 				configDesc.widthSubregion,configDesc.widthGrid, configDesc.numHistogramBins,
 				configDesc.sigmaToPixels, configDesc.weightingSigmaFraction,
 				configDesc.maxDescriptorElementValue,GrayF32.class);
@@ -61,8 +83,14 @@ public class FactoryDetectDescribeAlgs {
 		NonMaxLimiter nonMax = FactoryFeatureExtractor.nonmaxLimiter(
 				configDetector.extract,configDetector.selector,configDetector.maxFeaturesPerScale);
 		FeatureSelectLimitIntensity<ScalePoint> selectorAll = FactorySelectLimit.intensity(configDetector.selector);
-		CompleteSift dds = new CompleteSift(scaleSpace,selectorAll,
-				configDetector.edgeR,nonMax,orientation,describe);
+		CompleteSift<Desc> dds;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			dds = new CompleteSift_MT<>(scaleSpace,selectorAll,
+					configDetector.edgeR,nonMax,factoryOrientation,factoryDescribe,descType);
+		} else {
+			dds = new CompleteSift<>(scaleSpace,selectorAll,configDetector.edgeR,nonMax,
+					factoryOrientation.newInstance(),factoryDescribe.newInstance(),descType);
+		}
 		dds.maxFeaturesAll = configDetector.maxFeaturesAll;
 		return dds;
 	}
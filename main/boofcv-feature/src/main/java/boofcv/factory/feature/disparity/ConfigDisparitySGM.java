@@ -72,6 +72,12 @@ public class ConfigDisparitySGM implements Configuration {
 	 * Number of paths it should consider. 4 or 8 is most common. More paths slower it will run.
 	 */
 	public Paths paths = Paths.P8;
+	/**
+	 * If &gt; 0 then the aggregated cost is computed in horizontal strips with this many rows. Only one strip is
+	 * stored in memory at a time, which significantly reduces memory usage for large images, at the cost
+	 * of additional computations. If &le; 0 then the aggregated cost for the entire image is stored.
+	 */
+	public int stripHeight = 0;
 	/**
 	 * Which error model should it use
 	 */
@@ -108,6 +114,7 @@ public class ConfigDisparitySGM implements Configuration {
 		this.penaltySmallChange = src.penaltySmallChange;
 		this.penaltyLargeChange = src.penaltyLargeChange;
 		this.paths = src.paths;
+		this.stripHeight = src.stripHeight;
 		this.errorType = src.errorType;
 		this.useBlocks=src.useBlocks;
 		this.configCensus.setTo(src.configCensus);
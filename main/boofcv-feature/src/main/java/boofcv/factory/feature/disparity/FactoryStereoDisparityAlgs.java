@@ -71,6 +71,10 @@ public class FactoryStereoDisparityAlgs {
 
 		sgm.setDisparityMin(config.disparityMin);
 		sgm.setDisparityRange(config.disparityRange);
+		if( config.stripHeight > 0 )
+			sgm.setAggregation(new SgmCostAggregationStrips(config.stripHeight));
+		else if( BoofConcurrency.USE_CONCURRENT )
+			sgm.setAggregation(new SgmCostAggregation_MT());
 		sgm.getAggregation().setPathsConsidered(config.paths.getCount());
 		sgm.getAggregation().setPenalty1(config.penaltySmallChange);
 		sgm.getAggregation().setPenalty2(config.penaltyLargeChange);
@@ -46,6 +46,7 @@ import boofcv.alg.tracker.dda.DetectDescribeAssociateTracker;
 import boofcv.alg.tracker.hybrid.HybridTrackerScalePoint;
 import boofcv.alg.tracker.klt.ConfigPKlt;
 import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.associate.ConfigAssociateGreedy;
 import boofcv.factory.feature.associate.FactoryAssociation;
 import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
@@ -161,16 +162,25 @@ public class FactoryPointTracker {
 
 		GeneralFeatureDetector<I, D> detector = FactoryDetectPoint.create(configDetect,imageType,derivType);
 
-		InterpolateRectangle<I> interpInput = FactoryInterpolation.bilinearRectangle(imageType);
-		InterpolateRectangle<D> interpDeriv = FactoryInterpolation.bilinearRectangle(derivType);
-
 		ImageGradient<I,D> gradient = FactoryDerivative.sobel(imageType, derivType);
 
 		PyramidDiscrete<I> pyramid = FactoryPyramid.discreteGaussian(config.pyramidLevels,-1,2,true, ImageType.single(imageType));
 
-		var ret = new PointTrackerKltPyramid<>(config.config, config.toleranceFB,
-				config.templateRadius, config.pruneClose, pyramid, detector,
-				gradient, interpInput, interpDeriv, derivType);
+		PointTrackerKltPyramid<I,D> ret;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			final Class<D> _derivType = derivType;
+			ret = new PointTrackerKltPyramid_MT<>(config.config, config.toleranceFB,
+					config.templateRadius, config.pruneClose, pyramid, detector, gradient,
+					()->FactoryInterpolation.bilinearRectangle(imageType),
+					()->FactoryInterpolation.bilinearRectangle(_derivType), derivType);
+		} else {
+			InterpolateRectangle<I> interpInput = FactoryInterpolation.bilinearRectangle(imageType);
+			InterpolateRectangle<D> interpDeriv = FactoryInterpolation.bilinearRectangle(derivType);
+
+			ret = new PointTrackerKltPyramid<>(config.config, config.toleranceFB,
+					config.templateRadius, config.pruneClose, pyramid, detector,
+					gradient, interpInput, interpDeriv, derivType);
+		}
 		ret.maximumAllowedTracks = config.maximumTracks;
 		return ret;
 	}
@@ -18,6 +18,7 @@
 
 package boofcv.struct.feature;
 
+import java.util.Arrays;
 
 /**
  * Basic description of an image feature's attributes using an array.
@@ -52,6 +53,10 @@ public class TupleDesc_F32 implements TupleDesc<TupleDesc_F32> {
 		this.value = value;
 	}
 
+	public void fill( float value ) {
+		Arrays.fill(this.value,value);
+	}
+
 	@Override
 	public void setTo(TupleDesc_F32 source) {
 		System.arraycopy(source.value,0,value,0,value.length);
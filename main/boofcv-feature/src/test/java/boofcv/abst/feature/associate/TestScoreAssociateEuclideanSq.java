@@ -21,6 +21,7 @@ package boofcv.abst.feature.associate;
 import boofcv.struct.feature.MatchScoreType;
 import boofcv.struct.feature.TupleDesc_F32;
 import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.feature.TupleDesc_U8;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
@@ -89,4 +90,34 @@ class TestScoreAssociateEuclideanSq {
 			assertEquals(195,score.score(a,b),1e-4);
 		}
 	}
-}
\ No newline at end of file
+
+	@Nested
+	class U8  extends StandardScoreAssociationChecks<TupleDesc_U8> {
+		public U8() {super(MatchScoreType.NORM_ERROR);}
+
+		@Override
+		public ScoreAssociation<TupleDesc_U8> createScore() { return new ScoreAssociateEuclideanSq.U8(); }
+
+		@Override
+		public TupleDesc_U8 createDescription() {
+			var a = new TupleDesc_U8(5);
+			for (int i = 0; i < a.size(); i++)
+				a.value[i] = (byte)rand.nextInt(256);
+
+			return a;
+		}
+
+		@Test
+		public void compareToExpected() {
+			var score = new ScoreAssociateEuclideanSq.U8();
+
+			var a = new TupleDesc_U8(5);
+			var b = new TupleDesc_U8(5);
+
+			a.value=new byte[]{1,2,3,4,(byte)250};
+			b.value=new byte[]{2,1,7,8,10};
+
+			assertEquals(1+1+16+16+240*240,score.score(a,b),1e-4);
+		}
+	}
+}
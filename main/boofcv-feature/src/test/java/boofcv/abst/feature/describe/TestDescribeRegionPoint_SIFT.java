@@ -41,7 +41,7 @@ class TestDescribeRegionPoint_SIFT extends GenericDescribeRegionPointChecks<Gray
 
 	@Test
 	void flags() {
-		DescribeRegionPoint_SIFT<GrayF32> alg = declare();
+		DescribeRegionPoint_SIFT<GrayF32,TupleDesc_F64> alg = declare();
 
 		assertTrue(alg.isOriented());
 		assertTrue(alg.isScalable());
@@ -58,7 +58,7 @@ class TestDescribeRegionPoint_SIFT extends GenericDescribeRegionPointChecks<Gray
 		GrayF32 image = new GrayF32(640,480);
 		GImageMiscOps.fillUniform(image,rand,0,200);
 
-		DescribeRegionPoint_SIFT<GrayF32> alg = declare();
+		DescribeRegionPoint_SIFT<GrayF32,TupleDesc_F64> alg = declare();
 		alg.setImage(image);
 
 		TupleDesc_F64 desc0 = alg.createDescription();
@@ -86,16 +86,16 @@ class TestDescribeRegionPoint_SIFT extends GenericDescribeRegionPointChecks<Gray
 		assertTrue(Math.abs(a-b)>tol);
 	}
 
-	private DescribeRegionPoint_SIFT<GrayF32> declare() {
+	private DescribeRegionPoint_SIFT<GrayF32,TupleDesc_F64> declare() {
 
 		SiftScaleSpace ss = new SiftScaleSpace(0,4,3,1.6);
 		DescribePointSift<GrayF32> desc = FactoryDescribePointAlgs.sift(null,GrayF32.class);
 
-		return new DescribeRegionPoint_SIFT<>(ss,desc,GrayF32.class);
+		return new DescribeRegionPoint_SIFT<>(ss,desc,GrayF32.class,TupleDesc_F64.class);
 	}
 
 	@Override
-	protected DescribeRegionPoint_SIFT<GrayF32> createAlg() {
+	protected DescribeRegionPoint_SIFT<GrayF32,TupleDesc_F64> createAlg() {
 		return declare();
 	}
 }
\ No newline at end of file
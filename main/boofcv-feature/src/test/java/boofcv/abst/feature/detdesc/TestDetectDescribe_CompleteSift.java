@@ -19,7 +19,9 @@
 package boofcv.abst.feature.detdesc;
 
 import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
+import boofcv.struct.feature.TupleDesc_F32;
 import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.feature.TupleDesc_U8;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageType;
@@ -54,4 +56,28 @@ public class TestDetectDescribe_CompleteSift
 			return FactoryDetectDescribe.sift(null,GrayF32.class);
 		}
 	}
-}
\ No newline at end of file
+
+	@Nested
+	public class DescF32 extends GenericTestsDetectDescribePoint {
+		protected DescF32() {
+			super(true,true,ImageType.SB_F32,TupleDesc_F32.class);
+		}
+
+		@Override
+		public DetectDescribePoint createDetDesc() {
+			return FactoryDetectDescribe.sift(null,GrayF32.class,TupleDesc_F32.class);
+		}
+	}
+
+	@Nested
+	public class DescU8 extends GenericTestsDetectDescribePoint {
+		protected DescU8() {
+			super(true,true,ImageType.SB_F32,TupleDesc_U8.class);
+		}
+
+		@Override
+		public DetectDescribePoint createDetDesc() {
+			return FactoryDetectDescribe.sift(null,GrayF32.class,TupleDesc_U8.class);
+		}
+	}
+}
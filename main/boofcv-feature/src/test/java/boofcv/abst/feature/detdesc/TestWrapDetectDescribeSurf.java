@@ -20,9 +20,11 @@ package boofcv.abst.feature.detdesc;
 
 import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
+import boofcv.struct.feature.TupleDesc_F32;
 import boofcv.struct.feature.TupleDesc_F64;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageType;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -63,4 +65,19 @@ public class TestWrapDetectDescribeSurf extends GenericTestsDetectDescribePoint<
 		assertTrue(counts[0]>0);
 		assertTrue(counts[1]>0);
 	}
+
+	/**
+	 * Same detector but with descriptors computed as 32-bit floats
+	 */
+	@Nested
+	class DescF32 extends GenericTestsDetectDescribePoint<GrayF32,TupleDesc_F32> {
+		DescF32() {
+			super(true, true, ImageType.single(GrayF32.class), TupleDesc_F32.class);
+		}
+
+		@Override
+		public DetectDescribePoint<GrayF32, TupleDesc_F32> createDetDesc() {
+			return FactoryDetectDescribe.surfStable(null,null,null, GrayF32.class, TupleDesc_F32.class);
+		}
+	}
 }
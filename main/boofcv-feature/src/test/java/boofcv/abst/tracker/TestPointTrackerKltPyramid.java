@@ -24,6 +24,7 @@ import boofcv.abst.feature.detect.interest.PointDetectorTypes;
 import boofcv.abst.tracker.PointTrackerKltPyramid.PointTrackMod;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.alg.tracker.klt.*;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.tracker.FactoryPointTracker;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.pyramid.ConfigDiscreteLevels;
@@ -196,7 +197,14 @@ class TestPointTrackerKltPyramid extends GenericChecksPointTracker<GrayF32> {
 		configDetector.general.radius = 3;
 		configDetector.general.threshold = 1000;
 
-		return FactoryPointTracker.klt(config, configDetector, GrayF32.class, GrayF32.class);
+		// Test the single threaded implementation. The concurrent tracker ignores the tracker swapped in by tests
+		boolean concurrent = BoofConcurrency.USE_CONCURRENT;
+		BoofConcurrency.USE_CONCURRENT = false;
+		try {
+			return FactoryPointTracker.klt(config, configDetector, GrayF32.class, GrayF32.class);
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+		}
 	}
 
 	/**
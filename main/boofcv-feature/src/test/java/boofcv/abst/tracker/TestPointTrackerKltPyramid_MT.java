@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.tracker;
+
+import boofcv.abst.distort.FDistort;
+import boofcv.abst.feature.detect.interest.ConfigPointDetector;
+import boofcv.abst.feature.detect.interest.PointDetectorTypes;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.tracker.klt.ConfigPKlt;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.tracker.FactoryPointTracker;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPointTrackerKltPyramid_MT extends GenericChecksPointTracker<GrayF32> {
+
+	public TestPointTrackerKltPyramid_MT() {
+		super(false, true);
+	}
+
+	@Override
+	public PointTracker<GrayF32> createTracker() {
+		return createKLT(new ConfigPKlt(), true);
+	}
+
+	/**
+	 * Compare threaded to single threaded. The tracks and the order they are dropped should be identical
+	 */
+	@Test
+	void compareToSingle() {
+		GrayF32 image = new GrayF32(200,180);
+		ImageMiscOps.fillUniform(image, new Random(234), 0, 100);
+		GrayF32 shifted = image.createSameShape();
+		new FDistort(image,shifted).affine(1,0,0,1,1.5,0.5).borderExt().apply();
+
+		for( double toleranceFB : new double[]{-1,0.1} ) {
+			ConfigPKlt config = new ConfigPKlt();
+			config.toleranceFB = toleranceFB;
+
+			PointTrackerKltPyramid<GrayF32,GrayF32> single = createKLT(config,false);
+			PointTrackerKltPyramid<GrayF32,GrayF32> multi = createKLT(config,true);
+			assertTrue(multi instanceof PointTrackerKltPyramid_MT);
+
+			single.process(image);
+			multi.process(image);
+			single.spawnTracks();
+			multi.spawnTracks();
+			assertTrue(single.getTotalActive() > 50);
+
+			// move the image around so that some tracks are dropped
+			for( GrayF32 frame : new GrayF32[]{shifted,image,shifted} ) {
+				single.process(frame);
+				multi.process(frame);
+
+				compare(single.getActiveTracks(null), multi.getActiveTracks(null));
+				compare(single.getDroppedTracks(null), multi.getDroppedTracks(null));
+			}
+		}
+	}
+
+	private void compare( List<PointTrack> expected , List<PointTrack> found ) {
+		assertEquals(expected.size(), found.size());
+		for (int i = 0; i < expected.size(); i++) {
+			PointTrack a = expected.get(i);
+			PointTrack b = found.get(i);
+			assertEquals(a.featureId, b.featureId);
+			assertEquals(0.0, a.pixel.distance(b.pixel), 0.0);
+		}
+	}
+
+	private PointTrackerKltPyramid<GrayF32,GrayF32> createKLT( ConfigPKlt config , boolean concurrent ) {
+		ConfigPointDetector configDetector = new ConfigPointDetector();
+		configDetector.type = PointDetectorTypes.SHI_TOMASI;
+		configDetector.general.maxFeatures = 200;
+		configDetector.general.radius = 3;
+		configDetector.general.threshold = 1000;
+
+		boolean original = BoofConcurrency.USE_CONCURRENT;
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		try {
+			return FactoryPointTracker.klt(config, configDetector, GrayF32.class, GrayF32.class);
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = original;
+		}
+	}
+}
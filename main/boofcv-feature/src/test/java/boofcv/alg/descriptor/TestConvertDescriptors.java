@@ -19,6 +19,7 @@
 package boofcv.alg.descriptor;
 
 import boofcv.struct.feature.NccFeature;
+import boofcv.struct.feature.TupleDesc_F32;
 import boofcv.struct.feature.TupleDesc_F64;
 import boofcv.struct.feature.TupleDesc_S8;
 import boofcv.struct.feature.TupleDesc_U8;
@@ -69,6 +70,38 @@ public class TestConvertDescriptors {
 			assertEquals(0,output.value[0]);
 	}
 
+	/**
+	 * Fixed scale factor with values that need to be rounded and saturated
+	 */
+	@Test
+	public void positive_F64_scale() {
+		TupleDesc_F64 input = new TupleDesc_F64(4);
+		input.value = new double[]{0.1,0.2,0.4,0.6};
+
+		TupleDesc_U8 output = new TupleDesc_U8(4);
+
+		ConvertDescriptors.positive(input, 512, output);
+
+		assertEquals(51,output.value[0] & 0xFF);
+		assertEquals(102,output.value[1] & 0xFF);
+		assertEquals(205,output.value[2] & 0xFF);
+		assertEquals(255,output.value[3] & 0xFF);
+	}
+
+	@Test
+	public void float32() {
+		TupleDesc_F64 input = new TupleDesc_F64(4);
+		input.value = new double[]{1,-2,3.5,-4};
+
+		TupleDesc_F32 output = new TupleDesc_F32(4);
+
+		ConvertDescriptors.float32(input, output);
+
+		for (int i = 0; i < 4; i++) {
+			assertEquals(input.value[i],output.value[i], 1e-6);
+		}
+	}
+
 	/**
 	 * General test with a known output
 	 */
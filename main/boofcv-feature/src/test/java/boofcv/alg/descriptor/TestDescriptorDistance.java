@@ -67,6 +67,18 @@ public class TestDescriptorDistance {
 		assertEquals(195, DescriptorDistance.euclideanSq(a, b), 1e-4);
 	}
 
+	@Test
+	public void euclideanSq_U8() {
+
+		TupleDesc_U8 a = new TupleDesc_U8(5);
+		TupleDesc_U8 b = new TupleDesc_U8(5);
+
+		a.value=new byte[]{1,2,3,(byte)200,5};
+		b.value=new byte[]{2,1,7,(byte)190,(byte)250};
+
+		assertEquals(1+1+16+100+245*245, DescriptorDistance.euclideanSq(a, b));
+	}
+
 	@Test
 	public void correlation() {
 		TupleDesc_F64 a = new TupleDesc_F64(5);
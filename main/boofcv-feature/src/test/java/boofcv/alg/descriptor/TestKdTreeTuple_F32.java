@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.descriptor;
+
+import boofcv.struct.feature.TupleDesc_F32;
+import org.ddogleg.nn.FactoryNearestNeighbor;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestKdTreeTuple_F32 {
+
+	Random rand = new Random(234);
+	int N = 16;
+
+	@Test
+	void distance() {
+		KdTreeTuple_F32 alg = new KdTreeTuple_F32(N);
+
+		TupleDesc_F32 a = random();
+		TupleDesc_F32 b = random();
+
+		assertEquals(DescriptorDistance.euclideanSq(a,b),alg.distance(a,b));
+		assertEquals(0.0,alg.distance(a,a));
+	}
+
+	@Test
+	void valueAt() {
+		KdTreeTuple_F32 alg = new KdTreeTuple_F32(N);
+
+		TupleDesc_F32 a = new TupleDesc_F32(N);
+		a.value[2] = -2.5f;
+		a.value[3] = 1.25f;
+
+		assertEquals(-2.5,alg.valueAt(a,2));
+		assertEquals(1.25,alg.valueAt(a,3));
+		assertEquals(0.0,alg.valueAt(a,4));
+	}
+
+	@Test
+	void length() {
+		assertEquals(N,new KdTreeTuple_F32(N).length());
+	}
+
+	/**
+	 * An exact search through the k-d tree should find the same neighbor as brute force
+	 */
+	@Test
+	void nearestNeighbor() {
+		List<TupleDesc_F32> points = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			points.add(random());
+		}
+
+		NearestNeighbor<TupleDesc_F32> nn = FactoryNearestNeighbor.kdtree(new KdTreeTuple_F32(N));
+		nn.setPoints(points,true);
+		NearestNeighbor.Search<TupleDesc_F32> search = nn.createSearch();
+
+		NnData<TupleDesc_F32> result = new NnData<>();
+		for (int trial = 0; trial < 50; trial++) {
+			TupleDesc_F32 target = random();
+
+			int expected = -1;
+			double bestDistance = Double.MAX_VALUE;
+			for (int i = 0; i < points.size(); i++) {
+				double d = DescriptorDistance.euclideanSq(target,points.get(i));
+				if( d < bestDistance ) {
+					bestDistance = d;
+					expected = i;
+				}
+			}
+
+			assertTrue(search.findNearest(target,-1,result));
+			assertEquals(bestDistance,result.distance);
+			assertEquals(expected,result.index);
+			assertTrue(points.get(expected) == result.point);
+		}
+	}
+
+	private TupleDesc_F32 random() {
+		TupleDesc_F32 desc = new TupleDesc_F32(N);
+		for (int i = 0; i < N; i++) {
+			desc.value[i] = rand.nextFloat()*2.0f - 1.0f;
+		}
+		return desc;
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateEuclidean_F64;
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastAccess;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestAssociateGreedyDescSparse extends GenericAssociateGreedyChecks {
+
+	ScoreAssociation<TupleDesc_F64> score = new ScoreAssociateEuclidean_F64();
+
+	@Override
+	protected AssociateGreedyBase<TupleDesc_F64> createAlgorithm() {
+		return new AssociateGreedyDescSparse<>(score);
+	}
+
+	@Override
+	protected void associate(AssociateGreedyBase<TupleDesc_F64> alg,
+							 FastAccess<TupleDesc_F64> src,
+							 FastAccess<TupleDesc_F64> dst) {
+		((AssociateGreedyDescSparse<TupleDesc_F64>)alg).associate(src,dst);
+	}
+
+	/**
+	 * Results should be identical to the dense implementation. Integer values are used so that there are
+	 * lots of ties.
+	 */
+	@Test
+	void compareToDense() {
+		for( boolean backwards : new boolean[]{false,true}) {
+			for( double ratioTest : new double[]{1.0,0.5}) {
+				compareToDense(backwards,ratioTest);
+			}
+		}
+	}
+
+	void compareToDense( boolean backwards , double ratioTest ) {
+		Random rand = new Random(234);
+		FastQueue<TupleDesc_F64> a = new FastQueue<>(()-> new TupleDesc_F64(1));
+		FastQueue<TupleDesc_F64> b = new FastQueue<>(()-> new TupleDesc_F64(1));
+		for (int i = 0; i < 150; i++) {
+			a.grow().set(rand.nextInt(100));
+			b.grow().set(rand.nextInt(100));
+		}
+
+		AssociateGreedyDesc<TupleDesc_F64> dense = new AssociateGreedyDesc<>(score);
+		AssociateGreedyDescSparse<TupleDesc_F64> sparse = new AssociateGreedyDescSparse<>(score);
+		dense.setBackwardsValidation(backwards);
+		sparse.setBackwardsValidation(backwards);
+		dense.setRatioTest(ratioTest);
+		sparse.setRatioTest(ratioTest);
+		dense.setMaxFitError(20);
+		sparse.setMaxFitError(20);
+
+		dense.associate(a,b);
+		sparse.associate(a,b);
+
+		assertEquals(dense.getPairs().size,sparse.getPairs().size);
+		for (int i = 0; i < a.size; i++) {
+			assertEquals(dense.getPairs().get(i),sparse.getPairs().get(i));
+			assertEquals(dense.getFitQuality().get(i),sparse.getFitQuality().get(i));
+		}
+	}
+}
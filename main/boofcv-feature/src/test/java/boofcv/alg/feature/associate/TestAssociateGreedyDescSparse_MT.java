@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateEuclidean_F64;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import static boofcv.alg.feature.associate.TestAssociateGreedyDesc_MT.createData;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TestAssociateGreedyDescSparse_MT {
+	@Test
+	void compare() {
+		compare(false, 1.0);
+		compare(true , 1.0);
+		compare(false, 0.1);
+		compare(true , 0.1);
+	}
+
+	void compare( boolean backwards , double ratioTest ) {
+		FastQueue<TupleDesc_F64> a = createData(200);
+		FastQueue<TupleDesc_F64> b = createData(200);
+
+		AssociateGreedyDescSparse<TupleDesc_F64> sequentialAlg = new AssociateGreedyDescSparse<>( new ScoreAssociateEuclidean_F64());
+		sequentialAlg.backwardsValidation = backwards;
+		sequentialAlg.setRatioTest(ratioTest);
+		sequentialAlg.setMaxFitError(0.5);
+		sequentialAlg.associate(a,b);
+
+		AssociateGreedyDescSparse_MT<TupleDesc_F64> parallelAlg = new AssociateGreedyDescSparse_MT<>( new ScoreAssociateEuclidean_F64());
+		parallelAlg.backwardsValidation = backwards;
+		parallelAlg.setRatioTest(ratioTest);
+		parallelAlg.setMaxFitError(0.5);
+		parallelAlg.associate(a,b);
+
+		assertEquals(sequentialAlg.getPairs().size,parallelAlg.getPairs().size);
+
+		for (int i = 0; i < a.size; i++) {
+			assertEquals(sequentialAlg.getPairs().get(i),parallelAlg.getPairs().get(i));
+			assertEquals(sequentialAlg.getFitQuality().get(i),parallelAlg.getFitQuality().get(i));
+		}
+	}
+}
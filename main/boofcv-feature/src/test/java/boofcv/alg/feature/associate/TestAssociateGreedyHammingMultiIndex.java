@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static boofcv.alg.feature.associate.TestHammingMultiIndexHashing.createNoisy;
+import static boofcv.alg.feature.associate.TestHammingMultiIndexHashing.createRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestAssociateGreedyHammingMultiIndex {
+	Random rand = new Random(234);
+
+	/**
+	 * Results should be identical to brute force greedy association
+	 */
+	@Test
+	void compareToGreedy() {
+		for( boolean backwards : new boolean[]{false,true}) {
+			for( double ratioTest : new double[]{1.0,0.8}) {
+				for( double maxError : new double[]{-1,40}) {
+					compareToGreedy(backwards, ratioTest, maxError);
+				}
+			}
+		}
+	}
+
+	void compareToGreedy( boolean backwards , double ratioTest , double maxError ) {
+		FastQueue<TupleDesc_B> src = createRandom(rand,256,200);
+		FastQueue<TupleDesc_B> dst = new FastQueue<>(()->new TupleDesc_B(256));
+		for (int i = 0; i < src.size; i++) {
+			// Add a few duplicates to create ties and make backwards validation fail
+			dst.grow().setTo(createNoisy(rand,src.get(i),rand.nextInt(60)));
+			if( i%20 == 0 ) {
+				TupleDesc_B last = dst.get(dst.size-1);
+				dst.grow().setTo(last);
+			}
+		}
+
+		AssociateGreedyDesc<TupleDesc_B> expected = new AssociateGreedyDesc<>(new ScoreAssociateHamming_B());
+		AssociateGreedyHammingMultiIndex alg = new AssociateGreedyHammingMultiIndex();
+
+		expected.setBackwardsValidation(backwards);
+		alg.setBackwardsValidation(backwards);
+		expected.setRatioTest(ratioTest);
+		alg.setRatioTest(ratioTest);
+		expected.setMaxFitError(maxError);
+		alg.setMaxFitError(maxError);
+
+		expected.associate(src,dst);
+		alg.associate(src,dst);
+
+		for (int i = 0; i < src.size; i++) {
+			assertEquals(expected.getPairs().get(i),alg.getPairs().get(i));
+			assertEquals(expected.getFitQuality().get(i),alg.getFitQuality().get(i));
+		}
+	}
+}
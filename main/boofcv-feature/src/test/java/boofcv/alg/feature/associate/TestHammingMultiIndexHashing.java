@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.alg.descriptor.DescriptorDistance;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestHammingMultiIndexHashing {
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against a brute force search. Queries are noisy copies of descriptors in the list so that
+	 * it will find matches at different search radiuses
+	 */
+	@Test
+	void compareToBruteForce() {
+		for( int numBits : new int[]{64,256}) {
+			FastQueue<TupleDesc_B> list = createRandom(rand,numBits,300);
+
+			HammingMultiIndexHashing alg = new HammingMultiIndexHashing();
+			alg.setDescriptions(list);
+
+			for (int trial = 0; trial < 100; trial++) {
+				TupleDesc_B query = createNoisy(rand,list.get(rand.nextInt(list.size)),rand.nextInt(numBits/2));
+				int maxDistance = trial%2 == 0 ? Integer.MAX_VALUE : numBits/4;
+				boolean needSecond = trial%3 != 0;
+
+				alg.searchBest(query,maxDistance,needSecond);
+
+				// brute force solution
+				int bestIndex = -1, bestDistance = Integer.MAX_VALUE, secondDistance = Integer.MAX_VALUE;
+				for (int i = 0; i < list.size; i++) {
+					int d = DescriptorDistance.hamming(query,list.get(i));
+					if( d > maxDistance )
+						continue;
+					if( d <= bestDistance ) {
+						secondDistance = bestDistance;
+						bestDistance = d;
+						bestIndex = i;
+					} else if( d < secondDistance ) {
+						secondDistance = d;
+					}
+				}
+
+				assertEquals(bestIndex,alg.getBestIndex());
+				if( bestIndex >= 0 )
+					assertEquals(bestDistance,alg.getBestDistance());
+				if( needSecond )
+					assertEquals(secondDistance,alg.getSecondDistance());
+			}
+		}
+	}
+
+	/**
+	 * If the radius is zero it will need to use brute force on everything
+	 */
+	@Test
+	void bruteForceFallback() {
+		FastQueue<TupleDesc_B> list = createRandom(rand,128,100);
+
+		HammingMultiIndexHashing alg = new HammingMultiIndexHashing();
+		alg.setMaxSubstringRadius(0);
+		alg.setDescriptions(list);
+
+		TupleDesc_B query = createNoisy(rand,list.get(20),40);
+		alg.searchBest(query,Integer.MAX_VALUE,false);
+		assertEquals(20,alg.getBestIndex());
+		assertEquals(DescriptorDistance.hamming(query,list.get(20)),alg.getBestDistance());
+	}
+
+	/**
+	 * Search on an empty list
+	 */
+	@Test
+	void emptyList() {
+		HammingMultiIndexHashing alg = new HammingMultiIndexHashing();
+		alg.setDescriptions(new FastQueue<>(()->new TupleDesc_B(256)));
+		alg.searchBest(new TupleDesc_B(256),Integer.MAX_VALUE,true);
+		assertEquals(-1,alg.getBestIndex());
+	}
+
+	public static FastQueue<TupleDesc_B> createRandom( Random rand , int numBits , int count ) {
+		FastQueue<TupleDesc_B> ret = new FastQueue<>(()->new TupleDesc_B(numBits));
+		for (int i = 0; i < count; i++) {
+			TupleDesc_B d = ret.grow();
+			for (int j = 0; j < d.data.length; j++) {
+				d.data[j] = rand.nextInt();
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Creates a copy of the descriptor with up to 'numFlips' random bits flipped
+	 */
+	public static TupleDesc_B createNoisy( Random rand , TupleDesc_B src , int numFlips ) {
+		TupleDesc_B ret = src.copy();
+		for (int i = 0; i < numFlips; i++) {
+			int bit = rand.nextInt(src.numBits);
+			ret.data[bit/32] ^= 1 << (bit%32);
+		}
+		return ret;
+	}
+}
@@ -20,7 +20,9 @@ package boofcv.alg.feature.describe;
 
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.feature.TupleDesc_F32;
 import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.feature.TupleDesc_U8;
 import boofcv.struct.image.GrayF32;
 import georegression.metric.UtilAngle;
 import georegression.struct.point.Point2D_I32;
@@ -69,6 +71,42 @@ public class TestDescribePointSift {
 		}
 	}
 
+	/**
+	 * The compact descriptors should be the same as the F64 descriptor after being converted. They are computed
+	 * using 32-bit floats, so rounding can be off by one.
+	 */
+	@Test
+	public void process_compact() {
+		GrayF32 derivX = new GrayF32(200,200);
+		GrayF32 derivY = new GrayF32(200,200);
+
+		GImageMiscOps.fillUniform(derivX,rand,-100,100);
+		GImageMiscOps.fillUniform(derivY,rand,-100,100);
+
+		DescribePointSift<GrayF32> alg =
+				new DescribePointSift<>(4,4,8,1.5,0.5,0.2,GrayF32.class);
+		alg.setImageGradient(derivX,derivY);
+
+		int N = alg.getDescriptorLength();
+		TupleDesc_F64 expected = new TupleDesc_F64(N);
+		TupleDesc_F32 found32 = new TupleDesc_F32(N);
+		TupleDesc_U8 found8 = new TupleDesc_U8(N);
+
+		alg.process(100,90,2,0.5,expected);
+		alg.process(100,90,2,0.5,found32);
+		alg.process(100,90,2,0.5,found8);
+
+		int total = 0;
+		for (int i = 0; i < N; i++) {
+			assertEquals(expected.value[i], found32.value[i], 1e-5);
+			double quantized = Math.min(255,DescribePointSift.QUANTIZE_SCALE_U8*expected.value[i]);
+			assertEquals(quantized, found8.value[i] & 0xFF, 1.0);
+			total += found8.value[i] & 0xFF;
+		}
+		// sanity check to make sure it isn't all zeros
+		assertTrue(total > 0);
+	}
+
 	/**
 	 * Only put gradient inside a small area that fills the descriptor.  Then double the scale and see if
 	 * only a 1/4 of the original image is inside
@@ -29,7 +29,9 @@ import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
 import boofcv.factory.feature.detect.selector.ConfigSelectLimit;
 import boofcv.factory.feature.detect.selector.FactorySelectLimit;
 import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.feature.TupleDesc_U8;
 import boofcv.struct.image.GrayF32;
 import org.ddogleg.struct.FastAccess;
 import org.ddogleg.struct.GrowQueue_F64;
@@ -57,7 +59,7 @@ public class TestCompleteSift {
 		GrayF32 image = new GrayF32(300,290);
 		GImageMiscOps.fillUniform(image,rand,0,200);
 
-		CompleteSift alg = createAlg();
+		CompleteSift<TupleDesc_F64> alg = createAlg(TupleDesc_F64.class);
 
 		alg.process(image);
 
@@ -72,7 +74,33 @@ public class TestCompleteSift {
 		assertEquals(orientations.size,descriptions.size);
 	}
 
-	private CompleteSift createAlg() {
+	/**
+	 * 8-bit descriptors should be the same features as the 64-bit ones, only quantized
+	 */
+	@Test
+	public void compactDescriptor() {
+		GrayF32 image = new GrayF32(300,290);
+		GImageMiscOps.fillUniform(image,rand,0,200);
+
+		CompleteSift<TupleDesc_F64> algF64 = createAlg(TupleDesc_F64.class);
+		CompleteSift<TupleDesc_U8> algU8 = createAlg(TupleDesc_U8.class);
+
+		algF64.process(image);
+		algU8.process(image);
+
+		assertTrue(algF64.getDescriptions().size > 10);
+		assertEquals(algF64.getDescriptions().size,algU8.getDescriptions().size);
+		for (int i = 0; i < algF64.getDescriptions().size; i++) {
+			TupleDesc_F64 a = algF64.getDescriptions().get(i);
+			TupleDesc_U8 b = algU8.getDescriptions().get(i);
+			for (int j = 0; j < a.size(); j++) {
+				double expected = DescribePointSift.QUANTIZE_SCALE_U8*a.value[j];
+				assertEquals(Math.min(255,expected),b.value[j] & 0xFF,1.0);
+			}
+		}
+	}
+
+	private <Desc extends TupleDesc<Desc>> CompleteSift<Desc> createAlg( Class<Desc> descType ) {
 
 		SiftScaleSpace ss = new SiftScaleSpace(-1,4,3,1.6);
 
@@ -84,6 +112,6 @@ public class TestCompleteSift {
 		DescribePointSift<GrayF32> describe =
 				new DescribePointSift<>(4,4,8,1.5,0.5,0.2,GrayF32.class);
 
-		return new CompleteSift(ss,FactorySelectLimit.intensity(ConfigSelectLimit.selectBestN()),10,limiter,ori,describe);
+		return new CompleteSift<>(ss,FactorySelectLimit.intensity(ConfigSelectLimit.selectBestN()),10,limiter,ori,describe,descType);
 	}
 }
\ No newline at end of file
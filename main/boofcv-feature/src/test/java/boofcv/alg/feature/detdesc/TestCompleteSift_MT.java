@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxLimiter;
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.feature.describe.DescribePointSift;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace;
+import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.factory.feature.detect.selector.ConfigSelectLimit;
+import boofcv.factory.feature.detect.selector.FactorySelectLimit;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestCompleteSift_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Results should be identical to the single threaded version, including the order
+	 */
+	@Test
+	void compareToSingle() {
+		GrayF32 image = new GrayF32(300,290);
+		GImageMiscOps.fillUniform(image,rand,0,200);
+
+		CompleteSift<TupleDesc_F64> single = new CompleteSift<>(new SiftScaleSpace(-1,4,3,1.6),
+				FactorySelectLimit.intensity(ConfigSelectLimit.selectBestN()),10,createLimiter(),
+				createOrientation(),createDescribe(),TupleDesc_F64.class);
+		CompleteSift_MT<TupleDesc_F64> alg = new CompleteSift_MT<>(new SiftScaleSpace(-1,4,3,1.6),
+				FactorySelectLimit.intensity(ConfigSelectLimit.selectBestN()),10,createLimiter(),
+				this::createOrientation,this::createDescribe,TupleDesc_F64.class);
+
+		// process it twice to make sure the internal state is reset correctly
+		for (int trial = 0; trial < 2; trial++) {
+			single.process(image);
+			alg.process(image);
+
+			assertTrue(single.getLocations().size > 10);
+			assertEquals(single.getLocations().size, alg.getLocations().size);
+			assertEquals(single.getOrientations().size, alg.getOrientations().size);
+			assertEquals(single.getDescriptions().size, alg.getDescriptions().size);
+
+			for (int i = 0; i < single.getLocations().size; i++) {
+				ScalePoint a = single.getLocations().get(i);
+				ScalePoint b = alg.getLocations().get(i);
+				assertEquals(0.0, a.pixel.distance(b.pixel));
+				assertEquals(a.scale, b.scale);
+				assertEquals(single.getOrientations().get(i), alg.getOrientations().get(i));
+
+				TupleDesc_F64 descA = single.getDescriptions().get(i);
+				TupleDesc_F64 descB = alg.getDescriptions().get(i);
+				for (int j = 0; j < descA.size(); j++) {
+					assertEquals(descA.value[j], descB.value[j]);
+				}
+			}
+		}
+	}
+
+	private NonMaxLimiter createLimiter() {
+		NonMaxSuppression nonmax = FactoryFeatureExtractor.nonmax(new ConfigExtract(1,0,1,true,true,true));
+		return new NonMaxLimiter(nonmax, FactorySelectLimit.intensity(ConfigSelectLimit.selectBestN()),300);
+	}
+
+	private OrientationHistogramSift<GrayF32> createOrientation() {
+		return new OrientationHistogramSift<>(36,1.5,GrayF32.class);
+	}
+
+	private DescribePointSift<GrayF32> createDescribe() {
+		return new DescribePointSift<>(4,4,8,1.5,0.5,0.2,GrayF32.class);
+	}
+}
@@ -30,6 +30,7 @@ import boofcv.testing.BoofTesting;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.Random;
 
 import static java.lang.Math.min;
@@ -190,31 +191,6 @@ class TestSgmCostAggregation {
 		return correct/(double)total;
 	}
 
-	/**
-	 * Compare concurrent to non-concurrent results
-	 */
-	@Test
-	void compareConcurrent() {
-		// larger image to give the threads more time to mess stuff up
-		Planar<GrayU16> costYXD = new Planar<>(GrayU16.class,120,60,20);
-		GImageMiscOps.fillUniform(costYXD,rand,0,100);
-
-		Planar<GrayU16> expected;
-		BoofConcurrency.USE_CONCURRENT = false;
-		{
-			SgmCostAggregation alg = new SgmCostAggregation();
-			alg.process(costYXD);
-			expected = alg.getAggregated();
-		}
-
-		BoofConcurrency.USE_CONCURRENT = true;
-		{
-			SgmCostAggregation alg = new SgmCostAggregation();
-			alg.process(costYXD);
-			BoofTesting.assertEquals(expected,alg.getAggregated(),0.0);
-		}
-	}
-
 	/**
 	 * Makes sure all possible paths are scored once and only once
 	 */
@@ -309,6 +285,30 @@ class TestSgmCostAggregation {
 		}
 	}
 
+	/**
+	 * Only elements of Lr which have been written to along the path should be read. Paths which move two pixels
+	 * along x can grow the local disparity range by two in a single step, so the padding must cover both.
+	 */
+	@Test
+	void scorePath_independentOfWorkContents() {
+		Planar<GrayU16> costYXD = new Planar<>(GrayU16.class,rangeD,width,height);
+		GImageMiscOps.fillUniform(costYXD,rand,1,SgmDisparityCost.MAX_COST);
+
+		for( int dx : new int[]{1,2} ) {
+			SgmCostAggregation alg = new SgmCostAggregation();
+			short[] workCostlr = new short[width*rangeD];
+
+			alg.init(costYXD);
+			alg.scorePath(0,0,dx,1, workCostlr);
+			Planar<GrayU16> expected = alg.aggregated.clone();
+
+			alg.init(costYXD);
+			Arrays.fill(workCostlr,(short)5000);
+			alg.scorePath(0,0,dx,1, workCostlr);
+			BoofTesting.assertEquals(expected,alg.aggregated,0.0);
+		}
+	}
+
 	/**
 	 * Checks the fill in pattern when a single path is scored
 	 */
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.Planar;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSgmCostAggregationStrips {
+
+	Random rand = new Random(234);
+	int width=40,height=30, rangeD =12;
+
+	@BeforeEach
+	void setup() {
+		BoofConcurrency.USE_CONCURRENT = false;
+	}
+
+	/**
+	 * Compare the aggregated cost in each strip against the cost computed for the entire image at once
+	 */
+	@Test
+	void compareToFullImage() {
+		for( int disparityMin : new int[]{0,3}) {
+			for( int paths : new int[]{1,2,4,8,16}) {
+				for( int stripHeight : new int[]{1,2,7,height,height+5}) {
+					compareToFullImage(disparityMin,paths,stripHeight);
+				}
+			}
+		}
+	}
+
+	void compareToFullImage( int disparityMin , int paths , int stripHeight ) {
+		Planar<GrayU16> costYXD = new Planar<>(GrayU16.class,rangeD,width,height);
+		GImageMiscOps.fillUniform(costYXD,rand,0,SgmDisparityCost.MAX_COST);
+
+		SgmCostAggregation full = new SgmCostAggregation();
+		full.configure(disparityMin);
+		full.setPathsConsidered(paths);
+		full.process(costYXD);
+		Planar<GrayU16> expected = full.getAggregated();
+
+		SgmCostAggregationStrips alg = new SgmCostAggregationStrips(stripHeight);
+		alg.configure(disparityMin);
+		alg.setPathsConsidered(paths);
+
+		// keep track of which rows have been processed
+		GrayU8 visited = new GrayU8(1,height);
+		alg.process(costYXD,(y0,y1,aggregatedYXD)->{
+			assertEquals(Math.min(stripHeight,height-y0), y1-y0);
+			assertEquals(y1-y0, aggregatedYXD.getNumBands());
+			for (int y = y0; y < y1; y++) {
+				visited.data[y]++;
+				BoofTesting.assertEquals(expected.getBand(y),aggregatedYXD.getBand(y-y0),0);
+			}
+		});
+
+		// Every row should be passed along once
+		for (int y = 0; y < height; y++) {
+			assertEquals(1,visited.data[y]);
+		}
+	}
+
+	/**
+	 * Process images of different sizes to make sure the internal work space is correctly resized
+	 */
+	@Test
+	void multipleCalls_DifferentShapes() {
+		SgmCostAggregationStrips alg = new SgmCostAggregationStrips(4);
+		alg.setPathsConsidered(16);
+
+		for (int trial = 0; trial < 3; trial++) {
+			int w = width + trial*5, h = height - trial*7;
+			Planar<GrayU16> costYXD = new Planar<>(GrayU16.class,rangeD,w,h);
+			GImageMiscOps.fillUniform(costYXD,rand,0,SgmDisparityCost.MAX_COST);
+
+			SgmCostAggregation full = new SgmCostAggregation();
+			full.setPathsConsidered(16);
+			full.process(costYXD);
+
+			alg.process(costYXD,(y0,y1,aggregatedYXD)->{
+				for (int y = y0; y < y1; y++) {
+					BoofTesting.assertEquals(full.getAggregated().getBand(y),aggregatedYXD.getBand(y-y0),0);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Compares against the brute force approach of walking backwards along the path
+	 */
+	@Test
+	void isOnPath() {
+		Planar<GrayU16> costYXD = new Planar<>(GrayU16.class,rangeD,width,height);
+		SgmCostAggregationStrips alg = new SgmCostAggregationStrips();
+		alg.setPathsConsidered(16);
+		alg.initShape(costYXD);
+
+		for (int i = 0; i < 16; i++) {
+			int dx = SgmCostAggregation.DIRECTIONS[i][0];
+			int dy = SgmCostAggregation.DIRECTIONS[i][1];
+
+			// Mark every pixel along each trajectory
+			GrayU8 expected = new GrayU8(width,height);
+			PathHelper helper = new PathHelper(expected);
+			helper.initShape(costYXD);
+			helper.scoreDirection(dx,dy);
+
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					assertEquals(expected.get(x,y)==1,alg.isOnPath(x,y,dx,dy),dx+" "+dy+" "+x+" "+y);
+				}
+			}
+		}
+	}
+
+	private static class PathHelper extends SgmCostAggregation {
+		GrayU8 visited;
+
+		public PathHelper(GrayU8 visited) {
+			this.visited = visited;
+			this.workspace.resize(1);
+		}
+
+		@Override
+		void scorePath(int x0, int y0, int dx, int dy, short[] work) {
+			int length = computePathLength(x0,y0,dx,dy);
+			for (int i = 0, x = x0, y = y0; i < length; i++, x += dx, y += dy) {
+				visited.set(x,y,1);
+			}
+		}
+	}
+}
@@ -35,8 +35,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * @author Peter Abeles
@@ -180,6 +179,25 @@ public class TestDetectPolygonBinaryGrayRefine extends CommonFitPolygonChecks {
 		assertEquals(4,alg.getPolygonInfo().size());
 	}
 
+	/**
+	 * The time to adjust for bias should be measured even if the profiler is disabled
+	 */
+	@Test
+	public void getMilliAdjustBias_profilerDisabled() {
+		DetectPolygonBinaryGrayRefine alg = createAlg(GrayU8.class, 4,4);
+		alg.detector = new MockDetector();
+		alg.adjustForBias = new MockAdjustBias();
+		assertFalse(alg.getProfiler().isEnabled());
+
+		assertEquals(0.0,alg.getMilliAdjustBias());
+		alg.process(new GrayU8(1,1),new GrayU8(1,1));
+		assertTrue(alg.getMilliAdjustBias() > 0);
+		assertEquals(0,alg.getProfiler().getStages().size());
+
+		alg.resetRuntimeProfiling();
+		assertEquals(0.0,alg.getMilliAdjustBias());
+	}
+
 	@Override
 	public void renderPolygons(List<Polygon2D_F64> polygons, Class imageType ) {
 		super.renderPolygons(polygons,imageType);
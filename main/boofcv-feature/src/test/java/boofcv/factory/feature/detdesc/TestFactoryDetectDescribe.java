@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.factory.feature.detdesc;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.abst.feature.associate.ScoreAssociateEuclideanSq;
+import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.alg.descriptor.KdTreeTuple_F32;
+import boofcv.alg.descriptor.KdTreeTuple_U8;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.feature.TupleDesc_F32;
+import boofcv.struct.feature.TupleDesc_U8;
+import boofcv.struct.image.GrayF32;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastAccess;
+import org.ddogleg.struct.FastArray;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Goes from detection through association using compact descriptors to make sure the entire pipeline works
+ * without converting into {@link boofcv.struct.feature.TupleDesc_F64}
+ *
+ * @author Peter Abeles
+ */
+class TestFactoryDetectDescribe {
+
+	Random rand = new Random(234);
+
+	// translation between the two images
+	int offsetX = 6, offsetY = 4;
+
+	GrayF32 imageA, imageB;
+
+	@BeforeEach
+	void setup() {
+		GrayF32 noise = new GrayF32(320,260);
+		ImageMiscOps.fillUniform(noise, rand, 0, 255);
+		GrayF32 base = BlurImageOps.gaussian(noise, null, 2.0, -1, null);
+
+		imageA = base.subimage(0, 0, 300, 240).clone();
+		imageB = base.subimage(offsetX, offsetY, 300+offsetX, 240+offsetY).clone();
+	}
+
+	@Test
+	void sift_U8() {
+		DetectDescribePoint<GrayF32, TupleDesc_U8> alg =
+				FactoryDetectDescribe.sift(null, GrayF32.class, TupleDesc_U8.class);
+
+		FastArray<Point2D_F64> locA = new FastArray<>(Point2D_F64.class);
+		FastArray<Point2D_F64> locB = new FastArray<>(Point2D_F64.class);
+		FastArray<TupleDesc_U8> descA = detect(alg, imageA, locA);
+		FastArray<TupleDesc_U8> descB = detect(alg, imageB, locB);
+
+		int length = descA.get(0).size();
+		checkMatches(FactoryAssociation.kdtree(null, new KdTreeTuple_U8(length)), descA, descB, locA, locB);
+		checkMatches(FactoryAssociation.greedy(null, new ScoreAssociateEuclideanSq.U8()), descA, descB, locA, locB);
+	}
+
+	@Test
+	void surfStable_F32() {
+		DetectDescribePoint<GrayF32, TupleDesc_F32> alg =
+				FactoryDetectDescribe.surfStable(null, null, null, GrayF32.class, TupleDesc_F32.class);
+
+		FastArray<Point2D_F64> locA = new FastArray<>(Point2D_F64.class);
+		FastArray<Point2D_F64> locB = new FastArray<>(Point2D_F64.class);
+		FastArray<TupleDesc_F32> descA = detect(alg, imageA, locA);
+		FastArray<TupleDesc_F32> descB = detect(alg, imageB, locB);
+
+		int length = descA.get(0).size();
+		checkMatches(FactoryAssociation.kdtree(null, new KdTreeTuple_F32(length)), descA, descB, locA, locB);
+		checkMatches(FactoryAssociation.greedy(null, new ScoreAssociateEuclideanSq.F32()), descA, descB, locA, locB);
+	}
+
+	/**
+	 * Detects features and saves a copy of their descriptions and locations
+	 */
+	private <Desc extends TupleDesc<Desc>> FastArray<Desc>
+	detect( DetectDescribePoint<GrayF32, Desc> alg, GrayF32 image, FastArray<Point2D_F64> locations ) {
+		alg.detect(image);
+
+		FastArray<Desc> descriptions = new FastArray<>(alg.getDescriptionType());
+		for (int i = 0; i < alg.getNumberOfFeatures(); i++) {
+			descriptions.add(alg.getDescription(i).copy());
+			locations.add(alg.getLocation(i).copy());
+		}
+		assertTrue(descriptions.size > 20);
+		return descriptions;
+	}
+
+	/**
+	 * The second image is a translated copy of the first. Almost all of the matches should be consistent with
+	 * the translation.
+	 */
+	private <Desc> void checkMatches( AssociateDescription<Desc> associate,
+									  FastAccess<Desc> descA, FastAccess<Desc> descB,
+									  FastAccess<Point2D_F64> locA, FastAccess<Point2D_F64> locB ) {
+		associate.setSource(descA);
+		associate.setDestination(descB);
+		associate.associate();
+
+		FastAccess<AssociatedIndex> matches = associate.getMatches();
+		assertTrue(matches.size > 20);
+
+		int correct = 0;
+		for (int i = 0; i < matches.size; i++) {
+			AssociatedIndex m = matches.get(i);
+			Point2D_F64 a = locA.get(m.src);
+			Point2D_F64 b = locB.get(m.dst);
+			if( a.distance(b.x + offsetX, b.y + offsetY) < 0.5 )
+				correct++;
+		}
+		assertTrue(correct >= matches.size*0.9, correct+" / "+matches.size);
+	}
+}
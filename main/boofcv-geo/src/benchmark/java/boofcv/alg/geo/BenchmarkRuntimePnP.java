@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,125 +20,83 @@ package boofcv.alg.geo;
 
 import boofcv.abst.geo.Estimate1ofPnP;
 import boofcv.alg.geo.pose.PnPLepetitEPnP;
-import boofcv.alg.geo.pose.PoseFromPairLinear6;
 import boofcv.factory.geo.EnumPNP;
 import boofcv.factory.geo.FactoryMultiView;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.geo.Point2D3D;
 import georegression.struct.se.Se3_F64;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkRuntimePnP extends ArtificialStereoScene {
-	static final long TEST_TIME = 1000;
-	static final int NUM_POINTS = 200;
-	static final boolean FUNDAMENTAL = false;
 
-	Se3_F64 found = new Se3_F64();
-
-	public class EPnP extends PerformerBase {
-
-		PnPLepetitEPnP alg;
-
-		public EPnP( int numIterations ) {
-			alg = new PnPLepetitEPnP();
-			alg.setNumIterations(numIterations);
-		}
+	@Param({"200"})
+	int numPoints;
 
-		@Override
-		public void process() {
-			alg.process(worldPoints,observationCurrent,found);
-		}
-	}
-
-	public class InterfacePNP_Min extends PerformerBase {
-
-		Estimate1ofPnP alg;
-		String name;
+	Se3_F64 found = new Se3_F64();
 
-		List<Point2D3D> obs = new ArrayList<>();
+	PnPLepetitEPnP epnp0 = new PnPLepetitEPnP();
+	PnPLepetitEPnP epnp5 = new PnPLepetitEPnP();
+	Estimate1ofPnP grunert;
+	Estimate1ofPnP finster;
 
-		public InterfacePNP_Min(String name , Estimate1ofPnP alg) {
-			this.alg = alg;
-			this.name = name;
+	// Just the minimum number of points needed by P3P
+	List<Point2D3D> obsMin = new ArrayList<>();
 
-			for( int i = 0; i < alg.getMinimumPoints(); i++ )
-				obs.add(observationPose.get(i));
-		}
+	@Setup
+	public void setup() {
+		init(numPoints, false, false);
 
-		@Override
-		public void process() {
-			alg.process(obs,found);
-		}
+		epnp0.setNumIterations(0);
+		epnp5.setNumIterations(5);
+		grunert = FactoryMultiView.pnp_1(EnumPNP.P3P_GRUNERT,-1,1);
+		finster = FactoryMultiView.pnp_1(EnumPNP.P3P_FINSTERWALDER,-1,1);
 
-		@Override
-		public String getName() {
-			return name;
-		}
+		obsMin.clear();
+		for( int i = 0; i < grunert.getMinimumPoints(); i++ )
+			obsMin.add(observationPose.get(i));
 	}
 
-	public class InterfacePNP extends PerformerBase {
-
-		Estimate1ofPnP alg;
-		String name;
-
-		public InterfacePNP(String name , Estimate1ofPnP alg) {
-			this.alg = alg;
-			this.name = name;
-		}
-
-		@Override
-		public void process() {
-			alg.process(observationPose,found);
-		}
-
-		@Override
-		public String getName() {
-			return name;
-		}
+	@Benchmark
+	public void epnp_iter0() {
+		epnp0.process(worldPoints,observationCurrent,found);
 	}
 
-	public class PairLinear extends PerformerBase {
-
-		PoseFromPairLinear6 alg = new PoseFromPairLinear6();
+	@Benchmark
+	public void epnp_iter5() {
+		epnp5.process(worldPoints,observationCurrent,found);
+	}
 
-		@Override
-		public void process() {
-			alg.process(pairs,worldPoints);
-		}
+	@Benchmark
+	public void p3p_grunert() {
+		grunert.process(obsMin,found);
 	}
-	
-	public void runAll() {
-		System.out.println("=========  Profile numFeatures "+NUM_POINTS);
-		System.out.println();
-
-		boolean planar = false;
-		init(NUM_POINTS, FUNDAMENTAL, planar);
-
-		Estimate1ofPnP grunert = FactoryMultiView.pnp_1(EnumPNP.P3P_GRUNERT,-1,1);
-		Estimate1ofPnP finster = FactoryMultiView.pnp_1(EnumPNP.P3P_FINSTERWALDER,-1,1);
-		Estimate1ofPnP ippe = FactoryMultiView.pnp_1(EnumPNP.IPPE,-1,1);
-
-		ProfileOperation.printOpsPerSec(new EPnP(0), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new EPnP(5), TEST_TIME);
-//		ProfileOperation.printOpsPerSec(new PairLinear(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new InterfacePNP_Min("grunert",grunert), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new InterfacePNP_Min("finster",finster), TEST_TIME);
-		if( planar )
-			ProfileOperation.printOpsPerSec(new InterfacePNP("IPPE",ippe), TEST_TIME);
-
-		System.out.println();
-		System.out.println("Done");
+
+	@Benchmark
+	public void p3p_finster() {
+		finster.process(obsMin,found);
 	}
-	
-	public static void main( String args[] ) {
-		BenchmarkRuntimePnP alg = new BenchmarkRuntimePnP();
 
-		alg.runAll();
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkRuntimePnP.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
 	}
 }
@@ -27,6 +27,9 @@ import javax.annotation.Nullable;
  * Generalized camera model for bundle adjustment. By implementing this function you can swap in and out
  * arbitrary camera models.
  *
+ * <p>NOTE: {@link #project} and {@link #jacobian} should not modify the model's internal state. Concurrent
+ * implementations will call them from multiple threads after the intrinsic parameters have been set.</p>
+ *
  * @author Peter Abeles
  */
 public interface BundleAdjustmentCamera {
@@ -218,7 +218,7 @@ public class PruneStructureFromSceneProjective {
 //				System.out.println("   pointIndex="+pointIndex+" pointID="+pointID+" hash="+f.hashCode());
 				v.get(indexInView, observation);
 
-				if( !Double.isNaN(v.observations.get(indexInView*2)))
+				if( !Double.isNaN(observation.x))
 					continue;
 
 				// Tell the feature it is no longer visible in this view
@@ -22,6 +22,7 @@ import boofcv.abst.geo.bundle.SceneStructureCommon.Point;
 import boofcv.alg.geo.NormalizationPoint2D;
 import boofcv.alg.geo.PerspectiveOps;
 import georegression.geometry.GeometryMath_F64;
+import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point3D_F64;
 import georegression.struct.point.Point4D_F64;
 import org.ddogleg.sorting.QuickSelect;
@@ -132,19 +133,22 @@ public class ScaleSceneStructure {
 	void computePixelScaling(SceneStructureProjective structure, SceneObservations observations) {
 		pixelScaling.reset();
 		if( scalePixelsUsingStats ) {
+			Point2D_F64 pixel = new Point2D_F64();
 			for (int viewIdx = 0; viewIdx < structure.views.size; viewIdx++) {
 				SceneObservations.View so = observations.views.get(viewIdx);
 				int N = so.size();
 				double meanX=0,meanY=0;
-				for (int i = 0,idx=0; i < N; i++) {
-					meanX += so.observations.data[idx++];
-					meanY += so.observations.data[idx++];
+				for (int i = 0; i < N; i++) {
+					so.get(i,pixel);
+					meanX += pixel.x;
+					meanY += pixel.y;
 				}
 				meanX /= N;meanY /= N;
 				double stdX=0,stdY=0;
-				for (int i = 0,idx=0; i < N; i++) {
-					double dx = meanX - so.observations.data[idx++];
-					double dy = meanY - so.observations.data[idx++];
+				for (int i = 0; i < N; i++) {
+					so.get(i,pixel);
+					double dx = meanX - pixel.x;
+					double dy = meanY - pixel.y;
 					stdX += dx*dx;
 					stdY += dy*dy;
 				}
@@ -165,6 +169,7 @@ public class ScaleSceneStructure {
 	public void applyScaleToPixelsAndCameraMatrix(SceneStructureProjective structure ,
 										   SceneObservations observations )
 	{
+		Point2D_F64 pixel = new Point2D_F64();
 		for (int viewIdx = 0; viewIdx < structure.views.size; viewIdx++) {
 			NormalizationPoint2D n = pixelScaling.get(viewIdx);
 
@@ -176,11 +181,10 @@ public class ScaleSceneStructure {
 			SceneStructureProjective.View v = structure.views.data[viewIdx];
 			SceneObservations.View ov = observations.views.get(viewIdx);
 			for (int pixelIdx = 0; pixelIdx < ov.size(); pixelIdx++) {
-				int i = pixelIdx*2;
-				float x = ov.observations.data[i];
-				float y = ov.observations.data[i+1];
-				ov.observations.data[i  ] = (x - cx)/ stdX;
-				ov.observations.data[i+1] = (y - cy)/ stdY;
+				ov.get(pixelIdx,pixel);
+				float x = (float)pixel.x;
+				float y = (float)pixel.y;
+				ov.set(pixelIdx, (x - cx)/ stdX, (y - cy)/ stdY);
 			}
 			n.apply(v.worldToView,v.worldToView);
 		}
@@ -189,6 +193,7 @@ public class ScaleSceneStructure {
 	public void undoScaleToPixelsAndCameraMatrix(SceneStructureProjective structure ,
 												 SceneObservations observations )
 	{
+		Point2D_F64 pixel = new Point2D_F64();
 		for (int viewIdx = 0; viewIdx < structure.views.size; viewIdx++) {
 			NormalizationPoint2D n = pixelScaling.get(viewIdx);
 
@@ -200,11 +205,10 @@ public class ScaleSceneStructure {
 			SceneStructureProjective.View v = structure.views.data[viewIdx];
 			SceneObservations.View ov = observations.views.get(viewIdx);
 			for (int pixelIdx = 0; pixelIdx < ov.size(); pixelIdx++) {
-				int i = pixelIdx*2;
-				float x = ov.observations.data[i];
-				float y = ov.observations.data[i+1];
-				ov.observations.data[i  ] = x*stdX + cx;
-				ov.observations.data[i+1] = y*stdY + cy;
+				ov.get(pixelIdx,pixel);
+				float x = (float)pixel.x;
+				float y = (float)pixel.y;
+				ov.set(pixelIdx, x*stdX + cx, y*stdY + cy);
 			}
 
 			n.remove(v.worldToView,v.worldToView);
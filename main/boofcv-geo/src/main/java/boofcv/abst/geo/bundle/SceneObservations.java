@@ -24,13 +24,30 @@ import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.GrowQueue_F32;
 import org.ddogleg.struct.GrowQueue_I32;
 
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Storage for feature observation in each view. Input for bundle adjustment. When possible arrays are used to
- * reduce memory requirements.
+ * reduce memory requirements. For very large scenes the pixel observations can be moved off the heap and into
+ * a memory mapped file, see {@link #mapObservations(File)}.
  *
  * @author Peter Abeles
  */
 public class SceneObservations {
+	/**
+	 * Maximum number of bytes in a single memory mapped region
+	 */
+	public static int MAX_MAPPED_BYTES = 1 << 30;
+
 	/**
 	 * Views of general points.
 	 */
@@ -40,6 +57,9 @@ public class SceneObservations {
 	 */
 	public final FastQueue<View> viewsRigid = new FastQueue<>(View::new,View::reset);
 
+	// File which observations are memory mapped to. null if they are on the heap
+	@Nullable File mappedFile;
+
 	/**
 	 * Initialize the data structures for this number of views. Rigid is set to be false.
 	 * @param numViews Number of views
@@ -87,6 +107,90 @@ public class SceneObservations {
 		return views.size != 0 && views.size==viewsRigid.size;
 	}
 
+	/**
+	 * Moves pixel observations in all views from the heap into a memory mapped file. Point IDs stay on the heap.
+	 * After this function has been called, observations can be read, modified, and removed with {@link View#get},
+	 * {@link View#set}, and {@link View#remove}, but observations can't be added. {@link View#observations} will
+	 * be empty and must not be accessed directly. Views are written in order, so processing views sequentially
+	 * will read the file sequentially.
+	 *
+	 * The file is not deleted by this class. After {@link #unmapObservations()} it's the caller's responsibility
+	 * to delete it. On some operating systems the file can't be deleted until the mapped buffers have been
+	 * garbage collected.
+	 *
+	 * @param file File the observations are written to. If it exists it will be overwritten.
+	 * @throws IllegalStateException If observations are already memory mapped
+	 */
+	public void mapObservations( File file ) throws IOException {
+		List<View> all = new ArrayList<>();
+		for (int i = 0; i < views.size; i++) {
+			all.add(views.data[i]);
+		}
+		for (int i = 0; i < viewsRigid.size; i++) {
+			all.add(viewsRigid.data[i]);
+		}
+
+		// Must be checked before the file is opened. Truncating a file which is still mapped can crash the JVM
+		for (int i = 0; i < all.size(); i++) {
+			if( all.get(i).isMapped() )
+				throw new IllegalStateException("Observations are already memory mapped. Call unmapObservations()");
+		}
+
+		try( FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING) ) {
+			long position = 0;
+			int idx0 = 0;
+			while( idx0 < all.size() ) {
+				// Views are grouped into regions since there's a limit on how large a single region can be
+				long bytes = 0;
+				int idx1 = idx0;
+				while( idx1 < all.size() ) {
+					long viewBytes = 8L*all.get(idx1).size();
+					if( idx1 != idx0 && bytes + viewBytes > MAX_MAPPED_BYTES )
+						break;
+					bytes += viewBytes;
+					idx1++;
+				}
+
+				MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, position, bytes);
+				region.order(ByteOrder.nativeOrder());
+				FloatBuffer floats = region.asFloatBuffer();
+				for (int i = idx0; i < idx1; i++) {
+					all.get(i).moveToMapped(floats);
+				}
+
+				position += bytes;
+				idx0 = idx1;
+			}
+		}
+		mappedFile = file;
+	}
+
+	/**
+	 * Copies memory mapped observations back onto the heap. Does nothing if they are not memory mapped. The
+	 * file is not deleted.
+	 *
+	 * @return The file observations had been mapped to or null if they were not mapped
+	 */
+	public @Nullable File unmapObservations() {
+		for (int i = 0; i < views.size; i++) {
+			views.data[i].moveToHeap();
+		}
+		for (int i = 0; i < viewsRigid.size; i++) {
+			viewsRigid.data[i].moveToHeap();
+		}
+		File file = mappedFile;
+		mappedFile = null;
+		return file;
+	}
+
+	/**
+	 * File which observations are currently memory mapped to or null if they are on the heap
+	 */
+	public @Nullable File getMappedFile() {
+		return mappedFile;
+	}
+
 	public View getView( int which ) {
 		return views.data[which];
 	}
@@ -100,15 +204,33 @@ public class SceneObservations {
 		public GrowQueue_I32 point = new GrowQueue_I32();
 		// The observation of the point in the view in an interleaved format. In image pixels.
 		public GrowQueue_F32 observations = new GrowQueue_F32();
+		// If not null, observations are stored in this memory mapped buffer instead of 'observations'
+		@Nullable FloatBuffer mapped;
 
 		public int size() {
 			return point.size;
 		}
 
+		/**
+		 * True if observations are stored in a memory mapped file
+		 */
+		public boolean isMapped() {
+			return mapped != null;
+		}
+
 		/**
 		 * Removes the feature and observation at the specified element
 		 */
 		public void remove(int index ) {
+			if( mapped != null ) {
+				// shift the remaining observations down. The unused space at the end of the buffer is ignored
+				int length = point.size*2;
+				for (int i = index*2; i < length-2; i++) {
+					mapped.put(i,mapped.get(i+2));
+				}
+				point.remove(index);
+				return;
+			}
 			point.remove(index);
 			index *= 2;
 			observations.remove(index,index+1);
@@ -116,8 +238,13 @@ public class SceneObservations {
 
 		public void set(int index, float x , float y ) {
 			index *= 2;
-			observations.data[index] = x;
-			observations.data[index+1] = y;
+			if( mapped != null ) {
+				mapped.put(index,x);
+				mapped.put(index+1,y);
+			} else {
+				observations.data[index] = x;
+				observations.data[index+1] = y;
+			}
 		}
 
 		public int getPointId( int index ) {
@@ -128,8 +255,13 @@ public class SceneObservations {
 			if( index >= point.size )
 				throw new IndexOutOfBoundsException(index+" >= "+point.size);
 			index *= 2;
-			p.x = observations.data[index];
-			p.y = observations.data[index+1];
+			if( mapped != null ) {
+				p.x = mapped.get(index);
+				p.y = mapped.get(index+1);
+			} else {
+				p.x = observations.data[index];
+				p.y = observations.data[index+1];
+			}
 		}
 
 		public void get(int index , PointIndex2D_F64 observation ) {
@@ -137,7 +269,10 @@ public class SceneObservations {
 				throw new IndexOutOfBoundsException(index+" >= "+point.size);
 			observation.index = point.data[index];
 			index *= 2;
-			observation.set( observations.data[index], observations.data[index+1]);
+			if( mapped != null )
+				observation.set( mapped.get(index), mapped.get(index+1));
+			else
+				observation.set( observations.data[index], observations.data[index+1]);
 		}
 
 		/**
@@ -147,6 +282,7 @@ public class SceneObservations {
 		 * @param y pixel y-coordinate
 		 */
 		public void add( int featureIndex , float x , float y ) {
+			checkNotMapped();
 			point.add(featureIndex);
 			observations.add(x);
 			observations.add(y);
@@ -162,12 +298,46 @@ public class SceneObservations {
 			}
 		}
 
+		/**
+		 * Copies the observations into the next elements in the buffer and then releases the heap storage
+		 */
+		void moveToMapped( FloatBuffer buffer ) {
+			checkNotMapped();
+			int length = point.size*2;
+			FloatBuffer slice = buffer.slice();
+			slice.limit(length);
+			slice.put(observations.data,0,length);
+			buffer.position(buffer.position()+length);
+			mapped = slice;
+			observations = new GrowQueue_F32(0);
+		}
+
+		/**
+		 * Copies the observations from the memory mapped buffer back onto the heap
+		 */
+		void moveToHeap() {
+			if( mapped == null )
+				return;
+			int length = point.size*2;
+			observations.resize(length);
+			for (int i = 0; i < length; i++) {
+				observations.data[i] = mapped.get(i);
+			}
+			mapped = null;
+		}
+
+		private void checkNotMapped() {
+			if( mapped != null )
+				throw new IllegalStateException("Observations are memory mapped and can't be added");
+		}
+
 		/**
 		 * Puts it back into its original state.
 		 */
 		public void reset() {
 			point.reset();
 			observations.reset();
+			mapped = null;
 		}
 	}
 
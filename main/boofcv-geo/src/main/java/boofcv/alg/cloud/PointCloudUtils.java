@@ -18,15 +18,12 @@
 
 package boofcv.alg.cloud;
 
-import boofcv.alg.nn.KdTreePoint3D_F64;
 import georegression.struct.point.Point3D_F32;
 import georegression.struct.point.Point3D_F64;
-import org.ddogleg.nn.FactoryNearestNeighbor;
-import org.ddogleg.nn.NearestNeighbor;
-import org.ddogleg.nn.NnData;
-import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
 import org.ddogleg.struct.GrowQueue_I32;
 
+import javax.annotation.Nullable;
 import java.util.List;
 
 /**
@@ -95,60 +92,67 @@ public class PointCloudUtils {
 	 * @param radius search distance for neighbors
 	 */
 	public static void prune(List<Point3D_F64> cloud , int minNeighbors , double radius ) {
-		if( minNeighbors < 0 )
-			throw new IllegalArgumentException("minNeighbors must be >= 0");
-		NearestNeighbor<Point3D_F64> nn = FactoryNearestNeighbor.kdtree(new KdTreePoint3D_F64() );
-		NearestNeighbor.Search<Point3D_F64> search = nn.createSearch();
-
-		nn.setPoints(cloud,false);
-		FastQueue<NnData<Point3D_F64>> results = new FastQueue(NnData::new);
-
-		// It will always find itself
-		minNeighbors += 1;
-
-		// distance is Euclidean squared
-		radius *= radius;
-
-		for( int i = cloud.size()-1; i >= 0; i-- ) {
-			search.findNearest(cloud.get(i),radius,minNeighbors,results);
-
-			if( results.size < minNeighbors ) {
-				cloud.remove(i);
-			}
-		}
+		prune(cloud, null, minNeighbors, radius);
 	}
 
 	/**
-	 * Prunes points from the point cloud if they have very few neighbors
+	 * Prunes points from the point cloud if they have very few neighbors. Surviving points are compacted in a
+	 * single pass so the order is not changed and colors stay aligned.
 	 *
 	 * @param cloud Point cloud
-	 * @param colors Color of each point.
+	 * @param colors Color of each point. Can be null.
 	 * @param minNeighbors Minimum number of neighbors for it to not be pruned
 	 * @param radius search distance for neighbors
+	 * @see VoxelGridPointCloud
 	 */
-	public static void prune(List<Point3D_F64> cloud , GrowQueue_I32 colors, int minNeighbors , double radius ) {
-		if( minNeighbors < 0 )
-			throw new IllegalArgumentException("minNeighbors must be >= 0");
-		NearestNeighbor<Point3D_F64> nn = FactoryNearestNeighbor.kdtree(new KdTreePoint3D_F64());
-		NearestNeighbor.Search<Point3D_F64> search = nn.createSearch();
-
-		nn.setPoints(cloud,false);
-		FastQueue<NnData<Point3D_F64>> results = new FastQueue(NnData::new);
-
-		// It will always find itself
-		minNeighbors += 1;
-
-		// distance is Euclidean squared
-		radius *= radius;
+	public static void prune(List<Point3D_F64> cloud , @Nullable GrowQueue_I32 colors, int minNeighbors , double radius ) {
+		VoxelGridPointCloud alg = new VoxelGridPointCloud();
+		alg.setCloud(PointCloudReader.wrapF64(cloud));
+		alg.markInliers(minNeighbors, radius);
+		GrowQueue_B inliers = alg.getInliers();
+
+		int count = 0;
+		for (int i = 0; i < inliers.size; i++) {
+			if( !inliers.data[i] )
+				continue;
+			cloud.set(count, cloud.get(i));
+			if( colors != null )
+				colors.data[count] = colors.data[i];
+			count++;
+		}
+		cloud.subList(count, cloud.size()).clear();
+		if( colors != null )
+			colors.resize(count);
+	}
 
-		for( int i = cloud.size()-1; i >= 0; i-- ) {
-			search.findNearest(cloud.get(i),radius,minNeighbors,results);
+	/**
+	 * Prunes points from the point cloud if they have very few neighbors. Points are read and written
+	 * without creating a point object for each one.
+	 *
+	 * @param cloud (Input) Point cloud
+	 * @param minNeighbors Minimum number of neighbors for it to not be pruned
+	 * @param radius search distance for neighbors
+	 * @param output (Output) Points which were not pruned
+	 * @see VoxelGridPointCloud
+	 */
+	public static void prune(PointCloudReader cloud , int minNeighbors , double radius , PointCloudWriter output ) {
+		VoxelGridPointCloud alg = new VoxelGridPointCloud();
+		alg.setCloud(cloud);
+		alg.prune(minNeighbors, radius, output);
+	}
 
-			if( results.size < minNeighbors ) {
-				cloud.remove(i);
-				colors.remove(i);
-			}
-		}
+	/**
+	 * Down samples the point cloud by replacing all the points inside a voxel with their centroid
+	 *
+	 * @param cloud (Input) Point cloud
+	 * @param voxelSize Length of a voxel's side
+	 * @param output (Output) Down sampled point cloud
+	 * @see VoxelGridPointCloud
+	 */
+	public static void downsample(PointCloudReader cloud , double voxelSize , PointCloudWriter output ) {
+		VoxelGridPointCloud alg = new VoxelGridPointCloud();
+		alg.setCloud(cloud);
+		alg.downsample(voxelSize, output);
 	}
 
 	public static void convert(Point3D_F64 src , Point3D_F32 dst ) {
@@ -26,6 +26,8 @@ import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.GrowQueue_F32;
 import org.ddogleg.struct.GrowQueue_I32;
 
+import javax.annotation.Nullable;
+
 /**
  * Interface for reading a point cloud
  *
@@ -38,6 +40,26 @@ public interface PointCloudWriter {
 
 	void add( double x , double y , double z , int rgb );
 
+	/**
+	 * Adds a block of points at once. Implementations which can avoid the overhead of adding points one at a time
+	 * should override this function.
+	 *
+	 * @param xyz Array containing the points, interleaved as (x,y,z). Length must be at least 3*count.
+	 * @param rgb Array containing the color of each point or null if there is no color information.
+	 * @param count Number of points being added.
+	 */
+	default void addBlock( double[] xyz , @Nullable int[] rgb , int count ) {
+		if( rgb == null ) {
+			for (int i = 0, idx = 0; i < count; i++, idx += 3) {
+				add(xyz[idx], xyz[idx+1], xyz[idx+2]);
+			}
+		} else {
+			for (int i = 0, idx = 0; i < count; i++, idx += 3) {
+				add(xyz[idx], xyz[idx+1], xyz[idx+2], rgb[i]);
+			}
+		}
+	}
+
 	class CloudArraysF32 implements PointCloudWriter {
 		// Storage for point cloud
 		public GrowQueue_F32 cloudXyz = new GrowQueue_F32();
@@ -65,6 +87,17 @@ public interface PointCloudWriter {
 			cloudXyz.add((float)z);
 			cloudRgb.add(rgb);
 		}
+
+		@Override
+		public void addBlock(double[] xyz, @Nullable int[] rgb, int count) {
+			final int length = count*3;
+			for (int i = 0; i < length; i++) {
+				cloudXyz.add((float)xyz[i]);
+			}
+			if( rgb != null ) {
+				cloudRgb.addAll(rgb,0,count);
+			}
+		}
 	}
 
 	static PointCloudWriter wrapF32(FastQueue<Point3D_F32> cloud) {
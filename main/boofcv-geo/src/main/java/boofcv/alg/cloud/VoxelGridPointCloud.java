@@ -0,0 +1,388 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.cloud;
+
+import boofcv.concurrency.BoofConcurrency;
+import georegression.struct.point.Point3D_F64;
+import lombok.Getter;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.ddogleg.struct.GrowQueue_I64;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Outlier removal and down sampling of large point clouds using a hashed voxel grid. Points are copied into
+ * primitive arrays and then grouped by the voxel they fall inside. The grid is sparse, memory is only used for
+ * voxels which contain a point, and is built in linear time. Neighbors of a point can only be inside of the
+ * adjacent voxels, so a radius search only needs to examine 27 voxels.
+ * </p>
+ *
+ * <ul>
+ *     <li>{@link #prune} Removes points which have fewer than N neighbors inside a radius. Same
+ *     result as a k-d tree search but without building a tree.</li>
+ *     <li>{@link #downsample} Replaces all the points inside a voxel with their centroid and average color</li>
+ * </ul>
+ *
+ * <p>
+ * The grid's origin is the minimum corner of the cloud's bounding box. Voxel coordinates are packed into a single
+ * long with 21-bits for each axis, which limits the number of voxels along each axis. All points must be finite.
+ * Searches are done in parallel when {@link BoofConcurrency#USE_CONCURRENT} is true. Once the internal arrays have
+ * grown, reusing an instance doesn't create new memory.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class VoxelGridPointCloud {
+	// Number of bits used to encode each axis of a voxel's coordinate
+	static final int BITS = 21;
+	static final long MASK = (1L << BITS) - 1;
+	// Maximum number of voxels along each axis. One is reserved for neighbors outside the grid
+	static final int MAX_VOXELS = (1 << BITS) - 1;
+
+	/** Copy of the point cloud, interleaved (x,y,z) */
+	final @Getter GrowQueue_F64 xyz = new GrowQueue_F64();
+	/** RGB color of each point */
+	final @Getter GrowQueue_I32 rgb = new GrowQueue_I32();
+	/** Found by {@link #markInliers}. true if a point is an inlier */
+	final @Getter GrowQueue_B inliers = new GrowQueue_B();
+
+	// Minimum corner of the cloud's bounding box
+	double x0, y0, z0;
+	// Size of the cloud's bounding box
+	double extent;
+
+	// Length of a voxel's side in the current grid
+	double voxelSize;
+	// Number of voxels in the grid
+	int numVoxels;
+	// Which voxel each point belongs to
+	final GrowQueue_I32 pointToVoxel = new GrowQueue_I32();
+	// Points in voxel 'i' are in 'voxelPoints' from voxelStart[i] to voxelStart[i+1]
+	final GrowQueue_I32 voxelStart = new GrowQueue_I32();
+	final GrowQueue_I32 voxelPoints = new GrowQueue_I32();
+	// Key for each voxel
+	final GrowQueue_I64 voxelKeys = new GrowQueue_I64();
+
+	// Hash table using open addressing which maps a key to a voxel index. -1 = empty slot
+	long[] tableKeys = new long[0];
+	int[] tableVoxels = new int[0];
+	int tableMask;
+
+	// Used when down sampling. Centroid and color of each voxel
+	final GrowQueue_F64 centroids = new GrowQueue_F64();
+	final GrowQueue_I32 colors = new GrowQueue_I32();
+
+	// Workspace for reading the cloud
+	final Point3D_F64 work = new Point3D_F64();
+
+	/**
+	 * Copies the point cloud into internal storage. Must be called before any other function.
+	 *
+	 * @param cloud (Input) The point cloud
+	 */
+	public void setCloud( PointCloudReader cloud ) {
+		final int N = cloud.size();
+		xyz.resize(N*3);
+		rgb.resize(N);
+
+		x0 = y0 = z0 = Double.MAX_VALUE;
+		double x1 = -Double.MAX_VALUE, y1 = -Double.MAX_VALUE, z1 = -Double.MAX_VALUE;
+
+		for (int i = 0, idx = 0; i < N; i++) {
+			cloud.get(i, work);
+			xyz.data[idx++] = work.x;
+			xyz.data[idx++] = work.y;
+			xyz.data[idx++] = work.z;
+			rgb.data[i] = cloud.getRGB(i);
+
+			x0 = Math.min(x0, work.x); x1 = Math.max(x1, work.x);
+			y0 = Math.min(y0, work.y); y1 = Math.max(y1, work.y);
+			z0 = Math.min(z0, work.z); z1 = Math.max(z1, work.z);
+		}
+
+		extent = N == 0 ? 0.0 : Math.max(Math.max(x1 - x0, y1 - y0), z1 - z0);
+		if( Double.isNaN(extent) || Double.isInfinite(extent) )
+			throw new IllegalArgumentException("All points must have finite values");
+		// force the grid to be rebuilt
+		voxelSize = 0;
+	}
+
+	/**
+	 * Finds points which have at least 'minNeighbors' within 'radius', not including itself, and saves them into
+	 * the output cloud. The order of points is not changed.
+	 *
+	 * @param minNeighbors Minimum number of neighbors for it to not be pruned
+	 * @param radius search distance for neighbors
+	 * @param output (Output) Points which were not pruned
+	 */
+	public void prune( int minNeighbors, double radius, PointCloudWriter output ) {
+		int count = markInliers(minNeighbors, radius);
+
+		output.init(count);
+		final int N = size();
+		for (int i = 0, idx = 0; i < N; i++, idx += 3) {
+			if( inliers.data[i] )
+				output.add(xyz.data[idx], xyz.data[idx + 1], xyz.data[idx + 2], rgb.data[i]);
+		}
+	}
+
+	/**
+	 * Marks points as inliers if they have at least 'minNeighbors' within 'radius', not including itself.
+	 *
+	 * @param minNeighbors Minimum number of neighbors for it to not be pruned
+	 * @param radius search distance for neighbors
+	 * @return Number of inliers
+	 * @see #getInliers()
+	 */
+	public int markInliers( int minNeighbors, double radius ) {
+		if( minNeighbors < 0 )
+			throw new IllegalArgumentException("minNeighbors must be >= 0");
+		if( radius <= 0 )
+			throw new IllegalArgumentException("radius must be > 0");
+
+		// Neighbors will be inside the adjacent voxels so long as the voxel isn't smaller than the radius.
+		// Larger voxels are used if needed to fit the cloud inside the grid
+		buildGrid(Math.max(radius, extent/(MAX_VOXELS - 1)));
+
+		final int N = size();
+		inliers.resize(N);
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopBlocks(0, N, ( i0, i1 ) -> markInliers(i0, i1, minNeighbors, radius));
+		} else {
+			markInliers(0, N, minNeighbors, radius);
+		}
+
+		int count = 0;
+		for (int i = 0; i < N; i++) {
+			if( inliers.data[i] )
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Marks inliers for points in the specified range. Points only read shared data so blocks can be processed
+	 * in parallel.
+	 */
+	void markInliers( int idx0, int idx1, int minNeighbors, double radius ) {
+		final double radiusSq = radius*radius;
+		// It will always find itself
+		final int required = minNeighbors + 1;
+
+		for (int i = idx0; i < idx1; i++) {
+			final double x = xyz.data[i*3], y = xyz.data[i*3 + 1], z = xyz.data[i*3 + 2];
+			final int cx = voxelCoordinate(x - x0), cy = voxelCoordinate(y - y0), cz = voxelCoordinate(z - z0);
+
+			int found = 0;
+			search:
+			for (int dz = -1; dz <= 1; dz++) {
+				for (int dy = -1; dy <= 1; dy++) {
+					for (int dx = -1; dx <= 1; dx++) {
+						int voxel = lookupVoxel(cx + dx, cy + dy, cz + dz);
+						if( voxel < 0 )
+							continue;
+
+						int end = voxelStart.data[voxel + 1];
+						for (int j = voxelStart.data[voxel]; j < end; j++) {
+							int idx = voxelPoints.data[j]*3;
+							double ex = xyz.data[idx] - x, ey = xyz.data[idx + 1] - y, ez = xyz.data[idx + 2] - z;
+							if( ex*ex + ey*ey + ez*ez <= radiusSq && ++found >= required )
+								break search;
+						}
+					}
+				}
+			}
+			inliers.data[i] = found >= required;
+		}
+	}
+
+	/**
+	 * Replaces all the points inside each voxel with a single point at their centroid. The color is the
+	 * average of each color channel. Output points are in the order their voxel was first encountered.
+	 *
+	 * @param voxelSize Length of a voxel's side
+	 * @param output (Output) The down sampled cloud
+	 */
+	public void downsample( double voxelSize, PointCloudWriter output ) {
+		if( voxelSize <= 0 )
+			throw new IllegalArgumentException("voxelSize must be > 0");
+		if( extent/voxelSize >= MAX_VOXELS - 1 )
+			throw new IllegalArgumentException("voxelSize is too small for the cloud's extent");
+
+		buildGrid(voxelSize);
+
+		centroids.resize(numVoxels*3);
+		colors.resize(numVoxels);
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopBlocks(0, numVoxels, this::computeCentroids);
+		} else {
+			computeCentroids(0, numVoxels);
+		}
+
+		output.init(numVoxels);
+		for (int voxel = 0, idx = 0; voxel < numVoxels; voxel++, idx += 3) {
+			output.add(centroids.data[idx], centroids.data[idx + 1], centroids.data[idx + 2], colors.data[voxel]);
+		}
+	}
+
+	/**
+	 * Computes the centroid and average color of voxels in the specified range
+	 */
+	void computeCentroids( int voxel0, int voxel1 ) {
+		for (int voxel = voxel0; voxel < voxel1; voxel++) {
+			final int start = voxelStart.data[voxel];
+			final int end = voxelStart.data[voxel + 1];
+
+			double sumX = 0, sumY = 0, sumZ = 0;
+			int sumR = 0, sumG = 0, sumB = 0;
+			for (int j = start; j < end; j++) {
+				int point = voxelPoints.data[j];
+				sumX += xyz.data[point*3];
+				sumY += xyz.data[point*3 + 1];
+				sumZ += xyz.data[point*3 + 2];
+				int color = rgb.data[point];
+				sumR += (color >> 16) & 0xFF;
+				sumG += (color >> 8) & 0xFF;
+				sumB += color & 0xFF;
+			}
+
+			int count = end - start;
+			centroids.data[voxel*3] = sumX/count;
+			centroids.data[voxel*3 + 1] = sumY/count;
+			centroids.data[voxel*3 + 2] = sumZ/count;
+			colors.data[voxel] = ((sumR/count) << 16) | ((sumG/count) << 8) | (sumB/count);
+		}
+	}
+
+	/**
+	 * Assigns every point to a voxel and groups the points by voxel.
+	 */
+	void buildGrid( double voxelSize ) {
+		if( this.voxelSize == voxelSize )
+			return;
+		this.voxelSize = voxelSize;
+
+		final int N = size();
+		resizeTable(N);
+		voxelKeys.reset();
+		pointToVoxel.resize(N);
+
+		for (int i = 0, idx = 0; i < N; i++, idx += 3) {
+			long key = packKey(
+					voxelCoordinate(xyz.data[idx] - x0),
+					voxelCoordinate(xyz.data[idx + 1] - y0),
+					voxelCoordinate(xyz.data[idx + 2] - z0));
+
+			// Find the voxel in the hash table or add it if it's not there
+			int slot = hash(key);
+			while( true ) {
+				int voxel = tableVoxels[slot];
+				if( voxel == -1 ) {
+					voxel = voxelKeys.size;
+					voxelKeys.add(key);
+					tableKeys[slot] = key;
+					tableVoxels[slot] = voxel;
+					pointToVoxel.data[i] = voxel;
+					break;
+				} else if( tableKeys[slot] == key ) {
+					pointToVoxel.data[i] = voxel;
+					break;
+				}
+				slot = (slot + 1) & tableMask;
+			}
+		}
+		numVoxels = voxelKeys.size;
+
+		// Counting sort to group points by voxel
+		voxelStart.resize(numVoxels + 1);
+		Arrays.fill(voxelStart.data, 0, numVoxels + 1, 0);
+		for (int i = 0; i < N; i++) {
+			voxelStart.data[pointToVoxel.data[i] + 1]++;
+		}
+		for (int voxel = 0; voxel < numVoxels; voxel++) {
+			voxelStart.data[voxel + 1] += voxelStart.data[voxel];
+		}
+		voxelPoints.resize(N);
+		for (int i = 0; i < N; i++) {
+			voxelPoints.data[voxelStart.data[pointToVoxel.data[i]]++] = i;
+		}
+		// Filling in the points shifted the start of each voxel to the start of the next one. Undo that
+		for (int voxel = numVoxels; voxel > 0; voxel--) {
+			voxelStart.data[voxel] = voxelStart.data[voxel - 1];
+		}
+		voxelStart.data[0] = 0;
+	}
+
+	/**
+	 * Ensures the hash table is at most half full and marks every slot as empty
+	 */
+	void resizeTable( int numPoints ) {
+		int capacity = 16;
+		while( capacity < numPoints*2 ) {
+			capacity *= 2;
+		}
+		if( tableVoxels.length != capacity ) {
+			tableKeys = new long[capacity];
+			tableVoxels = new int[capacity];
+			tableMask = capacity - 1;
+		}
+		Arrays.fill(tableVoxels, -1);
+	}
+
+	/**
+	 * Returns the index of the voxel at the specified coordinate or -1 if it's empty
+	 */
+	int lookupVoxel( int cx, int cy, int cz ) {
+		if( cx < 0 || cy < 0 || cz < 0 || cx > MAX_VOXELS || cy > MAX_VOXELS || cz > MAX_VOXELS )
+			return -1;
+
+		long key = packKey(cx, cy, cz);
+		int slot = hash(key);
+		while( true ) {
+			int voxel = tableVoxels[slot];
+			if( voxel == -1 || tableKeys[slot] == key )
+				return voxel;
+			slot = (slot + 1) & tableMask;
+		}
+	}
+
+	int voxelCoordinate( double offset ) {
+		return (int)(offset/voxelSize);
+	}
+
+	static long packKey( int cx, int cy, int cz ) {
+		return (cx & MASK) | ((cy & MASK) << BITS) | ((cz & MASK) << (2*BITS));
+	}
+
+	int hash( long key ) {
+		// Fibonacci hashing to spread out keys from adjacent voxels
+		return (int)((key*0x9E3779B97F4A7C15L) >>> 32) & tableMask;
+	}
+
+	/**
+	 * Number of points in the cloud
+	 */
+	public int size() {
+		return rgb.size;
+	}
+}
@@ -179,7 +179,7 @@ public class MultiCameraToEquirectangular<T extends ImageBase<T>> {
 				if( UtilEjml.isUncountable(p2.x) || UtilEjml.isUncountable(p2.y) ) {
 					// can't have it be an invalid number in the cache, but had to be invalid so that the mask
 					// could be set to zero.  So set it to some valid value that won't cause it to blow up
-					transformEquiToCam.getPixel(col,row).set(-1,-1);
+					transformEquiToCam.setPixel(col,row,-1,-1);
 					continue;
 				}
 
@@ -26,6 +26,7 @@ import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point3D_F64;
 import georegression.struct.point.Point4D_F64;
 import georegression.transform.se.SePointOps_F64;
+import org.ddogleg.struct.GrowQueue_I32;
 
 /**
  * <p>
@@ -38,6 +39,12 @@ import georegression.transform.se.SePointOps_F64;
  * cost(P) = (1/(m*n))*&sum;<sub>i</sub> &sum;<sub>j</sub> ||x<sub>j</sub> - (1/z)*[R<sub>i</sub>|T<sub>i</sub>]*X<sub>j</sub>||<sup>2</sup>
  * </p>
  *
+ * <p>
+ * Observations are read one view at a time in the same order they are stored in. This allows observations
+ * which have been moved into a memory mapped file to be streamed sequentially.
+ * See {@link SceneObservations#mapObservations}.
+ * </p>
+ *
  * @see SceneStructureMetric
  * @see SceneObservations
  *
@@ -47,29 +54,22 @@ public class BundleAdjustmentMetricResidualFunction
 		implements BundleAdjustmentSchur_DSCC.FunctionResiduals<SceneStructureMetric>
 
 {
-	private SceneStructureMetric structure;
-	private SceneObservations observations;
-
-	// feature location in world coordinates
-	private Point3D_F64 worldPt = new Point3D_F64();
+	protected SceneStructureMetric structure;
+	protected SceneObservations observations;
 
 	// number of parameters being optimised
 	private int numParameters;
 	// number of observations.  2 for each point in each view
 	private int numObservations;
 
-	// local variable which stores the predicted location of the feature in the camera frame
-	private Point3D_F64 cameraPt = new Point3D_F64();
-
-	// Storage for rendered output
-	private Point2D_F64 predictedPixel = new Point2D_F64();
-	private PointIndex2D_F64 observedPixel = new PointIndex2D_F64();
+	// index of the first observation in each view
+	private GrowQueue_I32 viewObservationStart = new GrowQueue_I32();
 
 	// Used to write the "unknown" paramters into the scene
 	CodecSceneStructureMetric codec = new CodecSceneStructureMetric();
 
-	Point3D_F64 p3 = new Point3D_F64();
-	Point4D_F64 p4 = new Point4D_F64();
+	// Storage used when projecting all the views at once
+	private Workspace workspace = new Workspace();
 
 	/**
 	 * Specifies the scenes structure and observed feature locations
@@ -84,6 +84,15 @@ public class BundleAdjustmentMetricResidualFunction
 		numObservations = observations.getObservationCount();
 		numParameters = structure.getParameterCount();
 		structure.assignIDsToRigidPoints();
+
+		// pre-compute the first observation in each view so that views can be processed independently
+		viewObservationStart.resize(structure.views.size);
+		for (int viewIndex = 0, index = 0; viewIndex < structure.views.size; viewIndex++) {
+			viewObservationStart.data[viewIndex] = index;
+			index += observations.views.get(viewIndex).size();
+			if( observations.hasRigid() )
+				index += observations.viewsRigid.get(viewIndex).size();
+		}
 	}
 
 	@Override
@@ -102,70 +111,84 @@ public class BundleAdjustmentMetricResidualFunction
 		// write the current parameters into the scene's structure
 		codec.decode(input,structure);
 
-		// Project the general scene now
-		if( structure.homogenous )
-			project4(output);
-		else
-			project3(output);
+		projectViews(output);
+	}
+
+	/**
+	 * Computes the residuals for all the views. Each view writes to its own elements in the output.
+	 */
+	protected void projectViews( double[] output ) {
+		projectViews(workspace,0,structure.views.size,output);
+	}
+
+	/**
+	 * Computes the residuals for views from view0 to view1-1, inclusive.
+	 */
+	protected void projectViews( Workspace workspace , int view0 , int view1 , double[] output ) {
+		for( int viewIndex = view0; viewIndex < view1; viewIndex++ ) {
+			// Project the general scene now
+			if( structure.homogenous )
+				project4(workspace,viewIndex,output);
+			else
+				project3(workspace,viewIndex,output);
+		}
 	}
 
 	/**
 	 * projection from 3D coordinates
 	 */
-	private void project3(double[] output) {
-		int observationIndex = 0;
-		for( int viewIndex = 0; viewIndex < structure.views.size; viewIndex++ ) {
-			SceneStructureMetric.View view = structure.views.get(viewIndex);
-			SceneStructureMetric.Camera camera = structure.cameras.get(view.camera);
-
-			//=========== Project General Points in this View
-			{
-				SceneObservations.View obsView = observations.views.get(viewIndex);
-				for (int i = 0; i < obsView.size(); i++) {
-					obsView.get(i, observedPixel);
-					SceneStructureMetric.Point worldPt = structure.points.data[observedPixel.index];
-					worldPt.get(p3);
-
-					SePointOps_F64.transform(view.worldToView, p3, cameraPt);
-
-					camera.model.project(cameraPt.x, cameraPt.y, cameraPt.z, predictedPixel);
-
-					int outputIndex = observationIndex * 2;
-					output[outputIndex] = predictedPixel.x - observedPixel.x;
-					output[outputIndex + 1] = predictedPixel.y - observedPixel.y;
-					observationIndex++;
-				}
+	private void project3( Workspace w, int viewIndex, double[] output) {
+		int observationIndex = viewObservationStart.get(viewIndex);
+		SceneStructureMetric.View view = structure.views.get(viewIndex);
+		SceneStructureMetric.Camera camera = structure.cameras.get(view.camera);
+
+		//=========== Project General Points in this View
+		{
+			SceneObservations.View obsView = observations.views.get(viewIndex);
+			for (int i = 0; i < obsView.size(); i++) {
+				obsView.get(i, w.observedPixel);
+				SceneStructureMetric.Point worldPt = structure.points.data[w.observedPixel.index];
+				worldPt.get(w.p3);
+
+				SePointOps_F64.transform(view.worldToView, w.p3, w.cameraPt);
+
+				camera.model.project(w.cameraPt.x, w.cameraPt.y, w.cameraPt.z, w.predictedPixel);
+
+				int outputIndex = observationIndex * 2;
+				output[outputIndex] = w.predictedPixel.x - w.observedPixel.x;
+				output[outputIndex + 1] = w.predictedPixel.y - w.observedPixel.y;
+				observationIndex++;
 			}
+		}
 
-			//=========== Project Rigid Object Points in this View
-			if( observations.hasRigid() )
-			{
-				SceneObservations.View obsView = observations.viewsRigid.get(viewIndex);
-				for (int i = 0; i < obsView.size(); i++) {
-					obsView.get(i,observedPixel);
-
-					// Use lookup table to figure out which rigid object it belongs to
-					int rigidIndex = structure.lookupRigid[observedPixel.index];
-					SceneStructureMetric.Rigid rigid = structure.rigids.get(rigidIndex);
-					// Compute the point's index on the rigid object
-					int pointIndex = observedPixel.index - rigid.indexFirst;
-
-					// Load the 3D location of point on the rigid body
-					SceneStructureMetric.Point objectPt = rigid.points[pointIndex];
-					objectPt.get(p3);
-
-					// Tranform to world frame and from world to camera
-					SePointOps_F64.transform(rigid.objectToWorld,p3, worldPt);
-					SePointOps_F64.transform(view.worldToView,worldPt, cameraPt);
-
-					// Project and compute residual
-					camera.model.project(cameraPt.x, cameraPt.y, cameraPt.z, predictedPixel);
-
-					int outputIndex = observationIndex*2;
-					output[outputIndex  ] = predictedPixel.x - observedPixel.x;
-					output[outputIndex+1] = predictedPixel.y - observedPixel.y;
-					observationIndex++;
-				}
+		//=========== Project Rigid Object Points in this View
+		if( observations.hasRigid() )
+		{
+			SceneObservations.View obsView = observations.viewsRigid.get(viewIndex);
+			for (int i = 0; i < obsView.size(); i++) {
+				obsView.get(i,w.observedPixel);
+
+				// Use lookup table to figure out which rigid object it belongs to
+				int rigidIndex = structure.lookupRigid[w.observedPixel.index];
+				SceneStructureMetric.Rigid rigid = structure.rigids.get(rigidIndex);
+				// Compute the point's index on the rigid object
+				int pointIndex = w.observedPixel.index - rigid.indexFirst;
+
+				// Load the 3D location of point on the rigid body
+				SceneStructureMetric.Point objectPt = rigid.points[pointIndex];
+				objectPt.get(w.p3);
+
+				// Tranform to world frame and from world to camera
+				SePointOps_F64.transform(rigid.objectToWorld,w.p3, w.worldPt);
+				SePointOps_F64.transform(view.worldToView,w.worldPt, w.cameraPt);
+
+				// Project and compute residual
+				camera.model.project(w.cameraPt.x, w.cameraPt.y, w.cameraPt.z, w.predictedPixel);
+
+				int outputIndex = observationIndex*2;
+				output[outputIndex  ] = w.predictedPixel.x - w.observedPixel.x;
+				output[outputIndex+1] = w.predictedPixel.y - w.observedPixel.y;
+				observationIndex++;
 			}
 		}
 	}
@@ -173,64 +196,79 @@ public class BundleAdjustmentMetricResidualFunction
 	/**
 	 * projection from homogenous coordinates
 	 */
-	private void project4(double[] output) {
-		int observationIndex = 0;
-		for( int viewIndex = 0; viewIndex < structure.views.size; viewIndex++ ) {
-			SceneStructureMetric.View view = structure.views.get(viewIndex);
-			SceneStructureMetric.Camera camera = structure.cameras.get(view.camera);
-
-			//=========== Project General Points in this View
-			{
-				SceneObservations.View obsView = observations.views.get(viewIndex);
-
-				for (int i = 0; i < obsView.size(); i++) {
-					obsView.get(i, observedPixel);
-					SceneStructureMetric.Point worldPt = structure.points.data[observedPixel.index];
-					worldPt.get(p4);
-
-					// TODO Explain why this is correct. The last row is omited when converted to 3D
-					SePointOps_F64.transformV(view.worldToView, p4, cameraPt);
-
-					camera.model.project(cameraPt.x, cameraPt.y, cameraPt.z, predictedPixel);
-
-					int outputIndex = observationIndex * 2;
-					output[outputIndex] = predictedPixel.x - observedPixel.x;
-					output[outputIndex + 1] = predictedPixel.y - observedPixel.y;
-					observationIndex++;
-				}
+	private void project4( Workspace w, int viewIndex, double[] output) {
+		int observationIndex = viewObservationStart.get(viewIndex);
+		SceneStructureMetric.View view = structure.views.get(viewIndex);
+		SceneStructureMetric.Camera camera = structure.cameras.get(view.camera);
+
+		//=========== Project General Points in this View
+		{
+			SceneObservations.View obsView = observations.views.get(viewIndex);
+
+			for (int i = 0; i < obsView.size(); i++) {
+				obsView.get(i, w.observedPixel);
+				SceneStructureMetric.Point worldPt = structure.points.data[w.observedPixel.index];
+				worldPt.get(w.p4);
+
+				// TODO Explain why this is correct. The last row is omited when converted to 3D
+				SePointOps_F64.transformV(view.worldToView, w.p4, w.cameraPt);
+
+				camera.model.project(w.cameraPt.x, w.cameraPt.y, w.cameraPt.z, w.predictedPixel);
+
+				int outputIndex = observationIndex * 2;
+				output[outputIndex] = w.predictedPixel.x - w.observedPixel.x;
+				output[outputIndex + 1] = w.predictedPixel.y - w.observedPixel.y;
+				observationIndex++;
 			}
+		}
 
-			//=========== Project Rigid Object Points in this View
-			if( observations.hasRigid() )
-			{
-				SceneObservations.View obsView = observations.viewsRigid.get(viewIndex);
+		//=========== Project Rigid Object Points in this View
+		if( observations.hasRigid() )
+		{
+			SceneObservations.View obsView = observations.viewsRigid.get(viewIndex);
 
-				for (int i = 0; i < obsView.size(); i++) {
-					obsView.get(i,observedPixel);
+			for (int i = 0; i < obsView.size(); i++) {
+				obsView.get(i,w.observedPixel);
 
-					// Use lookup table to figure out which rigid object it belongs to
-					int rigidIndex = structure.lookupRigid[observedPixel.index];
-					SceneStructureMetric.Rigid rigid = structure.rigids.get(rigidIndex);
-					// Compute the point's index on the rigid object
-					int pointIndex = observedPixel.index - rigid.indexFirst;
+				// Use lookup table to figure out which rigid object it belongs to
+				int rigidIndex = structure.lookupRigid[w.observedPixel.index];
+				SceneStructureMetric.Rigid rigid = structure.rigids.get(rigidIndex);
+				// Compute the point's index on the rigid object
+				int pointIndex = w.observedPixel.index - rigid.indexFirst;
 
-					// Load the 3D location of point on the rigid body
-					SceneStructureMetric.Point objectPt = rigid.points[pointIndex];
-					objectPt.get(p4);
+				// Load the 3D location of point on the rigid body
+				SceneStructureMetric.Point objectPt = rigid.points[pointIndex];
+				objectPt.get(w.p4);
 
-					// Tranform to world frame and from world to camera
-					SePointOps_F64.transformV(rigid.objectToWorld,p4, worldPt);
-					SePointOps_F64.transform(view.worldToView,worldPt, cameraPt);
+				// Tranform to world frame and from world to camera
+				SePointOps_F64.transformV(rigid.objectToWorld,w.p4, w.worldPt);
+				SePointOps_F64.transform(view.worldToView,w.worldPt, w.cameraPt);
 
-					camera.model.project(cameraPt.x, cameraPt.y, cameraPt.z, predictedPixel);
+				camera.model.project(w.cameraPt.x, w.cameraPt.y, w.cameraPt.z, w.predictedPixel);
 
-					int outputIndex = observationIndex*2;
-					output[outputIndex  ] = predictedPixel.x - observedPixel.x;
-					output[outputIndex+1] = predictedPixel.y - observedPixel.y;
-					observationIndex++;
-				}
+				int outputIndex = observationIndex*2;
+				output[outputIndex  ] = w.predictedPixel.x - w.observedPixel.x;
+				output[outputIndex+1] = w.predictedPixel.y - w.observedPixel.y;
+				observationIndex++;
 			}
 		}
 	}
 
+	/**
+	 * Storage which is modified while projecting points
+	 */
+	protected static class Workspace {
+		// feature location in world coordinates
+		Point3D_F64 worldPt = new Point3D_F64();
+
+		// local variable which stores the predicted location of the feature in the camera frame
+		Point3D_F64 cameraPt = new Point3D_F64();
+
+		// Storage for rendered output
+		Point2D_F64 predictedPixel = new Point2D_F64();
+		PointIndex2D_F64 observedPixel = new PointIndex2D_F64();
+
+		Point3D_F64 p3 = new Point3D_F64();
+		Point4D_F64 p4 = new Point4D_F64();
+	}
 }
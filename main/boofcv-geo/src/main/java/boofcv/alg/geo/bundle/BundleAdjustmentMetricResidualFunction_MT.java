@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent version of {@link BundleAdjustmentMetricResidualFunction}. Views are split into blocks which are
+ * projected in parallel, with each thread having its own {@link Workspace}. Each view writes to different
+ * elements in the output, so results are identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class BundleAdjustmentMetricResidualFunction_MT extends BundleAdjustmentMetricResidualFunction {
+
+	FastQueue<Workspace> workspace = new FastQueue<>(Workspace::new);
+
+	@Override
+	protected void projectViews(double[] output) {
+		BoofConcurrency.loopBlocks(0,structure.views.size,workspace,(w,view0,view1)->
+				projectViews(w,view0,view1,output));
+	}
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+import org.ejml.data.DMatrix;
+
+/**
+ * Concurrent version of {@link BundleAdjustmentMetricSchurJacobian_DDRM}. Views are split into blocks and each
+ * thread computes the Jacobian for its views using its own {@link ViewJacobian}. Since each view writes to
+ * different rows they can all write directly into the same dense matrix.
+ *
+ * @author Peter Abeles
+ */
+public class BundleAdjustmentMetricSchurJacobian_DDRM_MT extends BundleAdjustmentMetricSchurJacobian_DDRM {
+
+	FastQueue<ViewJacobian> workspace = new FastQueue<>(()->new ViewJacobian());
+
+	@Override
+	protected void computeViews(double[] input, DMatrix leftPoint, DMatrix rightView) {
+		BoofConcurrency.loopBlocks(0,structure.views.size,workspace,(jacobian,view0,view1)->
+				jacobian.process(input,leftPoint,rightView,view0,view1));
+	}
+}
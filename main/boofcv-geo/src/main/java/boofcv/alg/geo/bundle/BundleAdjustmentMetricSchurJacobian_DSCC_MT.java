@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+import org.ejml.data.DMatrix;
+import org.ejml.data.DMatrixSparseTriplet;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Concurrent version of {@link BundleAdjustmentMetricSchurJacobian_DSCC}. Views are split into blocks and each
+ * thread computes the Jacobian for its views using its own {@link ViewJacobian} and sparse triplet matrices.
+ * The triplets are then merged together in the order of the views. Each element in the Jacobian is only
+ * written to once and elements are added in the same order, so the Jacobian is identical to the single
+ * threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class BundleAdjustmentMetricSchurJacobian_DSCC_MT extends BundleAdjustmentMetricSchurJacobian_DSCC {
+
+	FastQueue<ThreadData> workspace = new FastQueue<>(ThreadData::new);
+	// workspace sorted by the first view in each block
+	List<ThreadData> ordered = new ArrayList<>();
+
+	@Override
+	protected void computeViews(double[] input, DMatrix leftPoint, DMatrix rightView) {
+		// loopBlocks doesn't touch the workspace if there are no views. This prevents results from the previous
+		// call being merged in
+		workspace.reset();
+		BoofConcurrency.loopBlocks(0,structure.views.size,workspace,(data,view0,view1)->{
+			data.view0 = view0;
+			data.left.reshape(leftPoint.getNumRows(),leftPoint.getNumCols());
+			data.right.reshape(rightView.getNumRows(),rightView.getNumCols());
+			data.jacobian.process(input,data.left,data.right,view0,view1);
+		});
+
+		// The order of blocks in the workspace doesn't match the order of views
+		ordered.clear();
+		for (int i = 0; i < workspace.size; i++) {
+			ordered.add(workspace.get(i));
+		}
+		ordered.sort(Comparator.comparingInt(d->d.view0));
+
+		for (int i = 0; i < ordered.size(); i++) {
+			ThreadData data = ordered.get(i);
+			merge(data.left,(DMatrixSparseTriplet)leftPoint);
+			merge(data.right,(DMatrixSparseTriplet)rightView);
+		}
+	}
+
+	/**
+	 * Adds all the elements in src to dst
+	 */
+	static void merge( DMatrixSparseTriplet src , DMatrixSparseTriplet dst ) {
+		final int[] rowcol = src.nz_rowcol.data;
+		final double[] values = src.nz_value.data;
+		for (int i = 0; i < src.nz_length; i++) {
+			dst.addItem(rowcol[i*2],rowcol[i*2+1],values[i]);
+		}
+	}
+
+	class ThreadData {
+		// index of the first view in the block
+		int view0;
+		ViewJacobian jacobian = new ViewJacobian();
+		DMatrixSparseTriplet left = new DMatrixSparseTriplet(1,1,1);
+		DMatrixSparseTriplet right = new DMatrixSparseTriplet(1,1,1);
+	}
+}
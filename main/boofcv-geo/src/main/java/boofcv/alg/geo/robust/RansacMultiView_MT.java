@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.robust;
+
+import boofcv.alg.geo.DistanceFromModelMultiView;
+import boofcv.struct.calib.CameraPinhole;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.struct.Factory;
+
+/**
+ * Concurrent version of {@link RansacMultiView}. Camera intrinsics are passed to the distance function in every
+ * thread.
+ *
+ * @author Peter Abeles
+ */
+public class RansacMultiView_MT<Model,Point> extends Ransac_MT<Model,Point>
+		implements ModelMatcherMultiview<Model,Point>
+{
+	// Most recent intrinsics for each view. null if not specified yet
+	private CameraPinhole[] intrinsics;
+
+	public RansacMultiView_MT(long randSeed,
+							  ModelManager<Model> modelManager,
+							  Factory<ModelGenerator<Model, Point>> factoryGenerator,
+							  Factory<DistanceFromModelMultiView<Model,Point>> factoryDistance,
+							  int maxIterations, double thresholdFit)
+	{
+		super(randSeed, modelManager, factoryGenerator, factoryDistance::newInstance, maxIterations, thresholdFit);
+	}
+
+	@Override
+	protected void initializeHelper( Helper helper ) {
+		// intrinsics will be null when called from inside the constructor
+		if( intrinsics == null )
+			return;
+		for (int view = 0; view < intrinsics.length; view++) {
+			if( intrinsics[view] != null )
+				multiView(helper.distance).setIntrinsic(view, intrinsics[view]);
+		}
+	}
+
+	@Override
+	public void setIntrinsic( int view , CameraPinhole intrinsic ) {
+		if( intrinsics == null )
+			intrinsics = new CameraPinhole[getNumberOfViews()];
+		intrinsics[view] = new CameraPinhole(intrinsic);
+
+		multiView(distance).setIntrinsic(view, intrinsic);
+		// Go through the entire array since helpers beyond the current size will be reused later on
+		for (int i = 0; i < helpers.data.length; i++) {
+			if( helpers.data[i] != null )
+				multiView(helpers.data[i].distance).setIntrinsic(view, intrinsic);
+		}
+	}
+
+	@Override
+	public int getNumberOfViews() {
+		return multiView(distance).getNumberOfViews();
+	}
+
+	/**
+	 * All distance functions were created by a factory of {@link DistanceFromModelMultiView}
+	 */
+	private DistanceFromModelMultiView<Model,Point> multiView( DistanceFromModel<Model,Point> distance ) {
+		return (DistanceFromModelMultiView<Model,Point>)distance;
+	}
+}
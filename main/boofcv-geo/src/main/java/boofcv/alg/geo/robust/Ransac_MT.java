@@ -0,0 +1,433 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.robust;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+import org.ddogleg.struct.Factory;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * Concurrent implementation of RANSAC. Hypotheses are generated and scored in parallel. Model generators and
+ * distance functions are not thread safe, so each thread has its own copy which is created using the provided
+ * factories.
+ * </p>
+ *
+ * <p>
+ * Hypotheses are processed in batches. All the random samples in a batch are drawn from a single random number
+ * generator before any work is done in parallel and the best hypothesis is selected using its score then its
+ * index. This makes the results repeatable for a fixed seed, independent of the number of threads. They will
+ * not be the same as {@link org.ddogleg.fitting.modelset.ransac.Ransac} since the samples are drawn differently.
+ * </p>
+ *
+ * <p>
+ * Scoring a hypothesis stops once it can't have more inliers than the best hypothesis from previous batches.
+ * Optionally, preemptive scoring [1] can be turned on with {@link #setPreemptiveBlock}. Then all the hypotheses in a
+ * batch are scored using the same block of points, in a random order, and only the best half survives to the next
+ * block. Only the last survivor is scored against all the points. This is much faster when there are a lot of
+ * points, but the best hypothesis can be discarded by mistake if the block size is too small.
+ * </p>
+ *
+ * <p>
+ * [1] Nister, David. "Preemptive RANSAC for live structure and motion estimation." ICCV 2003
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Ransac_MT<Model, Point> implements ModelMatcher<Model, Point> {
+	/** Number of hypotheses which are generated and scored together */
+	@Getter @Setter int batchSize = 64;
+
+	/** Number of points in each preemptive scoring block. If &le; 0 then preemptive scoring is turned off. */
+	@Getter @Setter int preemptiveBlock = 0;
+
+	// Creates and copies models
+	protected final ModelManager<Model> modelManager;
+	// Used to compute the inlier set of the best model
+	protected final DistanceFromModel<Model, Point> distance;
+
+	// Workspace for each thread
+	protected final FastQueue<Helper> helpers;
+
+	// Random number generator and its seed
+	protected final long randSeed;
+	protected Random rand;
+
+	// Maximum number of hypotheses which are considered
+	protected final int maxIterations;
+	// Points with an error less than or equal to this are inliers
+	protected final double thresholdFit;
+	// Number of points needed to generate a hypothesis
+	protected final int sampleSize;
+
+	// Best model found so far and its number of inliers
+	protected final Model bestModel;
+	protected int bestCount;
+
+	// Hypotheses in the current batch. Samples are stored in one array, 'sampleSize' elements for each hypothesis
+	protected final FastQueue<Model> hypotheses;
+	protected final GrowQueue_I32 samples = new GrowQueue_I32();
+	// Score of each hypothesis, -1 if it was rejected
+	protected final GrowQueue_I32 scores = new GrowQueue_I32();
+	// Hypotheses which are still being considered in preemptive scoring
+	protected final GrowQueue_I32 survivors = new GrowQueue_I32();
+
+	// Shuffled indexes of points. Used to draw samples and in preemptive scoring
+	protected final GrowQueue_I32 shuffled = new GrowQueue_I32();
+
+	// Points used in the most recent call to process
+	protected List<Point> dataSet;
+
+	// Output inlier set and the index of each inlier in the input list
+	protected final List<Point> matchSet = new ArrayList<>();
+	protected final GrowQueue_I32 matchToInput = new GrowQueue_I32();
+
+	/**
+	 * Creates RANSAC
+	 *
+	 * @param randSeed Seed for the random number generator
+	 * @param modelManager Creates and copies models
+	 * @param factoryGenerator Creates a model generator for each thread
+	 * @param factoryDistance Creates a distance function for each thread
+	 * @param maxIterations Maximum number of hypotheses
+	 * @param thresholdFit Points with an error less than or equal to this are inliers
+	 */
+	public Ransac_MT( long randSeed,
+					  ModelManager<Model> modelManager,
+					  Factory<ModelGenerator<Model, Point>> factoryGenerator,
+					  Factory<DistanceFromModel<Model, Point>> factoryDistance,
+					  int maxIterations, double thresholdFit ) {
+		this.randSeed = randSeed;
+		this.rand = new Random(randSeed);
+		this.modelManager = modelManager;
+		this.maxIterations = maxIterations;
+		this.thresholdFit = thresholdFit;
+
+		this.distance = factoryDistance.newInstance();
+		this.helpers = new FastQueue<>(() -> {
+			Helper helper = new Helper(factoryGenerator.newInstance(), factoryDistance.newInstance());
+			initializeHelper(helper);
+			return helper;
+		});
+		this.sampleSize = helpers.grow().generator.getMinimumPoints();
+		this.bestModel = modelManager.createModelInstance();
+		this.hypotheses = new FastQueue<>(modelManager::createModelInstance);
+	}
+
+	@Override
+	public boolean process( List<Point> dataSet ) {
+		this.dataSet = dataSet;
+		matchSet.clear();
+		matchToInput.reset();
+		bestCount = -1;
+
+		final int N = dataSet.size();
+		if( N < sampleSize )
+			return false;
+
+		shuffled.resize(N);
+		for (int i = 0; i < N; i++) {
+			shuffled.data[i] = i;
+		}
+
+		for (int iteration = 0; iteration < maxIterations; iteration += batchSize) {
+			int numHypotheses = Math.min(batchSize, maxIterations - iteration);
+			drawSamples(numHypotheses);
+
+			if( preemptiveBlock > 0 ) {
+				processPreemptive(numHypotheses);
+			} else {
+				processBatch(numHypotheses);
+			}
+
+			// once every point is an inlier nothing can do better
+			if( bestCount == N )
+				break;
+		}
+
+		if( bestCount < 0 )
+			return false;
+
+		selectInliers();
+		return true;
+	}
+
+	/**
+	 * Called when a new thread workspace is created. Can be overridden to configure its distance function.
+	 * NOTE: This is called once inside the constructor.
+	 */
+	protected void initializeHelper( Helper helper ) {}
+
+	/**
+	 * Draws a random sample for each hypothesis by partially shuffling the point indexes
+	 */
+	protected void drawSamples( int numHypotheses ) {
+		final int N = shuffled.size;
+		samples.resize(numHypotheses*sampleSize);
+		for (int hypothesis = 0, idx = 0; hypothesis < numHypotheses; hypothesis++) {
+			for (int i = 0; i < sampleSize; i++) {
+				int j = i + rand.nextInt(N - i);
+				int tmp = shuffled.data[i];
+				shuffled.data[i] = shuffled.data[j];
+				shuffled.data[j] = tmp;
+				samples.data[idx++] = shuffled.data[i];
+			}
+		}
+	}
+
+	/**
+	 * Generates and scores every hypothesis in parallel, then keeps the best
+	 */
+	protected void processBatch( int numHypotheses ) {
+		hypotheses.resize(numHypotheses);
+		scores.resize(numHypotheses);
+
+		loopBlocks(0, numHypotheses, ( helper, idx0, idx1 ) -> {
+			for (int hypothesis = idx0; hypothesis < idx1; hypothesis++) {
+				if( helper.generate(hypothesis) )
+					scores.data[hypothesis] = helper.countInliers(hypotheses.get(hypothesis), bestCount);
+				else
+					scores.data[hypothesis] = -1;
+			}
+		});
+
+		// Select the best hypothesis. The lowest index wins ties so the order threads finished doesn't matter
+		int best = -1;
+		for (int hypothesis = 0; hypothesis < numHypotheses; hypothesis++) {
+			if( scores.data[hypothesis] > bestCount && (best == -1 || scores.data[hypothesis] > scores.data[best]) )
+				best = hypothesis;
+		}
+		if( best >= 0 ) {
+			bestCount = scores.data[best];
+			modelManager.copyModel(hypotheses.get(best), bestModel);
+		}
+	}
+
+	/**
+	 * Generates every hypothesis in parallel and then scores them on blocks of points. After each block the worst
+	 * half is discarded. The final survivor is scored against all points.
+	 */
+	protected void processPreemptive( int numHypotheses ) {
+		hypotheses.resize(numHypotheses);
+		scores.resize(numHypotheses);
+
+		loopBlocks(0, numHypotheses, ( helper, idx0, idx1 ) -> {
+			for (int hypothesis = idx0; hypothesis < idx1; hypothesis++) {
+				scores.data[hypothesis] = helper.generate(hypothesis) ? 0 : -1;
+			}
+		});
+
+		survivors.reset();
+		for (int hypothesis = 0; hypothesis < numHypotheses; hypothesis++) {
+			if( scores.data[hypothesis] >= 0 )
+				survivors.add(hypothesis);
+		}
+
+		// Points are scored in a random order so that a block is a random subset
+		final int N = shuffled.size;
+		for (int i = 0; i < N; i++) {
+			int j = i + rand.nextInt(N - i);
+			int tmp = shuffled.data[i];
+			shuffled.data[i] = shuffled.data[j];
+			shuffled.data[j] = tmp;
+		}
+
+		for (int block = 0; block*preemptiveBlock < N && survivors.size > 1; block++) {
+			final int block0 = block*preemptiveBlock;
+			final int block1 = Math.min(N, block0 + preemptiveBlock);
+			loopBlocks(0, survivors.size, ( helper, idx0, idx1 ) -> {
+				for (int i = idx0; i < idx1; i++) {
+					int hypothesis = survivors.data[i];
+					scores.data[hypothesis] += helper.countInliers(hypotheses.get(hypothesis), block0, block1);
+				}
+			});
+
+			// Keep the best half. Ties are broken by index so that the results are repeatable
+			sortSurvivors();
+			survivors.size = Math.max(1, survivors.size/2);
+		}
+
+		if( survivors.size == 0 )
+			return;
+
+		// Pick the best survivor and score it against all the points
+		if( survivors.size > 1 )
+			sortSurvivors();
+		int best = survivors.data[0];
+		int count = helpers.get(0).countInliers(hypotheses.get(best), bestCount);
+		if( count > bestCount ) {
+			bestCount = count;
+			modelManager.copyModel(hypotheses.get(best), bestModel);
+		}
+	}
+
+	/**
+	 * Runs the consumer across the range in parallel. If concurrency has been turned off in {@link BoofConcurrency}
+	 * then the entire range is processed in this thread using the first helper.
+	 */
+	void loopBlocks( int idx0, int idx1, IntRangeObjectConsumer<Helper> consumer ) {
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopBlocks(idx0, idx1, helpers, consumer);
+		} else if( idx1 > idx0 ) {
+			consumer.accept(helpers.get(0), idx0, idx1);
+		}
+	}
+
+	/**
+	 * Sorts the survivors by score from best to worst. Insertion sort since the list is small.
+	 */
+	void sortSurvivors() {
+		for (int i = 1; i < survivors.size; i++) {
+			int hypothesis = survivors.data[i];
+			int j = i - 1;
+			while( j >= 0 && isBetter(hypothesis, survivors.data[j]) ) {
+				survivors.data[j + 1] = survivors.data[j];
+				j--;
+			}
+			survivors.data[j + 1] = hypothesis;
+		}
+	}
+
+	boolean isBetter( int hypothesisA, int hypothesisB ) {
+		int scoreA = scores.data[hypothesisA], scoreB = scores.data[hypothesisB];
+		return scoreA > scoreB || (scoreA == scoreB && hypothesisA < hypothesisB);
+	}
+
+	/**
+	 * Finds the inliers of the best model
+	 */
+	protected void selectInliers() {
+		distance.setModel(bestModel);
+		for (int i = 0; i < dataSet.size(); i++) {
+			Point p = dataSet.get(i);
+			if( distance.computeDistance(p) <= thresholdFit ) {
+				matchSet.add(p);
+				matchToInput.add(i);
+			}
+		}
+	}
+
+	/**
+	 * Workspace and copies of classes which aren't thread safe
+	 */
+	protected class Helper {
+		public final ModelGenerator<Model, Point> generator;
+		public final DistanceFromModel<Model, Point> distance;
+		public final List<Point> sample = new ArrayList<>();
+
+		public Helper( ModelGenerator<Model, Point> generator, DistanceFromModel<Model, Point> distance ) {
+			this.generator = generator;
+			this.distance = distance;
+		}
+
+		/**
+		 * Generates the specified hypothesis from its sample
+		 */
+		public boolean generate( int hypothesis ) {
+			sample.clear();
+			for (int i = 0; i < sampleSize; i++) {
+				sample.add(dataSet.get(samples.data[hypothesis*sampleSize + i]));
+			}
+			return generator.generate(sample, hypotheses.get(hypothesis));
+		}
+
+		/**
+		 * Counts the number of inliers across all points. Stops early and returns -1 once it's impossible
+		 * for the count to be more than 'target'.
+		 */
+		public int countInliers( Model model, int target ) {
+			distance.setModel(model);
+			final int N = dataSet.size();
+			int count = 0;
+			for (int i = 0; i < N; i++) {
+				if( distance.computeDistance(dataSet.get(i)) <= thresholdFit )
+					count++;
+				else if( count + (N - i - 1) <= target )
+					return -1;
+			}
+			return count;
+		}
+
+		/**
+		 * Counts the number of inliers in a block of shuffled points
+		 */
+		public int countInliers( Model model, int idx0, int idx1 ) {
+			distance.setModel(model);
+			int count = 0;
+			for (int i = idx0; i < idx1; i++) {
+				if( distance.computeDistance(dataSet.get(shuffled.data[i])) <= thresholdFit )
+					count++;
+			}
+			return count;
+		}
+	}
+
+	@Override
+	public Model getModelParameters() {
+		return bestModel;
+	}
+
+	@Override
+	public List<Point> getMatchSet() {
+		return matchSet;
+	}
+
+	@Override
+	public int getInputIndex( int matchIndex ) {
+		return matchToInput.get(matchIndex);
+	}
+
+	@Override
+	public double getFitQuality() {
+		return dataSet == null ? 0.0 : dataSet.size() - matchSet.size();
+	}
+
+	@Override
+	public int getMinimumSize() {
+		return sampleSize;
+	}
+
+	@Override
+	public void reset() {
+		rand = new Random(randSeed);
+	}
+
+	@Override
+	public Class<Point> getPointType() {
+		return distance.getPointType();
+	}
+
+	@Override
+	public Class<Model> getModelType() {
+		return distance.getModelType();
+	}
+}
@@ -38,6 +38,11 @@ public class ConfigRansac implements Configuration {
 	 * Inlier threshold.
 	 */
 	public double inlierThreshold;
+	/**
+	 * If true then hypotheses are generated and scored in parallel. See {@link boofcv.alg.geo.robust.Ransac_MT}.
+	 * Results are repeatable for a fixed seed but will be different from the single threaded version.
+	 */
+	public boolean concurrent = false;
 
 	public ConfigRansac(int iterations, double inlierThreshold) {
 		this.iterations = iterations;
@@ -56,5 +61,6 @@ public class ConfigRansac implements Configuration {
 		this.randSeed = src.randSeed;
 		this.iterations = src.iterations;
 		this.inlierThreshold = src.inlierThreshold;
+		this.concurrent = src.concurrent;
 	}
 }
@@ -40,6 +40,7 @@ import boofcv.alg.geo.pose.*;
 import boofcv.alg.geo.triangulate.*;
 import boofcv.alg.geo.trifocal.RefineThreeViewProjectiveGeometric;
 import boofcv.alg.geo.trifocal.TrifocalAlgebraicPoint7;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.misc.ConfigConverge;
 import boofcv.struct.geo.AssociatedPair;
 import georegression.fitting.MotionTransformPoint;
@@ -85,10 +86,17 @@ public class FactoryMultiView {
 		else
 			minimizer = FactoryOptimizationSparse.levenbergMarquardtSchur((ConfigLevenbergMarquardt)config.configOptimizer);
 
-		return new BundleAdjustmentSchur_DSCC<>(minimizer,
-				new BundleAdjustmentMetricResidualFunction(),
-				new BundleAdjustmentMetricSchurJacobian_DSCC(),
-				new CodecSceneStructureMetric());
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new BundleAdjustmentSchur_DSCC<>(minimizer,
+					new BundleAdjustmentMetricResidualFunction_MT(),
+					new BundleAdjustmentMetricSchurJacobian_DSCC_MT(),
+					new CodecSceneStructureMetric());
+		} else {
+			return new BundleAdjustmentSchur_DSCC<>(minimizer,
+					new BundleAdjustmentMetricResidualFunction(),
+					new BundleAdjustmentMetricSchurJacobian_DSCC(),
+					new CodecSceneStructureMetric());
+		}
 	}
 
 	/**
@@ -135,10 +143,17 @@ public class FactoryMultiView {
 		else
 			minimizer = FactoryOptimization.levenbergMarquardtSchur(robust,(ConfigLevenbergMarquardt)config.configOptimizer);
 
-		return new BundleAdjustmentSchur_DDRM<>(minimizer,
-				new BundleAdjustmentMetricResidualFunction(),
-				new BundleAdjustmentMetricSchurJacobian_DDRM(),
-				new CodecSceneStructureMetric());
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new BundleAdjustmentSchur_DDRM<>(minimizer,
+					new BundleAdjustmentMetricResidualFunction_MT(),
+					new BundleAdjustmentMetricSchurJacobian_DDRM_MT(),
+					new CodecSceneStructureMetric());
+		} else {
+			return new BundleAdjustmentSchur_DDRM<>(minimizer,
+					new BundleAdjustmentMetricResidualFunction(),
+					new BundleAdjustmentMetricSchurJacobian_DDRM(),
+					new CodecSceneStructureMetric());
+		}
 	}
 
 	/**
@@ -114,15 +114,25 @@ public class FactoryMultiViewRobust {
 		pnp.checkValidity();
 		ransac.checkValidity();
 
-		Estimate1ofPnP estimatorPnP = FactoryMultiView.pnp_1(pnp.which, pnp.epnpIterations, pnp.numResolve);
-		DistanceFromModelMultiView<Se3_F64,Point2D3D> distance = new PnPDistanceReprojectionSq();
 		ModelManagerSe3_F64 manager = new ModelManagerSe3_F64();
-		EstimatorToGenerator<Se3_F64,Point2D3D> generator =
-				new EstimatorToGenerator<>(estimatorPnP);
 
 		// convert from pixels to pixels squared
 		double threshold = ransac.inlierThreshold*ransac.inlierThreshold;
 
+		if( ransac.concurrent ) {
+			// copy the config since estimators are created later on, when a thread needs one
+			ConfigPnP _pnp = new ConfigPnP();
+			_pnp.setTo(pnp);
+			return new RansacMultiView_MT<>(ransac.randSeed, manager,
+					()->new EstimatorToGenerator<>(FactoryMultiView.pnp_1(_pnp.which, _pnp.epnpIterations, _pnp.numResolve)),
+					PnPDistanceReprojectionSq::new, ransac.iterations, threshold);
+		}
+
+		Estimate1ofPnP estimatorPnP = FactoryMultiView.pnp_1(pnp.which, pnp.epnpIterations, pnp.numResolve);
+		DistanceFromModelMultiView<Se3_F64,Point2D3D> distance = new PnPDistanceReprojectionSq();
+		EstimatorToGenerator<Se3_F64,Point2D3D> generator =
+				new EstimatorToGenerator<>(estimatorPnP);
+
 		return new RansacMultiView<>(ransac.randSeed, manager, generator, distance, ransac.iterations, threshold);
 	}
 
@@ -222,20 +232,33 @@ public class FactoryMultiViewRobust {
 			throw new RuntimeException("Error model has to be Euclidean");
 		}
 
+		ModelManager<Se3_F64> manager = new ModelManagerSe3_F64();
+		double ransacTOL = ransac.inlierThreshold * ransac.inlierThreshold * 2.0;
+
+		if( ransac.concurrent ) {
+			// copy the config since estimators are created later on, when a thread needs one
+			ConfigEssential _essential = new ConfigEssential();
+			_essential.setTo(essential);
+			return new RansacMultiView_MT<>(ransac.randSeed, manager,
+					()->new Se3FromEssentialGenerator(
+							FactoryMultiView.essential_1(_essential.which, _essential.numResolve),
+							FactoryMultiView.triangulate2ViewMetric(new ConfigTriangulation(ConfigTriangulation.Type.GEOMETRIC))),
+					()->new DistanceSe3SymmetricSq(FactoryMultiView.triangulate2ViewMetric(
+							new ConfigTriangulation(ConfigTriangulation.Type.GEOMETRIC))),
+					ransac.iterations, ransacTOL);
+		}
+
 		Estimate1ofEpipolar epipolar = FactoryMultiView.
 				essential_1(essential.which, essential.numResolve);
 
 		Triangulate2ViewsMetric triangulate = FactoryMultiView.triangulate2ViewMetric(
 				new ConfigTriangulation(ConfigTriangulation.Type.GEOMETRIC));
-		ModelManager<Se3_F64> manager = new ModelManagerSe3_F64();
 		ModelGenerator<Se3_F64, AssociatedPair> generateEpipolarMotion =
 				new Se3FromEssentialGenerator(epipolar, triangulate);
 
 		DistanceFromModelMultiView<Se3_F64, AssociatedPair> distanceSe3 =
 				new DistanceSe3SymmetricSq(triangulate);
 
-		double ransacTOL = ransac.inlierThreshold * ransac.inlierThreshold * 2.0;
-
 		return new RansacMultiView<>(ransac.randSeed, manager, generateEpipolarMotion, distanceSe3,
 				ransac.iterations, ransacTOL);
 	}
@@ -256,6 +279,17 @@ public class FactoryMultiViewRobust {
 		}
 
 		ModelManager<DMatrixRMaj> managerE = new ModelManagerEpipolarMatrix();
+		double ransacTOL = ransac.inlierThreshold * ransac.inlierThreshold;
+
+		if( ransac.concurrent ) {
+			// copy the config since estimators are created later on, when a thread needs one
+			ConfigEssential _essential = new ConfigEssential();
+			_essential.setTo(essential);
+			return new RansacMultiView_MT<>(ransac.randSeed, managerE,
+					()->new GenerateEpipolarMatrix(FactoryMultiView.essential_1(_essential.which, _essential.numResolve)),
+					DistanceMultiView_EssentialSampson::new, ransac.iterations, ransacTOL);
+		}
+
 		Estimate1ofEpipolar estimateF = FactoryMultiView.essential_1(essential.which,
 				essential.numResolve);
 		GenerateEpipolarMatrix generateE = new GenerateEpipolarMatrix(estimateF);
@@ -263,7 +297,6 @@ public class FactoryMultiViewRobust {
 		// How the error is measured
 		DistanceFromModelMultiView<DMatrixRMaj,AssociatedPair> errorMetric =
 				new DistanceMultiView_EssentialSampson();
-		double ransacTOL = ransac.inlierThreshold * ransac.inlierThreshold;
 
 		return new RansacMultiView<>(ransac.randSeed, managerE, generateE, errorMetric,
 				ransac.iterations, ransacTOL);
@@ -283,26 +316,31 @@ public class FactoryMultiViewRobust {
 		GenerateEpipolarMatrix generateF = new GenerateEpipolarMatrix(estimateF);
 
 		// How the error is measured
-		DistanceFromModel<DMatrixRMaj,AssociatedPair> errorMetric;
+		DistanceFromModel<DMatrixRMaj,AssociatedPair> errorMetric = createFundamentalDistance(fundamental.errorModel);
 
-		switch( fundamental.errorModel ) {
-			case SAMPSON:
-				errorMetric = new DistanceFromModelResidual<>(new FundamentalResidualSampson());
-				break;
-
-			case GEOMETRIC:
-				errorMetric = new DistanceFundamentalGeometric();
-				break;
+		double ransacTOL = ransac.inlierThreshold * ransac.inlierThreshold;
 
-			default:
-				throw new RuntimeException("Unknown");
+		if( ransac.concurrent ) {
+			// copy the config since estimators are created later on, when a thread needs one
+			ConfigFundamental _fundamental = new ConfigFundamental();
+			_fundamental.setTo(fundamental);
+			return new Ransac_MT<>(ransac.randSeed, managerF,
+					()->new GenerateEpipolarMatrix(FactoryMultiView.fundamental_1(_fundamental.which, _fundamental.numResolve)),
+					()->createFundamentalDistance(_fundamental.errorModel), ransac.iterations, ransacTOL);
 		}
 
-		double ransacTOL = ransac.inlierThreshold * ransac.inlierThreshold;
-
 		return new Ransac<>(ransac.randSeed, managerF, generateF, errorMetric, ransac.iterations, ransacTOL);
 	}
 
+	private static DistanceFromModel<DMatrixRMaj,AssociatedPair>
+	createFundamentalDistance( ConfigFundamental.ErrorModel errorModel ) {
+		switch( errorModel ) {
+			case SAMPSON: return new DistanceFromModelResidual<>(new FundamentalResidualSampson());
+			case GEOMETRIC: return new DistanceFundamentalGeometric();
+			default: throw new RuntimeException("Unknown");
+		}
+	}
+
 	/**
 	 * Robust solution for estimating {@link Homography2D_F64} with {@link LeastMedianOfSquares LMedS}.  Input
 	 * observations are in pixel coordinates.
@@ -396,7 +434,7 @@ public class FactoryMultiViewRobust {
 	 * @param ransac Configuration for RANSAC
 	 * @return RANSAC
 	 */
-	public static Ransac<TrifocalTensor, AssociatedTriple>
+	public static ModelMatcher<TrifocalTensor, AssociatedTriple>
 	trifocalRansac( @Nullable ConfigTrifocal trifocal ,
 					@Nullable ConfigTrifocalError error,
 					@Nonnull ConfigRansac ransac ) {
@@ -408,29 +446,45 @@ public class FactoryMultiViewRobust {
 		trifocal.checkValidity();
 
 		double ransacTol;
-		DistanceFromModel<TrifocalTensor,AssociatedTriple> distance;
-
 		switch( error.model) {
-			case REPROJECTION: {
-				ransacTol = 3.0*ransac.inlierThreshold*ransac.inlierThreshold;
-				distance = new DistanceTrifocalReprojectionSq();
-			} break;
+			case REPROJECTION:
 			case REPROJECTION_REFINE:
 				ransacTol = 3.0*ransac.inlierThreshold*ransac.inlierThreshold;
-				distance = new DistanceTrifocalReprojectionSq(error.converge.gtol,error.converge.maxIterations);
 				break;
 			case POINT_TRANSFER:
 				ransacTol = 2.0*ransac.inlierThreshold*ransac.inlierThreshold;
-				distance = new DistanceTrifocalTransferSq();
 				break;
 			default:
 				throw new IllegalArgumentException("Unknown error model "+error.model);
 		}
 
-		Estimate1ofTrifocalTensor estimator = FactoryMultiView.trifocal_1(trifocal);
 		ModelManager<TrifocalTensor> manager = new ManagerTrifocalTensor();
+
+		if( ransac.concurrent ) {
+			// copy the config since estimators are created later on, when a thread needs one
+			ConfigTrifocal _trifocal = new ConfigTrifocal();
+			_trifocal.setTo(trifocal);
+			ConfigTrifocalError _error = new ConfigTrifocalError();
+			_error.setTo(error);
+			return new Ransac_MT<>(ransac.randSeed, manager,
+					()->new GenerateTrifocalTensor(FactoryMultiView.trifocal_1(_trifocal)),
+					()->createTrifocalDistance(_error), ransac.iterations, ransacTol);
+		}
+
+		DistanceFromModel<TrifocalTensor,AssociatedTriple> distance = createTrifocalDistance(error);
+		Estimate1ofTrifocalTensor estimator = FactoryMultiView.trifocal_1(trifocal);
 		ModelGenerator<TrifocalTensor,AssociatedTriple> generator = new GenerateTrifocalTensor(estimator);
 
 		return new Ransac<>(ransac.randSeed, manager, generator, distance, ransac.iterations, ransacTol);
 	}
+
+	private static DistanceFromModel<TrifocalTensor,AssociatedTriple> createTrifocalDistance( ConfigTrifocalError error ) {
+		switch( error.model) {
+			case REPROJECTION: return new DistanceTrifocalReprojectionSq();
+			case REPROJECTION_REFINE:
+				return new DistanceTrifocalReprojectionSq(error.converge.gtol,error.converge.maxIterations);
+			case POINT_TRANSFER: return new DistanceTrifocalTransferSq();
+			default: throw new IllegalArgumentException("Unknown error model "+error.model);
+		}
+	}
 }
@@ -31,6 +31,8 @@ import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.SpecializedOps_DDRM;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
@@ -135,6 +137,38 @@ class TestScaleSceneStructure {
 		}
 	}
 
+	/**
+	 * Observations which have been moved into a memory mapped file should be scaled the same
+	 */
+	@Test
+	void apply_undo_projective_mapped() throws IOException {
+		for (int p = 0; p < 2; p++) {
+			ScaleSceneStructure alg = new ScaleSceneStructure();
+			alg.setScalePixelsUsingStats(p==1);
+
+			SceneStructureProjective expected = new SceneStructureProjective(false);
+			SceneStructureProjective found = new SceneStructureProjective(false);
+
+			SceneObservations obs = createProjectiveScene(found,0xBEEF);
+			createProjectiveScene(expected,0xBEEF);
+
+			File file = File.createTempFile("observations",".bin");
+			try {
+				obs.mapObservations(file);
+
+				alg.applyScale(found,obs);
+				GenericBundleAdjustmentProjectiveChecks.checkReprojectionError(found,obs,1e-4);
+				alg.undoScale(found,obs);
+
+				GenericBundleAdjustmentProjectiveChecks.assertEquals(expected,found,1e-8);
+				GenericBundleAdjustmentProjectiveChecks.checkReprojectionError(found,obs,1e-4);
+			} finally {
+				obs.unmapObservations();
+				file.delete();
+			}
+		}
+	}
+
 	/**
 	 * Very basic check to see if observations are scaled from -0.5 to 0.5
 	 */
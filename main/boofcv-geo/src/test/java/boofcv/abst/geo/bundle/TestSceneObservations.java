@@ -22,8 +22,10 @@ import boofcv.abst.geo.bundle.SceneObservations.View;
 import georegression.struct.point.Point2D_F64;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * @author Peter Abeles
@@ -70,4 +72,127 @@ public class TestSceneObservations {
 		assertTrue(p.distance2(-1,-2) < 1e-7);
 
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void mapObservations() throws IOException {
+		SceneObservations obs = new SceneObservations();
+		obs.initialize(3,true);
+		for (int i = 0; i < 10; i++) {
+			obs.getView(i%3).add(i,i*2,i*3+1);
+			obs.getViewRigid(i%2).add(i+100,-i,i*4);
+		}
+
+		// Use a small region size so that multiple regions are mapped
+		int original = SceneObservations.MAX_MAPPED_BYTES;
+		SceneObservations.MAX_MAPPED_BYTES = 20;
+		File file = File.createTempFile("observations",".bin");
+		try {
+			obs.mapObservations(file);
+		} finally {
+			SceneObservations.MAX_MAPPED_BYTES = original;
+		}
+
+		assertEquals(20, obs.getObservationCount());
+		checkObservations(obs, true);
+
+		// modify then copy it back onto the heap
+		obs.getView(1).set(0,-5,-6);
+		obs.unmapObservations();
+		file.delete();
+
+		Point2D_F64 p = new Point2D_F64();
+		obs.getView(1).get(0,p);
+		assertEquals(0.0, p.distance(-5,-6), 1e-7);
+		obs.getView(1).set(0,1*2,1*3+1);
+		checkObservations(obs, false);
+	}
+
+	private void checkObservations( SceneObservations obs , boolean mapped ) {
+		Point2D_F64 p = new Point2D_F64();
+		for (int i = 0; i < 10; i++) {
+			View v = obs.getView(i%3);
+			View r = obs.getViewRigid(i%2);
+			assertEquals(mapped, v.isMapped());
+			assertEquals(mapped, r.isMapped());
+
+			v.get(i/3,p);
+			assertEquals(i, v.getPointId(i/3));
+			assertEquals(0.0, p.distance(i*2,i*3+1), 1e-7);
+			r.get(i/2,p);
+			assertEquals(i+100, r.getPointId(i/2));
+			assertEquals(0.0, p.distance(-i,i*4), 1e-7);
+		}
+	}
+
+	@Test
+	public void mapObservations_cantAdd() throws IOException {
+		SceneObservations obs = new SceneObservations();
+		obs.initialize(1);
+		obs.getView(0).add(1,2,3);
+
+		File file = File.createTempFile("observations",".bin");
+		obs.mapObservations(file);
+		assertThrows(IllegalStateException.class,()->obs.getView(0).add(2,3,4));
+		obs.unmapObservations();
+		file.delete();
+	}
+
+	@Test
+	public void mapObservations_remove() throws IOException {
+		SceneObservations obs = new SceneObservations();
+		obs.initialize(1);
+		View v = obs.getView(0);
+		v.add(5,1,2);
+		v.add(1,2,3);
+		v.add(8,3,3);
+		v.add(3,4,2);
+
+		File file = File.createTempFile("observations",".bin");
+		obs.mapObservations(file);
+		v.remove(1);
+		v.remove(2);
+
+		assertEquals(2,v.size());
+		Point2D_F64 p = new Point2D_F64();
+		v.get(0,p);
+		assertEquals(5,v.getPointId(0));
+		assertEquals(0.0, p.distance(1,2), 1e-7);
+		v.get(1,p);
+		assertEquals(8,v.getPointId(1));
+		assertEquals(0.0, p.distance(3,3), 1e-7);
+
+		// should still be the same after being moved back onto the heap
+		obs.unmapObservations();
+		file.delete();
+		v.get(1,p);
+		assertEquals(0.0, p.distance(3,3), 1e-7);
+		assertEquals(4,v.observations.size);
+	}
+
+	/**
+	 * Mapping twice must fail before the file is touched, since live buffers still point into it
+	 */
+	@Test
+	public void mapObservations_alreadyMapped() throws IOException {
+		SceneObservations obs = new SceneObservations();
+		obs.initialize(1);
+		obs.getView(0).add(1,2,3);
+
+		File file = File.createTempFile("observations",".bin");
+		obs.mapObservations(file);
+		assertSame(file, obs.getMappedFile());
+		long length = file.length();
+
+		assertThrows(IllegalStateException.class,()->obs.mapObservations(file));
+		assertEquals(length, file.length());
+
+		Point2D_F64 p = new Point2D_F64();
+		obs.getView(0).get(0,p);
+		assertEquals(0.0, p.distance(2,3), 1e-7);
+
+		assertSame(file, obs.unmapObservations());
+		assertNull(obs.getMappedFile());
+		assertNull(obs.unmapObservations());
+		file.delete();
+	}
+}
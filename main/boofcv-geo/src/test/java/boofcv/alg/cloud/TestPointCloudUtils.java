@@ -19,6 +19,7 @@
 package boofcv.alg.cloud;
 
 import georegression.struct.point.Point3D_F64;
+import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.GrowQueue_I32;
 import org.junit.jupiter.api.Test;
 
@@ -123,4 +124,30 @@ public class TestPointCloudUtils {
 		assertEquals(1,rgb.get(0));
 		assertEquals(97,rgb.get(96));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void prune_readerWriter() {
+		List<Point3D_F64> list = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			list.add( new Point3D_F64(i*0.1,0,0));
+		}
+
+		FastQueue<Point3D_F64> found = new FastQueue<>(Point3D_F64::new);
+		PointCloudUtils.prune(PointCloudReader.wrapF64(list),3,0.28,PointCloudWriter.wrapF64(found));
+		assertEquals(98,found.size());
+		assertEquals(0.1,found.get(0).x, 1e-8);
+	}
+
+	@Test
+	public void downsample() {
+		List<Point3D_F64> list = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			list.add( new Point3D_F64(i*0.1,0,0));
+		}
+
+		FastQueue<Point3D_F64> found = new FastQueue<>(Point3D_F64::new);
+		PointCloudUtils.downsample(PointCloudReader.wrapF64(list),1.0,PointCloudWriter.wrapF64(found));
+		assertEquals(10,found.size());
+		assertEquals(0.45,found.get(0).x, 1e-8);
+	}
+}
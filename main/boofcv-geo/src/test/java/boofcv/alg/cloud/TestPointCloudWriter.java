@@ -78,6 +78,33 @@ class TestPointCloudWriter {
 			assertEquals(3,found.z, UtilEjml.TEST_F64);
 		}
 
+		@Test
+		void addBlock() {
+			PointCloudWriter alg = create();
+
+			double[] xyz = new double[]{0,1,2, 2,1,3, 5,6,7, 9,9,9};
+			int[] rgb = new int[]{345,3434,12,99};
+
+			alg.addBlock(xyz,rgb,3);
+			assertEquals(3,size(alg));
+			alg.addBlock(xyz,null,2);
+			assertEquals(5,size(alg));
+
+			if( supportsColor ) {
+				assertEquals(345, getColor(alg, 0));
+				assertEquals(12, getColor(alg, 2));
+			}
+
+			Point3D_F64 found = getPoint(alg,2);
+			assertEquals(5,found.x, UtilEjml.TEST_F64);
+			assertEquals(6,found.y, UtilEjml.TEST_F64);
+			assertEquals(7,found.z, UtilEjml.TEST_F64);
+
+			found = getPoint(alg,4);
+			assertEquals(2,found.x, UtilEjml.TEST_F64);
+			assertEquals(1,found.y, UtilEjml.TEST_F64);
+			assertEquals(3,found.z, UtilEjml.TEST_F64);
+		}
 	}
 
 	@Nested
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.cloud;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.Point3dRgbI_F64;
+import georegression.struct.point.Point3D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestVoxelGridPointCloud {
+	Random rand = new Random(234);
+
+	@AfterEach
+	void cleanUp() {
+		BoofConcurrency.USE_CONCURRENT = true;
+	}
+
+	/**
+	 * Compare against a brute force search with a few dense clusters and sparse outliers
+	 */
+	@Test
+	void markInliers_bruteForce() {
+		List<Point3D_F64> cloud = createCloud();
+
+		for (boolean concurrent : new boolean[]{false, true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			for (double radius : new double[]{0.05, 0.2, 1.0}) {
+				VoxelGridPointCloud alg = new VoxelGridPointCloud();
+				alg.setCloud(PointCloudReader.wrapF64(cloud));
+				int count = alg.markInliers(3, radius);
+
+				int expectedCount = 0;
+				for (int i = 0; i < cloud.size(); i++) {
+					boolean expected = countNeighbors(cloud, cloud.get(i), radius) > 3;
+					assertEquals(expected, alg.getInliers().get(i));
+					if( expected )
+						expectedCount++;
+				}
+				assertEquals(expectedCount, count);
+			}
+		}
+	}
+
+	/**
+	 * Voxels are made larger when the radius is tiny compared to the cloud's extent
+	 */
+	@Test
+	void markInliers_largeExtent() {
+		List<Point3D_F64> cloud = new ArrayList<>();
+		cloud.add(new Point3D_F64(0, 0, 0));
+		cloud.add(new Point3D_F64(1e-7, 0, 0));
+		cloud.add(new Point3D_F64(1e6, 0, 0));
+
+		VoxelGridPointCloud alg = new VoxelGridPointCloud();
+		alg.setCloud(PointCloudReader.wrapF64(cloud));
+		assertEquals(2, alg.markInliers(1, 1e-6));
+		assertFalse(alg.getInliers().get(2));
+	}
+
+	@Test
+	void prune() {
+		List<Point3dRgbI_F64> cloud = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			cloud.add(new Point3dRgbI_F64(i*0.1, 0, 0, i));
+		}
+		// isolated point
+		cloud.add(new Point3dRgbI_F64(5, 5, 5, 100));
+
+		FastQueue<Point3dRgbI_F64> found = new FastQueue<>(Point3dRgbI_F64::new);
+		VoxelGridPointCloud alg = new VoxelGridPointCloud();
+		alg.setCloud(PointCloudReader.wrapF64RGB(cloud));
+		alg.prune(1, 0.15, PointCloudWriter.wrapF64RGB(found));
+
+		assertEquals(10, found.size);
+		for (int i = 0; i < 10; i++) {
+			assertEquals(0.0, found.get(i).distance(cloud.get(i)), 1e-8);
+			assertEquals(i, found.get(i).rgb);
+		}
+	}
+
+	@Test
+	void downsample() {
+		List<Point3dRgbI_F64> cloud = new ArrayList<>();
+		// two points in the same voxel
+		cloud.add(new Point3dRgbI_F64(0.1, 0.1, 0.1, 0x102030));
+		cloud.add(new Point3dRgbI_F64(0.3, 0.5, 0.7, 0x304050));
+		// one point in a different voxel
+		cloud.add(new Point3dRgbI_F64(2.5, 0.1, 0.1, 0xFFFFFF));
+
+		for (boolean concurrent : new boolean[]{false, true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			FastQueue<Point3dRgbI_F64> found = new FastQueue<>(Point3dRgbI_F64::new);
+			VoxelGridPointCloud alg = new VoxelGridPointCloud();
+			alg.setCloud(PointCloudReader.wrapF64RGB(cloud));
+			alg.downsample(1.0, PointCloudWriter.wrapF64RGB(found));
+
+			assertEquals(2, found.size);
+			assertEquals(0.0, found.get(0).distance(0.2, 0.3, 0.4), 1e-8);
+			assertEquals(0x203040, found.get(0).rgb);
+			assertEquals(0.0, found.get(1).distance(2.5, 0.1, 0.1), 1e-8);
+			assertEquals(0xFFFFFF, found.get(1).rgb);
+		}
+	}
+
+	@Test
+	void downsample_voxelTooSmall() {
+		List<Point3D_F64> cloud = new ArrayList<>();
+		cloud.add(new Point3D_F64(0, 0, 0));
+		cloud.add(new Point3D_F64(1e6, 0, 0));
+
+		VoxelGridPointCloud alg = new VoxelGridPointCloud();
+		alg.setCloud(PointCloudReader.wrapF64(cloud));
+		assertThrows(IllegalArgumentException.class,
+				() -> alg.downsample(1e-3, PointCloudWriter.wrapF64(new FastQueue<>(Point3D_F64::new))));
+	}
+
+	/**
+	 * Reusing the same instance should produce the same results as a new instance
+	 */
+	@Test
+	void reuse() {
+		List<Point3D_F64> cloudA = createCloud();
+		List<Point3D_F64> cloudB = createCloud();
+
+		VoxelGridPointCloud alg = new VoxelGridPointCloud();
+		alg.setCloud(PointCloudReader.wrapF64(cloudA));
+		alg.markInliers(2, 0.1);
+		alg.setCloud(PointCloudReader.wrapF64(cloudB));
+		int found = alg.markInliers(2, 0.1);
+
+		VoxelGridPointCloud fresh = new VoxelGridPointCloud();
+		fresh.setCloud(PointCloudReader.wrapF64(cloudB));
+		assertEquals(fresh.markInliers(2, 0.1), found);
+		for (int i = 0; i < cloudB.size(); i++) {
+			assertEquals(fresh.getInliers().get(i), alg.getInliers().get(i));
+		}
+	}
+
+	private List<Point3D_F64> createCloud() {
+		List<Point3D_F64> cloud = new ArrayList<>();
+		for (int cluster = 0; cluster < 4; cluster++) {
+			double cx = rand.nextGaussian()*3, cy = rand.nextGaussian()*3, cz = rand.nextGaussian()*3;
+			for (int i = 0; i < 200; i++) {
+				cloud.add(new Point3D_F64(
+						cx + rand.nextGaussian()*0.1, cy + rand.nextGaussian()*0.1, cz + rand.nextGaussian()*0.1));
+			}
+		}
+		for (int i = 0; i < 50; i++) {
+			cloud.add(new Point3D_F64(rand.nextGaussian()*5, rand.nextGaussian()*5, rand.nextGaussian()*5));
+		}
+		return cloud;
+	}
+
+	private int countNeighbors( List<Point3D_F64> cloud, Point3D_F64 p, double radius ) {
+		int count = 0;
+		for (int i = 0; i < cloud.size(); i++) {
+			if( cloud.get(i).distance2(p) <= radius*radius )
+				count++;
+		}
+		return count;
+	}
+}
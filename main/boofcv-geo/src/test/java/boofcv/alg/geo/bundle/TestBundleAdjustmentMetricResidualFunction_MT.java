@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureMetric;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static boofcv.alg.geo.bundle.TestBundleAdjustmentMetricResidualFunction.createObservations;
+import static boofcv.alg.geo.bundle.TestCodecSceneStructureMetric.createScene;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestBundleAdjustmentMetricResidualFunction_MT {
+	private Random rand = new Random(234);
+
+	/**
+	 * Compare threaded to single threaded
+	 */
+	@Test
+	void compareToSingle() {
+		compareToSingle(true, false);
+		compareToSingle(false, false);
+		compareToSingle(true, true);
+		compareToSingle(false, true);
+	}
+
+	void compareToSingle(boolean homogenous, boolean hasRigid) {
+		SceneStructureMetric structure = createScene(rand, homogenous, hasRigid);
+		SceneObservations obs = createObservations(rand, structure);
+
+		double[] param = new double[structure.getParameterCount()];
+		new CodecSceneStructureMetric().encode(structure, param);
+
+		BundleAdjustmentMetricResidualFunction single = new BundleAdjustmentMetricResidualFunction();
+		BundleAdjustmentMetricResidualFunction multi = new BundleAdjustmentMetricResidualFunction_MT();
+		single.configure(structure, obs);
+		multi.configure(structure, obs);
+
+		double[] expected = new double[single.getNumOfOutputsM()];
+		double[] found = new double[multi.getNumOfOutputsM()];
+
+		single.process(param, expected);
+		multi.process(param, found);
+
+		assertArrayEquals(expected, found, 0.0);
+	}
+}
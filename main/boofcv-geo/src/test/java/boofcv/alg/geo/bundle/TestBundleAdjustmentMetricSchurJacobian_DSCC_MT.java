@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureMetric;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseTriplet;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static boofcv.alg.geo.bundle.TestBundleAdjustmentMetricResidualFunction.createObservations;
+import static boofcv.alg.geo.bundle.TestCodecSceneStructureMetric.createScene;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestBundleAdjustmentMetricSchurJacobian_DSCC_MT {
+	Random rand = new Random(48854);
+
+	/**
+	 * Compare threaded to single threaded
+	 */
+	@Test
+	void compareToSingle() {
+		compareToSingle(true,false);
+		compareToSingle(false,false);
+		compareToSingle(true,true);
+		compareToSingle(false,true);
+	}
+
+	void compareToSingle(boolean homogenous , boolean hasRigid) {
+		SceneStructureMetric structure = createScene(rand,homogenous, hasRigid);
+		SceneObservations observations = createObservations(rand,structure);
+
+		double[] param = new double[structure.getParameterCount()];
+		new CodecSceneStructureMetric().encode(structure,param);
+
+		BundleAdjustmentMetricSchurJacobian_DSCC single = new BundleAdjustmentMetricSchurJacobian_DSCC();
+		BundleAdjustmentMetricSchurJacobian_DSCC multi = new BundleAdjustmentMetricSchurJacobian_DSCC_MT();
+		single.configure(structure,observations);
+		multi.configure(structure,observations);
+
+		DMatrixSparseCSC expectedLeft = new DMatrixSparseCSC(1,1,1);
+		DMatrixSparseCSC expectedRight = new DMatrixSparseCSC(1,1,1);
+		DMatrixSparseCSC foundLeft = new DMatrixSparseCSC(1,1,1);
+		DMatrixSparseCSC foundRight = new DMatrixSparseCSC(1,1,1);
+
+		single.process(param,expectedLeft,expectedRight);
+		// process twice to make sure the workspace is reset correctly
+		multi.process(param,foundLeft,foundRight);
+		multi.process(param,foundLeft,foundRight);
+
+		assertIdentical(expectedLeft,foundLeft);
+		assertIdentical(expectedRight,foundRight);
+	}
+
+	/**
+	 * If there are no views then nothing from the previous call should be added
+	 */
+	@Test
+	void noViews() {
+		SceneStructureMetric structure = createScene(rand,false, false);
+		SceneObservations observations = createObservations(rand,structure);
+
+		double[] param = new double[structure.getParameterCount()];
+		new CodecSceneStructureMetric().encode(structure,param);
+
+		BundleAdjustmentMetricSchurJacobian_DSCC_MT alg = new BundleAdjustmentMetricSchurJacobian_DSCC_MT();
+		alg.configure(structure,observations);
+		alg.process(param,new DMatrixSparseCSC(1,1,1),new DMatrixSparseCSC(1,1,1));
+
+		DMatrixSparseTriplet left = new DMatrixSparseTriplet(10,10,1);
+		DMatrixSparseTriplet right = new DMatrixSparseTriplet(10,10,1);
+		structure.views.size = 0;
+		alg.computeViews(param,left,right);
+		assertEquals(0,left.nz_length);
+		assertEquals(0,right.nz_length);
+	}
+
+	/**
+	 * The matrices must be bit identical, including the order elements are stored in
+	 */
+	private static void assertIdentical( DMatrixSparseCSC expected , DMatrixSparseCSC found ) {
+		assertTrue(MatrixFeatures_DDRM.isIdentical(
+				ConvertDMatrixStruct.convert(expected,(DMatrixRMaj)null),
+				ConvertDMatrixStruct.convert(found,(DMatrixRMaj)null),0.0));
+
+		assertEquals(expected.nz_length,found.nz_length);
+		for (int i = 0; i <= expected.numCols; i++) {
+			assertEquals(expected.col_idx[i],found.col_idx[i]);
+		}
+		for (int i = 0; i < expected.nz_length; i++) {
+			assertEquals(expected.nz_rows[i],found.nz_rows[i]);
+			assertEquals(expected.nz_values[i],found.nz_values[i]);
+		}
+	}
+}
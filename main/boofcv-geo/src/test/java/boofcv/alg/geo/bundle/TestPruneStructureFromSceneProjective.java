@@ -35,6 +35,8 @@ import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
 import java.util.Random;
 
@@ -75,6 +77,46 @@ class TestPruneStructureFromSceneProjective {
 		checkAllObservationsArePerfect();
 	}
 
+	/**
+	 * Pruning should work the same when observations are memory mapped
+	 */
+	@Test
+	void mappedObservations() throws IOException {
+		createPerfectScene();
+
+		File file = File.createTempFile("observations",".bin");
+		try {
+			observations.mapObservations(file);
+
+			int N = structure.getObservationCount();
+			int noisyCount = (int)(N*0.02+0.5);
+			Point2D_F64 p = new Point2D_F64();
+			for (int i = 0; i < noisyCount; i++) {
+				int viewIdx = rand.nextInt(structure.views.size);
+				SceneObservations.View vo = observations.views.data[viewIdx];
+
+				int idx = rand.nextInt(vo.point.size);
+				vo.get(idx,p);
+				vo.set(idx,(float)p.x+5,(float)p.y+5);
+			}
+
+			PruneStructureFromSceneProjective alg = new PruneStructureFromSceneProjective(structure,observations);
+
+			alg.pruneObservationsByErrorRank(0.98);
+			assertEquals(N-noisyCount,structure.getObservationCount());
+			checkAllObservationsArePerfect();
+
+			int obsCount = structure.getObservationCount();
+			assertTrue(alg.prunePoints(8));
+			assertTrue(obsCount>structure.getObservationCount());
+			checkAllObservationsArePerfect();
+		} finally {
+			observations.unmapObservations();
+			file.delete();
+		}
+		checkAllObservationsArePerfect();
+	}
+
 	@Test
 	void prunePoints() {
 
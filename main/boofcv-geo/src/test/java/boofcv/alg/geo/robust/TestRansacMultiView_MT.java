@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.robust;
+
+import boofcv.abst.geo.Estimate1ofPnP;
+import boofcv.alg.geo.pose.PnPDistanceReprojectionSq;
+import boofcv.factory.geo.EnumPNP;
+import boofcv.factory.geo.EstimatorToGenerator;
+import boofcv.factory.geo.FactoryMultiView;
+import boofcv.struct.calib.CameraPinhole;
+import boofcv.struct.geo.Point2D3D;
+import georegression.fitting.se.ModelManagerSe3_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestRansacMultiView_MT {
+
+	CameraPinhole intrinsic = new CameraPinhole(500,400,0,320,240,640,480);
+
+	// observation is off by 0.01 along x and y in normalized image coordinates
+	Point2D3D observation = new Point2D3D(new Point2D_F64(0.01,0.01),new Point3D_F64(0,0,1));
+	// expected error in pixels squared
+	double expected = 5.0*5.0 + 4.0*4.0;
+
+	/**
+	 * Intrinsics must be passed to helpers which already exist and helpers which are created later
+	 */
+	@Test
+	void setIntrinsic_helpers() {
+		RansacMultiView_MT<Se3_F64,Point2D3D> alg = createAlg();
+
+		alg.helpers.grow();
+		alg.setIntrinsic(0,intrinsic);
+		// helpers which were created then released will be reused
+		alg.helpers.reset();
+		for (int i = 0; i < 5; i++) {
+			alg.helpers.grow();
+		}
+
+		checkDistance(alg.distance);
+		for (int i = 0; i < alg.helpers.size; i++) {
+			checkDistance(alg.helpers.get(i).distance);
+		}
+	}
+
+	/**
+	 * Changing intrinsics after helpers have been created should update all of them
+	 */
+	@Test
+	void setIntrinsic_changed() {
+		RansacMultiView_MT<Se3_F64,Point2D3D> alg = createAlg();
+
+		alg.setIntrinsic(0,new CameraPinhole(100,100,0,320,240,640,480));
+		for (int i = 0; i < 3; i++) {
+			alg.helpers.grow();
+		}
+		alg.setIntrinsic(0,intrinsic);
+		alg.helpers.grow();
+
+		checkDistance(alg.distance);
+		for (int i = 0; i < alg.helpers.size; i++) {
+			checkDistance(alg.helpers.get(i).distance);
+		}
+	}
+
+	private void checkDistance( DistanceFromModel<Se3_F64,Point2D3D> distance ) {
+		distance.setModel(new Se3_F64());
+		assertEquals(expected,distance.computeDistance(observation),1e-8);
+	}
+
+	private RansacMultiView_MT<Se3_F64,Point2D3D> createAlg() {
+		return new RansacMultiView_MT<>(0xBEEF,new ModelManagerSe3_F64(),
+				()->{
+					Estimate1ofPnP pnp = FactoryMultiView.pnp_1(EnumPNP.P3P_FINSTERWALDER,-1,1);
+					return new EstimatorToGenerator<>(pnp);
+				},
+				PnPDistanceReprojectionSq::new,100,1.0);
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.robust;
+
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestRansac_MT {
+	Random rand = new Random(234);
+
+	// true line is y = a*x + b
+	double a = 0.5, b = -2.0;
+	int numInliers = 200;
+	int numOutliers = 100;
+
+	/**
+	 * Finds the line and selects all the inliers
+	 */
+	@Test
+	void findsModel() {
+		List<double[]> points = createPoints();
+
+		Ransac_MT<double[], double[]> alg = createAlg();
+		assertTrue(alg.process(points));
+		checkSolution(points, alg);
+	}
+
+	/**
+	 * Preemptive scoring should still find the line
+	 */
+	@Test
+	void findsModel_preemptive() {
+		List<double[]> points = createPoints();
+
+		Ransac_MT<double[], double[]> alg = createAlg();
+		alg.setPreemptiveBlock(20);
+		assertTrue(alg.process(points));
+		checkSolution(points, alg);
+	}
+
+	/**
+	 * The same seed should produce the exact same results
+	 */
+	@Test
+	void repeatable() {
+		List<double[]> points = createPoints();
+		// make it so that the best hypothesis isn't perfect to help expose any non-determinism
+		for (int i = 0; i < points.size(); i++) {
+			points.get(i)[1] += rand.nextGaussian()*0.1;
+		}
+
+		for (int preemptive : new int[]{0, 20}) {
+			Ransac_MT<double[], double[]> algA = createAlg();
+			Ransac_MT<double[], double[]> algB = createAlg();
+			algA.setPreemptiveBlock(preemptive);
+			algB.setPreemptiveBlock(preemptive);
+
+			assertTrue(algA.process(points));
+			assertTrue(algB.process(points));
+			assertArrayEquals(algA.getModelParameters(), algB.getModelParameters());
+			assertEquals(algA.getMatchSet().size(), algB.getMatchSet().size());
+
+			// reset should restore the seed
+			double[] expected = algA.getModelParameters().clone();
+			algA.reset();
+			assertTrue(algA.process(points));
+			assertArrayEquals(expected, algA.getModelParameters());
+		}
+	}
+
+	@Test
+	void tooFewPoints() {
+		List<double[]> points = new ArrayList<>();
+		points.add(new double[]{1, 2});
+
+		Ransac_MT<double[], double[]> alg = createAlg();
+		assertFalse(alg.process(points));
+		assertEquals(0, alg.getMatchSet().size());
+	}
+
+	private void checkSolution( List<double[]> points, Ransac_MT<double[], double[]> alg ) {
+		double[] found = alg.getModelParameters();
+		assertEquals(a, found[0], 1e-8);
+		assertEquals(b, found[1], 1e-8);
+
+		assertEquals(numInliers, alg.getMatchSet().size());
+		for (int i = 0; i < alg.getMatchSet().size(); i++) {
+			assertSame(alg.getMatchSet().get(i), points.get(alg.getInputIndex(i)));
+		}
+	}
+
+	private Ransac_MT<double[], double[]> createAlg() {
+		Ransac_MT<double[], double[]> alg = new Ransac_MT<>(
+				0xBEEF, new LineManager(), LineGenerator::new, LineDistance::new, 200, 0.5);
+		// small batches so that there are multiple batches
+		alg.setBatchSize(16);
+		return alg;
+	}
+
+	private List<double[]> createPoints() {
+		List<double[]> points = new ArrayList<>();
+		for (int i = 0; i < numInliers; i++) {
+			double x = rand.nextDouble()*100 - 50;
+			points.add(new double[]{x, a*x + b});
+		}
+		for (int i = 0; i < numOutliers; i++) {
+			points.add(new double[]{rand.nextDouble()*100 - 50, rand.nextDouble()*100 - 50 + 10});
+		}
+		Collections.shuffle(points, rand);
+		return points;
+	}
+
+	static class LineManager implements ModelManager<double[]> {
+		@Override
+		public double[] createModelInstance() { return new double[2]; }
+
+		@Override
+		public void copyModel( double[] src, double[] dst ) { System.arraycopy(src, 0, dst, 0, 2); }
+	}
+
+	static class LineGenerator implements ModelGenerator<double[], double[]> {
+		@Override
+		public boolean generate( List<double[]> dataSet, double[] output ) {
+			double[] p0 = dataSet.get(0), p1 = dataSet.get(1);
+			if( p0[0] == p1[0] )
+				return false;
+			output[0] = (p1[1] - p0[1])/(p1[0] - p0[0]);
+			output[1] = p0[1] - output[0]*p0[0];
+			return true;
+		}
+
+		@Override
+		public int getMinimumPoints() { return 2; }
+	}
+
+	static class LineDistance implements DistanceFromModel<double[], double[]> {
+		double[] model;
+
+		@Override
+		public void setModel( double[] model ) { this.model = model; }
+
+		@Override
+		public double computeDistance( double[] pt ) { return Math.abs(model[0]*pt[0] + model[1] - pt[1]); }
+
+		@Override
+		public void computeDistance( List<double[]> points, double[] distance ) {
+			for (int i = 0; i < points.size(); i++) {
+				distance[i] = computeDistance(points.get(i));
+			}
+		}
+
+		@Override
+		public Class<double[]> getPointType() { return double[].class; }
+
+		@Override
+		public Class<double[]> getModelType() { return double[].class; }
+	}
+}
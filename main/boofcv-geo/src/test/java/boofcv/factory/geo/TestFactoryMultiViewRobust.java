@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.factory.geo;
+
+import boofcv.alg.geo.MultiViewOps;
+import boofcv.alg.geo.PerspectiveOps;
+import boofcv.alg.geo.robust.RansacMultiView_MT;
+import boofcv.alg.geo.robust.Ransac_MT;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.calib.CameraPinhole;
+import boofcv.struct.geo.AssociatedPair;
+import boofcv.struct.geo.AssociatedTriple;
+import boofcv.struct.geo.Point2D3D;
+import boofcv.struct.geo.TrifocalTensor;
+import georegression.geometry.GeometryMath_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+import org.ddogleg.struct.Factory;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.NormOps_DDRM;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiConsumer;
+
+import static georegression.struct.se.SpecialEuclideanOps_F64.eulerXyz;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the concurrent RANSAC estimators. Each one is run with a single thread and with multiple threads. The
+ * found model and inlier set must be identical and match the known truth.
+ *
+ * @author Peter Abeles
+ */
+class TestFactoryMultiViewRobust {
+	Random rand = new Random(234);
+
+	int numInliers = 60;
+	int numOutliers = 20;
+
+	CameraPinhole intrinsic = new CameraPinhole(500,500,0,320,240,640,480);
+	DMatrixRMaj K = PerspectiveOps.pinholeToMatrix(intrinsic,(DMatrixRMaj)null);
+
+	// view 1 is the world frame
+	Se3_F64 view1_to_view2 = eulerXyz(0.4,-0.1,0.05, 0.05,-0.03,0.02,null);
+	Se3_F64 view1_to_view3 = eulerXyz(-0.3,0.3,-0.05, -0.04,0.06,0.01,null);
+
+	// true fundamental matrix between view 1 and 2
+	DMatrixRMaj F = MultiViewOps.createFundamental(
+			MultiViewOps.createEssential(view1_to_view2.R,view1_to_view2.T,null),K);
+
+	// The first numInliers observations are inliers and the remainder are outliers
+	List<Point2D3D> observationsPnP = new ArrayList<>();
+	List<AssociatedPair> pairsNorm = new ArrayList<>();
+	List<AssociatedPair> pairsPixels = new ArrayList<>();
+	List<AssociatedTriple> triplesPixels = new ArrayList<>();
+
+	@BeforeEach
+	void createScene() {
+		for (int i = 0; i < numInliers+numOutliers; i++) {
+			Point3D_F64 X = randomPoint();
+			// outliers are created by observing a different point in the other views. Make sure an outlier isn't
+			// close to the epipolar line by chance
+			Point3D_F64 X2 = X, X3 = X;
+			if( i >= numInliers ) {
+				do {
+					X2 = randomPoint();
+				} while( epipolarError(X,X2) < 5.0 );
+				X3 = randomPoint();
+			}
+
+			observationsPnP.add(new Point2D3D(PerspectiveOps.renderPixel(view1_to_view2,X2,null),X));
+			pairsNorm.add(new AssociatedPair(
+					PerspectiveOps.renderPixel(new Se3_F64(),X,null),
+					PerspectiveOps.renderPixel(view1_to_view2,X2,null)));
+			pairsPixels.add(new AssociatedPair(
+					PerspectiveOps.renderPixel(new Se3_F64(),K,X,null),
+					PerspectiveOps.renderPixel(view1_to_view2,K,X2,null)));
+			triplesPixels.add(new AssociatedTriple(
+					PerspectiveOps.renderPixel(new Se3_F64(),K,X,null),
+					PerspectiveOps.renderPixel(view1_to_view2,K,X2,null),
+					PerspectiveOps.renderPixel(view1_to_view3,K,X3,null)));
+		}
+	}
+
+	/**
+	 * Distance in pixels of each observation from the epipolar line created by the other. The smallest is returned.
+	 */
+	private double epipolarError( Point3D_F64 X, Point3D_F64 X2 ) {
+		Point2D_F64 x1 = PerspectiveOps.renderPixel(new Se3_F64(),K,X,null);
+		Point2D_F64 x2 = PerspectiveOps.renderPixel(view1_to_view2,K,X2,null);
+		Vector3D_F64 line2 = new Vector3D_F64();
+		Vector3D_F64 line1 = new Vector3D_F64();
+		GeometryMath_F64.mult(F,new Vector3D_F64(x1.x,x1.y,1),line2);
+		GeometryMath_F64.multTran(F,new Vector3D_F64(x2.x,x2.y,1),line1);
+		return Math.min(distance(line1,x1),distance(line2,x2));
+	}
+
+	private static double distance( Vector3D_F64 line, Point2D_F64 p ) {
+		return Math.abs(line.x*p.x + line.y*p.y + line.z)/Math.sqrt(line.x*line.x + line.y*line.y);
+	}
+
+	private Point3D_F64 randomPoint() {
+		return new Point3D_F64(rand.nextDouble()*2-1,rand.nextDouble()*2-1,rand.nextDouble()*3+1.5);
+	}
+
+	@Test
+	void pnpRansac_concurrent() {
+		ConfigRansac configRansac = new ConfigRansac(200,1.0);
+		configRansac.concurrent = true;
+
+		ModelMatcher<Se3_F64,Point2D3D> found = processThreads(()->{
+			var alg = FactoryMultiViewRobust.pnpRansac(null,configRansac);
+			assertTrue(alg instanceof RansacMultiView_MT);
+			alg.setIntrinsic(0,intrinsic);
+			return alg;
+		}, observationsPnP, (a,b)->{
+			assertTrue(MatrixFeatures_DDRM.isIdentical(a.R,b.R,0));
+			assertTrue(a.T.isIdentical(b.T,0));
+		});
+
+		Se3_F64 model = found.getModelParameters();
+		assertTrue(MatrixFeatures_DDRM.isIdentical(view1_to_view2.R,model.R,1e-6));
+		assertTrue(view1_to_view2.T.isIdentical(model.T,1e-6));
+	}
+
+	@Test
+	void essentialRansac_concurrent() {
+		DMatrixRMaj expected = MultiViewOps.createEssential(view1_to_view2.R,view1_to_view2.T,null);
+
+		for( ConfigEssential.ErrorModel error : ConfigEssential.ErrorModel.values() ) {
+			ConfigEssential configEssential = new ConfigEssential();
+			configEssential.errorModel = error;
+			ConfigRansac configRansac = new ConfigRansac(200,1.0);
+			configRansac.concurrent = true;
+
+			ModelMatcher<DMatrixRMaj,AssociatedPair> found = processThreads(()->{
+				var alg = FactoryMultiViewRobust.essentialRansac(configEssential,configRansac);
+				alg.setIntrinsic(0,intrinsic);
+				alg.setIntrinsic(1,intrinsic);
+				return alg;
+			}, pairsNorm, (a,b)->assertTrue(MatrixFeatures_DDRM.isIdentical(a,b,0)));
+
+			assertEqualsScale(expected,found.getModelParameters(),1e-6);
+		}
+	}
+
+	@Test
+	void fundamentalRansac_concurrent() {
+		DMatrixRMaj expected = F;
+
+		for( ConfigFundamental.ErrorModel error : ConfigFundamental.ErrorModel.values() ) {
+			ConfigFundamental configFundamental = new ConfigFundamental();
+			configFundamental.errorModel = error;
+			ConfigRansac configRansac = new ConfigRansac(200,1.0);
+			configRansac.concurrent = true;
+
+			ModelMatcher<DMatrixRMaj,AssociatedPair> found = processThreads(()->{
+				var alg = FactoryMultiViewRobust.fundamentalRansac(configFundamental,configRansac);
+				assertTrue(alg instanceof Ransac_MT);
+				return alg;
+			}, pairsPixels, (a,b)->assertTrue(MatrixFeatures_DDRM.isIdentical(a,b,0)));
+
+			assertEqualsScale(expected,found.getModelParameters(),1e-6);
+		}
+	}
+
+	@Test
+	void trifocalRansac_concurrent() {
+		DMatrixRMaj P1 = PerspectiveOps.createCameraMatrix(CommonOps_DDRM.identity(3),new Se3_F64().T,K,null);
+		DMatrixRMaj P2 = PerspectiveOps.createCameraMatrix(view1_to_view2.R,view1_to_view2.T,K,null);
+		DMatrixRMaj P3 = PerspectiveOps.createCameraMatrix(view1_to_view3.R,view1_to_view3.T,K,null);
+		TrifocalTensor expected = MultiViewOps.createTrifocal(P1,P2,P3,null);
+
+		ConfigRansac configRansac = new ConfigRansac(200,1.0);
+		configRansac.concurrent = true;
+
+		ModelMatcher<TrifocalTensor,AssociatedTriple> found = processThreads(()->{
+			var alg = FactoryMultiViewRobust.trifocalRansac(null,null,configRansac);
+			assertTrue(alg instanceof Ransac_MT);
+			return alg;
+		}, triplesPixels, (a,b)->{
+			for (int i = 0; i < 3; i++) {
+				assertTrue(MatrixFeatures_DDRM.isIdentical(a.getT(i),b.getT(i),0));
+			}
+		});
+
+		DMatrixRMaj e = new DMatrixRMaj(27,1);
+		DMatrixRMaj f = new DMatrixRMaj(27,1);
+		expected.convertTo(e);
+		found.getModelParameters().convertTo(f);
+		assertEqualsScale(e,f,1e-6);
+	}
+
+	/**
+	 * Processes the observations with one thread and then with multiple threads. The model and inliers must be
+	 * identical and every true inlier must be found.
+	 *
+	 * @return The matcher which was run with a single thread
+	 */
+	private <Model,Point> ModelMatcher<Model,Point> processThreads( Factory<ModelMatcher<Model,Point>> factory,
+																	List<Point> observations,
+																	BiConsumer<Model,Model> checkIdentical ) {
+		int originalThreads = BoofConcurrency.getMaxThreads();
+		boolean originalConcurrent = BoofConcurrency.USE_CONCURRENT;
+		try {
+			BoofConcurrency.setMaxThreads(1);
+			ModelMatcher<Model,Point> single = factory.newInstance();
+			assertTrue(single.process(observations));
+
+			BoofConcurrency.setMaxThreads(4);
+			ModelMatcher<Model,Point> multi = factory.newInstance();
+			assertTrue(multi.process(observations));
+
+			checkIdentical.accept(single.getModelParameters(),multi.getModelParameters());
+			assertArrayEquals(inlierIndexes(single),inlierIndexes(multi));
+
+			int[] inliers = inlierIndexes(single);
+			assertEquals(numInliers,inliers.length);
+			for (int i = 0; i < numInliers; i++) {
+				assertEquals(i,inliers[i]);
+			}
+			return single;
+		} finally {
+			BoofConcurrency.setMaxThreads(originalThreads);
+			BoofConcurrency.USE_CONCURRENT = originalConcurrent;
+		}
+	}
+
+	private static int[] inlierIndexes( ModelMatcher<?,?> alg ) {
+		int[] indexes = new int[alg.getMatchSet().size()];
+		for (int i = 0; i < indexes.length; i++) {
+			indexes[i] = alg.getInputIndex(i);
+		}
+		return indexes;
+	}
+
+	/**
+	 * Compares two matrices which are only known up to a scale factor
+	 */
+	private static void assertEqualsScale( DMatrixRMaj expected, DMatrixRMaj found, double tol ) {
+		DMatrixRMaj a = expected.copy();
+		DMatrixRMaj b = found.copy();
+		CommonOps_DDRM.divide(a,NormOps_DDRM.normF(a));
+		CommonOps_DDRM.divide(b,NormOps_DDRM.normF(b));
+
+		// resolve the sign ambiguity using the largest element
+		int largest = 0;
+		for (int i = 1; i < a.getNumElements(); i++) {
+			if( Math.abs(a.data[i]) > Math.abs(a.data[largest]) )
+				largest = i;
+		}
+		if( Math.signum(a.data[largest]) != Math.signum(b.data[largest]) )
+			CommonOps_DDRM.scale(-1,b);
+
+		assertTrue(MatrixFeatures_DDRM.isIdentical(a,b,tol));
+	}
+}
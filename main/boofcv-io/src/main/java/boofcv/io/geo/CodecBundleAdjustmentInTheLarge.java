@@ -25,48 +25,55 @@ import boofcv.alg.geo.bundle.cameras.BundlePinholeSnavely;
 import boofcv.io.UtilIO;
 import boofcv.struct.geo.PointIndex2D_F64;
 import georegression.geometry.ConvertRotation3D_F64;
-import georegression.struct.point.Point3D_F64;
 import georegression.struct.se.Se3_F64;
 import georegression.struct.so.Rodrigues_F64;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 
 /**
- * Reading and writing data in the Bundle Adjustment in the Large format.
+ * Reading and writing data in the Bundle Adjustment in the Large format. The text format is parsed one token
+ * at a time directly from a byte buffer, avoiding the creation of strings. A binary format which stores the
+ * same information is also provided and is much faster to read and write.
  *
  * @author Peter Abeles
  */
 public class CodecBundleAdjustmentInTheLarge {
+    /** Identifies the binary format */
+    public static final String BINARY_HEADER = "BALBINARY";
+    public static final int BINARY_VERSION = 1;
+
     public SceneStructureMetric scene;
     public SceneObservations observations;
 
     public void parse( File file ) throws IOException {
         InputStream stream = UtilIO.openStream(file.getPath());
-        BufferedReader reader = new BufferedReader(new InputStreamReader(stream));
-
-        String words[] = reader.readLine().split("\\s+");
-
-        if( words.length != 3 )
-            throw new IOException("Unexpected number of words on first line");
+        if( stream == null )
+            throw new IOException("Can't open "+file.getPath());
+        try {
+            parse(stream);
+        } finally {
+            stream.close();
+        }
+    }
 
-        int numCameras = Integer.parseInt(words[0]);
-        int numPoints = Integer.parseInt(words[1]);
-        int numObservations = Integer.parseInt(words[2]);
+    /**
+     * Parses the text format from the input stream. The stream is not closed.
+     */
+    public void parse( InputStream stream ) throws IOException {
+        Tokenizer reader = new Tokenizer(stream);
 
-        scene = new SceneStructureMetric(false);
-        scene.initialize(numCameras,numCameras,numPoints);
+        int numCameras = reader.nextInt();
+        int numPoints = reader.nextInt();
+        int numObservations = reader.nextInt();
 
-        observations = new SceneObservations();
-        observations.initialize(numCameras);
+        declare(numCameras, numPoints);
 
         for (int i = 0; i < numObservations; i++) {
-            words = reader.readLine().split("\\s+");
-            if (words.length != 4)
-                throw new IOException("Unexpected number of words in obs");
-            int cameraID = Integer.parseInt(words[0]);
-            int pointID = Integer.parseInt(words[1]);
-            float pixelX = Float.parseFloat(words[2]);
-            float pixelY = Float.parseFloat(words[3]);
+            int cameraID = reader.nextInt();
+            int pointID = reader.nextInt();
+            float pixelX = (float)reader.nextDouble();
+            float pixelY = (float)reader.nextDouble();
 
             if( pointID >= numPoints ) {
                 throw new RuntimeException("Out of bounds pointID");
@@ -78,45 +85,129 @@ public class CodecBundleAdjustmentInTheLarge {
             observations.getView(cameraID).add(pointID,pixelX,pixelY);
         }
 
-        Se3_F64 worldToCameraGL = new Se3_F64();
-        Rodrigues_F64 rod = new Rodrigues_F64();
+        double[] parameters = new double[9];
         for (int i = 0; i < numCameras; i++) {
-            rod.unitAxisRotation.x = Double.parseDouble(reader.readLine());
-            rod.unitAxisRotation.y = Double.parseDouble(reader.readLine());
-            rod.unitAxisRotation.z = Double.parseDouble(reader.readLine());
+            for (int j = 0; j < parameters.length; j++) {
+                parameters[j] = reader.nextDouble();
+            }
+            setCamera(i, parameters);
+        }
 
-            rod.theta = rod.unitAxisRotation.norm();
-            if( rod.theta != 0 )
-                rod.unitAxisRotation.divide(rod.theta);
+        for (int i = 0; i < numPoints; i++) {
+            float x = (float)reader.nextDouble();
+            float y = (float)reader.nextDouble();
+            float z = (float)reader.nextDouble();
 
-            worldToCameraGL.T.x = Double.parseDouble(reader.readLine());
-            worldToCameraGL.T.y = Double.parseDouble(reader.readLine());
-            worldToCameraGL.T.z = Double.parseDouble(reader.readLine());
+            scene.setPoint(i,x,y,z);
+        }
 
-            ConvertRotation3D_F64.rodriguesToMatrix(rod,worldToCameraGL.R);
+        connectPointsToViews();
+    }
 
-            BundlePinholeSnavely camera = new BundlePinholeSnavely();
+    /**
+     * Reads a file which was saved using {@link #saveBinary(File)}
+     */
+    public void parseBinary( File file ) throws IOException {
+        try( InputStream stream = new FileInputStream(file) ) {
+            parseBinary(stream);
+        }
+    }
 
-            camera.f = Double.parseDouble(reader.readLine());
-            camera.k1 = Double.parseDouble(reader.readLine());
-            camera.k2 = Double.parseDouble(reader.readLine());
+    /**
+     * Reads the binary format from the input stream. The stream is not closed.
+     */
+    public void parseBinary( InputStream stream ) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(stream,1 << 16));
+
+        byte[] header = new byte[BINARY_HEADER.length()];
+        input.readFully(header);
+        if( !BINARY_HEADER.equals(new String(header, StandardCharsets.UTF_8)) )
+            throw new IOException("Unexpected header. Not a binary BAL file");
+        int version = input.readInt();
+        if( version != BINARY_VERSION )
+            throw new IOException("Unsupported version "+version);
+
+        int numCameras = input.readInt();
+        int numPoints = input.readInt();
+        declare(numCameras, numPoints);
+
+        // Observations are saved one view at a time
+        for (int viewIdx = 0; viewIdx < numCameras; viewIdx++) {
+            View v = observations.getView(viewIdx);
+            int count = input.readInt();
+            v.point.resize(count);
+            v.observations.resize(count*2);
+            for (int i = 0; i < count; i++) {
+                int pointID = input.readInt();
+                if( pointID < 0 || pointID >= numPoints )
+                    throw new IOException("Out of bounds pointID");
+                v.point.data[i] = pointID;
+                v.observations.data[i*2  ] = input.readFloat();
+                v.observations.data[i*2+1] = input.readFloat();
+            }
+        }
 
-            scene.setCamera(i,false,camera);
-            scene.setView(i,false,worldToCameraGL);
-            scene.connectViewToCamera(i,i);
+        double[] parameters = new double[9];
+        for (int i = 0; i < numCameras; i++) {
+            for (int j = 0; j < parameters.length; j++) {
+                parameters[j] = input.readDouble();
+            }
+            setCamera(i, parameters);
         }
 
-        Point3D_F64 P = new Point3D_F64();
         for (int i = 0; i < numPoints; i++) {
-            P.x = Float.parseFloat(reader.readLine());
-            P.y = Float.parseFloat(reader.readLine());
-            P.z = Float.parseFloat(reader.readLine());
+            double x = input.readDouble();
+            double y = input.readDouble();
+            double z = input.readDouble();
+            scene.setPoint(i,x,y,z);
+        }
 
-//            GeometryMath_F64.mult(glToCv.R,P,P);
+        connectPointsToViews();
+    }
 
-            scene.setPoint(i,P.x,P.y,P.z);
-        }
+    /**
+     * Creates a new scene and observations
+     */
+    private void declare( int numCameras, int numPoints ) {
+        scene = new SceneStructureMetric(false);
+        scene.initialize(numCameras,numCameras,numPoints);
+
+        observations = new SceneObservations();
+        observations.initialize(numCameras);
+    }
+
+    /**
+     * Sets the camera and view from the 9 parameters in BAL format. Rodrigues rotation, translation, f, k1, k2
+     */
+    private void setCamera( int which, double[] parameters ) {
+        Se3_F64 worldToCameraGL = new Se3_F64();
+        Rodrigues_F64 rod = new Rodrigues_F64();
+        rod.unitAxisRotation.x = parameters[0];
+        rod.unitAxisRotation.y = parameters[1];
+        rod.unitAxisRotation.z = parameters[2];
+
+        rod.theta = rod.unitAxisRotation.norm();
+        if( rod.theta != 0 )
+            rod.unitAxisRotation.divide(rod.theta);
 
+        worldToCameraGL.T.x = parameters[3];
+        worldToCameraGL.T.y = parameters[4];
+        worldToCameraGL.T.z = parameters[5];
+
+        ConvertRotation3D_F64.rodriguesToMatrix(rod,worldToCameraGL.R);
+
+        BundlePinholeSnavely camera = new BundlePinholeSnavely();
+
+        camera.f = parameters[6];
+        camera.k1 = parameters[7];
+        camera.k2 = parameters[8];
+
+        scene.setCamera(which,false,camera);
+        scene.setView(which,false,worldToCameraGL);
+        scene.connectViewToCamera(which,which);
+    }
+
+    private void connectPointsToViews() {
         for (int i = 0; i < observations.views.size; i++) {
             View v = observations.getView(i);
 
@@ -124,11 +215,79 @@ public class CodecBundleAdjustmentInTheLarge {
                 scene.connectPointToView(v.getPointId(j),i);
             }
         }
-        reader.close();
 
         observations.checkOneObservationPerView();
     }
 
+    /**
+     * Converts the camera and view into the 9 parameters used in the BAL format
+     */
+    private void getCamera( int viewIdx, Rodrigues_F64 axisAngle, double[] parameters ) {
+        SceneStructureMetric.View view = scene.views.data[viewIdx];
+        BundlePinholeSnavely camera = scene.cameras.get(view.camera).getModel();
+
+        ConvertRotation3D_F64.matrixToRodrigues(view.worldToView.R,axisAngle);
+
+        parameters[0] = axisAngle.unitAxisRotation.x*axisAngle.theta;
+        parameters[1] = axisAngle.unitAxisRotation.y*axisAngle.theta;
+        parameters[2] = axisAngle.unitAxisRotation.z*axisAngle.theta;
+        parameters[3] = view.worldToView.T.x;
+        parameters[4] = view.worldToView.T.y;
+        parameters[5] = view.worldToView.T.z;
+        parameters[6] = camera.f;
+        parameters[7] = camera.k1;
+        parameters[8] = camera.k2;
+    }
+
+    /**
+     * Saves the scene and observations in a compact binary format. Read it using {@link #parseBinary(File)}.
+     */
+    public void saveBinary( File file ) throws IOException {
+        try( OutputStream stream = new FileOutputStream(file) ) {
+            saveBinary(stream);
+        }
+    }
+
+    /**
+     * Writes the scene and observations in the binary format to the stream. The stream is not closed.
+     */
+    public void saveBinary( OutputStream stream ) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream,1 << 16));
+        output.write(BINARY_HEADER.getBytes(StandardCharsets.UTF_8));
+        output.writeInt(BINARY_VERSION);
+        output.writeInt(scene.views.size);
+        output.writeInt(scene.points.size);
+
+        PointIndex2D_F64 o = new PointIndex2D_F64();
+        for (int viewIdx = 0; viewIdx < observations.views.size; viewIdx++) {
+            SceneObservations.View view = observations.views.data[viewIdx];
+            output.writeInt(view.size());
+            for (int obsIdx = 0; obsIdx < view.size(); obsIdx++) {
+                view.get(obsIdx,o);
+                output.writeInt(o.index);
+                output.writeFloat((float)o.x);
+                output.writeFloat((float)o.y);
+            }
+        }
+
+        double[] parameters = new double[9];
+        Rodrigues_F64 axisAngle = new Rodrigues_F64();
+        for (int viewIdx = 0; viewIdx < scene.views.size; viewIdx++) {
+            getCamera(viewIdx, axisAngle, parameters);
+            for (int i = 0; i < parameters.length; i++) {
+                output.writeDouble(parameters[i]);
+            }
+        }
+
+        for (int pointId = 0; pointId < scene.points.size; pointId++) {
+            SceneStructureMetric.Point p = scene.points.data[pointId];
+            output.writeDouble(p.coordinate[0]);
+            output.writeDouble(p.coordinate[1]);
+            output.writeDouble(p.coordinate[2]);
+        }
+        output.flush();
+    }
+
     public void save( File file ) throws IOException {
         PrintStream writer = new PrintStream(file);
 
@@ -144,20 +303,14 @@ public class CodecBundleAdjustmentInTheLarge {
             }
         }
 
+        double[] parameters = new double[9];
         Rodrigues_F64 axisAngle = new Rodrigues_F64();
         for (int viewIdx = 0; viewIdx < scene.views.size; viewIdx++) {
-            SceneStructureMetric.View view = scene.views.data[viewIdx];
-            BundlePinholeSnavely camera = scene.cameras.get(view.camera).getModel();
-
-            ConvertRotation3D_F64.matrixToRodrigues(view.worldToView.R,axisAngle);
-
-            double axisX = axisAngle.unitAxisRotation.x*axisAngle.theta;
-            double axisY = axisAngle.unitAxisRotation.y*axisAngle.theta;
-            double axisZ = axisAngle.unitAxisRotation.z*axisAngle.theta;
+            getCamera(viewIdx, axisAngle, parameters);
 
-            writer.printf("%.10f\n%.10f\n%.10f\n",axisX,axisY,axisZ);
-            writer.printf("%.10f\n%.10f\n%.10f\n",view.worldToView.T.x,view.worldToView.T.y,view.worldToView.T.z);
-            writer.printf("%.10f\n%.10f\n%.10f\n",camera.f,camera.k1,camera.k2);
+            writer.printf("%.10f\n%.10f\n%.10f\n",parameters[0],parameters[1],parameters[2]);
+            writer.printf("%.10f\n%.10f\n%.10f\n",parameters[3],parameters[4],parameters[5]);
+            writer.printf("%.10f\n%.10f\n%.10f\n",parameters[6],parameters[7],parameters[8]);
         }
 
         for (int pointId = 0; pointId < scene.points.size; pointId++) {
@@ -167,6 +320,145 @@ public class CodecBundleAdjustmentInTheLarge {
         writer.close();
     }
 
+    /**
+     * Reads numbers from a text stream without creating any strings. Tokens are separated by white space.
+     */
+    static class Tokenizer {
+        InputStream stream;
+        byte[] buffer = new byte[1 << 16];
+        int length = 0;
+        int location = 0;
+
+        // digits of the mantissa
+        long mantissa;
+
+        Tokenizer( InputStream stream ) {
+            this.stream = stream;
+        }
+
+        /**
+         * Returns the next character or -1 if at the end of the stream
+         */
+        int read() throws IOException {
+            if( location == length ) {
+                length = stream.read(buffer,0,buffer.length);
+                location = 0;
+                if( length <= 0 ) {
+                    length = 0;
+                    return -1;
+                }
+            }
+            // mask so that a byte with a value of 0xFF isn't confused with the end of the stream
+            return buffer[location++] & 0xFF;
+        }
+
+        /**
+         * Skips white space and returns the first character in the next token
+         */
+        int skipWhiteSpace() throws IOException {
+            int c;
+            do {
+                c = read();
+            } while( c == ' ' || c == '\n' || c == '\r' || c == '\t' );
+            if( c == -1 )
+                throw new EOFException("Unexpected end of file");
+            return c;
+        }
+
+        int nextInt() throws IOException {
+            int c = skipWhiteSpace();
+            boolean negative = c == '-';
+            if( negative || c == '+' )
+                c = read();
+
+            if( c < '0' || c > '9' )
+                throw new IOException("Expected an integer");
+            int value = 0;
+            while( c >= '0' && c <= '9' ) {
+                value = value*10 + (c - '0');
+                c = read();
+            }
+            checkEndOfToken(c);
+            return negative ? -value : value;
+        }
+
+        double nextDouble() throws IOException {
+            int c = skipWhiteSpace();
+            boolean negative = c == '-';
+            if( negative || c == '+' )
+                c = read();
+
+            // Digits beyond what can be stored in a long are only used to adjust the exponent
+            mantissa = 0;
+            int exponent = 0;
+            int numDigits = 0;
+            boolean anyDigits = false;
+            while( c >= '0' && c <= '9' ) {
+                anyDigits = true;
+                if( numDigits < 18 ) {
+                    mantissa = mantissa*10 + (c - '0');
+                    if( mantissa != 0 ) numDigits++;
+                } else {
+                    exponent++;
+                }
+                c = read();
+            }
+            if( c == '.' ) {
+                c = read();
+                while( c >= '0' && c <= '9' ) {
+                    anyDigits = true;
+                    if( numDigits < 18 ) {
+                        mantissa = mantissa*10 + (c - '0');
+                        exponent--;
+                        if( mantissa != 0 ) numDigits++;
+                    }
+                    c = read();
+                }
+            }
+            if( !anyDigits )
+                throw new IOException("Expected a number");
+            if( c == 'e' || c == 'E' ) {
+                c = read();
+                boolean negativeExp = c == '-';
+                if( negativeExp || c == '+' )
+                    c = read();
+                if( c < '0' || c > '9' )
+                    throw new IOException("Bad exponent");
+                int e = 0;
+                while( c >= '0' && c <= '9' ) {
+                    e = e*10 + (c - '0');
+                    c = read();
+                }
+                exponent += negativeExp ? -e : e;
+            }
+            checkEndOfToken(c);
+
+            double value = mantissa;
+            if( exponent < 0 ) {
+                // dividing by an exact power of 10 is more accurate than multiplying by its inverse
+                value = exponent >= -22 ? value/POWERS_10[-exponent] : value/Math.pow(10,-exponent);
+            } else if( exponent > 0 ) {
+                value = exponent <= 22 ? value*POWERS_10[exponent] : value*Math.pow(10,exponent);
+            }
+            return negative ? -value : value;
+        }
+
+        private void checkEndOfToken( int c ) throws IOException {
+            if( c == -1 || c == ' ' || c == '\n' || c == '\r' || c == '\t' )
+                return;
+            throw new IOException("Unexpected character '"+(char)c+"'");
+        }
+
+        // Powers of 10 which can be exactly represented by a double
+        static final double[] POWERS_10 = new double[23];
+        static {
+            POWERS_10[0] = 1;
+            for (int i = 1; i < POWERS_10.length; i++) {
+                POWERS_10[i] = POWERS_10[i-1]*10;
+            }
+        }
+    }
+
     public static void main(String[] args) throws IOException {
         CodecBundleAdjustmentInTheLarge alg = new CodecBundleAdjustmentInTheLarge();
 
@@ -27,6 +27,7 @@ import georegression.struct.point.Point3D_F64;
 import org.ddogleg.struct.FastQueue;
 
 import javax.annotation.Nullable;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -100,6 +101,25 @@ public class PointCloudIO {
 		}
 	}
 
+	/**
+	 * Reads a point cloud from a file. When possible the file will be memory mapped and decoded in bulk, e.g.
+	 * binary PLY files, which is much faster than reading from an {@link InputStream}.
+	 *
+	 * @param format Format of the file
+	 * @param file (Input) File containing the point cloud
+	 * @param output (Output) Where the points are written to
+	 */
+	public static void
+	load(Format format , File file , PointCloudWriter output ) throws IOException {
+		switch( format ) {
+			case PLY:
+				PlyCodec.read(file,output);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown format "+format);
+		}
+	}
+
 	public enum Format {
 		/**
 		 * https://en.wikipedia.org/wiki/PLY_(file_format)
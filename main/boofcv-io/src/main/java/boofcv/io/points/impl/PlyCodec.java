@@ -23,13 +23,15 @@ import boofcv.alg.cloud.PointCloudWriter;
 import boofcv.io.UtilIO;
 import georegression.struct.point.Point3D_F64;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.io.Writer;
+import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -38,6 +40,9 @@ import java.util.List;
  * @author Peter Abeles
  */
 public class PlyCodec {
+	// Number of points decoded at once when reading binary files
+	static final int BLOCK_SIZE = 4096;
+
 	public static void saveAscii(PointCloudReader cloud , boolean saveRgb , Writer outputWriter ) throws IOException {
 		outputWriter.write("ply\n");
 		outputWriter.write("format ascii 1.0\n");
@@ -86,7 +91,8 @@ public class PlyCodec {
 		String dataType = saveAsFloat ? "float" : "double";
 		int dataLength = saveAsFloat ? 4 : 8;
 		outputWriter.write("ply\n".getBytes(format));
-		outputWriter.write("format binary_big_endian 1.0\n".getBytes(format));
+		String endian = order == ByteOrder.BIG_ENDIAN ? "big" : "little";
+		outputWriter.write(("format binary_"+endian+"_endian 1.0\n").getBytes(format));
 		outputWriter.write("comment Created using BoofCV!\n".getBytes(format));
 		outputWriter.write(("element vertex "+cloud.size()+"\n").getBytes(format));
 		outputWriter.write((
@@ -145,19 +151,61 @@ public class PlyCodec {
 		return line;
 	}
 
+	/**
+	 * Reads a PLY file from the input stream
+	 *
+	 * @param input (Input) Stream with the PLY file
+	 * @param output (Output) Where the points are written to
+	 */
 	public static void read(InputStream input, PointCloudWriter output ) throws IOException {
 		StringBuffer buffer = new StringBuffer();
+		Header header = readHeader(input, buffer);
+
+		output.init(header.vertexCount);
+
+		switch (header.format) {
+			case ASCII:readAscii(output, input, header.dataWords, buffer, header.vertexCount, header.rgb);break;
+			case BINARY_LITTLE:readBinary(output, input, header.dataWords, ByteOrder.LITTLE_ENDIAN, header.vertexCount, header.rgb);break;
+			case BINARY_BIG:readBinary(output, input, header.dataWords, ByteOrder.BIG_ENDIAN, header.vertexCount, header.rgb);break;
+			default: throw new RuntimeException("BUG!");
+		}
+	}
 
+	/**
+	 * Reads a PLY file. If the file is binary then it's memory mapped and the points are decoded in blocks,
+	 * which is much faster than reading them one at a time from a stream.
+	 *
+	 * @param file (Input) PLY file
+	 * @param output (Output) Where the points are written to
+	 */
+	public static void read(File file, PointCloudWriter output ) throws IOException {
+		try( FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ) ) {
+			// Read the header directly from the channel. Not closed since that would close the channel
+			InputStream input = Channels.newInputStream(channel);
+			StringBuffer buffer = new StringBuffer();
+			Header header = readHeader(input, buffer);
+
+			output.init(header.vertexCount);
+
+			switch (header.format) {
+				case ASCII:readAscii(output, new BufferedInputStream(input), header.dataWords, buffer, header.vertexCount, header.rgb);break;
+				case BINARY_LITTLE:readBinaryMapped(output, channel, header, ByteOrder.LITTLE_ENDIAN);break;
+				case BINARY_BIG:readBinaryMapped(output, channel, header, ByteOrder.BIG_ENDIAN);break;
+				default: throw new RuntimeException("BUG!");
+			}
+		}
+	}
+
+	/**
+	 * Reads the header and leaves the stream at the start of the vertex data
+	 */
+	private static Header readHeader(InputStream input , StringBuffer buffer ) throws IOException {
 		String line = UtilIO.readLine(input,buffer);
 		if( line.length() == 0 ) throw new IOException("Missing first line");
 		if( line.compareToIgnoreCase("ply")!=0 ) throw new IOException("Expected PLY at start of file");
 
-		var dataWords = new ArrayList<DataWord>();
-
-		int vertexCount = -1;
+		var header = new Header();
 
-		Format format = null;
-		boolean rgb = false;
 		line = readNextPly(input,true, buffer);
 		while( line.length() != 0) {
 			if( line.equals("end_header") )
@@ -167,14 +215,14 @@ public class PlyCodec {
 				throw new IOException("Expected more than one word");
 			if( line.startsWith("format")) {
 				switch(words[1]) {
-					case "ascii":format = Format.ASCII;break;
-					case "binary_little_endian":format = Format.BINARY_LITTLE;break;
-					case "binary_big_endian":format = Format.BINARY_BIG;break;
+					case "ascii":header.format = Format.ASCII;break;
+					case "binary_little_endian":header.format = Format.BINARY_LITTLE;break;
+					case "binary_big_endian":header.format = Format.BINARY_BIG;break;
 					default: throw new IOException("Unknown format "+words[1]);
 				}
 			} else if( line.startsWith("element")) {
 				if( words[1].equals("vertex")) {
-					vertexCount = Integer.parseInt(words[2]);
+					header.vertexCount = Integer.parseInt(words[2]);
 				}
 			} else if( words[0].equals("property") ) {
 				DataType d;
@@ -194,30 +242,23 @@ public class PlyCodec {
 					case "x":     v=VarType.X; break;
 					case "y":     v=VarType.Y; break;
 					case "z":     v=VarType.Z; break;
-					case "red":   v=VarType.R; rgb = true;break;
-					case "green": v=VarType.G; rgb = true;break;
-					case "blue":  v=VarType.B; rgb = true;break;
+					case "red":   v=VarType.R; header.rgb = true;break;
+					case "green": v=VarType.G; header.rgb = true;break;
+					case "blue":  v=VarType.B; header.rgb = true;break;
 					default:      v=VarType.UNKNOWN; break;
 				}
-				dataWords.add( new DataWord(v,d));
+				header.dataWords.add( new DataWord(v,d));
 			} else {
 				throw new IOException("Unknown header element");
 			}
 			line = readNextPly(input,true, buffer);
 		}
-		if( vertexCount == -1 )
+		if( header.vertexCount == -1 )
 			throw new IOException("File is missing vertex count");
-		if( format == null )
+		if( header.format == null )
 			throw new IOException("Format is never specified");
 
-		output.init(vertexCount);
-
-		switch (format) {
-			case ASCII:readAscii(output, input, dataWords, buffer, vertexCount, rgb);break;
-			case BINARY_LITTLE:readBinary(output, input, dataWords, ByteOrder.LITTLE_ENDIAN, vertexCount, rgb);break;
-			case BINARY_BIG:readBinary(output, input, dataWords, ByteOrder.BIG_ENDIAN, vertexCount, rgb);break;
-			default: throw new RuntimeException("BUG!");
-		}
+		return header;
 	}
 
 	private static void readAscii(PointCloudWriter output, InputStream reader, List<DataWord> dataWords,
@@ -328,6 +369,132 @@ public class PlyCodec {
 		}
 	}
 
+	/**
+	 * Reads binary data by memory mapping the file. Points are decoded in blocks. One property at a time is decoded
+	 * for every point in the block and written into a primitive array.
+	 */
+	private static void readBinaryMapped(PointCloudWriter output, FileChannel channel, Header header,
+										 ByteOrder order ) throws IOException {
+		final List<DataWord> dataWords = header.dataWords;
+		final int stride = header.bytesPerVertex();
+		final long dataStart = channel.position();
+		if( dataStart + (long)stride*header.vertexCount > channel.size() )
+			throw new IOException("File is too small for "+header.vertexCount+" points");
+
+		final int blockSize = Math.min(BLOCK_SIZE,header.vertexCount);
+		final double[] xyz = new double[blockSize*3];
+		final int[] rgb = header.rgb ? new int[blockSize] : null;
+
+		// A single mapped buffer can't be larger than 2 GB
+		final int maxPointsInMap = Integer.MAX_VALUE/stride;
+
+		long position = dataStart;
+		int remaining = header.vertexCount;
+		while( remaining > 0 ) {
+			final int pointsInMap = Math.min(remaining, maxPointsInMap);
+			final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,position,(long)pointsInMap*stride);
+			buffer.order(order);
+
+			for (int point0 = 0; point0 < pointsInMap; point0 += blockSize) {
+				final int count = Math.min(blockSize, pointsInMap-point0);
+				if( rgb != null )
+					Arrays.fill(rgb,0,count,0);
+
+				int location = point0*stride;
+				for (int j = 0; j < dataWords.size(); j++) {
+					DataWord d = dataWords.get(j);
+					switch( d.var ) {
+						case X: readBlockF64(buffer,location,stride,count,d.data,xyz,0); break;
+						case Y: readBlockF64(buffer,location,stride,count,d.data,xyz,1); break;
+						case Z: readBlockF64(buffer,location,stride,count,d.data,xyz,2); break;
+						case R: readBlockColor(buffer,location,stride,count,d.data,rgb,16); break;
+						case G: readBlockColor(buffer,location,stride,count,d.data,rgb,8); break;
+						case B: readBlockColor(buffer,location,stride,count,d.data,rgb,0); break;
+						default: break;
+					}
+					location += d.data.size;
+				}
+
+				output.addBlock(xyz, rgb, count);
+			}
+
+			remaining -= pointsInMap;
+			position += (long)pointsInMap*stride;
+		}
+	}
+
+	/**
+	 * Reads a single property for every point in the block and writes it into an interleaved (x,y,z) array
+	 */
+	private static void readBlockF64( ByteBuffer buffer, int location, int stride, int count, DataType type,
+									  double[] xyz, int axis ) {
+		int idx = axis;
+		switch( type ) {
+			case FLOAT:
+				for (int i = 0; i < count; i++, location += stride, idx += 3) {
+					xyz[idx] = buffer.getFloat(location);
+				}
+				break;
+
+			case DOUBLE:
+				for (int i = 0; i < count; i++, location += stride, idx += 3) {
+					xyz[idx] = buffer.getDouble(location);
+				}
+				break;
+
+			default:
+				for (int i = 0; i < count; i++, location += stride, idx += 3) {
+					xyz[idx] = readInteger(buffer,location,type);
+				}
+		}
+	}
+
+	/**
+	 * Reads a single color band for every point in the block and adds it to the packed RGB value
+	 */
+	private static void readBlockColor( ByteBuffer buffer, int location, int stride, int count, DataType type,
+										int[] rgb, int shift ) {
+		if( type == DataType.UCHAR ) {
+			for (int i = 0; i < count; i++, location += stride) {
+				rgb[i] |= (buffer.get(location)&0xFF) << shift;
+			}
+		} else {
+			for (int i = 0; i < count; i++, location += stride) {
+				rgb[i] |= readInteger(buffer,location,type) << shift;
+			}
+		}
+	}
+
+	private static int readInteger( ByteBuffer buffer, int location, DataType type ) {
+		switch( type ) {
+			case CHAR:  return buffer.get(location);
+			case UCHAR:  return buffer.get(location)&0xFF;
+			case SHORT: return buffer.getShort(location);
+			case USHORT: return buffer.getShort(location)&0xFFFF;
+			case INT: return buffer.getInt(location);
+			case UINT: return buffer.getInt(location); // NOTE: not really uint...
+			case FLOAT: return (int)buffer.getFloat(location);
+			case DOUBLE: return (int)buffer.getDouble(location);
+			default: throw new RuntimeException("Unsupported");
+		}
+	}
+
+	private static class Header
+	{
+		Format format = null;
+		int vertexCount = -1;
+		boolean rgb = false;
+		List<DataWord> dataWords = new ArrayList<>();
+
+		int bytesPerVertex() {
+			int total = 0;
+			for (int i = 0; i < dataWords.size(); i++) {
+				total += dataWords.get(i).data.size;
+			}
+			return total;
+		}
+	}
+
 	private static class DataWord
 	{
 		VarType var;
@@ -19,13 +19,15 @@
 package boofcv.io.video;
 
 import boofcv.io.image.SimpleImageSequence;
-import boofcv.io.wrapper.images.MjpegStreamSequence;
+import boofcv.io.wrapper.images.MjpegIndexedSequence;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 
-import java.io.FileNotFoundException;
+import java.io.IOException;
 
 /**
+ * Opens MJPEG files using {@link MjpegIndexedSequence}, which reads in frames on demand and supports random access.
+ *
  * @author Peter Abeles
  */
 public class BoofMjpegVideo implements VideoInterface {
@@ -33,8 +35,8 @@ public class BoofMjpegVideo implements VideoInterface {
 	public <T extends ImageBase<T>> SimpleImageSequence<T> load(String fileName, ImageType<T> imageType) {
 
 		try {
-			return new MjpegStreamSequence(fileName,imageType);
-		} catch (FileNotFoundException e) {
+			return new MjpegIndexedSequence<>(fileName,imageType);
+		} catch (IOException e) {
 			return null;
 		}
 	}
@@ -23,6 +23,7 @@ import boofcv.io.image.SimpleImageSequence;
 import boofcv.io.wrapper.images.ImageStreamSequence;
 import boofcv.io.wrapper.images.JpegByteImageSequence;
 import boofcv.io.wrapper.images.LoadFileImageSequence;
+import boofcv.io.wrapper.images.MjpegIndexedSequence;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 
@@ -78,6 +79,10 @@ public class DynamicVideoInterface implements VideoInterface {
 
 			// Use built in movie readers for these file types
 			if( lowerName.endsWith("mjpeg") || lowerName.endsWith("mjpg") ) {
+				// Files can be read in on demand instead of loading every frame into memory
+				if( protocol.equals("file") ) {
+					return new MjpegIndexedSequence<>(url.getFile(),imageType);
+				}
 				VideoMjpegCodec codec = new VideoMjpegCodec();
 				List<byte[]> data = codec.read(stream);
 				return new JpegByteImageSequence<>(imageType, data, false);
@@ -19,12 +19,18 @@
 package boofcv.io.video;
 
 
+import org.ddogleg.struct.GrowQueue_I32;
+import org.ddogleg.struct.GrowQueue_I64;
+
 import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Very simple MJPEG reader
+ * Very simple MJPEG reader. Frames can be read all at once, one at a time from a stream, or the location
+ * of each frame in a file can be found with {@link #indexFrames} so that they can be read in on demand.
  *
  * @author Peter Abeles
  */
@@ -66,6 +72,53 @@ public class VideoMjpegCodec {
 	}
 
 
+	/**
+	 * Scans through the file once and finds the location of every JPEG image in it. The file is memory mapped
+	 * while it's scanned so that it isn't loaded into the heap. A frame starts with the SOI marker and ends
+	 * with the EOI marker, inclusive. Incomplete frames at the end of the file are ignored.
+	 *
+	 * @param channel (Input) Channel for the MJPEG file
+	 * @param frameStart (Output) Offset in bytes from the start of the file to each frame
+	 * @param frameLength (Output) Number of bytes in each frame
+	 */
+	public static void indexFrames( FileChannel channel , GrowQueue_I64 frameStart , GrowQueue_I32 frameLength )
+			throws IOException
+	{
+		frameStart.reset();
+		frameLength.reset();
+
+		final long size = channel.size();
+		boolean foundFF = false;
+		boolean insideFrame = false;
+		long start = 0;
+
+		// A single mapped buffer can't be larger than 2 GB. Markers can span across buffers
+		for (long offset = 0; offset < size; offset += Integer.MAX_VALUE) {
+			final int length = (int)Math.min(Integer.MAX_VALUE,size-offset);
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,offset,length);
+
+			for (int i = 0; i < length; i++) {
+				byte b = buffer.get(i);
+				if( foundFF ) {
+					if( !insideFrame && b == SOI ) {
+						start = offset+i-1;
+						insideFrame = true;
+					} else if( insideFrame && b == EOI ) {
+						long frameSize = offset+i+1-start;
+						if( frameSize > Integer.MAX_VALUE )
+							throw new IOException("Frame is too large. "+frameSize+" bytes");
+						frameStart.add(start);
+						frameLength.add((int)frameSize);
+						insideFrame = false;
+					}
+					foundFF = b == (byte)0xFF;
+				} else if( b == (byte)0xFF ) {
+					foundFF = true;
+				}
+			}
+		}
+	}
+
 	public static byte[] convertToByteArray(InputStream streamIn) throws IOException {
 		ByteArrayOutputStream temp = new ByteArrayOutputStream(1024);
 		byte[] data = new byte[ 1024 ];
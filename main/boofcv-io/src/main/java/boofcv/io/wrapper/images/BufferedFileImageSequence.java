@@ -33,7 +33,8 @@ import java.util.List;
 
 
 /**
- * Loads or plays a sequence of buffered images.
+ * Loads or plays a sequence of buffered images. Every image is decoded and kept in memory. For long sequences
+ * see {@link CachedFileImageSequence}, which decodes images as they are needed.
  *
  * @author Peter Abeles
  */
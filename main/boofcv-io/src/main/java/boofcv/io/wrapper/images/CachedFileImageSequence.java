@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.wrapper.images;
+
+import boofcv.io.image.ConvertBufferedImage;
+import boofcv.io.image.SimpleImageSequence;
+import boofcv.io.image.UtilImageIO;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Image sequence which reads images in a directory as they are needed. Unlike {@link BufferedFileImageSequence}
+ * only a bounded number of decoded frames are kept in memory using a least recently used cache. Optionally,
+ * frames which are about to be requested are decoded in a background thread. Images are sorted by file name and
+ * the looping behavior is the same as {@link BufferedFileImageSequence}.
+ *
+ * @author Peter Abeles
+ */
+public class CachedFileImageSequence<T extends ImageBase<T>> implements SimpleImageSequence<T> {
+
+	// Path to each image in the sequence
+	List<String> paths = new ArrayList<>();
+
+	// index of the next image and the direction it's moving in
+	int index;
+	boolean forwards = true;
+	boolean loop = true;
+
+	BufferedImage imageGUI;
+	T image;
+
+	// type of image it outputs
+	ImageType<T> type;
+
+	// Recently decoded frames
+	final LinkedHashMap<Integer,Frame<T>> cache;
+	// Frames which are being decoded in the background
+	final Map<Integer,Future<Frame<T>>> pending = new HashMap<>();
+
+	// Maximum number of frames in the cache
+	int maxCached;
+	// Number of frames to decode ahead of time
+	int readAhead;
+	// Thread which decodes frames in the background. null if there is no read ahead
+	ExecutorService executor;
+
+	/**
+	 * Creates a sequence which caches up to 10 frames and reads 2 frames ahead.
+	 *
+	 * @param directory The directory containing the images.
+	 * @param suffix The suffix that the images have.
+	 */
+	public CachedFileImageSequence( ImageType<T> type, File directory, String suffix ) {
+		this(type, directory, suffix, 10, 2);
+	}
+
+	/**
+	 * @param type Type of image which is output
+	 * @param directory The directory containing the images.
+	 * @param suffix The suffix that the images have.
+	 * @param maxCached Maximum number of decoded frames kept in memory.
+	 * @param readAhead Number of frames which are decoded in the background. If 0 then no thread is created.
+	 *                  Must be less than maxCached.
+	 */
+	public CachedFileImageSequence( ImageType<T> type, File directory, String suffix, int maxCached, int readAhead ) {
+		if (!directory.isDirectory()) throw new IllegalArgumentException("directory must specify a directory");
+		if( maxCached < 1 ) throw new IllegalArgumentException("maxCached must be at least 1");
+		if( readAhead < 0 || readAhead >= maxCached )
+			throw new IllegalArgumentException("readAhead must be >= 0 and less than maxCached");
+
+		this.type = type;
+		this.maxCached = maxCached;
+		this.readAhead = readAhead;
+
+		String[] files = directory.list(( dir, name ) -> name.contains(suffix));
+		if( files == null )
+			throw new IllegalArgumentException("Can't list files in directory");
+		Arrays.sort(files);
+		for( String s : files ) {
+			paths.add(new File(directory,s).getPath());
+		}
+
+		cache = new LinkedHashMap<Integer,Frame<T>>(16,0.75f,true) {
+			@Override
+			protected boolean removeEldestEntry( Map.Entry<Integer,Frame<T>> eldest ) {
+				return size() > CachedFileImageSequence.this.maxCached;
+			}
+		};
+
+		if( readAhead > 0 ) {
+			executor = Executors.newSingleThreadExecutor(r -> {
+				Thread t = new Thread(r, "CachedFileImageSequence");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+	}
+
+	@Override
+	public void setLoop( boolean loop ) {
+		this.loop = loop;
+	}
+
+	@Override
+	public int getWidth() {
+		if( imageGUI == null )
+			return getFrame(0).gui.getWidth();
+		return imageGUI.getWidth();
+	}
+
+	@Override
+	public int getHeight() {
+		if( imageGUI == null )
+			return getFrame(0).gui.getHeight();
+		return imageGUI.getHeight();
+	}
+
+	/**
+	 * True if there is another image to read and false if there are no more.
+	 */
+	@Override
+	public boolean hasNext() {
+		if( loop )
+			return true;
+		else
+			return index < paths.size();
+	}
+
+	@Override
+	public T next() {
+		if( loop ) {
+			if( forwards ) {
+				if( index >= paths.size() ) {
+					index = paths.size()-1;
+					forwards = false;
+				}
+			} else {
+				if( index < 0 ) {
+					index = 0;
+					forwards = true;
+				}
+			}
+		}
+
+		int frameIndex = forwards ? index++ : index--;
+		Frame<T> frame = getFrame(frameIndex);
+		imageGUI = frame.gui;
+		image = frame.image;
+
+		scheduleReadAhead();
+		return image;
+	}
+
+	/**
+	 * Returns the frame from the cache, waits for it to finish decoding, or decodes it.
+	 */
+	Frame<T> getFrame( int frameIndex ) {
+		Future<Frame<T>> future;
+		synchronized( this ) {
+			Frame<T> frame = cache.get(frameIndex);
+			if( frame != null )
+				return frame;
+			future = pending.get(frameIndex);
+		}
+
+		Frame<T> frame;
+		if( future != null ) {
+			try {
+				frame = future.get();
+			} catch( InterruptedException | ExecutionException e ) {
+				throw new RuntimeException(e);
+			}
+		} else {
+			frame = decode(frameIndex);
+		}
+		synchronized( this ) {
+			cache.put(frameIndex,frame);
+		}
+		return frame;
+	}
+
+	/**
+	 * Starts decoding the frames which will be requested next in the background
+	 */
+	void scheduleReadAhead() {
+		if( executor == null )
+			return;
+
+		// Simulate calls to next() to see which frames will be needed
+		int predicted = index;
+		boolean predictedForwards = forwards;
+		for (int i = 0; i < readAhead; i++) {
+			if( loop ) {
+				if( predictedForwards && predicted >= paths.size() ) {
+					predicted = paths.size()-1;
+					predictedForwards = false;
+				} else if( !predictedForwards && predicted < 0 ) {
+					predicted = 0;
+					predictedForwards = true;
+				}
+			} else if( predicted < 0 || predicted >= paths.size() ) {
+				break;
+			}
+
+			final int frameIndex = predictedForwards ? predicted++ : predicted--;
+			synchronized( this ) {
+				if( cache.containsKey(frameIndex) || pending.containsKey(frameIndex) )
+					continue;
+				pending.put(frameIndex, executor.submit(() -> {
+					Frame<T> frame = decode(frameIndex);
+					synchronized( this ) {
+						cache.put(frameIndex,frame);
+						pending.remove(frameIndex);
+					}
+					return frame;
+				}));
+			}
+		}
+	}
+
+	/**
+	 * Loads and converts the image
+	 */
+	Frame<T> decode( int frameIndex ) {
+		String path = paths.get(frameIndex);
+		BufferedImage b = UtilImageIO.loadImage(path);
+		if( b == null )
+			throw new RuntimeException("Failed to load "+path);
+		Frame<T> frame = new Frame<>();
+		frame.gui = b;
+		frame.image = type.createImage(b.getWidth(),b.getHeight());
+		ConvertBufferedImage.convertFrom(b, frame.image, true);
+		return frame;
+	}
+
+	@Override
+	public T getImage() {
+		return image;
+	}
+
+	@Override
+	public BufferedImage getGuiImage() {
+		return imageGUI;
+	}
+
+	@Override
+	public ImageType<T> getImageType() {
+		return type;
+	}
+
+	@Override
+	public int getFrameNumber() {
+		return index-1;
+	}
+
+	/**
+	 * Stops the background thread and discards all cached frames
+	 */
+	@Override
+	public void close() {
+		if( executor != null ) {
+			executor.shutdownNow();
+			executor = null;
+		}
+		synchronized( this ) {
+			cache.clear();
+			pending.clear();
+		}
+	}
+
+	@Override
+	public void reset() {
+		index = 0;
+		forwards = true;
+		image = null;
+		imageGUI = null;
+	}
+
+	/**
+	 * Number of images in the sequence
+	 */
+	public int getTotalFrames() {
+		return paths.size();
+	}
+
+	public int getMaxCached() {
+		return maxCached;
+	}
+
+	public int getReadAhead() {
+		return readAhead;
+	}
+
+	/**
+	 * A decoded frame
+	 */
+	static class Frame<T extends ImageBase<T>> {
+		BufferedImage gui;
+		T image;
+	}
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.wrapper.images;
+
+import boofcv.io.image.ConvertBufferedImage;
+import boofcv.io.image.SimpleImageSequence;
+import boofcv.io.video.VideoMjpegCodec;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.ddogleg.struct.GrowQueue_I64;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads an MJPEG file with random access. When opened the file is scanned once to find where each JPEG
+ * is located. After that only the frame being decoded is read into memory. Any frame can be jumped to
+ * in constant time using {@link #setFrameNumber(int)}.
+ *
+ * @author Peter Abeles
+ */
+public class MjpegIndexedSequence<T extends ImageBase<T>> implements SimpleImageSequence<T> {
+	RandomAccessFile file;
+	FileChannel channel;
+
+	// Location and size of each frame in the file
+	GrowQueue_I64 frameStart = new GrowQueue_I64();
+	GrowQueue_I32 frameLength = new GrowQueue_I32();
+
+	// Storage for the compressed frame
+	ByteBuffer work = ByteBuffer.allocate(0);
+
+	// Index of the most recently read frame
+	int frameNumber = -1;
+	boolean loop = false;
+
+	// Shape of the first frame. Used if no frame has been read yet
+	int width,height;
+
+	BufferedImage original;
+	T image;
+	ImageType<T> imageType;
+
+	public MjpegIndexedSequence( String fileName , ImageType<T> imageType ) throws IOException {
+		this.imageType = imageType;
+		this.image = imageType.createImage(1,1);
+
+		file = new RandomAccessFile(fileName,"r");
+		channel = file.getChannel();
+		try {
+			VideoMjpegCodec.indexFrames(channel,frameStart,frameLength);
+
+			if( frameStart.size > 0 ) {
+				BufferedImage first = decode(0);
+				width = first.getWidth();
+				height = first.getHeight();
+			}
+		} catch( IOException | RuntimeException e ) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads in the compressed frame and decodes it
+	 *
+	 * @throws RuntimeException If the frame can't be read or decoded
+	 */
+	BufferedImage decode( int frame ) {
+		final int length = frameLength.get(frame);
+		if( work.capacity() < length )
+			work = ByteBuffer.allocate(length);
+		work.clear();
+		work.limit(length);
+
+		try {
+			long position = frameStart.get(frame);
+			while( work.hasRemaining() ) {
+				int read = channel.read(work,position+work.position());
+				if( read < 0 )
+					throw new IOException("Unexpected end of file");
+			}
+			BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(work.array(),0,length));
+			if( decoded == null )
+				throw new RuntimeException("Failed to decode frame "+frame);
+			return decoded;
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to read or decode frame "+frame, e);
+		}
+	}
+
+	/**
+	 * Total number of frames in the file
+	 */
+	public int getTotalFrames() {
+		return frameStart.size;
+	}
+
+	/**
+	 * Jumps to the specified frame. The next call to {@link #next()} will return this frame.
+	 *
+	 * @param frame Index of the frame. 0 to {@link #getTotalFrames()}-1, inclusive.
+	 */
+	public void setFrameNumber( int frame ) {
+		if( frame < 0 || frame >= frameStart.size )
+			throw new IllegalArgumentException("Frame must be from 0 to "+(frameStart.size-1)+". Not "+frame);
+		frameNumber = frame-1;
+	}
+
+	@Override
+	public int getWidth() {
+		return original == null ? width : original.getWidth();
+	}
+
+	@Override
+	public int getHeight() {
+		return original == null ? height : original.getHeight();
+	}
+
+	@Override
+	public boolean hasNext() {
+		return frameStart.size > 0 && (loop || frameNumber+1 < frameStart.size);
+	}
+
+	@Override
+	public T next() {
+		frameNumber++;
+		if( loop && frameNumber >= frameStart.size )
+			frameNumber = 0;
+
+		original = decode(frameNumber);
+		image.reshape(original.getWidth(),original.getHeight());
+		ConvertBufferedImage.convertFrom(original,image, true);
+		return image;
+	}
+
+	@Override
+	public T getImage() {
+		return image;
+	}
+
+	@Override
+	public BufferedImage getGuiImage() {
+		return original;
+	}
+
+	@Override
+	public void close() {
+		try {
+			file.close();
+		} catch (IOException ignore) {
+		}
+		file = null;
+		channel = null;
+	}
+
+	@Override
+	public int getFrameNumber() {
+		return frameNumber;
+	}
+
+	@Override
+	public void setLoop(boolean loop) {
+		this.loop = loop;
+	}
+
+	@Override
+	public ImageType<T> getImageType() {
+		return imageType;
+	}
+
+	@Override
+	public void reset() {
+		frameNumber = -1;
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.geo;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureMetric;
+import boofcv.alg.geo.bundle.cameras.BundlePinholeSnavely;
+import boofcv.struct.geo.PointIndex2D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestCodecBundleAdjustmentInTheLarge {
+
+	Random rand = new Random(234);
+
+	@Test
+	void encode_decode_text() throws IOException {
+		CodecBundleAdjustmentInTheLarge original = createScene();
+
+		File file = File.createTempFile("bal",".txt");
+		try {
+			original.save(file);
+			CodecBundleAdjustmentInTheLarge found = new CodecBundleAdjustmentInTheLarge();
+			found.parse(file);
+			checkIdentical(original, found, 1e-5);
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+
+	@Test
+	void encode_decode_binary() throws IOException {
+		CodecBundleAdjustmentInTheLarge original = createScene();
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		original.saveBinary(output);
+		CodecBundleAdjustmentInTheLarge found = new CodecBundleAdjustmentInTheLarge();
+		found.parseBinary(new ByteArrayInputStream(output.toByteArray()));
+		checkIdentical(original, found, 1e-8);
+	}
+
+	@Test
+	void parseBinary_badHeader() {
+		CodecBundleAdjustmentInTheLarge alg = new CodecBundleAdjustmentInTheLarge();
+		assertThrows(IOException.class, () -> alg.parseBinary(new ByteArrayInputStream(new byte[100])));
+	}
+
+	@Test
+	void tokenizer() throws IOException {
+		String text = "12 -7 +3\n1.5e-3\t-2 +3.25\r\n1E5 0.000123 -.5 7. 123456789012345678901234.5 ";
+		CodecBundleAdjustmentInTheLarge.Tokenizer alg = new CodecBundleAdjustmentInTheLarge.Tokenizer(
+				new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+		// make sure tokens which cross the buffer boundary are handled
+		alg.buffer = new byte[5];
+
+		assertEquals(12, alg.nextInt());
+		assertEquals(-7, alg.nextInt());
+		assertEquals(3, alg.nextInt());
+		assertEquals(1.5e-3, alg.nextDouble(), 1e-15);
+		assertEquals(-2, alg.nextDouble(), 0.0);
+		assertEquals(3.25, alg.nextDouble(), 0.0);
+		assertEquals(1e5, alg.nextDouble(), 0.0);
+		assertEquals(0.000123, alg.nextDouble(), 1e-17);
+		assertEquals(-0.5, alg.nextDouble(), 0.0);
+		assertEquals(7, alg.nextDouble(), 0.0);
+		assertEquals(123456789012345678901234.5, alg.nextDouble(), 1e8);
+		assertThrows(EOFException.class, alg::nextDouble);
+	}
+
+	@Test
+	void tokenizer_bad() {
+		CodecBundleAdjustmentInTheLarge.Tokenizer alg = new CodecBundleAdjustmentInTheLarge.Tokenizer(
+				new ByteArrayInputStream("12a".getBytes(StandardCharsets.UTF_8)));
+		assertThrows(IOException.class, alg::nextInt);
+	}
+
+	/**
+	 * Bytes with negative values must not be mistaken for the end of the stream
+	 */
+	@Test
+	void tokenizer_negativeBytes() throws IOException {
+		CodecBundleAdjustmentInTheLarge.Tokenizer alg = new CodecBundleAdjustmentInTheLarge.Tokenizer(
+				new ByteArrayInputStream(new byte[]{'1', (byte)0xFF, (byte)0x80}));
+
+		assertEquals('1', alg.read());
+		assertEquals(0xFF, alg.read());
+		assertEquals(0x80, alg.read());
+		assertEquals(-1, alg.read());
+
+		alg = new CodecBundleAdjustmentInTheLarge.Tokenizer(new ByteArrayInputStream(new byte[]{(byte)0xFF, '1'}));
+		IOException e = assertThrows(IOException.class, alg::nextInt);
+		assertFalse(e instanceof EOFException);
+	}
+
+	private CodecBundleAdjustmentInTheLarge createScene() {
+		int numViews = 3;
+		int numPoints = 10;
+
+		CodecBundleAdjustmentInTheLarge alg = new CodecBundleAdjustmentInTheLarge();
+		alg.scene = new SceneStructureMetric(false);
+		alg.scene.initialize(numViews, numViews, numPoints);
+		alg.observations = new SceneObservations();
+		alg.observations.initialize(numViews);
+
+		for (int i = 0; i < numViews; i++) {
+			BundlePinholeSnavely camera = new BundlePinholeSnavely();
+			camera.f = 400 + rand.nextDouble()*100;
+			camera.k1 = rand.nextGaussian()*1e-3;
+			camera.k2 = rand.nextGaussian()*1e-5;
+			Se3_F64 worldToView = SpecialEuclideanOps_F64.eulerXyz(
+					rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian(),
+					rand.nextGaussian()*0.1, rand.nextGaussian()*0.1, rand.nextGaussian()*0.1, null);
+			alg.scene.setCamera(i, false, camera);
+			alg.scene.setView(i, false, worldToView);
+			alg.scene.connectViewToCamera(i, i);
+		}
+
+		for (int i = 0; i < numPoints; i++) {
+			alg.scene.setPoint(i, rand.nextGaussian(), rand.nextGaussian(), 2 + rand.nextGaussian());
+			for (int viewIdx = 0; viewIdx < numViews; viewIdx++) {
+				if (rand.nextDouble() < 0.3)
+					continue;
+				alg.observations.getView(viewIdx).add(i, (float)(rand.nextDouble()*600), (float)(rand.nextDouble()*400));
+				alg.scene.connectPointToView(i, viewIdx);
+			}
+		}
+		return alg;
+	}
+
+	private void checkIdentical( CodecBundleAdjustmentInTheLarge expected, CodecBundleAdjustmentInTheLarge found,
+								 double tol ) {
+		assertEquals(expected.scene.views.size, found.scene.views.size);
+		assertEquals(expected.scene.points.size, found.scene.points.size);
+
+		for (int i = 0; i < expected.scene.views.size; i++) {
+			SceneStructureMetric.View a = expected.scene.views.get(i);
+			SceneStructureMetric.View b = found.scene.views.get(i);
+			assertEquals(a.camera, b.camera);
+			assertEquals(0.0, a.worldToView.T.distance(b.worldToView.T), tol);
+			for (int j = 0; j < 9; j++) {
+				assertEquals(a.worldToView.R.data[j], b.worldToView.R.data[j], tol);
+			}
+
+			BundlePinholeSnavely ca = expected.scene.cameras.get(a.camera).getModel();
+			BundlePinholeSnavely cb = found.scene.cameras.get(b.camera).getModel();
+			assertEquals(ca.f, cb.f, tol*ca.f);
+			assertEquals(ca.k1, cb.k1, tol);
+			assertEquals(ca.k2, cb.k2, tol);
+		}
+
+		for (int i = 0; i < expected.scene.points.size; i++) {
+			SceneStructureMetric.Point a = expected.scene.points.get(i);
+			SceneStructureMetric.Point b = found.scene.points.get(i);
+			for (int j = 0; j < 3; j++) {
+				// the text format stores points as floats
+				assertEquals(a.coordinate[j], b.coordinate[j], Math.max(tol, 1e-6)*Math.abs(a.coordinate[j]) + tol);
+			}
+			assertEquals(a.views.size, b.views.size);
+		}
+
+		PointIndex2D_F64 oa = new PointIndex2D_F64();
+		PointIndex2D_F64 ob = new PointIndex2D_F64();
+		for (int i = 0; i < expected.observations.views.size; i++) {
+			SceneObservations.View a = expected.observations.getView(i);
+			SceneObservations.View b = found.observations.getView(i);
+			assertEquals(a.size(), b.size());
+			for (int j = 0; j < a.size(); j++) {
+				a.get(j, oa);
+				b.get(j, ob);
+				assertEquals(oa.index, ob.index);
+				assertEquals(oa.x, ob.x, 1e-4);
+				assertEquals(oa.y, ob.y, 1e-4);
+			}
+		}
+	}
+}
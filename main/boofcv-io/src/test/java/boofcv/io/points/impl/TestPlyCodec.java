@@ -32,6 +32,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author Peter Abeles
@@ -135,4 +136,73 @@ class TestPlyCodec {
 		}
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Read binary files using the memory mapped reader
+	 */
+	@Test
+	void encode_decode_3DRGB_binary_file() throws IOException {
+		List<Point3dRgbI_F64> expected = new ArrayList<>();
+		// More points than a single block
+		for (int i = 0; i < PlyCodec.BLOCK_SIZE+10; i++) {
+			int r = (10*i)&0xFF;
+			int g = (28*i)&0xFF;
+			int b = (58*i)&0xFF;
+
+			int rgb = r << 16 | g << 8 | b;
+
+			expected.add( new Point3dRgbI_F64(i*123.45,i-1.01,i+2.34,rgb));
+		}
+
+		File file = File.createTempFile("boofcv",".ply");
+		try {
+			for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+				for (boolean asFloat : new boolean[]{true, false}) {
+					try (OutputStream output = new FileOutputStream(file)) {
+						PlyCodec.saveBinary(PointCloudReader.wrapF64RGB(expected), order, true, asFloat, output);
+					}
+
+					FastQueue<Point3dRgbI_F64> found = new FastQueue<>(Point3dRgbI_F64::new);
+					PlyCodec.read(file, PointCloudWriter.wrapF64RGB(found));
+
+					assertEquals(expected.size(), found.size);
+					// coordinates are large so floats lose precision
+					double tol = asFloat ? 0.1 : UtilEjml.TEST_F64;
+					for (int i = 0; i < found.size; i++) {
+						assertEquals(0.0, found.get(i).distance(expected.get(i)), tol);
+						assertEquals(expected.get(i).rgb, found.get(i).rgb);
+					}
+				}
+			}
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+
+	/**
+	 * Should be able to read ASCII files too
+	 */
+	@Test
+	void encode_decode_3D_ascii_file() throws IOException {
+		List<Point3D_F64> expected = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			expected.add( new Point3D_F64(i*123.45,i-1.01,i+2.34));
+		}
+
+		File file = File.createTempFile("boofcv",".ply");
+		try {
+			try (Writer output = new FileWriter(file)) {
+				PlyCodec.saveAscii(PointCloudReader.wrapF64(expected), false, output);
+			}
+
+			FastQueue<Point3D_F64> found = new FastQueue<>(Point3D_F64::new);
+			PlyCodec.read(file, PointCloudWriter.wrapF64(found));
+
+			assertEquals(expected.size(), found.size);
+			for (int i = 0; i < found.size; i++) {
+				assertEquals(0.0, found.get(i).distance(expected.get(i)), UtilEjml.TEST_F64);
+			}
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.wrapper.images;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.io.image.UtilImageIO;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestCachedFileImageSequence {
+
+	// Each frame has a different width so that it can be identified
+	int numFrames = 5;
+	File directory;
+
+	@BeforeEach
+	void before() throws IOException {
+		directory = Files.createTempDirectory("sequence").toFile();
+		for (int i = 0; i < numFrames; i++) {
+			GrayU8 image = new GrayU8(widthOf(i), 20);
+			ImageMiscOps.fill(image, 10*i);
+			UtilImageIO.saveImage(image, new File(directory, String.format("image%02d.png", i)).getPath());
+		}
+	}
+
+	@AfterEach
+	void after() {
+		File[] files = directory.listFiles();
+		if (files != null) {
+			for (File f : files) {
+				assertTrue(f.delete());
+			}
+		}
+		assertTrue(directory.delete());
+	}
+
+	int widthOf( int frame ) {
+		return 10 + frame;
+	}
+
+	/**
+	 * Should produce the same sequence as BufferedFileImageSequence when looping back and forth
+	 */
+	@Test
+	void compareToBuffered_loop() {
+		ImageType<GrayU8> type = ImageType.single(GrayU8.class);
+		var expected = new BufferedFileImageSequence<>(type, directory, "png");
+
+		for (int readAhead : new int[]{0, 2}) {
+			var alg = new CachedFileImageSequence<>(type, directory, "png", 3, readAhead);
+			expected.reset();
+			assertEquals(widthOf(0), alg.getWidth());
+			assertEquals(20, alg.getHeight());
+
+			for (int i = 0; i < 23; i++) {
+				assertTrue(alg.hasNext());
+				GrayU8 a = expected.next();
+				GrayU8 b = alg.next();
+				assertEquals(a.width, b.width);
+				assertEquals(a.get(0, 0), b.get(0, 0));
+				assertEquals(expected.getFrameNumber(), alg.getFrameNumber());
+				assertEquals(a.width, alg.getGuiImage().getWidth());
+				assertTrue(alg.cache.size() <= 3);
+			}
+			alg.close();
+		}
+	}
+
+	@Test
+	void noLoop() {
+		var alg = new CachedFileImageSequence<>(ImageType.single(GrayU8.class), directory, "png", 2, 1);
+		alg.setLoop(false);
+		assertEquals(numFrames, alg.getTotalFrames());
+
+		int total = 0;
+		while (alg.hasNext()) {
+			GrayU8 image = alg.next();
+			assertEquals(widthOf(total), image.width);
+			assertEquals(10*total, image.get(0, 0));
+			assertEquals(total, alg.getFrameNumber());
+			total++;
+		}
+		assertEquals(numFrames, total);
+
+		alg.reset();
+		assertTrue(alg.hasNext());
+		assertEquals(widthOf(0), alg.next().width);
+		alg.close();
+	}
+
+	@Test
+	void badArguments() {
+		ImageType<GrayU8> type = ImageType.single(GrayU8.class);
+		assertThrows(IllegalArgumentException.class, () -> new CachedFileImageSequence<>(type, directory, "png", 0, 0));
+		assertThrows(IllegalArgumentException.class, () -> new CachedFileImageSequence<>(type, directory, "png", 2, 2));
+	}
+}
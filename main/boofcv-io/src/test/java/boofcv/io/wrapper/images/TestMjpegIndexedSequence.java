@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.wrapper.images;
+
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestMjpegIndexedSequence {
+
+	// Each frame has a different width so that it can be identified
+	int numFrames = 5;
+
+	/**
+	 * Read every frame in order then jump around
+	 */
+	@Test
+	void sequentialAndRandomAccess() throws IOException {
+		File file = createMjpeg();
+		try {
+			var alg = new MjpegIndexedSequence<>(file.getPath(), ImageType.single(GrayU8.class));
+			assertEquals(numFrames,alg.getTotalFrames());
+			assertEquals(widthOf(0),alg.getWidth());
+			assertEquals(20,alg.getHeight());
+
+			int total = 0;
+			while( alg.hasNext() ) {
+				GrayU8 image = alg.next();
+				assertEquals(total,alg.getFrameNumber());
+				assertEquals(widthOf(total),image.width);
+				assertEquals(20,image.height);
+				assertEquals(widthOf(total),alg.getGuiImage().getWidth());
+				total++;
+			}
+			assertEquals(numFrames,total);
+
+			for( int frame : new int[]{3,0,4,1} ) {
+				alg.setFrameNumber(frame);
+				assertTrue(alg.hasNext());
+				assertEquals(widthOf(frame),alg.next().width);
+				assertEquals(frame,alg.getFrameNumber());
+			}
+
+			alg.reset();
+			assertEquals(widthOf(0),alg.next().width);
+			alg.close();
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+
+	@Test
+	void loop() throws IOException {
+		File file = createMjpeg();
+		try {
+			var alg = new MjpegIndexedSequence<>(file.getPath(), ImageType.single(GrayU8.class));
+			alg.setLoop(true);
+			for (int i = 0; i < numFrames*2+1; i++) {
+				assertTrue(alg.hasNext());
+				assertEquals(widthOf(i%numFrames),alg.next().width);
+			}
+			alg.close();
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+
+	/**
+	 * A frame which can't be decoded should result in an exception which says which frame it was
+	 */
+	@Test
+	void corruptFrame() throws IOException {
+		File file = createMjpeg(2);
+		try {
+			var alg = new MjpegIndexedSequence<>(file.getPath(), ImageType.single(GrayU8.class));
+			assertEquals(numFrames,alg.getTotalFrames());
+			alg.next();
+			alg.next();
+			RuntimeException e = assertThrows(RuntimeException.class, alg::next);
+			assertTrue(e.getMessage().contains("frame 2"));
+			alg.close();
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+
+	/**
+	 * If the first frame can't be decoded the constructor should fail and close the file
+	 */
+	@Test
+	void corruptFirstFrame() throws IOException {
+		File file = createMjpeg(0);
+		try {
+			RuntimeException e = assertThrows(RuntimeException.class,
+					() -> new MjpegIndexedSequence<>(file.getPath(), ImageType.single(GrayU8.class)));
+			assertTrue(e.getMessage().contains("frame 0"));
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+
+	int widthOf( int frame ) {
+		return 30+frame;
+	}
+
+	File createMjpeg() throws IOException {
+		return createMjpeg(-1);
+	}
+
+	/**
+	 * Creates a MJPEG file with junk before the first frame and between frames
+	 *
+	 * @param corruptFrame Index of a frame which is replaced by markers with no image data. -1 for none
+	 */
+	File createMjpeg( int corruptFrame ) throws IOException {
+		File file = Files.createTempFile("boofcv",".mjpeg").toFile();
+		try( FileOutputStream out = new FileOutputStream(file) ) {
+			out.write(new byte[]{1,2,(byte)0xFF,3});
+			for (int frame = 0; frame < numFrames; frame++) {
+				if( frame == corruptFrame ) {
+					out.write(new byte[]{(byte)0xFF,(byte)0xD8,1,2,3,(byte)0xFF,(byte)0xD9});
+					continue;
+				}
+				BufferedImage image = new BufferedImage(widthOf(frame),20,BufferedImage.TYPE_INT_RGB);
+				image.setRGB(frame,frame,0xFFFFFF);
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				ImageIO.write(image,"jpg",bytes);
+				out.write(bytes.toByteArray());
+				out.write(new byte[]{5,6});
+			}
+		}
+		return file;
+	}
+}
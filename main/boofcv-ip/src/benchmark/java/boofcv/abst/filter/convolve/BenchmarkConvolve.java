@@ -20,224 +20,281 @@ package boofcv.abst.filter.convolve;
 
 import boofcv.alg.filter.convolve.ConvolveImage;
 import boofcv.alg.filter.convolve.ConvolveImageNoBorder;
-import boofcv.alg.filter.convolve.noborder.*;
+import boofcv.alg.filter.convolve.noborder.ConvolveImageStandard_SB;
+import boofcv.alg.filter.convolve.noborder.ConvolveImageStandard_SB_MT;
+import boofcv.alg.filter.convolve.noborder.ImplConvolveBox;
+import boofcv.alg.filter.convolve.noborder.ImplConvolveBox_MT;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.border.BorderIndex1D_Extend;
 import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.border.ImageBorder1D_F32;
 import boofcv.struct.border.ImageBorder1D_S32;
+import boofcv.struct.border.ImageBorder_F32;
+import boofcv.struct.border.ImageBorder_S32;
 import boofcv.struct.convolve.Kernel1D_F32;
 import boofcv.struct.convolve.Kernel1D_S32;
 import boofcv.struct.convolve.Kernel2D_F32;
 import boofcv.struct.convolve.Kernel2D_S32;
-import boofcv.struct.image.GrayF32;
-import boofcv.struct.image.GrayS16;
-import boofcv.struct.image.GrayS32;
-import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Benchmark for different convolution operations.
+ * Benchmark for different convolution operations. Integer images are convolved into a {@link GrayS16} image
+ * and F32 into a {@link GrayF32} image. The "div" benchmarks output an image of the input type, by dividing
+ * with the kernel's sum for integer images.
+ *
  * @author Peter Abeles
  */
-@SuppressWarnings({"UnusedDeclaration"})
-public class BenchmarkConvolve  {
-	static int width = 640;
-	static int height = 480;
-
-	Random rand = new Random(234);
-
-	static Kernel2D_F32 kernel2D_F32;
-	static Kernel1D_F32 kernelF32;
-	static Kernel1D_S32 kernelI32;
-	static Kernel2D_S32 kernel2D_I32;
-	static GrayF32 input_F32 = new GrayF32(width,height);
-	static GrayF32 out_F32 = new GrayF32(width,height);
-	static GrayU8 input_U8 = new GrayU8(width,height);
-	static GrayS16 input_S16 = new GrayS16(width,height);
-	static GrayU8 out_U8 = new GrayU8(width,height);
-	static GrayS16 out_S16 = new GrayS16(width,height);
-	static GrayS32 out_S32 = new GrayS32(width,height);
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=2)
+public class BenchmarkConvolve {
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"640","2000"})
+	public int size;
+
+	@Param({"U8","S16","F32"})
+	public ImageDataType imageType;
 
 	// iterate through different sized kernel radius
-//	@Param({"1", "2"})
-	private int radius;
-
-	public BenchmarkConvolve() {
-		ImageMiscOps.fillUniform(input_U8,rand,0,20);
-		ImageMiscOps.fillUniform(input_S16,rand,0,20);
-		ImageMiscOps.fillUniform(input_F32,rand,0,20);
-	}
+	@Param({"1", "5"})
+	public int radius;
+
+	Kernel2D_F32 kernel2D_F32;
+	Kernel1D_F32 kernelF32;
+	Kernel1D_S32 kernelI32;
+	Kernel2D_S32 kernel2D_I32;
+	int divisor1D, divisor2D;
+	ImageBorder_S32<GrayU8> borderU8 = new ImageBorder1D_S32<>(BorderIndex1D_Extend.class);
+	ImageBorder_S32<GrayS16> borderS16 = new ImageBorder1D_S32<>(BorderIndex1D_Extend.class);
+	ImageBorder_F32 borderF32 = new ImageBorder1D_F32(BorderIndex1D_Extend.class);
+
+	GrayF32 input_F32 = new GrayF32(1,1);
+	GrayF32 out_F32 = new GrayF32(1,1);
+	GrayU8 input_U8 = new GrayU8(1,1);
+	GrayS16 input_S16 = new GrayS16(1,1);
+	GrayU8 out_U8 = new GrayU8(1,1);
+	GrayS16 out_S16 = new GrayS16(1,1);
+	GrayS16 outDiv_S16 = new GrayS16(1,1);
+	GrayS32 out_S32 = new GrayS32(1,1);
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
+
+		// only declare images of the type being benchmarked
+		switch( imageType ) {
+			case U8:
+				input_U8.reshape(size,size);
+				out_U8.reshape(size,size);
+				out_S16.reshape(size,size);
+				out_S32.reshape(size,size);
+				ImageMiscOps.fillUniform(input_U8,rand,0,20);
+				break;
+
+			case S16:
+				input_S16.reshape(size,size);
+				out_S16.reshape(size,size);
+				outDiv_S16.reshape(size,size);
+				ImageMiscOps.fillUniform(input_S16,rand,0,20);
+				break;
+
+			case F32:
+				input_F32.reshape(size,size);
+				out_F32.reshape(size,size);
+				ImageMiscOps.fillUniform(input_F32,rand,0,20);
+				break;
+
+			default:
+				throw new IllegalArgumentException("Unsupported image type "+imageType);
+		}
 
-	protected void setUp() {
 		kernelF32 = FactoryKernelGaussian.gaussian(Kernel1D_F32.class, -1, radius);
 		kernelI32 = FactoryKernelGaussian.gaussian(Kernel1D_S32.class,-1,radius);
 		kernel2D_F32 = FactoryKernelGaussian.gaussian(Kernel2D_F32.class,-1,radius);
 		kernel2D_I32 = FactoryKernelGaussian.gaussian(Kernel2D_S32.class, -1, radius);
+		divisor1D = kernelI32.computeSum();
+		divisor2D = kernel2D_I32.computeSum();
 	}
 
-	public int timeHorizontal_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.horizontal(kernelF32, input_F32,out_F32);
-		return 0;
-	}
-
-	public int timeHorizontal_I8_I8_div2(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.horizontal(kernelI32, input_U8, out_U8, 10);
-		return 0;
-	}
-
-	public int timeHorizontalUnroll_I8_I8_div(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveImageUnrolled_SB_U8_I8_Div.horizontal(kernelI32, input_U8, out_U8,10) )
-				throw new RuntimeException();
-		return 0;
+	@Benchmark
+	public void horizontal() {
+		switch( imageType ) {
+			case U8: ConvolveImageNoBorder.horizontal(kernelI32, input_U8, out_S16); break;
+			case S16: ConvolveImageNoBorder.horizontal(kernelI32, input_S16, out_S16); break;
+			default: ConvolveImageNoBorder.horizontal(kernelF32, input_F32, out_F32); break;
+		}
 	}
 
-	public int timeHorizontal_I8_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.horizontal(kernelI32, input_U8, out_S16);
-		return 0;
+	@Benchmark
+	public void horizontal_div() {
+		switch( imageType ) {
+			case U8: ConvolveImageNoBorder.horizontal(kernelI32, input_U8, out_U8, divisor1D); break;
+			case S16: ConvolveImageNoBorder.horizontal(kernelI32, input_S16, outDiv_S16, divisor1D); break;
+			default: ConvolveImageNoBorder.horizontal(kernelF32, input_F32, out_F32); break;
+		}
 	}
 
-	public int timeHorizontal_I16_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.horizontal(kernelI32, input_S16, out_S16);
-		return 0;
+	@Benchmark
+	public void horizontalStandard() {
+		switch( imageType ) {
+			case U8:
+				if( concurrent )
+					ConvolveImageStandard_SB_MT.horizontal(kernelI32, input_U8, out_S16);
+				else
+					ConvolveImageStandard_SB.horizontal(kernelI32, input_U8, out_S16);
+				break;
+			case S16:
+				if( concurrent )
+					ConvolveImageStandard_SB_MT.horizontal(kernelI32, input_S16, out_S16);
+				else
+					ConvolveImageStandard_SB.horizontal(kernelI32, input_S16, out_S16);
+				break;
+			default:
+				if( concurrent )
+					ConvolveImageStandard_SB_MT.horizontal(kernelF32, input_F32, out_F32);
+				else
+					ConvolveImageStandard_SB.horizontal(kernelF32, input_F32, out_F32);
+				break;
+		}
 	}
 
-	public int timeVertical_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.vertical(kernelF32, input_F32, out_F32);
-		return 0;
+	@Benchmark
+	public void vertical() {
+		switch( imageType ) {
+			case U8: ConvolveImageNoBorder.vertical(kernelI32, input_U8, out_S16); break;
+			case S16: ConvolveImageNoBorder.vertical(kernelI32, input_S16, out_S16); break;
+			default: ConvolveImageNoBorder.vertical(kernelF32, input_F32, out_F32); break;
+		}
 	}
 
-	public int timeVertical_I8_I8_div(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.vertical(kernelI32, input_U8, out_U8,10);
-		return 0;
+	@Benchmark
+	public void vertical_div() {
+		switch( imageType ) {
+			case U8: ConvolveImageNoBorder.vertical(kernelI32, input_U8, out_U8, divisor1D); break;
+			case S16: ConvolveImageNoBorder.vertical(kernelI32, input_S16, outDiv_S16, divisor1D); break;
+			default: ConvolveImageNoBorder.vertical(kernelF32, input_F32, out_F32); break;
+		}
 	}
 
-	public int timeVerticalUnrolled_U8_I8_div(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveImageUnrolled_SB_U8_I8_Div.vertical(kernelI32, input_U8, out_U8,10) )
-				throw new RuntimeException();
-		return 0;
+	@Benchmark
+	public void verticalStandard() {
+		switch( imageType ) {
+			case U8:
+				if( concurrent )
+					ConvolveImageStandard_SB_MT.vertical(kernelI32, input_U8, out_S16);
+				else
+					ConvolveImageStandard_SB.vertical(kernelI32, input_U8, out_S16);
+				break;
+			case S16:
+				if( concurrent )
+					ConvolveImageStandard_SB_MT.vertical(kernelI32, input_S16, out_S16);
+				else
+					ConvolveImageStandard_SB.vertical(kernelI32, input_S16, out_S16);
+				break;
+			default:
+				if( concurrent )
+					ConvolveImageStandard_SB_MT.vertical(kernelF32, input_F32, out_F32);
+				else
+					ConvolveImageStandard_SB.vertical(kernelF32, input_F32, out_F32);
+				break;
+		}
 	}
 
-	public int timeVertical_I8_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.vertical(kernelI32, input_U8, out_S16);
-		return 0;
+	@Benchmark
+	public void convolve2D() {
+		switch( imageType ) {
+			case U8: ConvolveImageNoBorder.convolve(kernel2D_I32, input_U8, out_S16); break;
+			case S16: ConvolveImageNoBorder.convolve(kernel2D_I32, input_S16, out_S16); break;
+			default: ConvolveImageNoBorder.convolve(kernel2D_F32, input_F32, out_F32); break;
+		}
 	}
 
-	public int timeVertical_I16_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.vertical(kernelI32, input_S16, out_S16);
-		return 0;
+	@Benchmark
+	public void convolve2D_div() {
+		switch( imageType ) {
+			case U8: ConvolveImageNoBorder.convolve(kernel2D_I32, input_U8, out_U8, divisor2D, null); break;
+			case S16: ConvolveImageNoBorder.convolve(kernel2D_I32, input_S16, outDiv_S16, divisor2D, null); break;
+			default: ConvolveImageNoBorder.convolve(kernel2D_F32, input_F32, out_F32); break;
+		}
 	}
 
-	public int timeConvolve2D_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageNoBorder.convolve(kernel2D_F32, input_F32, out_F32);
-		return 0;
+	@Benchmark
+	public void convolve2DStandard() {
+		switch( imageType ) {
+			case U8:
+				if( concurrent )
+					ConvolveImageStandard_SB_MT.convolve(kernel2D_I32, input_U8, out_S16);
+				else
+					ConvolveImageStandard_SB.convolve(kernel2D_I32, input_U8, out_S16);
+				break;
+			case S16:
+				if( concurrent )
+					ConvolveImageStandard_SB_MT.convolve(kernel2D_I32, input_S16, out_S16);
+				else
+					ConvolveImageStandard_SB.convolve(kernel2D_I32, input_S16, out_S16);
+				break;
+			default:
+				if( concurrent )
+					ConvolveImageStandard_SB_MT.convolve(kernel2D_F32, input_F32, out_F32);
+				else
+					ConvolveImageStandard_SB.convolve(kernel2D_F32, input_F32, out_F32);
+				break;
+		}
 	}
 
-	public int timeConvolve2D_Std_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.convolve(kernel2D_F32, input_F32,out_F32);
-		return 0;
+	@Benchmark
+	public void convolve2D_Extend() {
+		switch( imageType ) {
+			case U8: ConvolveImage.convolve(kernel2D_I32, input_U8, out_S16, borderU8); break;
+			case S16: ConvolveImage.convolve(kernel2D_I32, input_S16, out_S16, borderS16); break;
+			default: ConvolveImage.convolve(kernel2D_F32, input_F32, out_F32, borderF32); break;
+		}
 	}
 
-	public int timeConvolve2D_Unrolled_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveImageUnrolled_SB_F32_F32.convolve(kernel2D_F32, input_F32,out_F32) )
-				throw new RuntimeException();
-		return 0;
+	@Benchmark
+	public void boxVertical() {
+		switch( imageType ) {
+			case U8:
+				if( concurrent )
+					ImplConvolveBox_MT.vertical(input_U8, out_S32, radius, null);
+				else
+					ImplConvolveBox.vertical(input_U8, out_S32, radius, null);
+				break;
+			case S16:
+				if( concurrent )
+					ImplConvolveBox_MT.vertical(input_S16, out_S16, radius, null);
+				else
+					ImplConvolveBox.vertical(input_S16, out_S16, radius, null);
+				break;
+			default:
+				if( concurrent )
+					ImplConvolveBox_MT.vertical(input_F32, out_F32, radius, null);
+				else
+					ImplConvolveBox.vertical(input_F32, out_F32, radius, null);
+				break;
+		}
 	}
 
-	public int timeConvolve2D_I8_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageNoBorder.convolve(kernel2D_I32, input_U8, out_S16);
-		return 0;
-	}
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkConvolve.class.getSimpleName())
+				.build();
 
-	public int timeConvolve2D_Extend_I8_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImage.convolve(kernel2D_I32, input_U8, out_S16, new ImageBorder1D_S32<>(BorderIndex1D_Extend.class));
-		return 0;
+		new Runner(opt).run();
 	}
-
-	public int timeConvolve2D_Std_I8_I8_DIV(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.convolve(kernel2D_I32, input_U8, out_U8,10,null);
-		return 0;
-	}
-
-	public int timeConvolve2D_I8_I8_DIV(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageNoBorder.convolve(kernel2D_I32, input_U8, out_U8,10, null);
-		return 0;
-	}
-
-	public int timeConvolve2D_Std_I8_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageNoBorder.convolve(kernel2D_I32, input_U8, out_U8,10, null);
-		return 0;
-	}
-
-	public int timeHorizontalUnrolled_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveImageUnrolled_SB_F32_F32.horizontal(kernelF32, input_F32,out_F32) )
-				throw new RuntimeException();
-		return 0;
-	}
-
-	public int timeVerticalUnrolled_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveImageUnrolled_SB_F32_F32.vertical(kernelF32, input_F32, out_F32) )
-				throw new RuntimeException();
-		return 0;
-	}
-
-	public int timeHorizontalUnrolled_U8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveImageUnrolled_SB_U8_I16.horizontal(kernelI32, input_U8, out_S16) )
-				throw new RuntimeException();
-		return 0;
-	}
-
-	public int timeVerticalUnrolled_U8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveImageUnrolled_SB_U8_I16.vertical(kernelI32, input_U8, out_S16) )
-				throw new RuntimeException();
-		return 0;
-	}
-
-	public int timeHorizontalUnrolled_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveImageUnrolled_SB_S16_I16.horizontal(kernelI32, input_S16, out_S16) )
-				throw new RuntimeException();
-		return 0;
-	}
-
-	public int timeVerticalUnrolled_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveImageUnrolled_SB_S16_I16.vertical(kernelI32, input_S16, out_S16) )
-				throw new RuntimeException();
-		return 0;
-	}
-
-	public int timeBox_U8_S32_Vertical6(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplConvolveBox.vertical(input_U8, out_S32,radius, null);
-		return 0;
-	}
-
-//	public static void main( String args[] ) {
-//		System.out.println("=========  Profile Image Size "+ width +" x "+ height +" ==========");
-//
-//		Runner.main(BenchmarkConvolve.class, args);
-//	}
 }
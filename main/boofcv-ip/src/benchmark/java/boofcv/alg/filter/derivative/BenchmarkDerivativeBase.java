@@ -19,6 +19,7 @@
 package boofcv.alg.filter.derivative;
 
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.border.BorderIndex1D_Extend;
 import boofcv.struct.border.ImageBorder1D_F32;
 import boofcv.struct.border.ImageBorder1D_S32;
@@ -27,62 +28,67 @@ import boofcv.struct.border.ImageBorder_S32;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
 import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageDataType;
+import org.openjdk.jmh.annotations.*;
 
 import java.util.Random;
 
 /**
- * Base class for benchmarking derivative classes
+ * Base class for benchmarking derivative classes. Only images of the type being benchmarked are declared.
  * 
  * @author Peter Abeles
  */
+@State(Scope.Benchmark)
 public abstract class BenchmarkDerivativeBase {
-	public static int imgWidth = 640;
-	public static int imgHeight = 480;
-	public static long TEST_TIME = 1000;
-	public static boolean border = true;
-	public static ImageBorder_S32 borderI32 = new ImageBorder1D_S32(BorderIndex1D_Extend.class);
-	public static ImageBorder_F32 borderF32 = new ImageBorder1D_F32(BorderIndex1D_Extend.class);
+	@Param({"true","false"})
+	public boolean concurrent;
 
-	public static GrayF32 imgFloat32;
-	public static GrayF32 derivX_F32;
-	public static GrayF32 derivY_F32;
-	public static GrayF32 derivXY_F32;
-	public static GrayU8 imgInt8;
-	public static GrayS16 derivX_I16;
-	public static GrayS16 derivY_I16;
+	@Param({"640","2000"})
+	public int size;
 
-	public static GrayS16 derivXY_I16;
+	@Param({"U8","F32"})
+	public ImageDataType imageType;
 
+	ImageBorder_S32<GrayU8> borderI32 = new ImageBorder1D_S32<>(BorderIndex1D_Extend.class);
+	ImageBorder_F32 borderF32 = new ImageBorder1D_F32(BorderIndex1D_Extend.class);
 
-	public abstract void profile_I8();
-	public abstract void profile_F32();
-
-	public void process() {
-		imgInt8 = new GrayU8(imgWidth,imgHeight);
-		derivX_I16 = new GrayS16(imgWidth,imgHeight);
-		derivY_I16 = new GrayS16(imgWidth,imgHeight);
-		derivXY_I16 = new GrayS16(imgWidth,imgHeight);
-		imgFloat32 = new GrayF32(imgWidth,imgHeight);
-		derivX_F32 = new GrayF32(imgWidth,imgHeight);
-		derivY_F32 = new GrayF32(imgWidth,imgHeight);
-		derivXY_F32 = new GrayF32(imgWidth,imgHeight);
+	GrayU8 input_U8 = new GrayU8(1,1);
+	GrayS16 derivX_S16 = new GrayS16(1,1);
+	GrayS16 derivY_S16 = new GrayS16(1,1);
+	GrayS16 derivXY_S16 = new GrayS16(1,1);
+	GrayF32 input_F32 = new GrayF32(1,1);
+	GrayF32 derivX_F32 = new GrayF32(1,1);
+	GrayF32 derivY_F32 = new GrayF32(1,1);
+	GrayF32 derivXY_F32 = new GrayF32(1,1);
 
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
 		Random rand = new Random(123);
-		GImageMiscOps.fillUniform(imgInt8, rand, 0, 100);
-		GImageMiscOps.fillUniform(imgFloat32,rand,0,100);
-		
-		System.out.println("=========  Profile Image Size "+imgWidth+" x "+imgHeight+" ==========");
-		System.out.println("               border = "+border);
-		System.out.println();
-		System.out.println("             GrayU8");
-		System.out.println();
 
-		profile_I8();
+		switch( imageType ) {
+			case U8:
+				input_U8.reshape(size,size);
+				derivX_S16.reshape(size,size);
+				derivY_S16.reshape(size,size);
+				derivXY_S16.reshape(size,size);
+				GImageMiscOps.fillUniform(input_U8, rand, 0, 100);
+				break;
 
-		System.out.println("\n             GrayF32");
-		System.out.println();
+			case F32:
+				input_F32.reshape(size,size);
+				derivX_F32.reshape(size,size);
+				derivY_F32.reshape(size,size);
+				derivXY_F32.reshape(size,size);
+				GImageMiscOps.fillUniform(input_F32, rand, 0, 100);
+				break;
 
-		profile_F32();
+			default:
+				throw new IllegalArgumentException("Unsupported image type "+imageType);
+		}
+	}
 
+	boolean isU8() {
+		return imageType == ImageDataType.U8;
 	}
 }
@@ -18,74 +18,69 @@
 
 package boofcv.alg.filter.derivative;
 
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
 
 /**
  * Benchmarks related to computing image derivatives
  * 
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=2)
 public class BenchmarkHessianSobel extends BenchmarkDerivativeBase {
 
-	static GrayF32 tempA_F32 = new GrayF32(imgWidth,imgHeight);
-	static GrayF32 tempB_F32 = new GrayF32(imgWidth,imgHeight);
-	static GrayS16 tempA_I16 = new GrayS16(imgWidth,imgHeight);
-	static GrayS16 tempB_I16 = new GrayS16(imgWidth,imgHeight);
-
-
-	public static class Hessian_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			HessianSobel.process(imgInt8,derivX_I16,derivY_I16,derivXY_I16,borderI32);
-		}
-	}
+	GrayF32 tempA_F32 = new GrayF32(1,1);
+	GrayF32 tempB_F32 = new GrayF32(1,1);
+	GrayS16 tempA_S16 = new GrayS16(1,1);
+	GrayS16 tempB_S16 = new GrayS16(1,1);
 
-	public static class Hessian_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			HessianSobel.process(imgFloat32,derivX_F32,derivY_F32,derivXY_F32,borderF32);
+	@Setup
+	public void setupTemp() {
+		if( isU8() ) {
+			tempA_S16.reshape(size,size);
+			tempB_S16.reshape(size,size);
+		} else {
+			tempA_F32.reshape(size,size);
+			tempB_F32.reshape(size,size);
 		}
 	}
 
-	public static class HessianFromDeriv_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel.process(imgInt8,tempA_I16,tempB_I16,borderI32);
-			HessianFromGradient.hessianSobel(tempA_I16,tempB_I16,derivX_I16,derivY_I16,derivXY_I16,borderI32);
-		}
+	@Benchmark
+	public void hessian() {
+		if( isU8() )
+			HessianSobel.process(input_U8,derivX_S16,derivY_S16,derivXY_S16,borderI32);
+		else
+			HessianSobel.process(input_F32,derivX_F32,derivY_F32,derivXY_F32,borderF32);
 	}
 
-	public static class HessianFromDeriv_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel.process(imgFloat32,tempA_F32,tempB_F32,borderF32);
+	@Benchmark
+	public void hessianFromDeriv() {
+		if( isU8() ) {
+			GradientSobel.process(input_U8,tempA_S16,tempB_S16,borderI32);
+			HessianFromGradient.hessianSobel(tempA_S16,tempB_S16,derivX_S16,derivY_S16,derivXY_S16,borderI32);
+		} else {
+			GradientSobel.process(input_F32,tempA_F32,tempB_F32,borderF32);
 			HessianFromGradient.hessianSobel(tempA_F32,tempB_F32,derivX_F32,derivY_F32,derivXY_F32,borderF32);
 		}
 	}
 
-	@Override
-	public void profile_I8() {
-		ProfileOperation.printOpsPerSec(new Hessian_I8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new HessianFromDeriv_I8(),TEST_TIME);
-	}
-
-	@Override
-	public void profile_F32() {
-		ProfileOperation.printOpsPerSec(new Hessian_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new HessianFromDeriv_F32(),TEST_TIME);
-	}
-
-	public static void main( String args[] ) {
-		BenchmarkHessianSobel benchmark = new BenchmarkHessianSobel();
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkHessianSobel.class.getSimpleName())
+				.build();
 
-		BenchmarkHessianSobel.border = true;
-		benchmark.process();
+		new Runner(opt).run();
 	}
 }
@@ -19,65 +19,56 @@
 package boofcv.alg.filter.derivative;
 
 import boofcv.alg.filter.derivative.impl.GradientPrewitt_Shared;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
+import boofcv.alg.filter.derivative.impl.GradientPrewitt_Shared_MT;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
 
 /**
  * Benchmarks related to computing image derivatives
  * 
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=2)
 public class BenchmarkPrewitt extends BenchmarkDerivativeBase {
 
-	public static class Prewitt_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientPrewitt.process(imgInt8,derivX_I16,derivY_I16,borderI32);
-		}
+	@Benchmark
+	public void prewitt() {
+		if( isU8() )
+			GradientPrewitt.process(input_U8,derivX_S16,derivY_S16,borderI32);
+		else
+			GradientPrewitt.process(input_F32,derivX_F32,derivY_F32,borderF32);
 	}
 
-	public static class Prewitt_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientPrewitt.process(imgFloat32,derivX_F32,derivY_F32,borderF32);
+	@Benchmark
+	public void prewittShared() {
+		if( isU8() ) {
+			if( concurrent )
+				GradientPrewitt_Shared_MT.process(input_U8,derivX_S16,derivY_S16);
+			else
+				GradientPrewitt_Shared.process(input_U8,derivX_S16,derivY_S16);
+		} else {
+			if( concurrent )
+				GradientPrewitt_Shared_MT.process(input_F32,derivX_F32,derivY_F32);
+			else
+				GradientPrewitt_Shared.process(input_F32,derivX_F32,derivY_F32);
 		}
 	}
 
-	public static class PrewittShared_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientPrewitt_Shared.process(imgInt8,derivX_I16,derivY_I16);
-		}
-	}
-
-	public static class PrewittShared_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientPrewitt_Shared.process(imgFloat32,derivX_F32,derivY_F32);
-		}
-	}
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkPrewitt.class.getSimpleName())
+				.build();
 
-	@Override
-	public void profile_I8() {
-		ProfileOperation.printOpsPerSec(new Prewitt_I8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new PrewittShared_I8(),TEST_TIME);
+		new Runner(opt).run();
 	}
-
-	@Override
-	public void profile_F32() {
-		ProfileOperation.printOpsPerSec(new Prewitt_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new PrewittShared_F32(),TEST_TIME);
-	}
-
-	public static void main( String args[] ) {
-		BenchmarkPrewitt benchmark = new BenchmarkPrewitt();
-
-		BenchmarkPrewitt.border = true;
-		benchmark.process();
-	}
-
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,121 +18,97 @@
 
 package boofcv.alg.filter.derivative;
 
-import boofcv.alg.filter.derivative.impl.GradientSobel_Naive;
-import boofcv.alg.filter.derivative.impl.GradientSobel_Outer;
-import boofcv.alg.filter.derivative.impl.GradientSobel_UnrolledOuter;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
+import boofcv.alg.filter.derivative.impl.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
 
 /**
- * Benchmarks related to computing image derivatives
- * 
+ * Benchmarks different implementations of the Sobel image derivative
+ *
  * @author Peter Abeles
  */
-public class BenchmarkSobel extends BenchmarkDerivativeBase{
-
-	public static class Sobel_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel.process(imgInt8,derivX_I16,derivY_I16,borderI32);
-		}
-	}
-
-	public static class Sobel_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel.process(imgFloat32,derivX_F32,derivY_F32,borderF32);
-		}
-	}
-
-	public static class SobelNaive_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel_Naive.process(imgInt8,derivX_I16,derivY_I16);
-		}
-	}
-
-	public static class SobelNaive_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel_Naive.process(imgFloat32,derivX_F32,derivY_F32);
-		}
-	}
-
-	public static class SobelOuter_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel_Outer.process(imgInt8,derivX_I16,derivY_I16);
-		}
-	}
-
-	public static class SobelOuter_I8_Sub extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel_Outer.process_sub(imgInt8,derivX_I16,derivY_I16);
-		}
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=2)
+public class BenchmarkSobel extends BenchmarkDerivativeBase {
+
+	@Benchmark
+	public void sobel() {
+		if( isU8() )
+			GradientSobel.process(input_U8,derivX_S16,derivY_S16,borderI32);
+		else
+			GradientSobel.process(input_F32,derivX_F32,derivY_F32,borderF32);
 	}
 
-	public static class SobelOuter_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel_Outer.process(imgFloat32,derivX_F32,derivY_F32);
-		}
+	@Benchmark
+	public void naive() {
+		if( isU8() )
+			GradientSobel_Naive.process(input_U8,derivX_S16,derivY_S16);
+		else
+			GradientSobel_Naive.process(input_F32,derivX_F32,derivY_F32);
 	}
 
-	public static class SobelUnrolledOuter_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel_UnrolledOuter.process_I8(imgInt8,derivX_I16,derivY_I16);
+	@Benchmark
+	public void outer() {
+		if( isU8() ) {
+			if( concurrent )
+				GradientSobel_Outer_MT.process(input_U8,derivX_S16,derivY_S16);
+			else
+				GradientSobel_Outer.process(input_U8,derivX_S16,derivY_S16);
+		} else {
+			if( concurrent )
+				GradientSobel_Outer_MT.process(input_F32,derivX_F32,derivY_F32);
+			else
+				GradientSobel_Outer.process(input_F32,derivX_F32,derivY_F32);
 		}
 	}
 
-	public static class SobelUnrolledOuter_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel_UnrolledOuter.process_F32(imgFloat32,derivX_F32,derivY_F32);
+	@Benchmark
+	public void unrolledOuter() {
+		if( isU8() ) {
+			if( concurrent )
+				GradientSobel_UnrolledOuter_MT.process_I8(input_U8,derivX_S16,derivY_S16);
+			else
+				GradientSobel_UnrolledOuter.process_I8(input_U8,derivX_S16,derivY_S16);
+		} else {
+			if( concurrent )
+				GradientSobel_UnrolledOuter_MT.process_F32(input_F32,derivX_F32,derivY_F32);
+			else
+				GradientSobel_UnrolledOuter.process_F32(input_F32,derivX_F32,derivY_F32);
 		}
 	}
 
-	public static class SobelUnrolledOuter_F32_Sub extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel_UnrolledOuter.process_F32_sub(imgFloat32,derivX_F32,derivY_F32);
+	/**
+	 * Variants which can process sub-images. Only Outer has a U8 version and only UnrolledOuter has an F32 version.
+	 */
+	@Benchmark
+	public void subimage() {
+		if( isU8() ) {
+			if( concurrent )
+				GradientSobel_Outer_MT.process_sub(input_U8,derivX_S16,derivY_S16);
+			else
+				GradientSobel_Outer.process_sub(input_U8,derivX_S16,derivY_S16);
+		} else {
+			if( concurrent )
+				GradientSobel_UnrolledOuter_MT.process_F32_sub(input_F32,derivX_F32,derivY_F32);
+			else
+				GradientSobel_UnrolledOuter.process_F32_sub(input_F32,derivX_F32,derivY_F32);
 		}
 	}
 
-	@Override
-	public void profile_I8() {
-		ProfileOperation.printOpsPerSec(new Sobel_I8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new SobelNaive_I8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new SobelOuter_I8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new SobelOuter_I8_Sub(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new SobelUnrolledOuter_I8(),TEST_TIME);
-	}
-
-	@Override
-	public void profile_F32() {
-		ProfileOperation.printOpsPerSec(new Sobel_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new SobelNaive_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new SobelOuter_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new SobelUnrolledOuter_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new SobelUnrolledOuter_F32_Sub(),TEST_TIME);
-	}
-
-	public static void main( String args[] ) {
-		BenchmarkSobel benchmark = new BenchmarkSobel();
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkSobel.class.getSimpleName())
+				.build();
 
-		BenchmarkSobel.border = true;
-		benchmark.process();
+		new Runner(opt).run();
 	}
 }
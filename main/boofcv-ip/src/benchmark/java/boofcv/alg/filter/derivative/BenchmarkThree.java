@@ -19,64 +19,56 @@
 package boofcv.alg.filter.derivative;
 
 import boofcv.alg.filter.derivative.impl.GradientThree_Standard;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
+import boofcv.alg.filter.derivative.impl.GradientThree_Standard_MT;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
 
 /**
  * Benchmarks related to computing image derivatives
  * 
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=2)
 public class BenchmarkThree extends BenchmarkDerivativeBase {
 
-	public static class Three_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientThree.process(imgInt8,derivX_I16,derivY_I16,borderI32);
-		}
-	}
-
-	public static class Three_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientThree.process(imgFloat32,derivX_F32,derivY_F32,borderF32);
-		}
-	}
-
-	public static class ThreeStandard_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientThree_Standard.process(imgInt8,derivX_I16,derivY_I16);
-		}
+	@Benchmark
+	public void three() {
+		if( isU8() )
+			GradientThree.process(input_U8,derivX_S16,derivY_S16,borderI32);
+		else
+			GradientThree.process(input_F32,derivX_F32,derivY_F32,borderF32);
 	}
 
-	public static class ThreeStandard_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientThree_Standard.process(imgFloat32,derivX_F32,derivY_F32);
+	@Benchmark
+	public void threeStandard() {
+		if( isU8() ) {
+			if( concurrent )
+				GradientThree_Standard_MT.process(input_U8,derivX_S16,derivY_S16);
+			else
+				GradientThree_Standard.process(input_U8,derivX_S16,derivY_S16);
+		} else {
+			if( concurrent )
+				GradientThree_Standard_MT.process(input_F32,derivX_F32,derivY_F32);
+			else
+				GradientThree_Standard.process(input_F32,derivX_F32,derivY_F32);
 		}
 	}
 
-	@Override
-	public void profile_I8() {
-		ProfileOperation.printOpsPerSec(new Three_I8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new ThreeStandard_I8(),TEST_TIME);
-	}
-
-	@Override
-	public void profile_F32() {
-		ProfileOperation.printOpsPerSec(new Three_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new ThreeStandard_F32(),TEST_TIME);
-	}
-
-	public static void main( String args[] ) {
-		BenchmarkThree benchmark = new BenchmarkThree();
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkThree.class.getSimpleName())
+				.build();
 
-		BenchmarkThree.border = true;
-		benchmark.process();
+		new Runner(opt).run();
 	}
 }
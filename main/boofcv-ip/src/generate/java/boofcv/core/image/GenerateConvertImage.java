@@ -100,6 +100,9 @@ public class GenerateConvertImage extends CodeGeneratorBase {
 				"\t\t\toutput.reshape(input.width,input.height);\n" +
 				"\t\t}\n" +
 				"\n" +
+				"\t\tif( BOverrideConvertImage.invokeNativeConvert(input, output) )\n" +
+				"\t\t\treturn output;\n" +
+				"\n" +
 				"\t\t// threaded code is not significantly faster here\n" +
 				"\t\tImplConvertImage.convert(input, output);\n" +
 				"\n" +
@@ -125,6 +128,9 @@ public class GenerateConvertImage extends CodeGeneratorBase {
 				"\t\t\toutput.reshape(input.width,input.height,input.numBands);\n" +
 				"\t\t}\n" +
 				"\n" +
+				"\t\tif( BOverrideConvertImage.invokeNativeConvert(input, output) )\n" +
+				"\t\t\treturn output;\n" +
+				"\n" +
 				"\t\t// threaded code is not significantly faster here\n" +
 				"\t\tImplConvertImage.convert(input, output);\n" +
 				"\n" +
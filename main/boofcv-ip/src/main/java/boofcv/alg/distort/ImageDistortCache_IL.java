@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixelMB;
+import boofcv.struct.distort.PixelTransform;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageInterleaved;
+import georegression.struct.point.Point2D_F32;
+
+/**
+ * Implementation of {@link ImageDistort} for {@link ImageInterleaved} which computes the distortion once and
+ * caches it. See {@link ImageDistortCache_SB} for a description of how the map is stored.
+ *
+ * @author Peter Abeles
+ */
+public class ImageDistortCache_IL
+		<Input extends ImageInterleaved<Input>,Output extends ImageInterleaved<Output>>
+		extends ImageDistortBasic<Input,Output,InterpolatePixelMB<Input>> {
+
+	protected AssignPixelValue_MB<Output> assigner;
+
+	// size of output image
+	protected int width=-1,height=-1;
+	// Cached location in the source image of each output pixel. Interleaved x,y pairs
+	protected float[] map = new float[0];
+
+	// storage for interpolated pixel values
+	protected float[] values = new float[0];
+
+	protected boolean dirty;
+
+	/**
+	 * Specifies configuration parameters
+	 *
+	 * @param interp Interpolation algorithm
+	 */
+	public ImageDistortCache_IL(AssignPixelValue_MB<Output> assigner,
+								InterpolatePixelMB<Input> interp) {
+		super(interp);
+		this.assigner = assigner;
+	}
+
+	@Override
+	public void setModel(PixelTransform<Point2D_F32> dstToSrc) {
+		super.setModel(dstToSrc);
+		this.dirty = true;
+	}
+
+	@Override
+	protected void init(Input srcImg, Output dstImg) {
+		if( dirty || width != dstImg.width || height != dstImg.height) {
+			width = dstImg.width;
+			height = dstImg.height;
+			declareMap();
+			computeMap();
+			dirty = false;
+		}
+
+		super.init(srcImg, dstImg);
+		if (values.length != srcImg.getNumBands()) {
+			values = new float[srcImg.getNumBands()];
+		}
+		assigner.setImage(dstImg);
+	}
+
+	/**
+	 * Ensures the map has enough storage for the current output image. Memory is only reallocated if it grows.
+	 */
+	protected void declareMap() {
+		int length = 2*width*height;
+		if( map.length < length )
+			map = new float[length];
+	}
+
+	/**
+	 * Computes the location of every output pixel in the source image
+	 */
+	protected void computeMap() {
+		Point2D_F32 p = new Point2D_F32();
+		int index = 0;
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				dstToSrc.compute(x,y,p);
+				map[index++] = p.x;
+				map[index++] = p.y;
+			}
+		}
+	}
+
+	@Override
+	protected void applyAll() {
+		for (int y = y0; y < y1; y++) {
+			int indexDst = dstImg.startIndex + dstImg.stride * y + x0 * dstImg.numBands;
+			int indexMap = 2*(y*width + x0);
+			for (int x = x0; x < x1; x++, indexDst += dstImg.numBands) {
+				float sx = map[indexMap++];
+				float sy = map[indexMap++];
+				interp.get(sx, sy, values);
+				assigner.assign(indexDst, values);
+			}
+		}
+	}
+
+	@Override
+	protected void applyAll(GrayU8 mask) {
+		float maxWidth = srcImg.getWidth() - 1;
+		float maxHeight = srcImg.getHeight() - 1;
+
+		for (int y = y0; y < y1; y++) {
+			int indexDst = dstImg.startIndex + dstImg.stride * y + x0 * dstImg.numBands;
+			int indexMsk = mask.startIndex + mask.stride * y + x0;
+			int indexMap = 2*(y*width + x0);
+
+			for (int x = x0; x < x1; x++, indexDst += dstImg.numBands, indexMsk++) {
+				float sx = map[indexMap++];
+				float sy = map[indexMap++];
+				interp.get(sx, sy, values);
+				assigner.assign(indexDst, values);
+
+				if (sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight) {
+					mask.data[indexMsk] = 1;
+				} else {
+					mask.data[indexMsk] = 0;
+				}
+			}
+		}
+	}
+
+	@Override
+	protected void applyOnlyInside() {
+		float maxWidth = srcImg.getWidth() - 1;
+		float maxHeight = srcImg.getHeight() - 1;
+
+		for (int y = y0; y < y1; y++) {
+			int indexDst = dstImg.startIndex + dstImg.stride * y + x0 * dstImg.numBands;
+			int indexMap = 2*(y*width + x0);
+			for (int x = x0; x < x1; x++, indexDst += dstImg.numBands) {
+				float sx = map[indexMap++];
+				float sy = map[indexMap++];
+
+				if (sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight) {
+					interp.get(sx, sy, values);
+					assigner.assign(indexDst, values);
+				}
+			}
+		}
+	}
+
+	@Override
+	protected void applyOnlyInside(GrayU8 mask) {
+		float maxWidth = srcImg.getWidth() - 1;
+		float maxHeight = srcImg.getHeight() - 1;
+
+		for (int y = y0; y < y1; y++) {
+			int indexDst = dstImg.startIndex + dstImg.stride * y + x0 * dstImg.numBands;
+			int indexMsk = mask.startIndex + mask.stride * y + x0;
+			int indexMap = 2*(y*width + x0);
+
+			for (int x = x0; x < x1; x++, indexDst += dstImg.numBands, indexMsk++) {
+				float sx = map[indexMap++];
+				float sy = map[indexMap++];
+
+				if (sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight) {
+					interp.get(sx, sy, values);
+					assigner.assign(indexDst, values);
+					mask.data[indexMsk] = 1;
+				} else {
+					mask.data[indexMsk] = 0;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the cached map. Interleaved x,y coordinates in the source image for each output pixel.
+	 */
+	public float[] getMap() {
+		return map;
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixelMB;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.distort.PixelTransform;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageInterleaved;
+import georegression.struct.point.Point2D_F32;
+
+import java.util.Stack;
+
+/**
+ * Concurrent implementation of {@link ImageDistortCache_IL}
+ *
+ * @author Peter Abeles
+ */
+public class ImageDistortCache_IL_MT
+		<Input extends ImageInterleaved<Input>,Output extends ImageInterleaved<Output>>
+		extends ImageDistortCache_IL<Input,Output> {
+
+	private final Stack<BlockDistort> queue = new Stack<>();
+
+	/**
+	 * Specifies configuration parameters
+	 *
+	 * @param interp Interpolation algorithm
+	 */
+	public ImageDistortCache_IL_MT(AssignPixelValue_MB<Output> assigner,
+								   InterpolatePixelMB<Input> interp) {
+		super(assigner,interp);
+	}
+
+	private BlockDistort pop() {
+		synchronized (queue) {
+			if (queue.isEmpty()) {
+				return new BlockDistort();
+			} else {
+				return queue.pop();
+			}
+		}
+	}
+
+	private void recycle( BlockDistort b ) {
+		synchronized (queue) {
+			queue.push(b);
+		}
+	}
+
+	@Override
+	protected void computeMap() {
+		BoofConcurrency.loopBlocks(0,height,(y0, y1)->{
+			PixelTransform<Point2D_F32> dstToSrc = this.dstToSrc.copyConcurrent();
+			Point2D_F32 p = new Point2D_F32();
+			for( int y = y0; y < y1; y++ ) {
+				int index = 2*y*width;
+				for( int x = 0; x < width; x++ ) {
+					dstToSrc.compute(x,y,p);
+					map[index++] = p.x;
+					map[index++] = p.y;
+				}
+			}
+		});
+	}
+
+	@Override
+	protected void applyAll() {
+		BoofConcurrency.loopBlocks(y0,y1,(y0, y1)->{
+			BlockDistort b = pop();
+			b.applyAll(y0,y1);
+			recycle(b);
+		});
+	}
+
+	@Override
+	protected void applyAll( GrayU8 mask ) {
+		BoofConcurrency.loopBlocks(y0,y1,(y0,y1)->{
+			BlockDistort b = pop();
+			b.applyAll(y0,y1,mask);
+			recycle(b);
+		});
+	}
+
+	@Override
+	protected void applyOnlyInside() {
+		BoofConcurrency.loopBlocks(y0,y1,(y0,y1)->{
+			BlockDistort b = pop();
+			b.applyOnlyInside(y0,y1);
+			recycle(b);
+		});
+	}
+
+	@Override
+	protected void applyOnlyInside( GrayU8 mask ) {
+		BoofConcurrency.loopBlocks(y0,y1,(y0,y1)->{
+			BlockDistort b = pop();
+			b.applyOnlyInside(y0,y1,mask);
+			recycle(b);
+		});
+	}
+
+	private class BlockDistort {
+		InterpolatePixelMB<Input> interp = ImageDistortCache_IL_MT.this.interp.copy();
+		float[] values = new float[0];
+
+		public void init() {
+			interp.setImage(srcImg);
+			if( values.length != srcImg.getNumBands() )
+				values = new float[srcImg.getNumBands()];
+		}
+
+		void applyAll( int y0 , int y1 ) {
+			init();
+			for( int y = y0; y < y1; y++ ) {
+				int indexDst = dstImg.startIndex + dstImg.stride*y + x0*dstImg.numBands;
+				int indexMap = 2*(y*width + x0);
+				for( int x = x0; x < x1; x++ , indexDst += dstImg.numBands ) {
+					float sx = map[indexMap++];
+					float sy = map[indexMap++];
+					interp.get(sx, sy, values);
+					assigner.assign(indexDst,values);
+				}
+			}
+		}
+
+		void applyAll( int y0 , int y1 , GrayU8 mask ) {
+			init();
+			float maxWidth = srcImg.getWidth()-1;
+			float maxHeight = srcImg.getHeight()-1;
+
+			for( int y = y0; y < y1; y++ ) {
+				int indexDst = dstImg.startIndex + dstImg.stride*y + x0*dstImg.numBands;
+				int indexMsk = mask.startIndex + mask.stride*y + x0;
+				int indexMap = 2*(y*width + x0);
+
+				for( int x = x0; x < x1; x++ , indexDst += dstImg.numBands , indexMsk++ ) {
+					float sx = map[indexMap++];
+					float sy = map[indexMap++];
+					interp.get(sx, sy, values);
+					assigner.assign(indexDst,values);
+
+					if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
+						mask.data[indexMsk] = 1;
+					} else {
+						mask.data[indexMsk] = 0;
+					}
+				}
+			}
+		}
+
+		void applyOnlyInside( int y0 , int y1 ) {
+			init();
+			float maxWidth = srcImg.getWidth()-1;
+			float maxHeight = srcImg.getHeight()-1;
+
+			for( int y = y0; y < y1; y++ ) {
+				int indexDst = dstImg.startIndex + dstImg.stride*y + x0*dstImg.numBands;
+				int indexMap = 2*(y*width + x0);
+				for( int x = x0; x < x1; x++ , indexDst += dstImg.numBands ) {
+					float sx = map[indexMap++];
+					float sy = map[indexMap++];
+
+					if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
+						interp.get(sx, sy, values);
+						assigner.assign(indexDst,values);
+					}
+				}
+			}
+		}
+
+		void applyOnlyInside( int y0 , int y1 , GrayU8 mask ) {
+			init();
+			float maxWidth = srcImg.getWidth()-1;
+			float maxHeight = srcImg.getHeight()-1;
+
+			for( int y = y0; y < y1; y++ ) {
+				int indexDst = dstImg.startIndex + dstImg.stride*y + x0*dstImg.numBands;
+				int indexMsk = mask.startIndex + mask.stride*y + x0;
+				int indexMap = 2*(y*width + x0);
+
+				for( int x = x0; x < x1; x++ , indexDst += dstImg.numBands , indexMsk++ ) {
+					float sx = map[indexMap++];
+					float sy = map[indexMap++];
+
+					if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
+						interp.get(sx, sy, values);
+						assigner.assign(indexDst,values);
+						mask.data[indexMsk] = 1;
+					} else {
+						mask.data[indexMsk] = 0;
+					}
+				}
+			}
+		}
+	}
+}
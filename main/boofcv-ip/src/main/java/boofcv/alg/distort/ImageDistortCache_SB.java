@@ -29,6 +29,10 @@ import georegression.struct.point.Point2D_F32;
  * To overcome this problem the distortion is computed once and cached.  Then when the image is distorted
  * again the save results are simply recalled and not computed again.
  *
+ * <p>The map is stored in a single interleaved float array (x0,y0,x1,y1,...) in row-major order with one
+ * entry per output pixel. Compared to one object per pixel this uses a fraction of the memory and
+ * is read sequentially while rendering.</p>
+ *
  * @author Peter Abeles
  */
 public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends ImageGray<Output>>
@@ -38,7 +42,8 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 
 	// size of output image
 	protected int width=-1,height=-1;
-	protected Point2D_F32 map[];
+	// Cached location in the source image of each output pixel. Interleaved x,y pairs
+	protected float[] map = new float[0];
 	// sub pixel interpolation
 	protected InterpolatePixelS<Input> interp;
 
@@ -117,15 +122,15 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 		if( dirty || width != dstImg.width || height != dstImg.height) {
 			width = dstImg.width;
 			height = dstImg.height;
-			map = new Point2D_F32[width*height];
-			for( int i = 0; i < map.length; i++ ) {
-				map[i] = new Point2D_F32();
-			}
+			declareMap();
 
+			Point2D_F32 p = new Point2D_F32();
 			int index = 0;
 			for( int y = 0; y < height; y++ ) {
 				for( int x = 0; x < width; x++ ) {
-					dstToSrc.compute(x,y,map[index++]);
+					dstToSrc.compute(x,y,p);
+					map[index++] = p.x;
+					map[index++] = p.y;
 				}
 			}
 			dirty = false;
@@ -138,16 +143,27 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 		assigner.setImage(dstImg);
 	}
 
+	/**
+	 * Ensures the map has enough storage for the current output image. Memory is only reallocated if it grows.
+	 */
+	protected void declareMap() {
+		int length = 2*width*height;
+		if( map.length < length )
+			map = new float[length];
+	}
+
 	protected void renderAll() {
 
 		// todo TO make this faster first apply inside the region which can process the fast border
 		// then do the slower border thingy
 		for( int y = y0; y < y1; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
+			int indexMap = 2*(y*width + x0);
 			for( int x = x0; x < x1; x++ , indexDst++ ) {
-				Point2D_F32 s = map[indexDst];
+				float sx = map[indexMap++];
+				float sy = map[indexMap++];
 
-				assigner.assign(indexDst,interp.get(s.x, s.y));
+				assigner.assign(indexDst,interp.get(sx, sy));
 			}
 		}
 	}
@@ -160,12 +176,14 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 		for( int y = y0; y < y1; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
 			int indexMsk = mask.startIndex + mask.stride*y + x0;
+			int indexMap = 2*(y*width + x0);
 
 			for( int x = x0; x < x1; x++ , indexDst++ , indexMsk++ ) {
-				Point2D_F32 s = map[indexDst];
+				float sx = map[indexMap++];
+				float sy = map[indexMap++];
 
-				assigner.assign(indexDst,interp.get(s.x, s.y));
-				if( s.x >= 0 && s.x <= maxWidth && s.y >= 0 && s.y <= maxHeight ) {
+				assigner.assign(indexDst,interp.get(sx, sy));
+				if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
 					mask.data[indexMsk] = 1;
 				} else {
 					mask.data[indexMsk] = 0;
@@ -180,11 +198,13 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 
 		for( int y = y0; y < y1; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
+			int indexMap = 2*(y*width + x0);
 			for( int x = x0; x < x1; x++ , indexDst++ ) {
-				Point2D_F32 s = map[indexDst];
+				float sx = map[indexMap++];
+				float sy = map[indexMap++];
 
-				if( s.x >= 0 && s.x <= maxWidth && s.y >= 0 && s.y <= maxHeight ) {
-					assigner.assign(indexDst,interp.get(s.x, s.y));
+				if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
+					assigner.assign(indexDst,interp.get(sx, sy));
 				}
 			}
 		}
@@ -197,12 +217,14 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 		for( int y = y0; y < y1; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
 			int indexMsk = mask.startIndex + mask.stride*y + x0;
+			int indexMap = 2*(y*width + x0);
 
 			for( int x = x0; x < x1; x++ , indexDst++ , indexMsk++ ) {
-				Point2D_F32 s = map[indexDst];
+				float sx = map[indexMap++];
+				float sy = map[indexMap++];
 
-				if( s.x >= 0 && s.x <= maxWidth && s.y >= 0 && s.y <= maxHeight ) {
-					assigner.assign(indexDst,interp.get(s.x, s.y));
+				if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
+					assigner.assign(indexDst,interp.get(sx, sy));
 					mask.data[indexMsk] = 1;
 				} else {
 					mask.data[indexMsk] = 0;
@@ -211,7 +233,10 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 		}
 	}
 
-	public Point2D_F32[] getMap() {
+	/**
+	 * Returns the cached map. Interleaved x,y coordinates in the source image for each output pixel.
+	 */
+	public float[] getMap() {
 		return map;
 	}
 
@@ -70,17 +70,17 @@ public class ImageDistortCache_SB_MT<Input extends ImageGray<Input>,Output exten
 		if( dirty || width != dstImg.width || height != dstImg.height) {
 			width = dstImg.width;
 			height = dstImg.height;
-			map = new Point2D_F32[width*height];
-			for( int i = 0; i < map.length; i++ ) {
-				map[i] = new Point2D_F32();
-			}
+			declareMap();
 
 			BoofConcurrency.loopBlocks(0,height,(y0, y1)->{
 				PixelTransform<Point2D_F32> dstToSrc = this.dstToSrc.copyConcurrent();
+				Point2D_F32 p = new Point2D_F32();
 				for( int y = y0; y < y1; y++ ) {
-					int index = y*width;
+					int index = 2*y*width;
 					for( int x = 0; x < width; x++ ) {
-						dstToSrc.compute(x,y,map[index++]);
+						dstToSrc.compute(x,y,p);
+						map[index++] = p.x;
+						map[index++] = p.y;
 					}
 				}
 			});
@@ -142,10 +142,12 @@ public class ImageDistortCache_SB_MT<Input extends ImageGray<Input>,Output exten
 			init();
 			for( int y = y0; y < y1; y++ ) {
 				int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
+				int indexMap = 2*(y*width + x0);
 				for( int x = x0; x < x1; x++ , indexDst++ ) {
-					Point2D_F32 s = map[indexDst];
+					float sx = map[indexMap++];
+					float sy = map[indexMap++];
 
-					assigner.assign(indexDst,interp.get(s.x, s.y));
+					assigner.assign(indexDst,interp.get(sx, sy));
 				}
 			}
 		}
@@ -158,12 +160,14 @@ public class ImageDistortCache_SB_MT<Input extends ImageGray<Input>,Output exten
 			for( int y = y0; y < y1; y++ ) {
 				int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
 				int indexMsk = mask.startIndex + mask.stride*y + x0;
+				int indexMap = 2*(y*width + x0);
 
 				for( int x = x0; x < x1; x++ , indexDst++ , indexMsk++ ) {
-					Point2D_F32 s = map[indexDst];
+					float sx = map[indexMap++];
+					float sy = map[indexMap++];
 
-					assigner.assign(indexDst,interp.get(s.x, s.y));
-					if( s.x >= 0 && s.x <= maxWidth && s.y >= 0 && s.y <= maxHeight ) {
+					assigner.assign(indexDst,interp.get(sx, sy));
+					if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
 						mask.data[indexMsk] = 1;
 					} else {
 						mask.data[indexMsk] = 0;
@@ -180,11 +184,13 @@ public class ImageDistortCache_SB_MT<Input extends ImageGray<Input>,Output exten
 
 			for( int y = y0; y < y1; y++ ) {
 				int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
+				int indexMap = 2*(y*width + x0);
 				for( int x = x0; x < x1; x++ , indexDst++ ) {
-					Point2D_F32 s = map[indexDst];
+					float sx = map[indexMap++];
+					float sy = map[indexMap++];
 
-					if( s.x >= 0 && s.x <= maxWidth && s.y >= 0 && s.y <= maxHeight ) {
-						assigner.assign(indexDst,interp.get(s.x, s.y));
+					if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
+						assigner.assign(indexDst,interp.get(sx, sy));
 					}
 				}
 			}
@@ -199,12 +205,14 @@ public class ImageDistortCache_SB_MT<Input extends ImageGray<Input>,Output exten
 			for( int y = y0; y < y1; y++ ) {
 				int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
 				int indexMsk = mask.startIndex + mask.stride*y + x0;
+				int indexMap = 2*(y*width + x0);
 
 				for( int x = x0; x < x1; x++ , indexDst++ , indexMsk++ ) {
-					Point2D_F32 s = map[indexDst];
+					float sx = map[indexMap++];
+					float sy = map[indexMap++];
 
-					if( s.x >= 0 && s.x <= maxWidth && s.y >= 0 && s.y <= maxHeight ) {
-						assigner.assign(indexDst,interp.get(s.x, s.y));
+					if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
+						assigner.assign(indexDst,interp.get(sx, sy));
 						mask.data[indexMsk] = 1;
 					} else {
 						mask.data[indexMsk] = 0;
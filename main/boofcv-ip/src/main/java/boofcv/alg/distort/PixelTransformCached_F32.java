@@ -27,11 +27,15 @@ import org.ejml.UtilEjml;
  * Precomputes transformations for each pixel in the image.  Doesn't check bounds and will give an incorrect result
  * or crash if outside pixels are requested.
  *
+ * <p>The transformed coordinates are stored in a single interleaved float array, x and y for each pixel in
+ * row-major order. The map is read only after construction so concurrent copies share the same array.</p>
+ *
  * @author Peter Abeles
  */
 public class PixelTransformCached_F32 implements PixelTransform<Point2D_F32> {
 
-	Point2D_F32 map[];
+	// interleaved x,y transformed coordinates for each pixel
+	float[] map;
 	int width,height;
 
 	boolean ignoreNaN = true;
@@ -44,11 +48,11 @@ public class PixelTransformCached_F32 implements PixelTransform<Point2D_F32> {
 		this.width = width+1; // add one to the width since some stuff checks the outside border
 		this.height = height+1;
 
-		map = new Point2D_F32[this.width*this.height];
+		map = new float[2*this.width*this.height];
+		Point2D_F32 p = new Point2D_F32();
 		int index = 0;
 		for (int y = 0; y < this.height; y++) {
 			for (int x = 0; x < this.width; x++) {
-				Point2D_F32 p = new Point2D_F32();
 				transform.compute(x,y,p);
 
 				// It's not obvious what to do if the pixel is invalid
@@ -57,7 +61,8 @@ public class PixelTransformCached_F32 implements PixelTransform<Point2D_F32> {
 				if( !ignoreNaN && (UtilEjml.isUncountable(p.x) || UtilEjml.isUncountable(p.y)) ) {
 					p.set(-1,-1);
 				}
-				map[index++] = p;
+				map[index++] = p.x;
+				map[index++] = p.y;
 			}
 		}
 	}
@@ -65,8 +70,22 @@ public class PixelTransformCached_F32 implements PixelTransform<Point2D_F32> {
 	PixelTransformCached_F32() {
 	}
 
-	public Point2D_F32 getPixel( int x, int y ) {
-		return map[width*y + x];
+	/**
+	 * Copies the cached value of a pixel into output
+	 */
+	public void getPixel( int x, int y , Point2D_F32 output ) {
+		int index = 2*(width*y + x);
+		output.x = map[index];
+		output.y = map[index+1];
+	}
+
+	/**
+	 * Overwrites the cached value of a pixel. Concurrent copies share the map and will also be modified.
+	 */
+	public void setPixel( int x, int y , float px , float py ) {
+		int index = 2*(width*y + x);
+		map[index] = px;
+		map[index+1] = py;
 	}
 
 	public boolean isIgnoreNaN() {
@@ -82,17 +101,16 @@ public class PixelTransformCached_F32 implements PixelTransform<Point2D_F32> {
 //		if( x < 0 || y < 0 || x >= width || y >= height )
 //			throw new IllegalArgumentException("Out of bounds");
 
-		output.set(map[y*width+x]);
+		int index = 2*(y*width+x);
+		output.x = map[index];
+		output.y = map[index+1];
 	}
 
 	@Override
 	public PixelTransform<Point2D_F32> copyConcurrent() {
 		PixelTransformCached_F32 ret = new PixelTransformCached_F32();
-		ret.map = new Point2D_F32[this.map.length];
-		for (int i = 0; i < ret.map.length; i++) {
-			ret.map[i] = this.map[i].copy();
-		}
-
+		// the map isn't modified by compute() so it's safe to share
+		ret.map = this.map;
 		ret.width = this.width;
 		ret.height = this.height;
 		ret.ignoreNaN = this.ignoreNaN;
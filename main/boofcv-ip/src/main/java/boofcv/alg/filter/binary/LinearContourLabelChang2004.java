@@ -69,11 +69,11 @@ public class LinearContourLabelChang2004 {
 	private ContourTracer tracer;
 
 	// binary image with a border of zero.
-	private GrayU8 border = new GrayU8(1,1);
+	GrayU8 border = new GrayU8(1,1);
 
 	// predeclared/recycled data structures
 	PackedSetsPoint2D_I32 packedPoints = new PackedSetsPoint2D_I32(2000);
-	private FastQueue<ContourPacked> contours = new FastQueue<>(ContourPacked::new);
+	FastQueue<ContourPacked> contours = new FastQueue<>(ContourPacked::new);
 
 	// internal book keeping variables
 	private int x,y,indexIn,indexOut;
@@ -0,0 +1,498 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.PackedSetsPoint2D_I32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link LinearContourLabelChang2004}. The output, labeled image, contours and
+ * the order in which they are stored, is identical to the single threaded version.
+ * </p>
+ *
+ * <p>
+ * The single threaded algorithm traces a contour the first time it's encountered in a raster scan. This means
+ * the external contour of a blob is traced starting at its first pixel in raster order and an internal contour
+ * is traced starting at the pixel above the first pixel of the hole. Blobs and holes are found here by labeling
+ * the foreground and background pixels in horizontal strips in parallel using union-find. Labels are then merged
+ * across the seams between strips. Each contour is traced independently in parallel and the results are
+ * combined in the same order as the single threaded algorithm.
+ * </p>
+ *
+ * <p>
+ * While labeling, the parent of each pixel is stored in the labeled image as the pixel's array index plus one.
+ * Foreground pixels store it as a positive value and background pixels as a negative value. The root of each set
+ * is the set's first pixel in raster order.
+ * </p>
+ *
+ * <p>
+ * Labeling and tracing in parallel requires about 2.5x more work than the single threaded algorithm. For small
+ * images or when fewer than {@link #MIN_THREADS} threads are available the single threaded algorithm is used.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearContourLabelChang2004_MT extends LinearContourLabelChang2004 {
+
+	/** Minimum number of threads before the concurrent algorithm is faster than the single threaded one */
+	public static int MIN_THREADS = 3;
+
+	// Workspace for each block of rows being labeled
+	FastQueue<RowBlock> rowBlocks = new FastQueue<>(RowBlock::new);
+	// Row blocks sorted by the first row in the block
+	List<RowBlock> sortedRows = new ArrayList<>();
+	// Workspace for each block of contours being traced
+	FastQueue<TraceBlock> traceBlocks = new FastQueue<>(TraceBlock::new);
+	List<TraceBlock> sortedTraces = new ArrayList<>();
+
+	// Index of the first pixel in each blob. Sorted by label
+	GrowQueue_I32 blobFirst = new GrowQueue_I32();
+	// Index of the pixel above the first pixel in each hole
+	GrowQueue_I32 holeAbove = new GrowQueue_I32();
+
+	// Pixel a contour's trace starts at and its label, in the order that the single threaded algorithm traces them.
+	// Labels for internal contours are negative
+	GrowQueue_I32 tracePixels = new GrowQueue_I32();
+	GrowQueue_I32 traceLabels = new GrowQueue_I32();
+
+	/**
+	 * Configures the algorithm.
+	 *
+	 * @param rule Connectivity rule.  4 or 8
+	 */
+	public LinearContourLabelChang2004_MT( ConnectRule rule ) {
+		super(rule);
+	}
+
+	@Override
+	public void process( GrayU8 binary , GrayS32 labeled ) {
+		if( binary.width*binary.height < BoofConcurrency.SMALL_IMAGE || BoofConcurrency.getMaxThreads() < MIN_THREADS ) {
+			super.process(binary,labeled);
+		} else {
+			processConcurrent(binary,labeled);
+		}
+	}
+
+	/**
+	 * Processes the image using the concurrent algorithm no matter the image size or number of threads
+	 */
+	void processConcurrent( GrayU8 binary , GrayS32 labeled ) {
+		// initialize data structures
+		labeled.reshape(binary.width,binary.height);
+
+		// ensure that the image border pixels are filled with zero by enlarging the image
+		if( border.width != binary.width+2 || border.height != binary.height+2)  {
+			border.reshape(binary.width + 2, binary.height + 2);
+			ImageMiscOps.fillBorder(border, 0, 1);
+		}
+		border.subimage(1,1,border.width-1,border.height-1, null).setTo(binary);
+
+		packedPoints.reset();
+		contours.reset();
+
+		boolean eight = getConnectRule() == ConnectRule.EIGHT;
+
+		// Blobs are connected using the connectivity rule and holes using the opposite rule
+		labelBlobs(labeled,eight);
+		findHoles(labeled,!eight);
+		selectTraceOrder();
+		traceContours(labeled);
+	}
+
+	/**
+	 * Labels the foreground pixels. Labels are assigned in the order a blob is first encountered in a raster scan.
+	 * When done, labels are stored as negative values.
+	 */
+	void labelBlobs( GrayS32 labeled , boolean eight ) {
+		BoofConcurrency.loopBlocks(0,labeled.height,rowBlocks,(block,y0,y1)->{
+			block.y0 = y0;
+			labelRows(labeled,y0,y1,block.roots,true,eight);
+		});
+		mergeSeams(labeled,true,eight);
+
+		// Assign labels to pixels which are still roots. Labels are negative so that they can be told apart
+		// from parents
+		sortRowBlocks();
+		blobFirst.reset();
+		for (int i = 0; i < sortedRows.size(); i++) {
+			GrowQueue_I32 roots = sortedRows.get(i).roots;
+			for (int j = 0; j < roots.size; j++) {
+				int index = roots.data[j];
+				if( labeled.data[index] != index+1 )
+					continue;
+				blobFirst.add(index);
+				labeled.data[index] = -blobFirst.size;
+			}
+		}
+
+		// Replace parents with labels. Other threads only replace a parent with the label of the same set
+		BoofConcurrency.loopBlocks(0,labeled.height,rowBlocks,(block,y0,y1)->{
+			final int[] data = labeled.data;
+			for (int y = y0; y < y1; y++) {
+				int index = labeled.startIndex + y*labeled.stride;
+				int end = index + labeled.width;
+				for (; index < end; index++) {
+					int value = data[index];
+					if( value <= 0 )
+						continue;
+					while( value > 0 )
+						value = data[value-1];
+					data[index] = value;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Finds the first pixel in each set of connected background pixels which doesn't touch the image border.
+	 * When done, all background pixels in the labeled image will be zero again and blob labels will be positive.
+	 */
+	void findHoles( GrayS32 labeled , boolean eight ) {
+		BoofConcurrency.loopBlocks(0,labeled.height,rowBlocks,(block,y0,y1)->{
+			block.y0 = y0;
+			labelRows(labeled,y0,y1,block.roots,false,eight);
+		});
+		mergeSeams(labeled,false,eight);
+
+		// Everything connected to the image border is outside of all the blobs
+		int outside = mergeImageBorder(labeled);
+
+		BoofConcurrency.loopBlocks(0,labeled.height,rowBlocks,(block,y0,y1)->{
+			block.y0 = y0;
+			block.roots.reset();
+			final int[] data = labeled.data;
+			for (int y = y0; y < y1; y++) {
+				int index = labeled.startIndex + y*labeled.stride;
+				int end = index + labeled.width;
+				for (; index < end; index++) {
+					int value = data[index];
+					if( value >= 0 )
+						continue;
+					if( value == -(index+1) && index != outside )
+						block.roots.add(index);
+					data[index] = 0;
+				}
+			}
+		});
+
+		// The first pixel in a hole can't be on the top row, so the pixel above it must be part of a blob
+		sortRowBlocks();
+		holeAbove.reset();
+		for (int i = 0; i < sortedRows.size(); i++) {
+			GrowQueue_I32 roots = sortedRows.get(i).roots;
+			for (int j = 0; j < roots.size; j++) {
+				holeAbove.add(roots.data[j]-labeled.stride);
+			}
+		}
+	}
+
+	/**
+	 * Labels pixels in a block of rows. Only pixels inside the block are connected together. When possible a pixel
+	 * is given the same parent as a neighbor, which avoids searching for roots. When labeling background pixels
+	 * the sign of foreground labels is flipped.
+	 *
+	 * @param roots (Output) Pixels which were roots when first labeled
+	 * @param foreground true to label pixels with a value of 1 or false for all other pixels
+	 */
+	void labelRows( GrayS32 labeled , int y0 , int y1 , GrowQueue_I32 roots , boolean foreground , boolean eight ) {
+		final int[] data = labeled.data;
+		final byte[] bdata = border.data;
+		final int sign = foreground ? 1 : -1;
+		final int stride = labeled.stride;
+		final int strideB = border.stride;
+		final int width = labeled.width;
+
+		roots.reset();
+		for (int y = y0; y < y1; y++) {
+			int index = labeled.startIndex + y*stride;
+			int indexB = border.startIndex + (y+1)*strideB + 1;
+			for (int x = 0; x < width; x++, index++, indexB++) {
+				if( (bdata[indexB] == 1) != foreground ) {
+					data[index] = foreground ? 0 : -data[index];
+					continue;
+				}
+
+				boolean left = x > 0 && (bdata[indexB-1] == 1) == foreground;
+				if( y == y0 ) {
+					if( left ) {
+						data[index] = data[index-1];
+					} else {
+						data[index] = sign*(index+1);
+						roots.add(index);
+					}
+					continue;
+				}
+
+				boolean up = (bdata[indexB-strideB] == 1) == foreground;
+				if( eight ) {
+					// If the pixel above is a member then all the other neighbors are already connected to it
+					boolean upLeft = x > 0 && (bdata[indexB-strideB-1] == 1) == foreground;
+					boolean upRight = x+1 < width && (bdata[indexB-strideB+1] == 1) == foreground;
+					if( up ) {
+						data[index] = data[index-stride];
+					} else if( upRight ) {
+						if( upLeft )
+							data[index] = union(data,index-stride+1,index-stride-1,sign);
+						else if( left )
+							data[index] = union(data,index-stride+1,index-1,sign);
+						else
+							data[index] = data[index-stride+1];
+					} else if( upLeft ) {
+						data[index] = data[index-stride-1];
+					} else if( left ) {
+						data[index] = data[index-1];
+					} else {
+						data[index] = sign*(index+1);
+						roots.add(index);
+					}
+				} else {
+					if( up ) {
+						if( left )
+							data[index] = union(data,index-stride,index-1,sign);
+						else
+							data[index] = data[index-stride];
+					} else if( left ) {
+						data[index] = data[index-1];
+					} else {
+						data[index] = sign*(index+1);
+						roots.add(index);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Connects pixels along the top row of each block to the row above it
+	 */
+	void mergeSeams( GrayS32 labeled , boolean foreground , boolean eight ) {
+		final int[] data = labeled.data;
+		final byte[] bdata = border.data;
+		final int sign = foreground ? 1 : -1;
+		final int stride = labeled.stride;
+		final int strideB = border.stride;
+
+		for (int i = 0; i < rowBlocks.size; i++) {
+			int y = rowBlocks.get(i).y0;
+			if( y == 0 )
+				continue;
+			int index = labeled.startIndex + y*stride;
+			int indexB = border.startIndex + (y+1)*strideB + 1;
+			for (int x = 0; x < labeled.width; x++, index++, indexB++) {
+				if( (bdata[indexB] == 1) != foreground )
+					continue;
+				if( (bdata[indexB-strideB] == 1) == foreground )
+					union(data,index,index-stride,sign);
+				if( eight ) {
+					if( x > 0 && (bdata[indexB-strideB-1] == 1) == foreground )
+						union(data,index,index-stride-1,sign);
+					if( x+1 < labeled.width && (bdata[indexB-strideB+1] == 1) == foreground )
+						union(data,index,index-stride+1,sign);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Connects all the background pixels along the image border together
+	 *
+	 * @return Index of the root pixel for the background outside of all blobs. -1 if there is none.
+	 */
+	int mergeImageBorder( GrayS32 labeled ) {
+		final int[] data = labeled.data;
+		int first = -1;
+		for (int y = 0; y < labeled.height; y++) {
+			int index = labeled.startIndex + y*labeled.stride;
+			int step = y == 0 || y == labeled.height-1 ? 1 : Math.max(1,labeled.width-1);
+			for (int x = 0; x < labeled.width; x += step, index += step) {
+				if( data[index] >= 0 )
+					continue;
+				if( first == -1 )
+					first = index;
+				else
+					union(data,first,index,-1);
+			}
+		}
+		return first == -1 ? -1 : find(data,first,-1);
+	}
+
+	/**
+	 * Merges the pixels in the trace order of the single threaded algorithm. As the image is scanned, a blob's
+	 * external contour is traced before any internal contours which start at the same pixel.
+	 */
+	void selectTraceOrder() {
+		tracePixels.reset();
+		traceLabels.reset();
+		int idxBlob = 0, idxHole = 0;
+		while( idxBlob < blobFirst.size || idxHole < holeAbove.size ) {
+			if( idxHole == holeAbove.size ||
+					(idxBlob < blobFirst.size && blobFirst.data[idxBlob] <= holeAbove.data[idxHole]) ) {
+				tracePixels.add(blobFirst.data[idxBlob]);
+				traceLabels.add(++idxBlob);
+			} else {
+				tracePixels.add(holeAbove.data[idxHole++]);
+				traceLabels.add(0);
+			}
+		}
+	}
+
+	/**
+	 * Traces all the contours in parallel then copies them into the output in trace order
+	 */
+	void traceContours( GrayS32 labeled ) {
+		final int minContourSize = getMinContourSize();
+		final int maxContourSize = getMaxContourSize();
+		final int maxInternalSize = isSaveInternalContours() ? maxContourSize : 0;
+		final ConnectRule rule = getConnectRule();
+
+		// labels for internal contours aren't known until the blobs have been labeled
+		for (int i = 0; i < traceLabels.size; i++) {
+			if( traceLabels.data[i] == 0 )
+				traceLabels.data[i] = -labeled.data[tracePixels.data[i]];
+		}
+
+		// the workspace isn't resized if there's nothing to trace
+		traceBlocks.reset();
+		BoofConcurrency.loopBlocks(0,tracePixels.size,traceBlocks,(block,idx0,idx1)->{
+			block.idx0 = idx0;
+			if( block.tracer == null || block.tracer.getConnectRule() != rule )
+				block.tracer = new ContourTracer(rule);
+			block.points.reset();
+			block.tracer.setInputs(border,labeled,block.points);
+
+			for (int i = idx0; i < idx1; i++) {
+				int label = traceLabels.data[i];
+				boolean external = label > 0;
+				int pixel = tracePixels.data[i] - labeled.startIndex;
+				int x = pixel%labeled.stride, y = pixel/labeled.stride;
+
+				block.points.grow();
+				block.tracer.setMaxContourSize(external ? maxContourSize : maxInternalSize);
+				block.tracer.trace(Math.abs(label),x+1,y+1,external);
+
+				// Discard the points if the contour is too large or small
+				int size = block.points.sizeOfTail();
+				if( size >= maxContourSize || size < minContourSize ) {
+					block.points.removeTail();
+					block.points.grow();
+				}
+			}
+		});
+
+		sortedTraces.clear();
+		for (int i = 0; i < traceBlocks.size; i++) {
+			sortedTraces.add(traceBlocks.get(i));
+		}
+		sortedTraces.sort(Comparator.comparingInt(b->b.idx0));
+
+		int traceIdx = 0;
+		for (int blockIdx = 0; blockIdx < sortedTraces.size(); blockIdx++) {
+			PackedSetsPoint2D_I32.SetIterator iterator = sortedTraces.get(blockIdx).iterator;
+			for (int setIdx = 0; setIdx < sortedTraces.get(blockIdx).points.size(); setIdx++, traceIdx++) {
+				int label = traceLabels.data[traceIdx];
+				if( label > 0 ) {
+					ContourPacked c = contours.grow();
+					c.reset();
+					c.id = label;
+					c.externalIndex = packedPoints.size();
+				} else {
+					contours.get(-label-1).internalIndexes.add(packedPoints.size());
+				}
+
+				packedPoints.grow();
+				iterator.setup(setIdx);
+				while( iterator.hasNext() ) {
+					Point2D_I32 p = iterator.next();
+					packedPoints.addPointToTail(p.x,p.y);
+				}
+			}
+		}
+	}
+
+	void sortRowBlocks() {
+		sortedRows.clear();
+		for (int i = 0; i < rowBlocks.size; i++) {
+			sortedRows.add(rowBlocks.get(i));
+		}
+		sortedRows.sort(Comparator.comparingInt(b->b.y0));
+	}
+
+	/**
+	 * Finds the root of the set using path halving
+	 *
+	 * @param sign 1 for foreground pixels and -1 for background pixels
+	 */
+	static int find( int[] data , int index , int sign ) {
+		while( true ) {
+			int parent = sign*data[index]-1;
+			if( parent == index )
+				return index;
+			int grandparent = sign*data[parent]-1;
+			data[index] = sign*(grandparent+1);
+			index = grandparent;
+		}
+	}
+
+	/**
+	 * Joins the two sets. The root with the smaller index, i.e. first in raster order, becomes the new root
+	 *
+	 * @return The parent value for the root of the joined set
+	 */
+	static int union( int[] data , int indexA , int indexB , int sign ) {
+		if( data[indexA] == data[indexB] )
+			return data[indexA];
+		int rootA = find(data,indexA,sign);
+		int rootB = find(data,indexB,sign);
+		if( rootA < rootB ) {
+			data[rootB] = sign*(rootA+1);
+			return data[rootB];
+		} else {
+			data[rootA] = sign*(rootB+1);
+			return data[rootA];
+		}
+	}
+
+	static class RowBlock {
+		// first row in the block
+		int y0;
+		// Roots of sets inside this block. Sorted in raster order
+		GrowQueue_I32 roots = new GrowQueue_I32();
+	}
+
+	static class TraceBlock {
+		// index of the first contour traced in this block
+		int idx0;
+		ContourTracer tracer;
+		PackedSetsPoint2D_I32 points = new PackedSetsPoint2D_I32(2000);
+		PackedSetsPoint2D_I32.SetIterator iterator = points.createIterator();
+	}
+}
@@ -53,6 +53,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -75,6 +78,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -97,6 +103,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -119,6 +128,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -141,6 +153,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -163,6 +178,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -185,6 +203,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -207,6 +228,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -229,6 +253,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -251,6 +278,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -273,6 +303,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -295,6 +328,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -317,6 +353,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -339,6 +378,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -489,6 +531,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -511,6 +556,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -533,6 +581,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -555,6 +606,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -577,6 +631,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -599,6 +656,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -621,6 +681,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -643,6 +706,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -665,6 +731,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -687,6 +756,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -709,6 +781,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -731,6 +806,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -753,6 +831,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -775,6 +856,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -925,6 +1009,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -947,6 +1034,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -969,6 +1059,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -991,6 +1084,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1013,6 +1109,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1035,6 +1134,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1057,6 +1159,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1079,6 +1184,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1101,6 +1209,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1123,6 +1234,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1145,6 +1259,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1167,6 +1284,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1189,6 +1309,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1211,6 +1334,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1361,6 +1487,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1383,6 +1512,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1405,6 +1537,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1427,6 +1562,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1449,6 +1587,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1471,6 +1612,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1493,6 +1637,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1515,6 +1662,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1537,6 +1687,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1559,6 +1712,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1581,6 +1737,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1603,6 +1762,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1625,6 +1787,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1647,6 +1812,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1797,6 +1965,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1819,6 +1990,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1841,6 +2015,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1863,6 +2040,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1885,6 +2065,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1907,6 +2090,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1929,6 +2115,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1951,6 +2140,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1973,6 +2165,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -1995,6 +2190,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2017,6 +2215,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2039,6 +2240,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2061,6 +2265,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2083,6 +2290,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2233,6 +2443,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2255,6 +2468,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2277,6 +2493,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2299,6 +2518,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2321,6 +2543,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2343,6 +2568,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2365,6 +2593,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2387,6 +2618,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2409,6 +2643,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2431,6 +2668,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2453,6 +2693,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2475,6 +2718,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2497,6 +2743,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2519,6 +2768,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2669,6 +2921,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2691,6 +2946,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2713,6 +2971,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2735,6 +2996,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2757,6 +3021,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2779,6 +3046,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2801,6 +3071,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2823,6 +3096,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2845,6 +3121,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2867,6 +3146,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2889,6 +3171,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2911,6 +3196,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2933,6 +3221,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -2955,6 +3246,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -3105,6 +3399,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -3127,6 +3424,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -3149,6 +3449,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -3171,6 +3474,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -3193,6 +3499,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -3215,6 +3524,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -3237,6 +3549,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -3259,6 +3574,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -3281,6 +3599,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -3303,6 +3624,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -3325,6 +3649,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -3347,6 +3674,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -3369,6 +3699,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
@@ -3391,6 +3724,9 @@ public class ConvertImage {
 			output.reshape(input.width,input.height,input.numBands);
 		}
 
+		if( BOverrideConvertImage.invokeNativeConvert(input, output) )
+			return output;
+
 		// threaded code is not significantly faster here
 		ImplConvertImage.convert(input, output);
 
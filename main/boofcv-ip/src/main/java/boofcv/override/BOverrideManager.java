@@ -38,6 +38,21 @@ public class BOverrideManager {
 		}
 	}
 
+	/**
+	 * Registers optional implementations if they are on the class path, e.g. the SIMD implementations in
+	 * boofcv-simd. If they can't be found or loaded then nothing is changed and the regular code is used.
+	 *
+	 * @return true if optional implementations were registered
+	 */
+	public static boolean loadOptional() {
+		try {
+			Object registered = Class.forName("boofcv.simd.BoofSimd").getMethod("register").invoke(null);
+			return Boolean.TRUE.equals(registered);
+		} catch( ReflectiveOperationException | LinkageError ignore ) {
+			return false;
+		}
+	}
+
 	/**
 	 * Prints a summary of what has been overriden
 	 */
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixelMB;
+import boofcv.alg.interpolate.InterpolationType;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.InterleavedF32;
+import boofcv.testing.BoofTesting;
+import org.ejml.UtilEjml;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Compares the cached results against {@link ImageDistortBasic_IL}
+ *
+ * @author Peter Abeles
+ */
+class TestImageDistortCache_IL {
+	Random rand = new Random(234);
+	int width = 60,height=80;
+	private static final int NUM_BANDS = 2;
+
+	InterpolatePixelMB<InterleavedF32> interpolate = FactoryInterpolation.createPixelMB(
+			0, 255, InterpolationType.BILINEAR, BorderType.EXTENDED, ImageType.il(NUM_BANDS,InterleavedF32.class));
+
+	@Test
+	void compareToBasic() {
+		for( boolean renderAll : new boolean[]{true,false}) {
+			InterleavedF32 input = new InterleavedF32(width,height,NUM_BANDS);
+			InterleavedF32 expected = new InterleavedF32(width,height,NUM_BANDS);
+			InterleavedF32 found = new InterleavedF32(width,height,NUM_BANDS);
+			GImageMiscOps.fillUniform(input,rand,0,150);
+
+			ImageDistortBasic_IL<InterleavedF32,InterleavedF32> basic =
+					new ImageDistortBasic_IL<>(new AssignPixelValue_MB.F32(),interpolate.copy());
+			ImageDistortCache_IL<InterleavedF32,InterleavedF32> alg =
+					new ImageDistortCache_IL<>(new AssignPixelValue_MB.F32(),interpolate.copy());
+			basic.setRenderAll(renderAll);
+			alg.setRenderAll(renderAll);
+
+			basic.setModel(new TestImageDistortBasic_IL_MT.Transform());
+			basic.apply(input,expected);
+
+			alg.setModel(new TestImageDistortBasic_IL_MT.Transform());
+			alg.apply(input,found);
+			BoofTesting.assertEquals(expected,found, UtilEjml.TEST_F32);
+
+			// second call should use the cached map
+			GImageMiscOps.fillUniform(input,rand,0,150);
+			basic.apply(input,expected);
+			alg.apply(input,found);
+			BoofTesting.assertEquals(expected,found, UtilEjml.TEST_F32);
+		}
+	}
+
+	@Test
+	void compareToBasic_mask() {
+		InterleavedF32 input = new InterleavedF32(width,height,NUM_BANDS);
+		InterleavedF32 expected = new InterleavedF32(width,height,NUM_BANDS);
+		InterleavedF32 found = new InterleavedF32(width,height,NUM_BANDS);
+		GImageMiscOps.fillUniform(input,rand,0,150);
+
+		GrayU8 maskExpected = new GrayU8(width,height);
+		GrayU8 maskFound = new GrayU8(width,height);
+
+		ImageDistortBasic_IL<InterleavedF32,InterleavedF32> basic =
+				new ImageDistortBasic_IL<>(new AssignPixelValue_MB.F32(),interpolate.copy());
+		ImageDistortCache_IL<InterleavedF32,InterleavedF32> alg =
+				new ImageDistortCache_IL<>(new AssignPixelValue_MB.F32(),interpolate.copy());
+
+		basic.setModel(new TestImageDistortBasic_IL_MT.Transform());
+		basic.apply(input,expected,maskExpected);
+
+		alg.setModel(new TestImageDistortBasic_IL_MT.Transform());
+		alg.apply(input,found,maskFound);
+
+		BoofTesting.assertEquals(expected,found, UtilEjml.TEST_F32);
+		BoofTesting.assertEquals(maskExpected,maskFound, 0);
+	}
+
+	/**
+	 * Changing the model should cause the map to be recomputed
+	 */
+	@Test
+	void setModel_dirty() {
+		ImageDistortCache_IL<InterleavedF32,InterleavedF32> alg =
+				new ImageDistortCache_IL<>(new AssignPixelValue_MB.F32(),interpolate.copy());
+
+		InterleavedF32 input = new InterleavedF32(width,height,NUM_BANDS);
+		InterleavedF32 output = new InterleavedF32(width,height,NUM_BANDS);
+
+		alg.setModel(new PixelTransformAffine_F32());
+		alg.apply(input,output);
+		float before = alg.getMap()[2*(5*width+3)];
+
+		alg.setModel(new TestImageDistortBasic_IL_MT.Transform());
+		alg.apply(input,output);
+		float after = alg.getMap()[2*(5*width+3)];
+
+		assertNotEquals(before,after);
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.PackedSetsPoint2D_I32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the output against the single threaded implementation, which must be identical. The concurrent
+ * algorithm is always used, even for small images.
+ *
+ * @author Peter Abeles
+ */
+class TestLinearContourLabelChang2004_MT {
+
+	Random rand = new Random(234);
+
+	@Test
+	void compareToSingleThread_fixedImages() {
+		GrayU8[] images = new GrayU8[]{TestLinearContourLabelChang2004.TEST1,TestLinearContourLabelChang2004.TEST2,
+				TestLinearContourLabelChang2004.TEST3,TestLinearContourLabelChang2004.TEST4};
+
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			for( GrayU8 image : images ) {
+				compare(image,new LinearContourLabelChang2004(rule),new LinearContourLabelChang2004_MT(rule));
+			}
+		}
+	}
+
+	@Test
+	void compareToSingleThread_random() {
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			for( double fill : new double[]{0.05,0.5,0.7}) {
+				GrayU8 image = new GrayU8(120,135);
+				fillRandom(image,fill);
+				compare(image,new LinearContourLabelChang2004(rule),new LinearContourLabelChang2004_MT(rule));
+			}
+		}
+	}
+
+	/**
+	 * Blobs inside of holes inside of blobs
+	 */
+	@Test
+	void compareToSingleThread_nested() {
+		GrayU8 image = new GrayU8(100,90);
+		for (int i = 0; i < 8; i++) {
+			ImageMiscOps.fillRectangle(image,(i+1)%2,i*5,i*5,image.width-i*10,image.height-i*10);
+		}
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			compare(image,new LinearContourLabelChang2004(rule),new LinearContourLabelChang2004_MT(rule));
+		}
+	}
+
+	@Test
+	void compareToSingleThread_contourSettings() {
+		GrayU8 image = new GrayU8(120,135);
+		fillRandom(image,0.6);
+
+		for( boolean saveInternal : new boolean[]{true,false}) {
+			LinearContourLabelChang2004 expected = new LinearContourLabelChang2004(ConnectRule.EIGHT);
+			LinearContourLabelChang2004_MT found = new LinearContourLabelChang2004_MT(ConnectRule.EIGHT);
+			expected.setMinContourSize(4);
+			expected.setMaxContourSize(20);
+			expected.setSaveInternalContours(saveInternal);
+			found.setMinContourSize(4);
+			found.setMaxContourSize(20);
+			found.setSaveInternalContours(saveInternal);
+
+			compare(image,expected,found);
+		}
+	}
+
+	/**
+	 * Process different images with the same instance
+	 */
+	@Test
+	void multipleCalls() {
+		LinearContourLabelChang2004 expected = new LinearContourLabelChang2004(ConnectRule.EIGHT);
+		LinearContourLabelChang2004_MT found = new LinearContourLabelChang2004_MT(ConnectRule.EIGHT);
+
+		GrayU8 image = new GrayU8(120,135);
+		fillRandom(image,0.6);
+		compare(image,expected,found);
+		image = new GrayU8(60,40);
+		fillRandom(image,0.3);
+		compare(image,expected,found);
+		// no blobs at all
+		compare(new GrayU8(30,20),expected,found);
+	}
+
+	private void fillRandom( GrayU8 image , double fill ) {
+		for (int i = 0; i < image.data.length; i++) {
+			image.data[i] = (byte)(rand.nextDouble() < fill ? 1 : 0);
+		}
+	}
+
+	private void compare( GrayU8 image , LinearContourLabelChang2004 expected, LinearContourLabelChang2004_MT found ) {
+		GrayS32 labeledExpected = new GrayS32(1,1);
+		GrayS32 labeledFound = new GrayS32(1,1);
+
+		expected.process(image,labeledExpected);
+		found.processConcurrent(image,labeledFound);
+
+		BoofTesting.assertEquals(labeledExpected,labeledFound,0);
+
+		FastQueue<ContourPacked> contoursExpected = expected.getContours();
+		FastQueue<ContourPacked> contoursFound = found.getContours();
+		assertEquals(contoursExpected.size,contoursFound.size);
+		for (int i = 0; i < contoursExpected.size; i++) {
+			ContourPacked a = contoursExpected.get(i);
+			ContourPacked b = contoursFound.get(i);
+			assertEquals(a.id,b.id);
+			assertEquals(a.externalIndex,b.externalIndex);
+			assertEquals(a.internalIndexes.size,b.internalIndexes.size);
+			for (int j = 0; j < a.internalIndexes.size; j++) {
+				assertEquals(a.internalIndexes.get(j),b.internalIndexes.get(j));
+			}
+		}
+
+		PackedSetsPoint2D_I32 pointsExpected = expected.getPackedPoints();
+		PackedSetsPoint2D_I32 pointsFound = found.getPackedPoints();
+		assertEquals(pointsExpected.size(),pointsFound.size());
+		assertEquals(pointsExpected.totalPoints(),pointsFound.totalPoints());
+		for (int i = 0; i < pointsExpected.size(); i++) {
+			List<Point2D_I32> a = pointsExpected.getSet(i);
+			List<Point2D_I32> b = pointsFound.getSet(i);
+			assertEquals(a.size(),b.size());
+			for (int j = 0; j < a.size(); j++) {
+				assertEquals(a.get(j).x,b.get(j).x);
+				assertEquals(a.get(j).y,b.get(j).y);
+			}
+		}
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.bow;
+
+import boofcv.alg.scene.VocabularyTree_F64;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.clustering.AssignCluster;
+import org.ddogleg.clustering.ComputeClusters;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Learns a {@link VocabularyTree_F64} using hierarchical clustering. Features are clustered into branch factor
+ * clusters, then each cluster is recursively clustered again until the maximum depth has been reached or
+ * there are too few features to split. Typically {@link org.ddogleg.clustering.ComputeClusters} is k-means.
+ *
+ * @author Peter Abeles
+ */
+public class ClusterVisualWordsHierarchical {
+
+	// cluster finding algorithm
+	ComputeClusters<double[]> computeClusters;
+
+	// inner arrays extracted from the input features
+	List<double[]> tuples = new ArrayList<>();
+
+	// number of elements in the feature
+	int featureDOF;
+
+	// the learned tree
+	VocabularyTree_F64 tree;
+
+	/**
+	 * Constructor which configures the cluster finder.
+	 *
+	 * @param computeClusters Cluster finding algorithm.
+	 * @param featureDOF Number of elements in the feature
+	 * @param randomSeed Seed for random number generator
+	 */
+	public ClusterVisualWordsHierarchical(ComputeClusters<double[]> computeClusters, int featureDOF, long randomSeed) {
+		this.computeClusters = computeClusters;
+		this.featureDOF = featureDOF;
+
+		computeClusters.init(featureDOF,randomSeed);
+	}
+
+	/**
+	 * Add a feature to the list.
+	 *
+	 * @param feature image feature. Reference to inner array is saved.
+	 */
+	public void addReference(TupleDesc_F64 feature) {
+		tuples.add(feature.getValue());
+	}
+
+	/**
+	 * Learns the tree. The maximum number of words is branchFactor<sup>maxDepth</sup>.
+	 *
+	 * @param branchFactor Number of children each node is split into
+	 * @param maxDepth Maximum depth of the tree. The root has a depth of 0.
+	 */
+	public void process( int branchFactor , int maxDepth ) {
+		if( branchFactor < 2 )
+			throw new IllegalArgumentException("Branch factor must be at least 2");
+		if( maxDepth < 1 )
+			throw new IllegalArgumentException("Max depth must be at least 1");
+
+		tree = new VocabularyTree_F64(featureDOF);
+		split(0,tuples,0,branchFactor,maxDepth);
+		tree.buildWords();
+	}
+
+	/**
+	 * Clusters the points and adds a child to the node for each cluster. Then recursively splits each child.
+	 */
+	private void split( int node , List<double[]> points , int depth , int branchFactor , int maxDepth ) {
+		if( depth >= maxDepth || points.size() < branchFactor )
+			return;
+
+		computeClusters.process(points,branchFactor);
+		AssignCluster<double[]> assignment = computeClusters.getAssignment();
+
+		// Divide the points into their clusters and compute the mean of each cluster
+		List<List<double[]>> members = new ArrayList<>();
+		List<double[]> means = new ArrayList<>();
+		for (int i = 0; i < branchFactor; i++) {
+			members.add(new ArrayList<>());
+			means.add(new double[featureDOF]);
+		}
+		for (int i = 0; i < points.size(); i++) {
+			double[] p = points.get(i);
+			int cluster = assignment.assign(p);
+			members.get(cluster).add(p);
+			double[] mean = means.get(cluster);
+			for (int j = 0; j < featureDOF; j++) {
+				mean[j] += p[j];
+			}
+		}
+
+		// Empty clusters are discarded
+		for (int i = branchFactor-1; i >= 0; i--) {
+			int size = members.get(i).size();
+			if( size == 0 ) {
+				members.remove(i);
+				means.remove(i);
+				continue;
+			}
+			double[] mean = means.get(i);
+			for (int j = 0; j < featureDOF; j++) {
+				mean[j] /= size;
+			}
+		}
+
+		// No point in splitting if everything is in the same cluster
+		if( means.size() <= 1 )
+			return;
+
+		int first = tree.addChildren(node,means);
+		for (int i = 0; i < members.size(); i++) {
+			split(first+i,members.get(i),depth+1,branchFactor,maxDepth);
+		}
+	}
+
+	/**
+	 * Returns the learned tree. Can be used to assign features to words.
+	 */
+	public VocabularyTree_F64 getAssignment() {
+		return tree;
+	}
+}
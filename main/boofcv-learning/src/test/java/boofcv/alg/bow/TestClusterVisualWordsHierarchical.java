@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.bow;
+
+import boofcv.alg.scene.VocabularyTree_F64;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.clustering.FactoryClustering;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Peter Abeles
+ */
+class TestClusterVisualWordsHierarchical {
+
+	Random rand = new Random(234);
+
+	// two well separated groups which are each composed of two sub groups
+	double[] centers = new double[]{-100, -90, 90, 100};
+
+	@Test
+	void process() {
+		ClusterVisualWordsHierarchical alg = new ClusterVisualWordsHierarchical(
+				FactoryClustering.kMeans_F64(null, 100, 20, 1e-6), 1, 123);
+
+		for (int i = 0; i < 200; i++) {
+			TupleDesc_F64 desc = new TupleDesc_F64(1);
+			desc.value[0] = centers[i%centers.length] + rand.nextGaussian()*0.5;
+			alg.addReference(desc);
+		}
+
+		alg.process(2, 2);
+		VocabularyTree_F64 tree = alg.getAssignment();
+
+		assertEquals(7, tree.getNumNodes());
+		assertEquals(4, tree.getNumberOfClusters());
+
+		// Each sub group should be assigned to a different word
+		int[] words = new int[centers.length];
+		for (int i = 0; i < centers.length; i++) {
+			words[i] = tree.assign(new double[]{centers[i]});
+			assertEquals(words[i], tree.assign(new double[]{centers[i] + 1.0}));
+			for (int j = 0; j < i; j++) {
+				assertNotEquals(words[j], words[i]);
+			}
+		}
+	}
+
+	/**
+	 * If there are too few points it should stop splitting
+	 */
+	@Test
+	void process_tooFewPoints() {
+		ClusterVisualWordsHierarchical alg = new ClusterVisualWordsHierarchical(
+				FactoryClustering.kMeans_F64(null, 100, 20, 1e-6), 1, 123);
+		TupleDesc_F64 desc = new TupleDesc_F64(1);
+		alg.addReference(desc);
+		alg.process(2, 3);
+
+		assertEquals(1, alg.getAssignment().getNumNodes());
+		assertEquals(1, alg.getAssignment().getNumberOfClusters());
+	}
+
+	@Test
+	void process_badArguments() {
+		ClusterVisualWordsHierarchical alg = new ClusterVisualWordsHierarchical(
+				FactoryClustering.kMeans_F64(null, 100, 20, 1e-6), 1, 123);
+		assertThrows(IllegalArgumentException.class, () -> alg.process(1, 2));
+		assertThrows(IllegalArgumentException.class, () -> alg.process(2, 0));
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -24,20 +24,34 @@ import boofcv.alg.distort.LensDistortionNarrowFOV;
 import boofcv.alg.fiducial.qrcode.QrCode;
 import boofcv.alg.fiducial.qrcode.QrCodeDecoderImage;
 import boofcv.alg.fiducial.qrcode.QrCodePositionPatternDetector;
+import boofcv.alg.fiducial.qrcode.QrCodeRegionPredictor;
+import boofcv.alg.misc.ImageMiscOps;
 import boofcv.alg.shapes.polygon.DetectPolygonBinaryGrayRefine;
-import boofcv.misc.MovingAverage;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.misc.ProfilesRuntime;
+import boofcv.misc.RuntimeProfiler;
+import boofcv.struct.ImageRectangle;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.struct.FastAccess;
 
 import javax.annotation.Nullable;
 import java.util.List;
 
 /**
- * A QR-Code detector which is designed to find the location of corners in the finder pattern precisely.
+ * <p>A QR-Code detector which is designed to find the location of corners in the finder pattern precisely.</p>
+ *
+ * <p>Tracking mode is intended for video sequences where QR codes move predictably. QR codes found in previous
+ * images are used to predict where they will be and only those regions are thresholded. Pixels outside of
+ * the regions are treated as background. The entire image is searched if there are no predictions, every
+ * {@link #trackingFullPeriod} images so that new QR codes can be found, and when a QR code being tracked
+ * isn't found in its predicted region. Call {@link #resetTracking()} when starting a new sequence.</p>
  *
  * @param <T>
  */
-public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDetector<T>
+public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDetector<T>, ProfilesRuntime
 {
 	QrCodePositionPatternDetector<T> detectPositionPatterns;
 	QrCodeDecoderImage<T> decoder;
@@ -46,10 +60,28 @@ public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDete
 
 	BinaryContourHelper contourHelper;
 
-	// runtime profiling
-	boolean profiler = false;
-	protected MovingAverage milliBinary = new MovingAverage(0.8);
-	protected MovingAverage milliDecoding = new MovingAverage(0.8);
+	// runtime profiling. Shared with all the components
+	RuntimeProfiler profiler;
+
+	/** If true then only regions around QR codes found in previous images will be searched, when possible */
+	@Getter @Setter boolean tracking = false;
+
+	/** In tracking mode, the entire image is searched at least once every this many images */
+	@Getter @Setter int trackingFullPeriod = 15;
+
+	/** True if the entire image was searched in the most recent call to {@link #process} */
+	@Getter boolean searchedFullImage;
+
+	// Predicts where QR codes will be in the next image
+	@Getter QrCodeRegionPredictor predictor = new QrCodeRegionPredictor();
+	// number of images processed since the entire image was searched
+	int imagesSinceFull;
+	// shape of the previous image. Predictions are discarded if the shape changes
+	int previousWidth = -1, previousHeight = -1;
+
+	// work space for thresholding a region
+	T regionGray;
+	GrayU8 regionBinary = new GrayU8(1,1);
 
 	public QrCodePreciseDetector(InputToBinary<T> inputToBinary,
 								 QrCodePositionPatternDetector<T> detectPositionPatterns,
@@ -60,27 +92,85 @@ public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDete
 		this.decoder = new QrCodeDecoderImage<>(defaultEncoding,imageType);
 		this.imageType = imageType;
 		this.contourHelper = new BinaryContourHelper(detectPositionPatterns.getSquareDetector().getDetector().getContourFinder(),copyBinary);
+		this.profiler = detectPositionPatterns.getProfiler();
+		this.regionGray = GeneralizedImageOps.createSingleBand(imageType,1,1);
 	}
 
 	@Override
 	public void process(T gray) {
-		long time0 = System.nanoTime();
-		contourHelper.reshape(gray.width,gray.height);
-		inputToBinary.process(gray,contourHelper.withoutPadding());
-		long time1 = System.nanoTime();
-		milliBinary.update((time1-time0)*1e-6);
+		if( gray.width != previousWidth || gray.height != previousHeight ) {
+			previousWidth = gray.width;
+			previousHeight = gray.height;
+			resetTracking();
+		}
+
+		searchedFullImage = !tracking || predictor.getTrackCount() == 0 || imagesSinceFull+1 >= trackingFullPeriod;
+
+		if( !searchedFullImage ) {
+			predictor.predict(gray.width,gray.height);
+
+			// Every QR code is predicted to have left the image
+			if( predictor.getTrackCount() == 0 ) {
+				searchedFullImage = true;
+			} else {
+				detect(gray,predictor.getRegions());
+
+				// A QR code has been lost. Search the entire image for it
+				if( !predictor.isEveryTrackFound(decoder.getFound()) )
+					searchedFullImage = true;
+			}
+		}
+
+		if( searchedFullImage ) {
+			detect(gray,null);
+			imagesSinceFull = 0;
+		} else {
+			imagesSinceFull++;
+		}
+
+		if( tracking )
+			predictor.update(decoder.getFound());
+
+		profiler.count("qrcode.full_image", searchedFullImage ? 1 : 0);
+	}
 
-		if( profiler )
-			System.out.printf("qrcode: binary %5.2f ",milliBinary.getAverage());
+	/**
+	 * Detects QR codes inside the specified regions
+	 *
+	 * @param regions Regions which are searched. If null then the entire image is searched
+	 */
+	void detect( T gray , @Nullable FastAccess<ImageRectangle> regions ) {
+		profiler.begin("qrcode.binary");
+		contourHelper.reshape(gray.width,gray.height);
+		GrayU8 binary = contourHelper.withoutPadding();
+		if( regions == null ) {
+			inputToBinary.process(gray,binary);
+		} else {
+			ImageMiscOps.fill(binary,0);
+			for (int i = 0; i < regions.size; i++) {
+				ImageRectangle r = regions.get(i);
+				gray.subimage(r.x0,r.y0,r.x1,r.y1,regionGray);
+				binary.subimage(r.x0,r.y0,r.x1,r.y1,regionBinary);
+				inputToBinary.process(regionGray,regionBinary);
+			}
+		}
+		profiler.end("qrcode.binary");
 
 		detectPositionPatterns.process(gray,contourHelper.padded());
-		time0 = System.nanoTime();
+
+		profiler.begin("qrcode.decoding");
 		decoder.process(detectPositionPatterns.getPositionPatterns(),gray);
-		time1 = System.nanoTime();
-		milliDecoding.update((time1-time0)*1e-6);
+		profiler.end("qrcode.decoding");
+		profiler.count("qrcode.detected", decoder.getFound().size());
+		profiler.count("qrcode.failures", decoder.getFailures().size());
+	}
 
-		if( profiler )
-			System.out.printf(" decoding %5.1f\n",milliDecoding.getAverage());
+	/**
+	 * Discards QR codes found in previous images. The next image will be searched entirely.
+	 */
+	public void resetTracking() {
+		predictor.reset();
+		imagesSinceFull = 0;
 	}
 
 	@Override
@@ -111,15 +201,15 @@ public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDete
 		return contourHelper.withoutPadding();
 	}
 
-	public void setProfilerState( boolean active ) {
-		profiler = active;
-		detectPositionPatterns.setProfilerState(active);
+	@Override
+	public RuntimeProfiler getProfiler() {
+		return profiler;
 	}
 
-	public void resetRuntimeProfiling() {
-		milliBinary.reset();
-		milliDecoding.reset();
-		detectPositionPatterns.resetRuntimeProfiling();
+	@Override
+	public void setProfiler( RuntimeProfiler profiler ) {
+		this.profiler = profiler;
+		detectPositionPatterns.setProfiler(profiler);
 	}
 
 	public QrCodePositionPatternDetector<T> getDetectPositionPatterns() {
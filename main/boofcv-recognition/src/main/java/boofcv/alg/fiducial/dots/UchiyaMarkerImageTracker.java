@@ -23,6 +23,8 @@ import boofcv.alg.distort.LensDistortionNarrowFOV;
 import boofcv.alg.distort.PointToPixelTransform_F32;
 import boofcv.alg.shapes.ellipse.BinaryEllipseDetectorPixel;
 import boofcv.alg.shapes.ellipse.EdgeIntensityEllipse;
+import boofcv.misc.ProfilesRuntime;
+import boofcv.misc.RuntimeProfiler;
 import boofcv.struct.distort.PixelTransform;
 import boofcv.struct.distort.Point2Transform2_F32;
 import boofcv.struct.image.GrayU8;
@@ -42,7 +44,7 @@ import java.util.List;
  *
  * @author Peter Abeles
  */
-public class UchiyaMarkerImageTracker<T extends ImageGray<T>> {
+public class UchiyaMarkerImageTracker<T extends ImageGray<T>> implements ProfilesRuntime {
 	// Storage the input image after it has been converted into a binary image
 	@Getter GrayU8 binary = new GrayU8(1,1);
 
@@ -74,6 +76,19 @@ public class UchiyaMarkerImageTracker<T extends ImageGray<T>> {
 		ellipseDetector.setInternalContour(false);
 	}
 
+	/**
+	 * Results are saved in the tracker's profiler
+	 */
+	@Override
+	public RuntimeProfiler getProfiler() {
+		return tracker.getProfiler();
+	}
+
+	@Override
+	public void setProfiler( RuntimeProfiler profiler ) {
+		tracker.setProfiler(profiler);
+	}
+
 	/**
 	 * Processes the image looking for dots and from those Uchiya markers
 	 * @param input Gray scale image
@@ -114,6 +129,12 @@ public class UchiyaMarkerImageTracker<T extends ImageGray<T>> {
 		timeEllipse = (nano2-nano1)*1e-6;
 		timeReject = (nano3-nano2)*1e-6;
 
+		RuntimeProfiler profiler = tracker.getProfiler();
+		profiler.recordMilli("uchiya.binary", timeBinary);
+		profiler.recordMilli("uchiya.ellipse", timeEllipse);
+		profiler.recordMilli("uchiya.reject", timeReject);
+		profiler.count("uchiya.ellipses", foundRaw.size());
+
 		// run the tracker
 		tracker.process(foundDots);
 	}
@@ -24,6 +24,8 @@ import boofcv.alg.feature.describe.llah.LlahDocument;
 import boofcv.alg.feature.describe.llah.LlahOperations;
 import boofcv.factory.geo.EpipolarError;
 import boofcv.factory.geo.FactoryMultiView;
+import boofcv.misc.ProfilesRuntime;
+import boofcv.misc.RuntimeProfiler;
 import boofcv.struct.geo.AssociatedPair;
 import boofcv.struct.geo.PointIndex2D_F64;
 import georegression.struct.homography.Homography2D_F64;
@@ -61,7 +63,7 @@ import java.util.List;
  *
  * @author Peter Abeles
  */
-public class UchiyaMarkerTracker {
+public class UchiyaMarkerTracker implements ProfilesRuntime {
 
 	// Stores the "global" dictionary of documents
 	@Getter @Setter LlahOperations llahOps;
@@ -95,6 +97,8 @@ public class UchiyaMarkerTracker {
 	@Getter double timeDetect;
 	/** Time to update track descriptions */
 	@Getter double timeUpdate;
+	/** Records the time for each stage and the number of tracks */
+	@Getter @Setter RuntimeProfiler profiler = new RuntimeProfiler();
 
 	// Estimate the homography with noise
 	Ransac<Homography2D_F64, AssociatedPair> ransac;
@@ -151,6 +155,12 @@ public class UchiyaMarkerTracker {
 		this.timeTrack  = (nano1-nano0)*1e-6;
 		this.timeDetect = (nano2-nano1)*1e-6;
 		this.timeUpdate = (nano3-nano2)*1e-6;
+
+		profiler.recordMilli("uchiya.track", timeTrack);
+		profiler.recordMilli("uchiya.detect", timeDetect);
+		profiler.recordMilli("uchiya.update", timeUpdate);
+		profiler.count("uchiya.dots", detectedDots.size());
+		profiler.count("uchiya.tracks", currentTracks.size);
 	}
 
 	/**
@@ -28,7 +28,8 @@ import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.shapes.polygon.DetectPolygonBinaryGrayRefine;
 import boofcv.alg.shapes.polygon.DetectPolygonFromContour;
 import boofcv.factory.interpolate.FactoryInterpolation;
-import boofcv.misc.MovingAverage;
+import boofcv.misc.ProfilesRuntime;
+import boofcv.misc.RuntimeProfiler;
 import boofcv.struct.border.BorderType;
 import boofcv.struct.distort.PixelTransform;
 import boofcv.struct.distort.Point2Transform2_F32;
@@ -57,7 +58,7 @@ import java.util.List;
  *
  * @author Peter Abeles
  */
-public class QrCodePositionPatternDetector<T extends ImageGray<T>> {
+public class QrCodePositionPatternDetector<T extends ImageGray<T>> implements ProfilesRuntime {
 
 	// used to subsample the input image
 	InterpolatePixelS<T> interpolate;
@@ -82,9 +83,8 @@ public class QrCodePositionPatternDetector<T extends ImageGray<T>> {
 	protected LineSegment2D_F64 connectLine = new LineSegment2D_F64();
 	protected Point2D_F64 intersection = new Point2D_F64();
 
-	// runtime profiling
-	protected MovingAverage milliGraph = new MovingAverage(0.8);
-	protected boolean profiler = false;
+	// runtime profiling. Shared with the square detector
+	protected RuntimeProfiler profiler;
 
 	/**
 	 * Configures the detector
@@ -102,15 +102,18 @@ public class QrCodePositionPatternDetector<T extends ImageGray<T>> {
 		squareDetector.getDetector().setNumberOfSides(4,4);
 
 		interpolate = FactoryInterpolation.bilinearPixelS(squareDetector.getInputType(), BorderType.EXTENDED);
+		profiler = squareDetector.getProfiler();
 	}
 
-	public void resetRuntimeProfiling() {
-		squareDetector.resetRuntimeProfiling();
-		milliGraph.reset();
+	@Override
+	public RuntimeProfiler getProfiler() {
+		return profiler;
 	}
 
-	public void setProfilerState( boolean active ) {
-		profiler = active;
+	@Override
+	public void setProfiler( RuntimeProfiler profiler ) {
+		this.profiler = profiler;
+		squareDetector.setProfiler(profiler);
 	}
 
 	/**
@@ -127,25 +130,15 @@ public class QrCodePositionPatternDetector<T extends ImageGray<T>> {
 		// detect squares
 		squareDetector.process(gray,binary);
 
-		long time0 = System.nanoTime();
+		profiler.begin("qrcode.position_patterns");
 		squaresToPositionList();
-
-		long time1 = System.nanoTime();
+		profiler.end("qrcode.position_patterns");
 
 		// Create graph of neighboring squares
+		profiler.begin("qrcode.graph");
 		createPositionPatternGraph();
-//		long time2 = System.nanoTime();  // doesn't take very long
-
-		double milli = (time1-time0)*1e-6;
-
-		milliGraph.update(milli);
-
-		if( profiler ) {
-			DetectPolygonFromContour<T> detectorPoly = squareDetector.getDetector();
-			System.out.printf(" contour %5.1f shapes %5.1f adjust_bias %5.2f PosPat %6.2f",
-					detectorPoly.getMilliContour(), detectorPoly.getMilliShapes(), squareDetector.getMilliAdjustBias(),
-					milliGraph.getAverage());
-		}
+		profiler.end("qrcode.graph");
+		profiler.count("qrcode.total_position_patterns", positionPatterns.size);
 	}
 
 	/**
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.fiducial.qrcode;
+
+import boofcv.struct.ImageRectangle;
+import georegression.struct.point.Point2D_F64;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.struct.FastAccess;
+import org.ddogleg.struct.FastQueue;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Predicts where QR codes will be in the next image of a sequence using where they were in previous images.
+ * Each QR code is assumed to move at a constant velocity in the image. A rectangular region is placed
+ * around each predicted location and expanded to allow for errors in the prediction. Overlapping regions
+ * are merged together.
+ *
+ * @author Peter Abeles
+ */
+public class QrCodeRegionPredictor {
+
+	/** How much a region is expanded by on each side, relative to the size of the QR code */
+	@Getter @Setter double regionScale = 0.5;
+
+	/** The minimum number of pixels a region is expanded by on each side */
+	@Getter @Setter int minimumMargin = 20;
+
+	// Location and motion of QR codes in the most recent image
+	FastQueue<Track> tracks = new FastQueue<>(Track::new);
+	// Work space for tracks from the previous image
+	FastQueue<Track> previous = new FastQueue<>(Track::new);
+
+	// Regions where QR codes are expected to be
+	FastQueue<ImageRectangle> regions = new FastQueue<>(ImageRectangle::new);
+
+	// Work space for a detection
+	Track work = new Track();
+
+	/**
+	 * Discards all previous detections
+	 */
+	public void reset() {
+		tracks.reset();
+		regions.reset();
+	}
+
+	/**
+	 * Updates the location and motion of each QR code using detections from the most recent image. A detection
+	 * is associated with the closest QR code in the previous image which has the same message. If the detection
+	 * is outside the region the QR code was predicted to be inside of, e.g. it was lost and then found again by
+	 * searching the entire image, then its motion is unknown and it's treated as a new QR code.
+	 *
+	 * @param detections (Input) QR codes detected in the most recent image
+	 */
+	public void update( List<QrCode> detections ) {
+		// swap the lists so that the previous tracks don't need to be copied
+		FastQueue<Track> tmp = previous;
+		previous = tracks;
+		tracks = tmp;
+		tracks.reset();
+
+		for (int i = 0; i < previous.size; i++) {
+			previous.get(i).matched = false;
+		}
+
+		for (int i = 0; i < detections.size(); i++) {
+			QrCode qr = detections.get(i);
+			Track t = tracks.grow();
+			t.setTo(qr);
+
+			Track match = findMatch(previous,t);
+			if( match != null && isInsidePrediction(match,t.center) ) {
+				match.matched = true;
+				t.velocityX = t.center.x - match.center.x;
+				t.velocityY = t.center.y - match.center.y;
+			}
+		}
+	}
+
+	/**
+	 * Checks to see if every QR code being tracked was found again. Detections are associated with tracks the
+	 * same way as in {@link #update}, so a lost QR code can't be hidden by a new one appearing.
+	 *
+	 * @param detections (Input) QR codes detected in the most recent image
+	 * @return true if every track was associated with a detection
+	 */
+	public boolean isEveryTrackFound( List<QrCode> detections ) {
+		for (int i = 0; i < tracks.size; i++) {
+			tracks.get(i).matched = false;
+		}
+
+		for (int i = 0; i < detections.size(); i++) {
+			work.setTo(detections.get(i));
+			Track match = findMatch(tracks,work);
+			if( match != null )
+				match.matched = true;
+		}
+
+		for (int i = 0; i < tracks.size; i++) {
+			if( !tracks.get(i).matched )
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Finds the closest track which has the same message and hasn't already been matched
+	 */
+	@Nullable Track findMatch( FastQueue<Track> candidates , Track target ) {
+		Track match = null;
+		double bestDistance = Double.MAX_VALUE;
+		for (int i = 0; i < candidates.size; i++) {
+			Track c = candidates.get(i);
+			if( c.matched || !Objects.equals(c.message,target.message) )
+				continue;
+			double d = c.center.distance2(target.center);
+			if( d < bestDistance ) {
+				bestDistance = d;
+				match = c;
+			}
+		}
+		return match;
+	}
+
+	/**
+	 * Checks to see if the point is inside the region the track was predicted to be inside of
+	 */
+	boolean isInsidePrediction( Track track , Point2D_F64 p ) {
+		double margin = computeMargin(track);
+		return p.x >= track.x0 + track.velocityX - margin && p.x <= track.x1 + track.velocityX + margin &&
+				p.y >= track.y0 + track.velocityY - margin && p.y <= track.y1 + track.velocityY + margin;
+	}
+
+	/**
+	 * How much the predicted region is expanded by on each side
+	 */
+	double computeMargin( Track track ) {
+		return Math.max(minimumMargin,regionScale*Math.max(track.x1-track.x0,track.y1-track.y0));
+	}
+
+	/**
+	 * Predicts the regions that QR codes will be inside of in the next image. Tracks which are predicted to
+	 * be outside the image are discarded.
+	 *
+	 * @param width Width of the image
+	 * @param height Height of the image
+	 */
+	public void predict( int width , int height ) {
+		regions.reset();
+
+		int kept = 0;
+		for (int i = 0; i < tracks.size; i++) {
+			Track t = tracks.get(i);
+			double margin = computeMargin(t);
+
+			int x0 = (int)Math.max(0,Math.floor(t.x0 + t.velocityX - margin));
+			int y0 = (int)Math.max(0,Math.floor(t.y0 + t.velocityY - margin));
+			int x1 = (int)Math.min(width,Math.ceil(t.x1 + t.velocityX + margin));
+			int y1 = (int)Math.min(height,Math.ceil(t.y1 + t.velocityY + margin));
+
+			// it's predicted to be outside the image
+			if( x0 >= x1 || y0 >= y1 )
+				continue;
+
+			// swap so that discarded tracks are moved to the end
+			tracks.data[i] = tracks.data[kept];
+			tracks.data[kept++] = t;
+
+			regions.grow().set(x0,y0,x1,y1);
+		}
+		tracks.size = kept;
+
+		mergeOverlapping();
+	}
+
+	/**
+	 * Merges regions which overlap into a single region. Repeats until no regions overlap.
+	 */
+	void mergeOverlapping() {
+		boolean merged = true;
+		while( merged ) {
+			merged = false;
+			for (int i = 0; i < regions.size; i++) {
+				ImageRectangle a = regions.get(i);
+				for (int j = regions.size-1; j > i; j--) {
+					ImageRectangle b = regions.get(j);
+					if( a.x0 >= b.x1 || b.x0 >= a.x1 || a.y0 >= b.y1 || b.y0 >= a.y1 )
+						continue;
+
+					a.set(Math.min(a.x0,b.x0),Math.min(a.y0,b.y0),Math.max(a.x1,b.x1),Math.max(a.y1,b.y1));
+					// the order of regions doesn't matter, so replace it with the last one
+					b.set(regions.getTail());
+					regions.removeTail();
+					merged = true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Number of QR codes which are being tracked
+	 */
+	public int getTrackCount() {
+		return tracks.size;
+	}
+
+	/**
+	 * Regions computed by the most recent call to {@link #predict}
+	 */
+	public FastAccess<ImageRectangle> getRegions() {
+		return regions;
+	}
+
+	/**
+	 * Location of a QR code in the image and how it moved since the previous image
+	 */
+	public static class Track {
+		// axis aligned bounding box around the QR code
+		public double x0,y0,x1,y1;
+		public Point2D_F64 center = new Point2D_F64();
+		// change in pixels of the center since the previous image
+		public double velocityX,velocityY;
+		public String message;
+		// used when associating with detections
+		boolean matched;
+
+		public void setTo( QrCode qr ) {
+			x0 = y0 = Double.MAX_VALUE;
+			x1 = y1 = -Double.MAX_VALUE;
+			for (int i = 0; i < qr.bounds.size(); i++) {
+				Point2D_F64 p = qr.bounds.get(i);
+				x0 = Math.min(x0,p.x);
+				y0 = Math.min(y0,p.y);
+				x1 = Math.max(x1,p.x);
+				y1 = Math.max(y1,p.y);
+			}
+			center.set((x0+x1)/2.0,(y0+y1)/2.0);
+			velocityX = velocityY = 0;
+			message = qr.message;
+			matched = false;
+		}
+	}
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.scene;
+
+import lombok.Getter;
+import org.ddogleg.struct.FastAccess;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F32;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Inverted file index for retrieving images using a bag-of-words model. For each word the index stores a list of
+ * images it appears in and its frequency in that image. A query only needs to examine the images which share at
+ * least one word with it. This makes it much faster than a brute force search across dense histograms
+ * when the vocabulary is large and histograms are sparse.
+ * </p>
+ *
+ * <p>
+ * Words are weighted using TF-IDF [1] and images are scored with the cosine similarity of their weighted
+ * histograms. A score of 1 is a perfect match and 0 means no words are shared. The IDF of each word depends on
+ * the number of images in the index, so weights are recomputed the first time a query is made after images
+ * have been added. This requires a single pass through the index.
+ * </p>
+ *
+ * <p>
+ * [1] Sivic, Josef, and Andrew Zisserman. "Video Google: A text retrieval approach to object matching in videos."
+ * ICCV 2003.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class InvertedFileIndex {
+
+	/** Number of words in the vocabulary */
+	@Getter int numWords;
+
+	/** Number of images which have been added to the index */
+	@Getter int numImages;
+
+	// For each word the images it appears in and its frequency in that image
+	FastQueue<WordImages> invertedFile = new FastQueue<>(WordImages::new);
+
+	// Inverse document frequency for each word
+	GrowQueue_F64 idf = new GrowQueue_F64();
+	// L2 norm of each image's TF-IDF histogram
+	GrowQueue_F64 imageNorms = new GrowQueue_F64();
+	// true if the weights need to be recomputed because images were added
+	boolean dirty = false;
+
+	// Workspace for queries. Score accumulated for each image and the images with a non-zero score
+	GrowQueue_F64 imageScores = new GrowQueue_F64();
+	GrowQueue_I32 touched = new GrowQueue_I32();
+	// Sparse version of a dense histogram
+	GrowQueue_I32 sparseWords = new GrowQueue_I32();
+	GrowQueue_F64 sparseFrequency = new GrowQueue_F64();
+
+	// Best matches from the most recent query. Sorted from best to worst
+	FastQueue<ImageScore> results = new FastQueue<>(ImageScore::new);
+
+	/**
+	 * Creates an empty index
+	 *
+	 * @param numWords Number of words in the vocabulary
+	 */
+	public InvertedFileIndex( int numWords ) {
+		if( numWords <= 0 )
+			throw new IllegalArgumentException("Number of words must be positive");
+		this.numWords = numWords;
+		invertedFile.resize(numWords);
+		idf.resize(numWords);
+	}
+
+	/**
+	 * Removes all images from the index
+	 */
+	public void reset() {
+		for (int i = 0; i < invertedFile.size; i++) {
+			invertedFile.get(i).reset();
+		}
+		numImages = 0;
+		imageNorms.reset();
+		results.reset();
+		dirty = false;
+	}
+
+	/**
+	 * Adds an image to the index using a dense histogram, e.g. {@link FeatureToWordHistogram#getHistogram()}.
+	 * Words with a frequency of zero are not stored.
+	 *
+	 * @param histogram (Input) Word histogram. Not modified.
+	 * @return Index of the image. Images are indexed in the order they were added, starting at 0.
+	 */
+	public int addImage( double[] histogram ) {
+		toSparse(histogram);
+		return addImage(sparseWords, sparseFrequency);
+	}
+
+	/**
+	 * Adds an image to the index using a sparse histogram.
+	 *
+	 * @param words (Input) Words which appear in the image. Each word must only appear once.
+	 * @param frequency (Input) Frequency of each word
+	 * @return Index of the image. Images are indexed in the order they were added, starting at 0.
+	 */
+	public int addImage( GrowQueue_I32 words , GrowQueue_F64 frequency ) {
+		if( words.size != frequency.size )
+			throw new IllegalArgumentException("words and frequency must be the same size");
+
+		int imageIndex = numImages++;
+		for (int i = 0; i < words.size; i++) {
+			invertedFile.get(words.get(i)).add(imageIndex, (float)frequency.get(i));
+		}
+		dirty = true;
+		return imageIndex;
+	}
+
+	/**
+	 * Finds the images which are the most similar to the provided dense histogram.
+	 *
+	 * @param histogram (Input) Word histogram. Not modified.
+	 * @param maxResults Maximum number of matches which will be returned
+	 * @see #getResults()
+	 */
+	public void query( double[] histogram , int maxResults ) {
+		toSparse(histogram);
+		query(sparseWords, sparseFrequency, maxResults);
+	}
+
+	/**
+	 * Finds the images which are the most similar to the provided sparse histogram. Only images which share
+	 * a word with the query are considered.
+	 *
+	 * @param words (Input) Words which appear in the image. Each word must only appear once.
+	 * @param frequency (Input) Frequency of each word
+	 * @param maxResults Maximum number of matches which will be returned
+	 * @see #getResults()
+	 */
+	public void query( GrowQueue_I32 words , GrowQueue_F64 frequency , int maxResults ) {
+		if( words.size != frequency.size )
+			throw new IllegalArgumentException("words and frequency must be the same size");
+		results.reset();
+		if( maxResults <= 0 || numImages == 0 )
+			return;
+
+		if( dirty )
+			updateWeights();
+
+		imageScores.resize(numImages);
+		touched.reset();
+
+		// Sum up the dot product with each image which shares a word with the query
+		double queryNorm2 = 0.0;
+		for (int i = 0; i < words.size; i++) {
+			int word = words.get(i);
+			double wordIdf = idf.data[word];
+			double q = frequency.get(i)*wordIdf;
+			if( q == 0.0 )
+				continue;
+			queryNorm2 += q*q;
+
+			WordImages w = invertedFile.get(word);
+			for (int j = 0; j < w.images.size; j++) {
+				int image = w.images.data[j];
+				if( imageScores.data[image] == 0.0 )
+					touched.add(image);
+				imageScores.data[image] += q*w.frequency.data[j]*wordIdf;
+			}
+		}
+
+		if( queryNorm2 == 0.0 ) {
+			for (int i = 0; i < touched.size; i++) {
+				imageScores.data[touched.data[i]] = 0.0;
+			}
+			return;
+		}
+		double queryNorm = Math.sqrt(queryNorm2);
+
+		// Select the best results and reset the scores for the next query
+		for (int i = 0; i < touched.size; i++) {
+			int image = touched.data[i];
+			double score = imageScores.data[image]/(queryNorm*imageNorms.data[image]);
+			imageScores.data[image] = 0.0;
+			insertResult(image, score, maxResults);
+		}
+	}
+
+	/**
+	 * Inserts the result into the sorted list if it's one of the best
+	 */
+	private void insertResult( int image , double score , int maxResults ) {
+		if( results.size == maxResults ) {
+			if( results.getTail().score >= score )
+				return;
+			results.removeTail();
+		}
+
+		// find where it should be inserted
+		int location = results.size;
+		while( location > 0 && results.get(location-1).score < score ) {
+			location--;
+		}
+		results.grow();
+		// shift the worse results down by one
+		ImageScore r = results.getTail();
+		for (int i = results.size-1; i > location; i--) {
+			results.data[i] = results.data[i-1];
+		}
+		results.data[location] = r;
+		r.image = image;
+		r.score = score;
+	}
+
+	/**
+	 * Recomputes the IDF of each word and the norm of each image's weighted histogram. Called automatically
+	 * when needed, but can be called after images are added to avoid the delay in the next query.
+	 */
+	public void updateWeights() {
+		dirty = false;
+		imageNorms.resize(numImages);
+		Arrays.fill(imageNorms.data,0,numImages,0.0);
+
+		for (int word = 0; word < numWords; word++) {
+			WordImages w = invertedFile.get(word);
+			if( w.images.size == 0 ) {
+				idf.data[word] = 0.0;
+				continue;
+			}
+			double wordIdf = Math.log(numImages/(double)w.images.size);
+			idf.data[word] = wordIdf;
+
+			for (int i = 0; i < w.images.size; i++) {
+				double v = w.frequency.data[i]*wordIdf;
+				imageNorms.data[w.images.data[i]] += v*v;
+			}
+		}
+
+		for (int i = 0; i < numImages; i++) {
+			// an image with no informative words will have a score of zero when divided by a norm of infinity
+			double n = imageNorms.data[i];
+			imageNorms.data[i] = n == 0.0 ? Double.POSITIVE_INFINITY : Math.sqrt(n);
+		}
+	}
+
+	/**
+	 * Converts a dense histogram into a sparse one
+	 */
+	void toSparse( double[] histogram ) {
+		if( histogram.length != numWords )
+			throw new IllegalArgumentException("Histogram must have "+numWords+" elements");
+		sparseWords.reset();
+		sparseFrequency.reset();
+		for (int i = 0; i < histogram.length; i++) {
+			if( histogram[i] == 0.0 )
+				continue;
+			sparseWords.add(i);
+			sparseFrequency.add(histogram[i]);
+		}
+	}
+
+	/**
+	 * Returns the list of images that were found in the most recent query. Sorted from best to worst.
+	 */
+	public FastAccess<ImageScore> getResults() {
+		return results;
+	}
+
+	/**
+	 * Specifies the number of images after the inverted file has been modified directly, e.g. when
+	 * decoding a saved index. Weights will be recomputed before the next query.
+	 */
+	public void setNumImages( int numImages ) {
+		this.numImages = numImages;
+		this.dirty = true;
+	}
+
+	/**
+	 * Returns the images which contain the specified word
+	 */
+	public WordImages getWordImages( int word ) {
+		return invertedFile.get(word);
+	}
+
+	/**
+	 * List of images a word appears in and the word's frequency in each of those images
+	 */
+	public static class WordImages {
+		/** Index of images which contain the word */
+		public final GrowQueue_I32 images = new GrowQueue_I32();
+		/** Frequency of the word in the image */
+		public final GrowQueue_F32 frequency = new GrowQueue_F32();
+
+		public void add( int image , float frequency ) {
+			this.images.add(image);
+			this.frequency.add(frequency);
+		}
+
+		public void reset() {
+			images.reset();
+			frequency.reset();
+		}
+	}
+
+	/**
+	 * Image and its similarity score to the query
+	 */
+	public static class ImageScore {
+		/** Index of the image */
+		public int image;
+		/** Cosine similarity of TF-IDF weighted histograms. 1 = perfect match. */
+		public double score;
+	}
+}
@@ -0,0 +1,463 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.scene;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.alg.sfm.structure2.LookupSimilarImages;
+import boofcv.struct.feature.*;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageDimension;
+import georegression.struct.point.Point2D_F64;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.struct.FastAccess;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.ddogleg.struct.GrowQueue_I64;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * <p>
+ * Implementation of {@link LookupSimilarImages} which keeps image features on disk. Each image has its features
+ * detected and described once when it's added. Pixel locations, descriptors, and the image's visual word
+ * histogram are then appended to a file and only a small number of images are kept in memory in a least
+ * recently used cache. Associations between pairs of images are computed the first time they are requested
+ * and saved to a second file. Similar images are found using an {@link InvertedFileIndex}.
+ * </p>
+ *
+ * <p>
+ * Usage: Add all the images using {@link #addImage}. Then pass this class to the structure from motion
+ * algorithms. Call {@link #close()} when finished to close the files.
+ * </p>
+ *
+ * <p>
+ * Supported descriptors are {@link TupleDesc_F64}, {@link TupleDesc_F32}, {@link TupleDesc_I8}, and
+ * {@link TupleDesc_B}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LookupSimilarImagesDisk<Image extends ImageBase<Image>, TD extends TupleDesc<TD>>
+		implements LookupSimilarImages, Closeable
+{
+	public static final String FEATURES_FILE_NAME = "features.bin";
+	public static final String MATCHES_FILE_NAME = "matches.bin";
+
+	/** Maximum number of similar images returned by {@link #findSimilar} */
+	@Getter @Setter int maxSimilar = 20;
+
+	/** Images with a retrieval score less than this are not considered similar. See {@link InvertedFileIndex} */
+	@Getter @Setter double minimumSimilarity = 0.0;
+
+	// Detects and describes image features
+	DetectDescribePoint<Image,TD> detector;
+	// Associates features between two images
+	AssociateDescription<TD> associate;
+	// Converts features into a word histogram
+	FeatureToWordHistogram<TD> wordHistogram;
+	// Used to find similar images
+	@Getter InvertedFileIndex retrieval;
+
+	// ID of each image and the reverse look up
+	List<String> imageIds = new ArrayList<>();
+	Map<String,Integer> idToIndex = new HashMap<>();
+
+	// width and height of each image
+	GrowQueue_I32 shapes = new GrowQueue_I32();
+
+	// location and length of each image's features in the features file
+	GrowQueue_I64 featureOffsets = new GrowQueue_I64();
+	GrowQueue_I32 featureLengths = new GrowQueue_I32();
+
+	// location of the associations for a pair of images in the matches file
+	Map<Long,Long> matchOffsets = new HashMap<>();
+
+	// On disk storage
+	RandomAccessFile featuresFile;
+	RandomAccessFile matchesFile;
+
+	// Images which have been recently accessed
+	LinkedHashMap<Integer,ImageFeatures<TD>> cache;
+	/** Maximum number of images which are kept in memory */
+	@Getter int maxCachedImages;
+
+	// Workspace
+	GrowQueue_I32 queryWords = new GrowQueue_I32();
+	GrowQueue_F64 queryFrequency = new GrowQueue_F64();
+	ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+	/**
+	 * Creates the files used for storage in the directory. Existing files are overwritten.
+	 *
+	 * @param detector Feature detector and descriptor
+	 * @param associate Associates features between images
+	 * @param wordHistogram Converts a set of features into a word histogram
+	 * @param maxCachedImages Maximum number of images kept in memory. Must be at least 2.
+	 * @param directory Directory the files are saved to. Created if it doesn't exist.
+	 */
+	public LookupSimilarImagesDisk( DetectDescribePoint<Image,TD> detector ,
+									AssociateDescription<TD> associate ,
+									FeatureToWordHistogram<TD> wordHistogram ,
+									int maxCachedImages ,
+									File directory ) throws IOException {
+		if( maxCachedImages < 2 )
+			throw new IllegalArgumentException("The cache must be able to hold at least two images");
+		checkSupported(detector.createDescription());
+		if( !directory.exists() && !directory.mkdirs() )
+			throw new IOException("Failed to create directory "+directory.getPath());
+
+		this.detector = detector;
+		this.associate = associate;
+		this.wordHistogram = wordHistogram;
+		this.maxCachedImages = maxCachedImages;
+		this.retrieval = new InvertedFileIndex(wordHistogram.getTotalWords());
+
+		featuresFile = new RandomAccessFile(new File(directory,FEATURES_FILE_NAME),"rw");
+		featuresFile.setLength(0);
+		matchesFile = new RandomAccessFile(new File(directory,MATCHES_FILE_NAME),"rw");
+		matchesFile.setLength(0);
+
+		cache = new LinkedHashMap<Integer,ImageFeatures<TD>>(16,0.75f,true) {
+			@Override
+			protected boolean removeEldestEntry( Map.Entry<Integer,ImageFeatures<TD>> eldest ) {
+				return size() > LookupSimilarImagesDisk.this.maxCachedImages;
+			}
+		};
+	}
+
+	/**
+	 * Detects and describes features in the image then saves them to disk. The image is then added to the
+	 * retrieval index.
+	 *
+	 * @param id Unique ID of the image
+	 * @param image The image
+	 */
+	public void addImage( String id , Image image ) {
+		if( idToIndex.containsKey(id) )
+			throw new IllegalArgumentException("Image ID has already been added: "+id);
+
+		int index = imageIds.size();
+		ImageFeatures<TD> features = new ImageFeatures<>(detector);
+
+		detector.detect(image);
+		wordHistogram.reset();
+		int N = detector.getNumberOfFeatures();
+		for (int i = 0; i < N; i++) {
+			features.pixels.grow().set(detector.getLocation(i));
+			TD desc = features.descriptions.grow();
+			desc.setTo(detector.getDescription(i));
+			wordHistogram.addFeature(desc);
+		}
+		if( N > 0 )
+			wordHistogram.process();
+
+		// Save the histogram in a sparse format
+		if( N > 0 ) {
+			double[] histogram = wordHistogram.getHistogram();
+			for (int word = 0; word < histogram.length; word++) {
+				if( histogram[word] == 0.0 )
+					continue;
+				features.words.add(word);
+				features.frequency.add(histogram[word]);
+			}
+		}
+
+		try {
+			long offset = featuresFile.length();
+			bytes.reset();
+			writeFeatures(features,new DataOutputStream(bytes));
+			featuresFile.seek(offset);
+			featuresFile.write(bytes.toByteArray(),0,bytes.size());
+			featureOffsets.add(offset);
+			featureLengths.add(bytes.size());
+		} catch( IOException e ) {
+			throw new RuntimeException(e);
+		}
+
+		imageIds.add(id);
+		idToIndex.put(id,index);
+		shapes.add(image.width);
+		shapes.add(image.height);
+		retrieval.addImage(features.words,features.frequency);
+		cache.put(index,features);
+	}
+
+	@Override
+	public List<String> getImageIDs() {
+		return imageIds;
+	}
+
+	@Override
+	public void findSimilar( String target, List<String> similar ) {
+		similar.clear();
+		int index = lookupIndex(target);
+		ImageFeatures<TD> features = lookupFeatures(index);
+
+		// the image will match itself, so request an extra result
+		retrieval.query(features.words,features.frequency,maxSimilar+1);
+		FastAccess<InvertedFileIndex.ImageScore> results = retrieval.getResults();
+		for (int i = 0; i < results.size && similar.size() < maxSimilar; i++) {
+			InvertedFileIndex.ImageScore r = results.get(i);
+			if( r.image == index || r.score < minimumSimilarity )
+				continue;
+			similar.add(imageIds.get(r.image));
+		}
+	}
+
+	@Override
+	public void lookupPixelFeats( String target, FastQueue<Point2D_F64> features ) {
+		FastQueue<Point2D_F64> pixels = lookupFeatures(lookupIndex(target)).pixels;
+		features.reset();
+		for (int i = 0; i < pixels.size; i++) {
+			features.grow().set(pixels.get(i));
+		}
+	}
+
+	/**
+	 * Associates features between the two views. Associations are computed the first time a pair is requested
+	 * and are read from disk after that.
+	 */
+	@Override
+	public boolean lookupMatches( String viewA, String viewB, FastQueue<AssociatedIndex> pairs ) {
+		int indexA = lookupIndex(viewA);
+		int indexB = lookupIndex(viewB);
+
+		// associations are always computed and saved with the lower index as the source
+		boolean swapped = indexA > indexB;
+		int src = Math.min(indexA,indexB);
+		int dst = Math.max(indexA,indexB);
+		long key = ((long)src << 32) | dst;
+
+		try {
+			Long offset = matchOffsets.get(key);
+			if( offset == null ) {
+				associate(src,dst,pairs);
+				matchOffsets.put(key,saveMatches(pairs));
+			} else {
+				readMatches(offset,pairs);
+			}
+		} catch( IOException e ) {
+			throw new RuntimeException(e);
+		}
+
+		if( swapped ) {
+			for (int i = 0; i < pairs.size; i++) {
+				AssociatedIndex a = pairs.get(i);
+				a.setAssociation(a.dst,a.src,a.fitScore);
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void lookupShape( String target, ImageDimension shape ) {
+		int index = lookupIndex(target);
+		shape.width = shapes.get(index*2);
+		shape.height = shapes.get(index*2+1);
+	}
+
+	/**
+	 * Associates features in two images
+	 */
+	void associate( int src , int dst , FastQueue<AssociatedIndex> pairs ) {
+		// Both images need to be in memory at the same time. The cache can hold at least two
+		ImageFeatures<TD> featuresSrc = lookupFeatures(src);
+		ImageFeatures<TD> featuresDst = lookupFeatures(dst);
+
+		associate.setSource(featuresSrc.descriptions);
+		associate.setDestination(featuresDst.descriptions);
+		associate.associate();
+
+		FastAccess<AssociatedIndex> found = associate.getMatches();
+		pairs.reset();
+		for (int i = 0; i < found.size; i++) {
+			pairs.grow().set(found.get(i));
+		}
+	}
+
+	/**
+	 * Appends the matches to the end of the matches file
+	 *
+	 * @return Location of the matches in the file
+	 */
+	long saveMatches( FastQueue<AssociatedIndex> pairs ) throws IOException {
+		bytes.reset();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(pairs.size);
+		for (int i = 0; i < pairs.size; i++) {
+			AssociatedIndex a = pairs.get(i);
+			out.writeInt(a.src);
+			out.writeInt(a.dst);
+			out.writeDouble(a.fitScore);
+		}
+		long offset = matchesFile.length();
+		matchesFile.seek(offset);
+		matchesFile.write(bytes.toByteArray(),0,bytes.size());
+		return offset;
+	}
+
+	void readMatches( long offset , FastQueue<AssociatedIndex> pairs ) throws IOException {
+		matchesFile.seek(offset);
+		int count = matchesFile.readInt();
+		byte[] data = new byte[count*16];
+		matchesFile.readFully(data);
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+
+		pairs.reset();
+		for (int i = 0; i < count; i++) {
+			int src = in.readInt();
+			int dst = in.readInt();
+			pairs.grow().setAssociation(src,dst,in.readDouble());
+		}
+	}
+
+	/**
+	 * Returns the features for the image. Loaded from disk if not in the cache.
+	 */
+	ImageFeatures<TD> lookupFeatures( int index ) {
+		ImageFeatures<TD> features = cache.get(index);
+		if( features != null )
+			return features;
+
+		features = new ImageFeatures<>(detector);
+		try {
+			byte[] data = new byte[featureLengths.get(index)];
+			featuresFile.seek(featureOffsets.get(index));
+			featuresFile.readFully(data);
+			readFeatures(new DataInputStream(new ByteArrayInputStream(data)),features);
+		} catch( IOException e ) {
+			throw new RuntimeException(e);
+		}
+		cache.put(index,features);
+		return features;
+	}
+
+	int lookupIndex( String id ) {
+		Integer index = idToIndex.get(id);
+		if( index == null )
+			throw new IllegalArgumentException("Unknown image ID: "+id);
+		return index;
+	}
+
+	void writeFeatures( ImageFeatures<TD> features , DataOutputStream out ) throws IOException {
+		out.writeInt(features.pixels.size);
+		for (int i = 0; i < features.pixels.size; i++) {
+			Point2D_F64 p = features.pixels.get(i);
+			out.writeDouble(p.x);
+			out.writeDouble(p.y);
+			writeDescription(features.descriptions.get(i),out);
+		}
+		out.writeInt(features.words.size);
+		for (int i = 0; i < features.words.size; i++) {
+			out.writeInt(features.words.get(i));
+			out.writeDouble(features.frequency.get(i));
+		}
+	}
+
+	void readFeatures( DataInputStream in , ImageFeatures<TD> features ) throws IOException {
+		int N = in.readInt();
+		for (int i = 0; i < N; i++) {
+			features.pixels.grow().set(in.readDouble(),in.readDouble());
+			readDescription(in,features.descriptions.grow());
+		}
+		int numWords = in.readInt();
+		for (int i = 0; i < numWords; i++) {
+			features.words.add(in.readInt());
+			features.frequency.add(in.readDouble());
+		}
+	}
+
+	static void writeDescription( TupleDesc desc , DataOutputStream out ) throws IOException {
+		if( desc instanceof TupleDesc_F64 ) {
+			double[] value = ((TupleDesc_F64)desc).value;
+			for (int i = 0; i < value.length; i++) {
+				out.writeDouble(value[i]);
+			}
+		} else if( desc instanceof TupleDesc_F32 ) {
+			float[] value = ((TupleDesc_F32)desc).value;
+			for (int i = 0; i < value.length; i++) {
+				out.writeFloat(value[i]);
+			}
+		} else if( desc instanceof TupleDesc_I8 ) {
+			out.write(((TupleDesc_I8)desc).value);
+		} else {
+			int[] data = ((TupleDesc_B)desc).data;
+			for (int i = 0; i < data.length; i++) {
+				out.writeInt(data[i]);
+			}
+		}
+	}
+
+	static void readDescription( DataInputStream in , TupleDesc desc ) throws IOException {
+		if( desc instanceof TupleDesc_F64 ) {
+			double[] value = ((TupleDesc_F64)desc).value;
+			for (int i = 0; i < value.length; i++) {
+				value[i] = in.readDouble();
+			}
+		} else if( desc instanceof TupleDesc_F32 ) {
+			float[] value = ((TupleDesc_F32)desc).value;
+			for (int i = 0; i < value.length; i++) {
+				value[i] = in.readFloat();
+			}
+		} else if( desc instanceof TupleDesc_I8 ) {
+			in.readFully(((TupleDesc_I8)desc).value);
+		} else {
+			int[] data = ((TupleDesc_B)desc).data;
+			for (int i = 0; i < data.length; i++) {
+				data[i] = in.readInt();
+			}
+		}
+	}
+
+	static void checkSupported( TupleDesc desc ) {
+		if( desc instanceof TupleDesc_F64 || desc instanceof TupleDesc_F32 ||
+				desc instanceof TupleDesc_I8 || desc instanceof TupleDesc_B )
+			return;
+		throw new IllegalArgumentException("Unsupported descriptor type "+desc.getClass().getSimpleName());
+	}
+
+	/**
+	 * Closes the files. The files are not deleted.
+	 */
+	@Override
+	public void close() throws IOException {
+		cache.clear();
+		featuresFile.close();
+		matchesFile.close();
+	}
+
+	/**
+	 * Features from a single image
+	 */
+	static class ImageFeatures<TD extends TupleDesc<TD>> {
+		final FastQueue<Point2D_F64> pixels = new FastQueue<>(Point2D_F64::new);
+		final FastQueue<TD> descriptions;
+		// Sparse word histogram
+		final GrowQueue_I32 words = new GrowQueue_I32();
+		final GrowQueue_F64 frequency = new GrowQueue_F64();
+
+		ImageFeatures( DetectDescribePoint<?,TD> detector ) {
+			descriptions = new FastQueue<>(detector::createDescription);
+		}
+	}
+}
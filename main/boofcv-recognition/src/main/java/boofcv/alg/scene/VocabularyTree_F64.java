@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.scene;
+
+import org.ddogleg.clustering.AssignCluster;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * Hierarchical vocabulary tree [1] for assigning features to words. Each node in the tree has a mean and
+ * up to branch factor children. A feature is assigned to a word by starting at the root and moving to the
+ * child with the closest mean until a leaf is reached. Each leaf is a word. Assignment is O(branch*depth)
+ * instead of O(words) with a flat list of clusters, allowing for much larger vocabularies.
+ * </p>
+ *
+ * <p>
+ * Nodes are stored in flat arrays. Children of a node have consecutive indexes and node 0 is the root,
+ * which does not have a mean. Words are assigned to leaves in the order of their node index by
+ * {@link #buildWords()}.
+ * </p>
+ *
+ * <p>
+ * [1] Nister, David, and Henrik Stewenius. "Scalable recognition with a vocabulary tree." CVPR 2006.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class VocabularyTree_F64 implements AssignCluster<double[]> {
+
+	// Number of elements in each feature
+	int dof;
+
+	// Number of nodes in the tree, including the root
+	int numNodes;
+	// Number of leaves in the tree
+	int numWords;
+
+	// Mean of each node. node i's mean starts at index i*dof
+	double[] means;
+	// Index of the first child of each node
+	int[] firstChild;
+	// Number of children each node has. 0 = leaf
+	int[] numChildren;
+	// Which word a node is. -1 if not a leaf
+	int[] words;
+
+	/**
+	 * Creates a tree with only a root node
+	 *
+	 * @param dof Number of elements in each feature
+	 */
+	public VocabularyTree_F64( int dof ) {
+		this.dof = dof;
+		int initial = 16;
+		means = new double[initial*dof];
+		firstChild = new int[initial];
+		numChildren = new int[initial];
+		words = new int[initial];
+		numNodes = 1;
+		buildWords();
+	}
+
+	private VocabularyTree_F64() {}
+
+	/**
+	 * Adds children to a leaf node. All the children of a node must be added in a single call.
+	 *
+	 * @param parent Index of the parent node
+	 * @param childMeans Mean of each child
+	 * @return Index of the first child
+	 */
+	public int addChildren( int parent , List<double[]> childMeans ) {
+		if( parent < 0 || parent >= numNodes )
+			throw new IllegalArgumentException("Invalid parent node "+parent);
+		if( numChildren[parent] != 0 )
+			throw new IllegalArgumentException("Children have already been added to the parent");
+		if( childMeans.isEmpty() )
+			throw new IllegalArgumentException("Must add at least one child");
+
+		int first = numNodes;
+		growNodes(numNodes + childMeans.size());
+		for (int i = 0; i < childMeans.size(); i++) {
+			double[] mean = childMeans.get(i);
+			if( mean.length != dof )
+				throw new IllegalArgumentException("Unexpected mean length "+mean.length);
+			System.arraycopy(mean,0,means,(first+i)*dof,dof);
+			numChildren[first+i] = 0;
+		}
+		firstChild[parent] = first;
+		numChildren[parent] = childMeans.size();
+		numNodes += childMeans.size();
+		return first;
+	}
+
+	private void growNodes( int desired ) {
+		if( desired <= firstChild.length )
+			return;
+		int length = Math.max(desired,firstChild.length*2);
+		means = Arrays.copyOf(means,length*dof);
+		firstChild = Arrays.copyOf(firstChild,length);
+		numChildren = Arrays.copyOf(numChildren,length);
+		words = Arrays.copyOf(words,length);
+	}
+
+	/**
+	 * Assigns a word to each leaf. Must be called after the tree has been modified.
+	 */
+	public void buildWords() {
+		numWords = 0;
+		for (int i = 0; i < numNodes; i++) {
+			words[i] = numChildren[i] == 0 ? numWords++ : -1;
+		}
+	}
+
+	/**
+	 * Returns the index of the leaf node the point is assigned to
+	 */
+	public int searchLeaf( double[] point ) {
+		int node = 0;
+		while( numChildren[node] > 0 ) {
+			int first = firstChild[node];
+			int end = first + numChildren[node];
+
+			int best = first;
+			double bestDistance = Double.MAX_VALUE;
+			for (int child = first; child < end; child++) {
+				double distance = distanceSq(point,child,bestDistance);
+				if( distance < bestDistance ) {
+					bestDistance = distance;
+					best = child;
+				}
+			}
+			node = best;
+		}
+		return node;
+	}
+
+	/**
+	 * Squared Euclidean distance between the point and a node's mean. Exits early once the distance
+	 * exceeds the threshold.
+	 */
+	private double distanceSq( double[] point , int node , double threshold ) {
+		int index = node*dof;
+		double total = 0;
+		for (int i = 0; i < dof; i++) {
+			double d = point[i] - means[index++];
+			total += d*d;
+			if( total >= threshold )
+				break;
+		}
+		return total;
+	}
+
+	@Override
+	public int assign( double[] point ) {
+		return words[searchLeaf(point)];
+	}
+
+	/**
+	 * Soft assignment isn't supported by the tree. All the weight is given to the word selected by hard assignment.
+	 */
+	@Override
+	public void assign( double[] point , double[] fit ) {
+		Arrays.fill(fit,0,numWords,0.0);
+		fit[assign(point)] = 1.0;
+	}
+
+	@Override
+	public int getNumberOfClusters() {
+		return numWords;
+	}
+
+	/**
+	 * Creates a copy which shares the tree's data. The tree isn't modified during assignment so it's safe to
+	 * use copies in different threads.
+	 */
+	@Override
+	public AssignCluster<double[]> copy() {
+		VocabularyTree_F64 c = new VocabularyTree_F64();
+		c.dof = dof;
+		c.numNodes = numNodes;
+		c.numWords = numWords;
+		c.means = means;
+		c.firstChild = firstChild;
+		c.numChildren = numChildren;
+		c.words = words;
+		return c;
+	}
+
+	/**
+	 * Copies the mean of a node into the provided array
+	 */
+	public void getMean( int node , double[] mean ) {
+		System.arraycopy(means,node*dof,mean,0,dof);
+	}
+
+	public int getDof() { return dof; }
+
+	public int getNumNodes() { return numNodes; }
+
+	public int getFirstChild( int node ) { return firstChild[node]; }
+
+	public int getNumChildren( int node ) { return numChildren[node]; }
+
+	/**
+	 * Returns the word of a leaf node or -1 if the node isn't a leaf
+	 */
+	public int getWord( int node ) { return words[node]; }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.scene.codec;
+
+import boofcv.alg.scene.InvertedFileIndex;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes and decodes {@link InvertedFileIndex} using a compact binary format. Only the inverted file is saved
+ * since the weights can be recomputed from it.
+ *
+ * <pre>
+ * "InvertedFileIndex"    (UTF-8 header)
+ * version                (int)
+ * numWords  numImages    (int)
+ * for each word:
+ *    count               (int)
+ *    image, frequency    (int, float) repeated count times
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+public class CodecInvertedFileIndex {
+	public static final String HEADER = "InvertedFileIndex";
+	public static final int VERSION = 1;
+
+	/**
+	 * Writes the index to the stream. The stream is not closed.
+	 */
+	public static void write( InvertedFileIndex index , OutputStream stream ) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+		out.write(HEADER.getBytes(StandardCharsets.UTF_8));
+		out.writeInt(VERSION);
+		out.writeInt(index.getNumWords());
+		out.writeInt(index.getNumImages());
+
+		for (int word = 0; word < index.getNumWords(); word++) {
+			InvertedFileIndex.WordImages w = index.getWordImages(word);
+			out.writeInt(w.images.size);
+			for (int i = 0; i < w.images.size; i++) {
+				out.writeInt(w.images.data[i]);
+				out.writeFloat(w.frequency.data[i]);
+			}
+		}
+		out.flush();
+	}
+
+	/**
+	 * Reads an index which was saved using {@link #write}. The stream is not closed.
+	 */
+	public static InvertedFileIndex read( InputStream stream ) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+		byte[] header = new byte[HEADER.length()];
+		in.readFully(header);
+		if( !HEADER.equals(new String(header,StandardCharsets.UTF_8)) )
+			throw new IOException("Unexpected header. Not an inverted file index");
+		int version = in.readInt();
+		if( version != VERSION )
+			throw new IOException("Unsupported version "+version);
+
+		int numWords = in.readInt();
+		int numImages = in.readInt();
+
+		InvertedFileIndex index = new InvertedFileIndex(numWords);
+		for (int word = 0; word < numWords; word++) {
+			InvertedFileIndex.WordImages w = index.getWordImages(word);
+			int count = in.readInt();
+			w.images.resize(count);
+			w.frequency.resize(count);
+			for (int i = 0; i < count; i++) {
+				int image = in.readInt();
+				if( image < 0 || image >= numImages )
+					throw new IOException("Image index out of bounds. "+image);
+				w.images.data[i] = image;
+				w.frequency.data[i] = in.readFloat();
+			}
+		}
+		index.setNumImages(numImages);
+		return index;
+	}
+}
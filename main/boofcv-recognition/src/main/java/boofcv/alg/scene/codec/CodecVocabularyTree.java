@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.scene.codec;
+
+import boofcv.alg.scene.VocabularyTree_F64;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encodes and decodes {@link VocabularyTree_F64} using a compact binary format. The tree is saved as a sequence
+ * of blocks, one for each node with children, in the order the children were added. Words are rebuilt when read.
+ *
+ * <pre>
+ * "VocabularyTree"       (UTF-8 header)
+ * version                (int)
+ * dof  numBlocks         (int)
+ * for each block:
+ *    parent  count       (int)
+ *    mean of each child  (double[dof]) repeated count times
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+public class CodecVocabularyTree {
+	public static final String HEADER = "VocabularyTree";
+	public static final int VERSION = 1;
+
+	/**
+	 * Writes the tree to the stream. The stream is not closed.
+	 */
+	public static void write( VocabularyTree_F64 tree , OutputStream stream ) throws IOException {
+		int dof = tree.getDof();
+
+		// Children were added in the order of their indexes. Find the parent of each block of children
+		int[] parents = new int[tree.getNumNodes()];
+		int numBlocks = 0;
+		for (int node = 0; node < tree.getNumNodes(); node++) {
+			if( tree.getNumChildren(node) == 0 )
+				continue;
+			parents[tree.getFirstChild(node)] = node;
+			numBlocks++;
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+		out.write(HEADER.getBytes(StandardCharsets.UTF_8));
+		out.writeInt(VERSION);
+		out.writeInt(dof);
+		out.writeInt(numBlocks);
+
+		double[] mean = new double[dof];
+		int first = 1;
+		while( first < tree.getNumNodes() ) {
+			int parent = parents[first];
+			int count = tree.getNumChildren(parent);
+			out.writeInt(parent);
+			out.writeInt(count);
+			for (int i = 0; i < count; i++) {
+				tree.getMean(first+i,mean);
+				for (int j = 0; j < dof; j++) {
+					out.writeDouble(mean[j]);
+				}
+			}
+			first += count;
+		}
+		out.flush();
+	}
+
+	/**
+	 * Reads a tree which was saved using {@link #write}. The stream is not closed.
+	 */
+	public static VocabularyTree_F64 read( InputStream stream ) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+		byte[] header = new byte[HEADER.length()];
+		in.readFully(header);
+		if( !HEADER.equals(new String(header,StandardCharsets.UTF_8)) )
+			throw new IOException("Unexpected header. Not a vocabulary tree");
+		int version = in.readInt();
+		if( version != VERSION )
+			throw new IOException("Unsupported version "+version);
+
+		int dof = in.readInt();
+		int numBlocks = in.readInt();
+
+		VocabularyTree_F64 tree = new VocabularyTree_F64(dof);
+		List<double[]> means = new ArrayList<>();
+		for (int block = 0; block < numBlocks; block++) {
+			int parent = in.readInt();
+			int count = in.readInt();
+			means.clear();
+			for (int i = 0; i < count; i++) {
+				double[] mean = new double[dof];
+				for (int j = 0; j < dof; j++) {
+					mean[j] = in.readDouble();
+				}
+				means.add(mean);
+			}
+			try {
+				tree.addChildren(parent,means);
+			} catch( IllegalArgumentException e ) {
+				throw new IOException("Corrupted tree. "+e.getMessage());
+			}
+		}
+		tree.buildWords();
+		return tree;
+	}
+}
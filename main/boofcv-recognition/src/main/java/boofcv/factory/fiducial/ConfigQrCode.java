@@ -58,6 +58,22 @@ public class ConfigQrCode implements Configuration {
 	 */
 	public String forceEncoding = null;
 
+	/**
+	 * If true then QR codes found in the previous image are used to select which regions are searched in the
+	 * next image. Only use with video sequences. New QR codes are only found when the entire image is searched.
+	 */
+	public boolean tracking = false;
+
+	/**
+	 * In tracking mode, the entire image is searched at least once every this many images
+	 */
+	public int trackingFullPeriod = 15;
+
+	/**
+	 * In tracking mode, how much the predicted region is expanded by on each side relative to the QR code's size
+	 */
+	public double trackingRegionScale = 0.5;
+
 	{
 
 		// 40% slower but better at detecting fiducials by a few percentage points
@@ -107,6 +123,9 @@ public class ConfigQrCode implements Configuration {
 		this.versionMinimum = src.versionMinimum;
 		this.versionMaximum = src.versionMaximum;
 		this.forceEncoding = src.forceEncoding;
+		this.tracking = src.tracking;
+		this.trackingFullPeriod = src.trackingFullPeriod;
+		this.trackingRegionScale = src.trackingRegionScale;
 	}
 
 	@Override
@@ -116,6 +135,10 @@ public class ConfigQrCode implements Configuration {
 //			throw new IllegalArgumentException("Must be counter clockwise");
 //		if( polygon.detector.minimumSides != 4 || polygon.detector.maximumSides != 4)
 //			throw new IllegalArgumentException("Must detect 4 sides and only 4 sides");
+		if( trackingFullPeriod < 1 )
+			throw new IllegalArgumentException("trackingFullPeriod must be at least 1");
+		if( trackingRegionScale < 0 )
+			throw new IllegalArgumentException("trackingRegionScale can't be negative");
 
 	}
 }
@@ -200,7 +200,12 @@ public class FactoryFiducial {
 		QrCodePositionPatternDetector<T> detectPositionPatterns =
 				new QrCodePositionPatternDetector<>(squareDetector,config.versionMaximum);
 
-		return new QrCodePreciseDetector<>(inputToBinary,detectPositionPatterns, config.forceEncoding,false, imageType);
+		QrCodePreciseDetector<T> detector = new QrCodePreciseDetector<>(
+				inputToBinary,detectPositionPatterns, config.forceEncoding,false, imageType);
+		detector.setTracking(config.tracking);
+		detector.setTrackingFullPeriod(config.trackingFullPeriod);
+		detector.getPredictor().setRegionScale(config.trackingRegionScale);
+		return detector;
 	}
 
 	/**
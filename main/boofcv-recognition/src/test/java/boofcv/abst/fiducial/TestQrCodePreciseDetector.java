@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,7 +20,18 @@ package boofcv.abst.fiducial;
 
 import boofcv.factory.fiducial.ConfigQrCode;
 import boofcv.factory.fiducial.FactoryFiducial;
+import boofcv.io.calibration.CalibrationIO;
+import boofcv.simulation.SimulatePlanarWorld;
+import boofcv.struct.calib.CameraPinholeBrown;
 import boofcv.struct.image.GrayF32;
+import georegression.geometry.ConvertRotation3D_F64;
+import georegression.struct.EulerType;
+import georegression.struct.se.Se3_F64;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestQrCodePreciseDetector extends GenericQrCodeDetectorChecks {
 
@@ -30,4 +41,91 @@ public class TestQrCodePreciseDetector extends GenericQrCodeDetectorChecks {
 
 		return FactoryFiducial.qrcode(config,GrayF32.class);
 	}
+
+	/**
+	 * In tracking mode only the predicted regions should be searched, except for periodic full searches
+	 */
+	@Test
+	void tracking() {
+		QrCodePreciseDetector<GrayF32> detector = createTracking(5);
+
+		Se3_F64 markerToWorld = new Se3_F64();
+		SimulatePlanarWorld simulator = createSimulator(markerToWorld);
+
+		for (int i = 0; i < 16; i++) {
+			simulator.render();
+			detector.process(simulator.getOutput());
+
+			assertEquals(1,detector.getDetections().size());
+			assertEquals(message,detector.getDetections().get(0).message);
+			assertEquals(i%5 == 0, detector.isSearchedFullImage());
+
+			markerToWorld.T.x += 0.004;
+		}
+	}
+
+	/**
+	 * If the QR code isn't where it's predicted to be then the entire image should be searched
+	 */
+	@Test
+	void tracking_missFallsBackToFull() {
+		QrCodePreciseDetector<GrayF32> detector = createTracking(100);
+
+		Se3_F64 markerToWorld = new Se3_F64();
+		SimulatePlanarWorld simulator = createSimulator(markerToWorld);
+
+		simulator.render();
+		detector.process(simulator.getOutput());
+		assertTrue(detector.isSearchedFullImage());
+		simulator.render();
+		detector.process(simulator.getOutput());
+		assertFalse(detector.isSearchedFullImage());
+
+		// jump to a location far outside the predicted region
+		markerToWorld.T.x += 0.5;
+		simulator.render();
+		detector.process(simulator.getOutput());
+		assertTrue(detector.isSearchedFullImage());
+		assertEquals(1,detector.getDetections().size());
+
+		// it should now be tracking it at the new location
+		simulator.render();
+		detector.process(simulator.getOutput());
+		assertFalse(detector.isSearchedFullImage());
+		assertEquals(1,detector.getDetections().size());
+	}
+
+	@Test
+	void resetTracking() {
+		QrCodePreciseDetector<GrayF32> detector = createTracking(100);
+
+		Se3_F64 markerToWorld = new Se3_F64();
+		SimulatePlanarWorld simulator = createSimulator(markerToWorld);
+
+		simulator.render();
+		detector.process(simulator.getOutput());
+		detector.resetTracking();
+		detector.process(simulator.getOutput());
+		assertTrue(detector.isSearchedFullImage());
+	}
+
+	private QrCodePreciseDetector<GrayF32> createTracking( int fullPeriod ) {
+		ConfigQrCode config = new ConfigQrCode();
+		config.tracking = true;
+		config.trackingFullPeriod = fullPeriod;
+
+		return FactoryFiducial.qrcode(config,GrayF32.class);
+	}
+
+	private SimulatePlanarWorld createSimulator( Se3_F64 markerToWorld ) {
+		CameraPinholeBrown model = CalibrationIO.load(getClass().getResource("calib/pinhole_radial.yaml"));
+		SimulatePlanarWorld simulator = new SimulatePlanarWorld();
+		simulator.setCamera(model);
+		simulator.resetScene();
+		simulator.addSurface(markerToWorld, simulatedTargetWidth, generateMarker());
+
+		ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ,0,Math.PI,0,markerToWorld.R);
+		markerToWorld.T.set(-0.25, 0, 1.0);
+		return simulator;
+	}
 }
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.fiducial.qrcode;
+
+import boofcv.struct.ImageRectangle;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestQrCodeRegionPredictor {
+	/**
+	 * A QR code moving at a constant velocity should be predicted to be where it will be next
+	 */
+	@Test
+	void predict_velocity() {
+		QrCodeRegionPredictor alg = new QrCodeRegionPredictor();
+		alg.setMinimumMargin(0);
+		alg.setRegionScale(0.1);
+
+		alg.update(list(create("a",100,120,50)));
+		alg.update(list(create("a",110,125,50)));
+		assertEquals(1,alg.getTrackCount());
+
+		alg.predict(640,480);
+		assertEquals(1,alg.getRegions().size);
+		ImageRectangle r = alg.getRegions().get(0);
+		// next location is (120,130) with a margin of 5
+		assertEquals(115,r.x0);
+		assertEquals(125,r.y0);
+		assertEquals(175,r.x1);
+		assertEquals(185,r.y1);
+	}
+
+	/**
+	 * Detections with a different message should not be associated together
+	 */
+	@Test
+	void update_differentMessage() {
+		QrCodeRegionPredictor alg = new QrCodeRegionPredictor();
+
+		alg.update(list(create("a",100,120,50)));
+		alg.update(list(create("b",110,125,50)));
+
+		assertEquals(0.0,alg.tracks.get(0).velocityX);
+		assertEquals(0.0,alg.tracks.get(0).velocityY);
+	}
+
+	/**
+	 * Two QR codes with the same message should be associated with the closest one
+	 */
+	@Test
+	void update_sameMessage() {
+		QrCodeRegionPredictor alg = new QrCodeRegionPredictor();
+
+		alg.update(list(create("a",100,120,50),create("a",300,120,50)));
+		alg.update(list(create("a",302,121,50),create("a",104,118,50)));
+
+		assertEquals(2,alg.getTrackCount());
+		assertEquals(2.0,alg.tracks.get(0).velocityX,1e-8);
+		assertEquals(1.0,alg.tracks.get(0).velocityY,1e-8);
+		assertEquals(4.0,alg.tracks.get(1).velocityX,1e-8);
+		assertEquals(-2.0,alg.tracks.get(1).velocityY,1e-8);
+	}
+
+	/**
+	 * A QR code which is found far outside of its predicted region was lost and its motion is unknown
+	 */
+	@Test
+	void update_outsidePrediction() {
+		QrCodeRegionPredictor alg = new QrCodeRegionPredictor();
+
+		alg.update(list(create("a",100,120,50)));
+		// margin is 25 pixels, so just inside the predicted region
+		alg.update(list(create("a",124,120,50)));
+		assertEquals(24.0,alg.tracks.get(0).velocityX,1e-8);
+
+		// predicted to be at 148. This is far outside
+		alg.update(list(create("a",400,120,50)));
+		assertEquals(1,alg.getTrackCount());
+		assertEquals(0.0,alg.tracks.get(0).velocityX);
+		assertEquals(0.0,alg.tracks.get(0).velocityY);
+	}
+
+	@Test
+	void predict_clipToImage() {
+		QrCodeRegionPredictor alg = new QrCodeRegionPredictor();
+		alg.setMinimumMargin(20);
+
+		alg.update(list(create("a",5,400,60)));
+		alg.predict(100,450);
+
+		assertEquals(1,alg.getRegions().size);
+		ImageRectangle r = alg.getRegions().get(0);
+		assertEquals(0,r.x0);
+		assertEquals(370,r.y0);
+		assertEquals(95,r.x1);
+		assertEquals(450,r.y1);
+	}
+
+	/**
+	 * If it's predicted to be outside the image no region should be returned and the track discarded
+	 */
+	@Test
+	void predict_outsideImage() {
+		QrCodeRegionPredictor alg = new QrCodeRegionPredictor();
+		alg.setMinimumMargin(0);
+		alg.setRegionScale(0.0);
+
+		alg.update(list(create("a",10,10,20),create("b",50,50,20),create("c",10,60,20)));
+		alg.update(list(create("a",-20,10,20),create("b",50,50,20),create("c",-20,60,20)));
+		alg.predict(100,100);
+
+		assertEquals(1,alg.getRegions().size);
+		assertEquals(1,alg.getTrackCount());
+		assertEquals("b",alg.tracks.get(0).message);
+	}
+
+	@Test
+	void isEveryTrackFound() {
+		QrCodeRegionPredictor alg = new QrCodeRegionPredictor();
+		alg.update(list(create("a",100,120,50),create("b",300,120,50)));
+
+		assertTrue(alg.isEveryTrackFound(list(create("b",305,121,50),create("a",102,119,50))));
+		assertFalse(alg.isEveryTrackFound(list(create("a",102,119,50))));
+		// one was lost and a new one appeared. The number of detections is the same but a track was lost
+		assertFalse(alg.isEveryTrackFound(list(create("a",102,119,50),create("c",305,121,50))));
+		// same message twice can only be associated with one track
+		assertFalse(alg.isEveryTrackFound(list(create("a",102,119,50),create("a",305,121,50))));
+		assertTrue(alg.isEveryTrackFound(list(create("a",102,119,50),create("c",305,121,50),create("b",305,121,50))));
+
+		// isEveryTrackFound() should not modify the tracks
+		assertEquals(2,alg.getTrackCount());
+		assertEquals(0.0,alg.tracks.get(0).velocityX);
+	}
+
+	@Test
+	void mergeOverlapping() {
+		QrCodeRegionPredictor alg = new QrCodeRegionPredictor();
+		alg.regions.grow().set(0,0,20,20);
+		alg.regions.grow().set(50,50,60,60);
+		alg.regions.grow().set(10,10,30,30);
+		// connects the other regions together
+		alg.regions.grow().set(25,25,55,55);
+
+		alg.mergeOverlapping();
+
+		assertEquals(1,alg.regions.size);
+		ImageRectangle r = alg.regions.get(0);
+		assertEquals(0,r.x0);
+		assertEquals(0,r.y0);
+		assertEquals(60,r.x1);
+		assertEquals(60,r.y1);
+	}
+
+	@Test
+	void mergeOverlapping_noOverlap() {
+		QrCodeRegionPredictor alg = new QrCodeRegionPredictor();
+		alg.regions.grow().set(0,0,20,20);
+		alg.regions.grow().set(20,0,40,20);
+		alg.regions.grow().set(0,20,20,40);
+
+		alg.mergeOverlapping();
+
+		assertEquals(3,alg.regions.size);
+	}
+
+	@Test
+	void reset() {
+		QrCodeRegionPredictor alg = new QrCodeRegionPredictor();
+		alg.update(list(create("a",10,10,20)));
+		alg.predict(100,100);
+
+		alg.reset();
+		assertEquals(0,alg.getTrackCount());
+		assertEquals(0,alg.getRegions().size);
+
+		// there should be no velocity since the previous track was discarded
+		alg.update(list(create("a",30,10,20)));
+		assertEquals(0.0,alg.tracks.get(0).velocityX);
+	}
+
+	/**
+	 * Creates a QR code which is an axis aligned square
+	 */
+	private static QrCode create( String message , double x , double y , double width ) {
+		QrCode qr = new QrCode();
+		qr.message = message;
+		qr.bounds.get(0).set(x,y);
+		qr.bounds.get(1).set(x+width,y);
+		qr.bounds.get(2).set(x+width,y+width);
+		qr.bounds.get(3).set(x,y+width);
+		return qr;
+	}
+
+	private static List<QrCode> list( QrCode... codes ) {
+		List<QrCode> list = new ArrayList<>();
+		for( QrCode qr : codes )
+			list.add(qr);
+		return list;
+	}
+}
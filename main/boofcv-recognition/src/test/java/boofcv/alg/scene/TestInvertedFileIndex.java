@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.scene;
+
+import org.ddogleg.struct.FastAccess;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestInvertedFileIndex {
+
+	Random rand = new Random(234);
+	int numWords = 200;
+
+	/**
+	 * Each image should find itself as the best match
+	 */
+	@Test
+	void queryFindsSelf() {
+		InvertedFileIndex alg = new InvertedFileIndex(numWords);
+		double[][] histograms = new double[30][];
+		for (int i = 0; i < histograms.length; i++) {
+			histograms[i] = randomSparse(10);
+			assertEquals(i, alg.addImage(histograms[i]));
+		}
+
+		for (int i = 0; i < histograms.length; i++) {
+			alg.query(histograms[i], 5);
+			FastAccess<InvertedFileIndex.ImageScore> results = alg.getResults();
+			assertTrue(results.size > 0 && results.size <= 5);
+			assertEquals(i, results.get(0).image);
+			assertEquals(1.0, results.get(0).score, 1e-8);
+		}
+	}
+
+	/**
+	 * Results should be sorted from best to worst and match a brute force computation
+	 */
+	@Test
+	void query_ordering() {
+		InvertedFileIndex alg = new InvertedFileIndex(numWords);
+		double[][] histograms = new double[40][];
+		for (int i = 0; i < histograms.length; i++) {
+			histograms[i] = randomSparse(30);
+			alg.addImage(histograms[i]);
+		}
+
+		double[] query = randomSparse(30);
+		alg.query(query, 10);
+		FastAccess<InvertedFileIndex.ImageScore> results = alg.getResults();
+		assertEquals(10, results.size);
+
+		double[] idf = computeIdf(histograms);
+		for (int i = 0; i < results.size; i++) {
+			InvertedFileIndex.ImageScore r = results.get(i);
+			assertEquals(cosine(query, histograms[r.image], idf), r.score, 1e-5);
+			if (i > 0)
+				assertTrue(results.get(i - 1).score >= r.score);
+		}
+
+		// make sure nothing better was skipped
+		double worst = results.get(results.size - 1).score;
+		int better = 0;
+		for (int i = 0; i < histograms.length; i++) {
+			if (cosine(query, histograms[i], idf) > worst + 1e-5)
+				better++;
+		}
+		assertTrue(better < results.size);
+	}
+
+	/**
+	 * Images which share no words should not be returned
+	 */
+	@Test
+	void query_noSharedWords() {
+		InvertedFileIndex alg = new InvertedFileIndex(4);
+		alg.addImage(new double[]{1, 0, 0, 0});
+		alg.addImage(new double[]{0, 1, 0, 0});
+
+		alg.query(new double[]{0, 0, 1, 1}, 5);
+		assertEquals(0, alg.getResults().size);
+
+		alg.query(new double[]{0, 2, 0, 0}, 5);
+		assertEquals(1, alg.getResults().size);
+		assertEquals(1, alg.getResults().get(0).image);
+	}
+
+	/**
+	 * Add images after a query has been made. The weights should be updated.
+	 */
+	@Test
+	void incremental() {
+		InvertedFileIndex alg = new InvertedFileIndex(numWords);
+		for (int i = 0; i < 10; i++) {
+			alg.addImage(randomSparse(10));
+		}
+		alg.query(randomSparse(10), 3);
+
+		double[] target = randomSparse(10);
+		int index = alg.addImage(target);
+		assertEquals(10, index);
+		alg.query(target, 3);
+		assertEquals(index, alg.getResults().get(0).image);
+		assertEquals(1.0, alg.getResults().get(0).score, 1e-8);
+	}
+
+	@Test
+	void reset() {
+		InvertedFileIndex alg = new InvertedFileIndex(numWords);
+		double[] a = randomSparse(10);
+		alg.addImage(a);
+		alg.addImage(randomSparse(10));
+		alg.reset();
+		assertEquals(0, alg.getNumImages());
+		alg.query(a, 3);
+		assertEquals(0, alg.getResults().size);
+
+		alg.addImage(randomSparse(10));
+		assertEquals(1, alg.addImage(a));
+		alg.query(a, 3);
+		assertEquals(1, alg.getResults().get(0).image);
+	}
+
+	double[] randomSparse( int count ) {
+		double[] h = new double[numWords];
+		for (int i = 0; i < count; i++) {
+			h[rand.nextInt(numWords)] += 1.0/count;
+		}
+		return h;
+	}
+
+	static double[] computeIdf( double[][] histograms ) {
+		int N = histograms[0].length;
+		double[] idf = new double[N];
+		for (int word = 0; word < N; word++) {
+			int df = 0;
+			for (double[] h : histograms) {
+				if (h[word] != 0)
+					df++;
+			}
+			idf[word] = df == 0 ? 0 : Math.log(histograms.length/(double)df);
+		}
+		return idf;
+	}
+
+	static double cosine( double[] a, double[] b, double[] idf ) {
+		double dot = 0, na = 0, nb = 0;
+		for (int i = 0; i < a.length; i++) {
+			double va = a[i]*idf[i];
+			double vb = b[i]*idf[i];
+			dot += va*vb;
+			na += va*va;
+			nb += vb*vb;
+		}
+		if (na == 0 || nb == 0)
+			return 0;
+		return dot/Math.sqrt(na*nb);
+	}
+}
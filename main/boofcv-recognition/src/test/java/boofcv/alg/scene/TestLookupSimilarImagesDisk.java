@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.scene;
+
+import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.feature.associate.ConfigAssociateGreedy;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageDimension;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestLookupSimilarImagesDisk {
+
+	Random rand = new Random(234);
+	int width = 150, height = 120;
+
+	File directory;
+	LookupSimilarImagesDisk<GrayF32, TupleDesc_F64> alg;
+
+	GrayF32 imageA = new GrayF32(width, height);
+	GrayF32 imageC = new GrayF32(width, height);
+
+	@BeforeEach
+	void before() throws IOException {
+		directory = Files.createTempDirectory("lookup").toFile();
+
+		DetectDescribePoint<GrayF32, TupleDesc_F64> detector =
+				FactoryDetectDescribe.surfFast(null, null, null, GrayF32.class);
+
+		// vocabulary with randomly selected words
+		VocabularyTree_F64 tree = new VocabularyTree_F64(64);
+		List<double[]> means = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			double[] mean = new double[64];
+			for (int j = 0; j < mean.length; j++) {
+				mean[j] = rand.nextGaussian()*0.1;
+			}
+			means.add(mean);
+		}
+		tree.addChildren(0, means);
+		tree.buildWords();
+
+		alg = new LookupSimilarImagesDisk<>(detector,
+				FactoryAssociation.greedy(new ConfigAssociateGreedy(true),
+						FactoryAssociation.scoreEuclidean(TupleDesc_F64.class, true)),
+				new FeatureToWordHistogram_F64(tree, true), 2, directory);
+
+		// A and B are identical and have lots of features. C has no features
+		ImageMiscOps.fillUniform(imageA, rand, 0, 255);
+		ImageMiscOps.fill(imageC, 100);
+
+		alg.addImage("A", imageA);
+		alg.addImage("B", imageA.clone());
+		alg.addImage("C", imageC);
+	}
+
+	@AfterEach
+	void after() throws IOException {
+		alg.close();
+		File[] files = directory.listFiles();
+		if (files != null) {
+			for (File f : files) {
+				assertTrue(f.delete());
+			}
+		}
+		assertTrue(directory.delete());
+	}
+
+	@Test
+	void getImageIDs() {
+		List<String> ids = alg.getImageIDs();
+		assertEquals(3, ids.size());
+		assertEquals("A", ids.get(0));
+		assertEquals("B", ids.get(1));
+		assertEquals("C", ids.get(2));
+
+		assertThrows(IllegalArgumentException.class, () -> alg.addImage("A", imageA));
+	}
+
+	@Test
+	void findSimilar() {
+		List<String> similar = new ArrayList<>();
+		alg.findSimilar("A", similar);
+		assertEquals(1, similar.size());
+		assertEquals("B", similar.get(0));
+
+		alg.findSimilar("B", similar);
+		assertEquals(1, similar.size());
+		assertEquals("A", similar.get(0));
+
+		alg.findSimilar("C", similar);
+		assertEquals(0, similar.size());
+	}
+
+	/**
+	 * Features should be the same after being read from disk
+	 */
+	@Test
+	void lookupPixelFeats() {
+		DetectDescribePoint<GrayF32, TupleDesc_F64> detector =
+				FactoryDetectDescribe.surfFast(null, null, null, GrayF32.class);
+		detector.detect(imageA);
+
+		// A isn't in the cache and must be read from disk
+		assertFalse(alg.cache.containsKey(0));
+		FastQueue<Point2D_F64> found = new FastQueue<>(Point2D_F64::new);
+		alg.lookupPixelFeats("A", found);
+		assertTrue(found.size > 20);
+		assertEquals(detector.getNumberOfFeatures(), found.size);
+		for (int i = 0; i < found.size; i++) {
+			assertEquals(0.0, detector.getLocation(i).distance(found.get(i)), 1e-8);
+		}
+
+		alg.lookupPixelFeats("C", found);
+		assertEquals(0, found.size);
+	}
+
+	@Test
+	void lookupMatches() {
+		FastQueue<AssociatedIndex> ab = new FastQueue<>(AssociatedIndex::new);
+		FastQueue<AssociatedIndex> ba = new FastQueue<>(AssociatedIndex::new);
+		FastQueue<AssociatedIndex> again = new FastQueue<>(AssociatedIndex::new);
+
+		assertTrue(alg.lookupMatches("A", "B", ab));
+		// the images are identical so every feature should match itself
+		assertTrue(ab.size > 20);
+		for (int i = 0; i < ab.size; i++) {
+			assertEquals(ab.get(i).src, ab.get(i).dst);
+		}
+
+		// force the features to be removed from the cache
+		alg.lookupPixelFeats("C", new FastQueue<>(Point2D_F64::new));
+
+		// read from the disk. reversed order should be swapped
+		assertTrue(alg.lookupMatches("B", "A", ba));
+		assertTrue(alg.lookupMatches("A", "B", again));
+		assertEquals(ab.size, ba.size);
+		assertEquals(ab.size, again.size);
+		for (int i = 0; i < ab.size; i++) {
+			assertEquals(ab.get(i).src, ba.get(i).dst);
+			assertEquals(ab.get(i).dst, ba.get(i).src);
+			assertEquals(ab.get(i).src, again.get(i).src);
+			assertEquals(ab.get(i).dst, again.get(i).dst);
+			assertEquals(ab.get(i).fitScore, again.get(i).fitScore, 0.0);
+		}
+	}
+
+	@Test
+	void lookupShape() {
+		ImageDimension shape = new ImageDimension();
+		alg.lookupShape("B", shape);
+		assertEquals(width, shape.width);
+		assertEquals(height, shape.height);
+
+		assertThrows(IllegalArgumentException.class, () -> alg.lookupShape("D", shape));
+	}
+
+	@Test
+	void cacheSize() {
+		assertTrue(alg.cache.size() <= 2);
+		alg.lookupPixelFeats("A", new FastQueue<>(Point2D_F64::new));
+		assertTrue(alg.cache.size() <= 2);
+		assertTrue(alg.cache.containsKey(0));
+	}
+}
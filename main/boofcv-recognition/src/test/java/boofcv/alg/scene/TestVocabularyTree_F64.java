@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.scene;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestVocabularyTree_F64 {
+
+	/**
+	 * Creates a two level tree in 1D.
+	 *
+	 * root -> {-10, 10}, -10 -> {-12, -8}, 10 -> {8, 12}
+	 */
+	public static VocabularyTree_F64 createTree() {
+		VocabularyTree_F64 tree = new VocabularyTree_F64(1);
+		int first = tree.addChildren(0, means(-10, 10));
+		tree.addChildren(first, means(-12, -8));
+		tree.addChildren(first + 1, means(8, 12));
+		tree.buildWords();
+		return tree;
+	}
+
+	static List<double[]> means( double... values ) {
+		List<double[]> list = new ArrayList<>();
+		for (double v : values) {
+			list.add(new double[]{v});
+		}
+		return list;
+	}
+
+	@Test
+	void assign() {
+		VocabularyTree_F64 tree = createTree();
+		assertEquals(7, tree.getNumNodes());
+		assertEquals(4, tree.getNumberOfClusters());
+
+		assertEquals(0, tree.assign(new double[]{-13}));
+		assertEquals(1, tree.assign(new double[]{-7}));
+		assertEquals(2, tree.assign(new double[]{7.5}));
+		assertEquals(3, tree.assign(new double[]{20}));
+	}
+
+	@Test
+	void assign_soft() {
+		VocabularyTree_F64 tree = createTree();
+		double[] fit = new double[4];
+		fit[0] = 2;
+		tree.assign(new double[]{12}, fit);
+		assertArrayEquals(new double[]{0, 0, 0, 1}, fit, 1e-8);
+	}
+
+	@Test
+	void addChildren_errors() {
+		VocabularyTree_F64 tree = createTree();
+		// already has children
+		assertThrows(IllegalArgumentException.class, () -> tree.addChildren(0, means(1)));
+		// bad parent
+		assertThrows(IllegalArgumentException.class, () -> tree.addChildren(10, means(1)));
+		// wrong DOF
+		List<double[]> bad = new ArrayList<>();
+		bad.add(new double[2]);
+		assertThrows(IllegalArgumentException.class, () -> tree.addChildren(3, bad));
+	}
+
+	/**
+	 * Add enough nodes to force the internal arrays to grow
+	 */
+	@Test
+	void growArrays() {
+		VocabularyTree_F64 tree = new VocabularyTree_F64(2);
+		List<double[]> children = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			children.add(new double[]{i, -i});
+		}
+		tree.addChildren(0, children);
+		tree.buildWords();
+		assertEquals(50, tree.getNumberOfClusters());
+		for (int i = 0; i < 50; i++) {
+			assertEquals(i, tree.assign(new double[]{i + 0.1, -i}));
+		}
+	}
+
+	@Test
+	void copy() {
+		VocabularyTree_F64 tree = createTree();
+		VocabularyTree_F64 found = (VocabularyTree_F64)tree.copy();
+		assertEquals(tree.getNumberOfClusters(), found.getNumberOfClusters());
+		for (int i = -15; i <= 15; i++) {
+			assertEquals(tree.assign(new double[]{i}), found.assign(new double[]{i}));
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.scene.codec;
+
+import boofcv.alg.scene.InvertedFileIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Peter Abeles
+ */
+class TestCodecInvertedFileIndex {
+
+	Random rand = new Random(234);
+
+	@Test
+	void encode_decode() throws IOException {
+		int numWords = 50;
+		InvertedFileIndex original = new InvertedFileIndex(numWords);
+		double[][] histograms = new double[15][numWords];
+		for (int i = 0; i < histograms.length; i++) {
+			for (int j = 0; j < 8; j++) {
+				histograms[i][rand.nextInt(numWords)] += 0.125;
+			}
+			original.addImage(histograms[i]);
+		}
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		CodecInvertedFileIndex.write(original, output);
+		InvertedFileIndex found = CodecInvertedFileIndex.read(new ByteArrayInputStream(output.toByteArray()));
+
+		assertEquals(original.getNumWords(), found.getNumWords());
+		assertEquals(original.getNumImages(), found.getNumImages());
+
+		// queries should produce identical results
+		for (int i = 0; i < histograms.length; i++) {
+			original.query(histograms[i], 4);
+			found.query(histograms[i], 4);
+			assertEquals(original.getResults().size, found.getResults().size);
+			for (int j = 0; j < original.getResults().size; j++) {
+				assertEquals(original.getResults().get(j).image, found.getResults().get(j).image);
+				assertEquals(original.getResults().get(j).score, found.getResults().get(j).score, 1e-8);
+			}
+		}
+	}
+
+	@Test
+	void read_badHeader() {
+		byte[] junk = new byte[100];
+		assertThrows(IOException.class, () -> CodecInvertedFileIndex.read(new ByteArrayInputStream(junk)));
+	}
+}
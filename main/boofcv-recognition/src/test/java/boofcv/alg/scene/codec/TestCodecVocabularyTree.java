@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.scene.codec;
+
+import boofcv.alg.scene.VocabularyTree_F64;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestCodecVocabularyTree {
+
+	Random rand = new Random(234);
+	int dof = 3;
+
+	@Test
+	void encode_decode() throws IOException {
+		// Create a tree where children are added depth first, so blocks are not in the order of their parent
+		VocabularyTree_F64 original = new VocabularyTree_F64(dof);
+		int first = original.addChildren(0, randomMeans(3));
+		int second = original.addChildren(first, randomMeans(2));
+		original.addChildren(second + 1, randomMeans(4));
+		original.addChildren(first + 2, randomMeans(2));
+		original.buildWords();
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		CodecVocabularyTree.write(original, output);
+		VocabularyTree_F64 found = CodecVocabularyTree.read(new ByteArrayInputStream(output.toByteArray()));
+
+		assertEquals(original.getDof(), found.getDof());
+		assertEquals(original.getNumNodes(), found.getNumNodes());
+		assertEquals(original.getNumberOfClusters(), found.getNumberOfClusters());
+
+		double[] a = new double[dof];
+		double[] b = new double[dof];
+		for (int node = 0; node < original.getNumNodes(); node++) {
+			assertEquals(original.getNumChildren(node), found.getNumChildren(node));
+			assertEquals(original.getWord(node), found.getWord(node));
+			if (original.getNumChildren(node) > 0)
+				assertEquals(original.getFirstChild(node), found.getFirstChild(node));
+			original.getMean(node, a);
+			found.getMean(node, b);
+			assertArrayEquals(a, b, 0.0);
+		}
+	}
+
+	@Test
+	void read_badHeader() {
+		byte[] junk = new byte[100];
+		assertThrows(IOException.class, () -> CodecVocabularyTree.read(new ByteArrayInputStream(junk)));
+	}
+
+	List<double[]> randomMeans( int count ) {
+		List<double[]> list = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			double[] mean = new double[dof];
+			for (int j = 0; j < dof; j++) {
+				mean[j] = rand.nextGaussian();
+			}
+			list.add(mean);
+		}
+		return list;
+	}
+}
@@ -28,6 +28,8 @@ import boofcv.alg.sfm.d3.structure.VisOdomBundleAdjustment.BFrame;
 import boofcv.alg.sfm.d3.structure.VisOdomBundleAdjustment.BObservation;
 import boofcv.alg.sfm.d3.structure.VisOdomBundleAdjustment.BTrack;
 import boofcv.alg.sfm.d3.structure.VisOdomKeyFrameManager;
+import boofcv.misc.ProfilesRuntime;
+import boofcv.misc.RuntimeProfiler;
 import boofcv.struct.distort.Point2Transform2_F64;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point3D_F64;
@@ -51,7 +53,7 @@ import java.util.Set;
  *
  * @author Peter Abeles
  */
-public abstract class VisOdomBundlePnPBase<Track extends VisOdomBundleAdjustment.BTrack> implements VerbosePrint {
+public abstract class VisOdomBundlePnPBase<Track extends VisOdomBundleAdjustment.BTrack> implements VerbosePrint, ProfilesRuntime {
 
 	/** discard tracks after they have not been in the inlier set for this many updates in a row */
 	protected @Getter @Setter int thresholdRetireTracks;
@@ -100,6 +102,7 @@ public abstract class VisOdomBundlePnPBase<Track extends VisOdomBundleAdjustment
 
 	// Internal profiling
 	protected @Getter @Setter PrintStream profileOut;
+	protected @Getter @Setter RuntimeProfiler profiler = new RuntimeProfiler();
 	// Verbose debug information
 	protected @Getter PrintStream verbose;
 
@@ -335,6 +338,23 @@ public abstract class VisOdomBundlePnPBase<Track extends VisOdomBundleAdjustment
 		}
 	}
 
+	/**
+	 * Saves the time each stage took in milliseconds and the size of the scene to the profiler
+	 */
+	protected void recordProfiling( double timeTracking, double timeEstimate, double timeBundle,
+									double timeDropUnused, double timeSceneMaintenance, double timeSpawn ) {
+		profiler.recordMilli("vo.tracking", timeTracking);
+		profiler.recordMilli("vo.estimate", timeEstimate);
+		profiler.recordMilli("vo.bundle", timeBundle);
+		profiler.recordMilli("vo.drop_unused", timeDropUnused);
+		profiler.recordMilli("vo.scene_maintenance", timeSceneMaintenance);
+		profiler.recordMilli("vo.spawn", timeSpawn);
+		profiler.count("vo.inliers", inlierTracks.size());
+		profiler.count("vo.visible_tracks", visibleTracks.size());
+		profiler.count("vo.scene_frames", scene.frames.size);
+		profiler.count("vo.scene_tracks", scene.tracks.size);
+	}
+
 	public Se3_F64 getCurrentToWorld() {
 		return current_to_world;
 	}
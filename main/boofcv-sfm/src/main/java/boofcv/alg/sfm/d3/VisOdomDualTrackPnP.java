@@ -311,6 +311,7 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>,Desc extends TupleDesc>
 		timeDropUnused = (time4-time3)*1e-6;
 		timeSceneMaintenance = (time5-time4)*1e-6;
 		timeSpawn = (time6-time5)*1e-6;
+		recordProfiling(timeTracking, timeEstimate, timeBundle, timeDropUnused, timeSceneMaintenance, timeSpawn);
 
 		if( profileOut != null ) {
 			double timeTotal = (time6-time0)*1e-6;
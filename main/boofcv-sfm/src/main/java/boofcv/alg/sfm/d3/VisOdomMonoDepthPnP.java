@@ -32,6 +32,8 @@ import boofcv.alg.sfm.d3.structure.VisOdomBundleAdjustment.BTrack;
 import boofcv.factory.distort.LensDistortionFactory;
 import boofcv.factory.geo.ConfigTriangulation;
 import boofcv.factory.geo.FactoryMultiView;
+import boofcv.misc.ProfilesRuntime;
+import boofcv.misc.RuntimeProfiler;
 import boofcv.struct.calib.CameraPinholeBrown;
 import boofcv.struct.distort.Point2Transform2_F64;
 import boofcv.struct.geo.Point2D3D;
@@ -116,6 +118,18 @@ public class VisOdomMonoDepthPnP<T extends ImageBase<T>>
 		config.type = ConfigTriangulation.Type.GEOMETRIC;
 		config.converge.maxIterations = 10;
 		triangulateN = FactoryMultiView.triangulateNViewCalibrated(config);
+
+		setProfiler(profiler);
+	}
+
+	/**
+	 * Shares the profiler with the tracker, if it supports profiling
+	 */
+	@Override
+	public void setProfiler( RuntimeProfiler profiler ) {
+		this.profiler = profiler;
+		if( tracker instanceof ProfilesRuntime )
+			((ProfilesRuntime)tracker).setProfiler(profiler);
 	}
 
 	/**
@@ -212,6 +226,7 @@ public class VisOdomMonoDepthPnP<T extends ImageBase<T>>
 		timeDropUnused = (time4-time3)*1e-6;
 		timeSceneMaintenance = (time5-time4)*1e-6;
 		timeSpawn = (time6-time5)*1e-6;
+		recordProfiling(timeTracking, timeEstimate, timeBundle, timeDropUnused, timeSceneMaintenance, timeSpawn);
 
 		if( profileOut != null ) {
 			double timeTotal = (time6-time0)*1e-6;
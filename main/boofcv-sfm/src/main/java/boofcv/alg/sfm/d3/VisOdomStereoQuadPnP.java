@@ -32,6 +32,8 @@ import boofcv.factory.distort.LensDistortionFactory;
 import boofcv.factory.geo.ConfigTriangulation;
 import boofcv.factory.geo.FactoryMultiView;
 import boofcv.misc.ConfigConverge;
+import boofcv.misc.ProfilesRuntime;
+import boofcv.misc.RuntimeProfiler;
 import boofcv.struct.calib.StereoParameters;
 import boofcv.struct.distort.Point2Transform2_F64;
 import boofcv.struct.feature.AssociatedIndex;
@@ -81,7 +83,7 @@ import java.util.Set;
  * @author Peter Abeles
  */
 public class VisOdomStereoQuadPnP<T extends ImageGray<T>,TD extends TupleDesc>
-		implements VerbosePrint
+		implements VerbosePrint, ProfilesRuntime
 {
 	// used to estimate each feature's 3D location using a stereo pair
 	private final Triangulate2ViewsMetric triangulate;
@@ -138,6 +140,7 @@ public class VisOdomStereoQuadPnP<T extends ImageGray<T>,TD extends TupleDesc>
 
 	// Internal profiling
 	protected @Getter @Setter PrintStream profileOut;
+	protected @Getter @Setter RuntimeProfiler profiler = new RuntimeProfiler();
 	// Verbose debug information
 	protected @Getter PrintStream verbose;
 
@@ -276,15 +279,26 @@ public class VisOdomStereoQuadPnP<T extends ImageGray<T>,TD extends TupleDesc>
 			curr_to_key.concat(prevLeft_to_world, left_to_world);
 			long time7 = System.nanoTime();
 
-			if( profileOut != null ) {
-				double milliDet = (time1-time0)*1e-6;
-				double milliL2R = (time2-time1)*1e-6;
-				double milliF2F = (time3-time2)*1e-6;
-				double milliCyc = (time4-time3)*1e-6;
-				double milliEst = (time5-time4)*1e-6;
-				double milliBun = (time6-time5)*1e-6;
-				double milliMnt = (time7-time6)*1e-6;
+			double milliDet = (time1-time0)*1e-6;
+			double milliL2R = (time2-time1)*1e-6;
+			double milliF2F = (time3-time2)*1e-6;
+			double milliCyc = (time4-time3)*1e-6;
+			double milliEst = (time5-time4)*1e-6;
+			double milliBun = (time6-time5)*1e-6;
+			double milliMnt = (time7-time6)*1e-6;
+
+			profiler.recordMilli("vo.detect", milliDet);
+			profiler.recordMilli("vo.associate_l2r", milliL2R);
+			profiler.recordMilli("vo.associate_f2f", milliF2F);
+			profiler.recordMilli("vo.cyclic", milliCyc);
+			profiler.recordMilli("vo.estimate", milliEst);
+			profiler.recordMilli("vo.bundle", milliBun);
+			profiler.recordMilli("vo.maintenance", milliMnt);
+			profiler.count("vo.detections", featsLeft1.locationPixels.size);
+			profiler.count("vo.quads", trackQuads.size);
+			profiler.count("vo.inliers", matcher.getMatchSet().size());
 
+			if( profileOut != null ) {
 				profileOut.printf("TIME: Det %5.1f L2R %5.1f F2F %5.1f Cyc %5.1f Est %5.1f Bun %5.1f Mnt %5.1f Total: %5.1f\n",
 						milliDet,milliL2R,milliF2F,milliCyc,milliEst,milliBun,milliMnt,(time7-time0)*1e-6);
 			}
@@ -49,11 +49,19 @@ import java.util.Map;
  */
 public class GeneratePairwiseImageGraph {
 	public PairwiseImageGraph2 graph = new PairwiseImageGraph2();
-	private List<String> imageIds;
+	protected List<String> imageIds;
 
-	// concensus matching algorithms
-	ModelMatcher<DMatrixRMaj, AssociatedPair> ransac3D;
-	ModelMatcher<Homography2D_F64,AssociatedPair> ransacH;
+	// map to quickly look up the ID of a view
+	protected Map<String,Integer> imageToIndex = new HashMap<>();
+
+	// Configurations used to create the robust model matchers
+	protected final ConfigRansac configRansacF = new ConfigRansac();
+	protected final ConfigRansac configRansacH = new ConfigRansac();
+	protected final ConfigFundamental configF = new ConfigFundamental();
+
+	// Fits a model to the associated features and stores the results
+	PairVerifier verifier;
+	PairResults results = new PairResults();
 
 	/**
 	 * The minimum number of inliers for an edge to be accepted
@@ -68,21 +76,17 @@ public class GeneratePairwiseImageGraph {
 	 * Configures and declares concensum matching algorithms
 	 */
 	public GeneratePairwiseImageGraph() {
-		ConfigRansac configRansacF = new ConfigRansac();
 		configRansacF.iterations = 500;
 		configRansacF.inlierThreshold = 1;
 
 		// F computes epipolar error, which isn't as strict as reprojection error for H, so give H a larger error tol
-		ConfigRansac configRansacH = new ConfigRansac();
 		configRansacH.iterations = 500;
 		configRansacH.inlierThreshold = 2.0;
 
-		ConfigFundamental configF = new ConfigFundamental();
 		configF.errorModel = ConfigFundamental.ErrorModel.GEOMETRIC;
 		configF.numResolve = 1;
 
-		ransac3D = FactoryMultiViewRobust.fundamentalRansac(configF,configRansacF);
-		ransacH = FactoryMultiViewRobust.homographyRansac(null,configRansacH);
+		verifier = new PairVerifier();
 	}
 
 	/**
@@ -92,8 +96,7 @@ public class GeneratePairwiseImageGraph {
 	 * @param db Images with feature associations
 	 */
 	public void process( LookupSimilarImages db ) {
-		this.imageIds = db.getImageIDs();
-		this.graph.reset();
+		initializeGraph(db);
 
 		List<String> similar = new ArrayList<>();
 		FastQueue<Point2D_F64> srcFeats = new FastQueue<>(Point2D_F64::new);
@@ -101,15 +104,6 @@ public class GeneratePairwiseImageGraph {
 		FastQueue<AssociatedIndex> matches = new FastQueue<>(AssociatedIndex::new);
 		FastQueue<AssociatedPair> pairs = new FastQueue<>(AssociatedPair::new);
 
-		// map to quickly look up the ID of a view
-		Map<String,Integer> imageToindex = new HashMap<>();
-
-		// Create a node in the graph for each image
-		for (int idxTgt = 0; idxTgt < imageIds.size(); idxTgt++) {
-			imageToindex.put(imageIds.get(idxTgt),idxTgt);
-			graph.createNode(imageIds.get(idxTgt));
-		}
-
 		// For each image examine all related images for a true geometric relationship
 		// if one exists then add an edge to the graph describing their relationship
 		for (int idxTgt = 0; idxTgt < imageIds.size(); idxTgt++) {
@@ -124,7 +118,7 @@ public class GeneratePairwiseImageGraph {
 				String dst = similar.get(idxSimilar);
 
 				// make sure it isn't considering the same motion twice
-				int dstIdx = imageToindex.get(dst);
+				int dstIdx = imageToIndex.get(dst);
 				if( dstIdx <= idxTgt )
 					continue;
 
@@ -132,17 +126,39 @@ public class GeneratePairwiseImageGraph {
 				db.lookupPixelFeats(dst,dstFeats);
 				db.lookupMatches(src,dst,matches);
 
-				pairs.reset();
-				for (int i = 0; i < matches.size; i++) {
-					AssociatedIndex m = matches.get(i);
-					pairs.grow().set(srcFeats.get(m.src),dstFeats.get(m.dst));
-				}
-
+				createPairs(srcFeats,dstFeats,matches,pairs);
 				createEdge(src,dst,pairs,matches);
 			}
 		}
 	}
 
+	/**
+	 * Resets the graph and creates a node for each image
+	 */
+	protected void initializeGraph( LookupSimilarImages db ) {
+		this.imageIds = db.getImageIDs();
+		this.graph.reset();
+		this.imageToIndex.clear();
+
+		// Create a node in the graph for each image
+		for (int idxTgt = 0; idxTgt < imageIds.size(); idxTgt++) {
+			imageToIndex.put(imageIds.get(idxTgt),idxTgt);
+			graph.createNode(imageIds.get(idxTgt));
+		}
+	}
+
+	/**
+	 * Converts associated feature indexes into associated pixels
+	 */
+	protected static void createPairs( FastQueue<Point2D_F64> srcFeats , FastQueue<Point2D_F64> dstFeats ,
+									   FastQueue<AssociatedIndex> matches , FastQueue<AssociatedPair> pairs ) {
+		pairs.reset();
+		for (int i = 0; i < matches.size; i++) {
+			AssociatedIndex m = matches.get(i);
+			pairs.grow().set(srcFeats.get(m.src),dstFeats.get(m.dst));
+		}
+	}
+
 	/**
 	 * Connects two views together if they meet a minimal set of geometric requirements. Determines if there
 	 * is strong evidence that there is 3D information present and not just a homography
@@ -154,60 +170,121 @@ public class GeneratePairwiseImageGraph {
 	 */
 	protected void createEdge( String src , String dst ,
 							   FastQueue<AssociatedPair> pairs , FastQueue<AssociatedIndex> matches ) {
-		// Fitting Essential/Fundamental works when the scene is not planar and not pure rotation
-		int countF = 0;
-		if( ransac3D.process(pairs.toList()) ) {
-			countF = ransac3D.getMatchSet().size();
-		}
-
-		// Fitting homography will work when all or part of the scene is planar or motion is pure rotation
-		int countH = 0;
-		if( ransacH.process(pairs.toList()) ) {
-			countH = ransacH.getMatchSet().size();
-		}
-
-		// fail if not enough features are remaining after RANSAC
-		if( Math.max(countF,countH) < minimumInliers )
-			return;
-
-		// The idea here is that if the number features for F is greater than H then it's a 3D scene.
-		// If they are similar then it might be a plane
-		boolean is3D = countF > countH*ratio3D;
+		if( verifier.process(pairs,matches,results) )
+			addEdge(src,dst,results);
+	}
 
+	/**
+	 * Adds an edge to the graph using the results from {@link PairVerifier}
+	 */
+	protected void addEdge( String src , String dst , PairResults results ) {
 		PairwiseImageGraph2.Motion edge = graph.edges.grow();
-		edge.is3D = is3D;
-		edge.countF = countF;
-		edge.countH = countH;
+		edge.is3D = results.is3D;
+		edge.countF = results.countF;
+		edge.countH = results.countH;
 		edge.index = graph.edges.size-1;
 		edge.src = graph.lookupNode(src);
 		edge.dst = graph.lookupNode(dst);
 		edge.src.connections.add(edge);
 		edge.dst.connections.add(edge);
+		edge.F.set(results.F);
+
+		edge.inliers.reset();
+		for (int i = 0; i < results.inliers.size; i++) {
+			edge.inliers.grow().set(results.inliers.get(i));
+		}
+	}
+
+	/**
+	 * Fits a fundamental matrix and a homography to associated features between two views. Each instance has
+	 * its own robust model matchers so different instances can be used in different threads at the same time.
+	 * The random number generators are reset before each pair, making the results independent of the order pairs
+	 * are processed in.
+	 */
+	protected class PairVerifier {
+		// concensus matching algorithms
+		ModelMatcher<DMatrixRMaj, AssociatedPair> ransac3D;
+		ModelMatcher<Homography2D_F64,AssociatedPair> ransacH;
+
+		public PairVerifier() {
+			ransac3D = FactoryMultiViewRobust.fundamentalRansac(configF,configRansacF);
+			ransacH = FactoryMultiViewRobust.homographyRansac(null,configRansacH);
+		}
+
+		/**
+		 * Determines if there is a geometric relationship between the two views
+		 *
+		 * @param pairs Associated features pixels
+		 * @param matches Associated features feature indexes
+		 * @param results (Output) Description of the relationship. Only valid if true is returned.
+		 * @return true if there are enough inliers for an edge to be created
+		 */
+		public boolean process( FastQueue<AssociatedPair> pairs , FastQueue<AssociatedIndex> matches ,
+								PairResults results ) {
+			ransac3D.reset();
+			ransacH.reset();
+
+			// Fitting Essential/Fundamental works when the scene is not planar and not pure rotation
+			int countF = 0;
+			if( ransac3D.process(pairs.toList()) ) {
+				countF = ransac3D.getMatchSet().size();
+			}
+
+			// Fitting homography will work when all or part of the scene is planar or motion is pure rotation
+			int countH = 0;
+			if( ransacH.process(pairs.toList()) ) {
+				countH = ransacH.getMatchSet().size();
+			}
 
-		if( is3D ) {
-			saveInlierMatches(ransac3D, matches,edge);
-			edge.F.set(ransac3D.getModelParameters());
-		} else {
-			saveInlierMatches(ransacH, matches,edge);
-			Homography2D_F64 H = ransacH.getModelParameters();
-			ConvertDMatrixStruct.convert(H,edge.F);
+			// fail if not enough features are remaining after RANSAC
+			if( Math.max(countF,countH) < minimumInliers )
+				return false;
+
+			// The idea here is that if the number features for F is greater than H then it's a 3D scene.
+			// If they are similar then it might be a plane
+			results.is3D = countF > countH*ratio3D;
+			results.countF = countF;
+			results.countH = countH;
+
+			if( results.is3D ) {
+				saveInlierMatches(ransac3D, matches,results.inliers);
+				results.F.set(ransac3D.getModelParameters());
+			} else {
+				saveInlierMatches(ransacH, matches,results.inliers);
+				Homography2D_F64 H = ransacH.getModelParameters();
+				ConvertDMatrixStruct.convert(H,results.F);
+			}
+			return true;
 		}
 	}
 
 	/**
-	 * Puts the inliers from RANSAC into the edge's list of associated features
+	 * Geometric relationship found between two views
+	 */
+	protected static class PairResults {
+		public boolean is3D;
+		public int countF;
+		public int countH;
+		// Fundamental matrix or homography, depending on is3D
+		public final DMatrixRMaj F = new DMatrixRMaj(3,3);
+		// Inlier associations for the selected model
+		public final FastQueue<AssociatedIndex> inliers = new FastQueue<>(AssociatedIndex::new);
+	}
+
+	/**
+	 * Puts the inliers from RANSAC into the list of associated features
 	 * @param ransac RANSAC
 	 * @param matches List of matches from feature association
-	 * @param edge The edge that the inliers are to be saved to
+	 * @param inliers Storage for the inliers
 	 */
-	private void saveInlierMatches(ModelMatcher<?, ?> ransac,
-								   FastQueue<AssociatedIndex> matches, PairwiseImageGraph2.Motion edge) {
+	private static void saveInlierMatches(ModelMatcher<?, ?> ransac,
+										  FastQueue<AssociatedIndex> matches, FastQueue<AssociatedIndex> inliers) {
 
 		int N = ransac.getMatchSet().size();
-		edge.inliers.reset();
+		inliers.reset();
 		for (int i = 0; i < N; i++) {
 			int idx = ransac.getInputIndex(i);
-			edge.inliers.grow().set(matches.get(idx));
+			inliers.grow().set(matches.get(idx));
 		}
 	}
 
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.structure2;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.geo.AssociatedPair;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link GeneratePairwiseImageGraph}. Features and associations are looked up
+ * in a single thread, since {@link LookupSimilarImages} isn't required to be thread safe, and accumulated into a
+ * batch of image pairs. Each thread then verifies a block of pairs in the batch using its own robust model
+ * matchers. Edges are added to the graph in the same order as the single threaded version, producing
+ * identical results.
+ *
+ * @author Peter Abeles
+ */
+public class GeneratePairwiseImageGraph_MT extends GeneratePairwiseImageGraph {
+
+	/**
+	 * Maximum number of image pairs which are verified together. Larger batches make better use of the
+	 * threads but use more memory.
+	 */
+	public int batchSize = 200;
+
+	// Image pairs which have been looked up but not verified yet
+	FastQueue<ImagePair> batch = new FastQueue<>(ImagePair::new);
+
+	// Verifiers used by each thread
+	FastQueue<PairVerifier> verifiers = new FastQueue<>(PairVerifier::new);
+
+	@Override
+	public void process( LookupSimilarImages db ) {
+		initializeGraph(db);
+		batch.reset();
+
+		List<String> similar = new ArrayList<>();
+		FastQueue<Point2D_F64> srcFeats = new FastQueue<>(Point2D_F64::new);
+		FastQueue<Point2D_F64> dstFeats = new FastQueue<>(Point2D_F64::new);
+
+		for (int idxTgt = 0; idxTgt < imageIds.size(); idxTgt++) {
+			String src = imageIds.get(idxTgt);
+
+			db.findSimilar(src,similar);
+			db.lookupPixelFeats(src,srcFeats);
+
+			graph.nodes.get(idxTgt).totalFeatures = srcFeats.size;
+
+			for (int idxSimilar = 0; idxSimilar < similar.size(); idxSimilar++) {
+				String dst = similar.get(idxSimilar);
+
+				// make sure it isn't considering the same motion twice
+				int dstIdx = imageToIndex.get(dst);
+				if( dstIdx <= idxTgt )
+					continue;
+
+				ImagePair p = batch.grow();
+				p.src = src;
+				p.dst = dst;
+				db.lookupPixelFeats(dst,dstFeats);
+				db.lookupMatches(src,dst,p.matches);
+				createPairs(srcFeats,dstFeats,p.matches,p.pairs);
+
+				if( batch.size >= batchSize )
+					verifyBatch();
+			}
+		}
+		verifyBatch();
+	}
+
+	/**
+	 * Verifies all the pairs in the batch concurrently then adds the edges to the graph in order
+	 */
+	void verifyBatch() {
+		if( batch.size == 0 )
+			return;
+
+		BoofConcurrency.loopBlocks(0,batch.size,verifiers,(verifier,idx0,idx1)->{
+			for (int i = idx0; i < idx1; i++) {
+				ImagePair p = batch.get(i);
+				p.accepted = verifier.process(p.pairs,p.matches,p.results);
+			}
+		});
+
+		for (int i = 0; i < batch.size; i++) {
+			ImagePair p = batch.get(i);
+			if( p.accepted )
+				addEdge(p.src,p.dst,p.results);
+		}
+		batch.reset();
+	}
+
+	/**
+	 * Associated features between two images and the results of verification
+	 */
+	static class ImagePair {
+		String src, dst;
+		final FastQueue<AssociatedIndex> matches = new FastQueue<>(AssociatedIndex::new);
+		final FastQueue<AssociatedPair> pairs = new FastQueue<>(AssociatedPair::new);
+		final PairResults results = new PairResults();
+		boolean accepted;
+	}
+}
@@ -29,6 +29,8 @@ import boofcv.alg.sfm.structure2.PairwiseImageGraph2.Motion;
 import boofcv.alg.sfm.structure2.PairwiseImageGraph2.View;
 import boofcv.factory.geo.*;
 import boofcv.misc.ConfigConverge;
+import boofcv.misc.ProfilesRuntime;
+import boofcv.misc.RuntimeProfiler;
 import boofcv.struct.feature.AssociatedIndex;
 import boofcv.struct.feature.AssociatedTripleIndex;
 import boofcv.struct.geo.AssociatedPair;
@@ -37,7 +39,9 @@ import boofcv.struct.geo.TrifocalTensor;
 import boofcv.struct.image.ImageDimension;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point4D_F64;
-import org.ddogleg.fitting.modelset.ransac.Ransac;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.fitting.modelset.ModelMatcher;
 import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.GrowQueue_I32;
 import org.ejml.data.DMatrixRMaj;
@@ -64,7 +68,7 @@ import java.util.List;
  *
  * @author Peter Abeles
  */
-public class ProjectiveInitializeAllCommon {
+public class ProjectiveInitializeAllCommon implements ProfilesRuntime {
 
 	public ConfigRansac configRansac = new ConfigRansac();
 	public ConfigTrifocal configTriRansac = new ConfigTrifocal();
@@ -77,7 +81,7 @@ public class ProjectiveInitializeAllCommon {
 	public SceneStructureProjective structure = new SceneStructureProjective(true);
 
 	// estimating the trifocal tensor and storing which observations are in the inlier set
-	public Ransac<TrifocalTensor, AssociatedTriple> ransac;
+	public ModelMatcher<TrifocalTensor, AssociatedTriple> ransac;
 	public TriangulateNViewsProjective triangulator;
 	public PoseFromPairLinear6 poseEstimator = new PoseFromPairLinear6();
 	public BundleAdjustment<SceneStructureProjective> sba;
@@ -103,6 +107,9 @@ public class ProjectiveInitializeAllCommon {
 	PrintStream verbose;
 	int verboseLevel;
 
+	// Records how long each stage takes
+	@Getter @Setter RuntimeProfiler profiler = new RuntimeProfiler();
+
 	//-------------- Internal workspace variables
 	int selectedTriple[] = new int[2];
 	FastQueue<AssociatedTripleIndex> matchesTripleIdx = new FastQueue<>(AssociatedTripleIndex::new);
@@ -175,12 +182,17 @@ public class ProjectiveInitializeAllCommon {
 		}
 
 		// Compute location of 3D points from initial 3 projective cameras
+		profiler.begin("sfm.triangulate");
 		computeScene3(ransac.getMatchSet(),seed,selectedTriple[0],selectedTriple[1]);
+		profiler.end("sfm.triangulate");
 
 		// Estimate projective for each view not in the original triplet
 		// This is simple because the 3D coordinate of each point is already known
 		if( seedFeatsIdx.size > 2 ) { // only do if more than 3 views
-			if (!findRemainingCameraMatrices(db, seed, seedConnIdx))
+			profiler.begin("sfm.remaining_cameras");
+			boolean success = findRemainingCameraMatrices(db, seed, seedConnIdx);
+			profiler.end("sfm.remaining_cameras");
+			if (!success)
 				return false;
 		}
 
@@ -188,7 +200,10 @@ public class ProjectiveInitializeAllCommon {
 		SceneObservations observations = createObservationsForBundleAdjustment(db, seed, seedConnIdx);
 
 		// Refine results with projective bundle adjustment
-		return refineWithBundleAdjustment(observations);
+		profiler.begin("sfm.bundle_adjustment");
+		boolean success = refineWithBundleAdjustment(observations);
+		profiler.end("sfm.bundle_adjustment");
+		return success;
 	}
 
 	/**
@@ -219,7 +234,10 @@ public class ProjectiveInitializeAllCommon {
 		convertAssociatedTriple(db, viewA, viewB, viewC);
 
 		// Robustly fit trifocal tensor to 3-view
+		profiler.begin("sfm.trifocal_ransac");
 		ransac.process(matchesTriple.toList());
+		profiler.end("sfm.trifocal_ransac");
+		profiler.count("sfm.trifocal_inliers",ransac.getMatchSet().size());
 
 		// Extract camera matrices
 		TrifocalTensor model = ransac.getModelParameters();
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.structure2;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestGeneratePairwiseImageGraph_MT {
+	/**
+	 * Results should be identical to the single threaded version. Small batches are used to ensure
+	 * results from multiple batches are merged correctly.
+	 */
+	@Test
+	void compareToSingle() {
+		MockLookupSimilarImages db = new MockLookupSimilarImages(6,123123);
+
+		GeneratePairwiseImageGraph single = new GeneratePairwiseImageGraph();
+		single.process(db);
+
+		for (int batchSize : new int[]{1,4,100}) {
+			GeneratePairwiseImageGraph_MT alg = new GeneratePairwiseImageGraph_MT();
+			alg.batchSize = batchSize;
+			alg.process(db);
+
+			PairwiseImageGraph2 expected = single.getGraph();
+			PairwiseImageGraph2 found = alg.getGraph();
+
+			assertEquals(expected.nodes.size, found.nodes.size);
+			for (int i = 0; i < expected.nodes.size; i++) {
+				assertEquals(expected.nodes.get(i).totalFeatures, found.nodes.get(i).totalFeatures);
+				assertEquals(expected.nodes.get(i).connections.size, found.nodes.get(i).connections.size);
+			}
+
+			assertEquals(expected.edges.size, found.edges.size);
+			for (int i = 0; i < expected.edges.size; i++) {
+				PairwiseImageGraph2.Motion a = expected.edges.get(i);
+				PairwiseImageGraph2.Motion b = found.edges.get(i);
+				assertEquals(a.src.id, b.src.id);
+				assertEquals(a.dst.id, b.dst.id);
+				assertEquals(a.is3D, b.is3D);
+				assertEquals(a.countF, b.countF);
+				assertEquals(a.countH, b.countH);
+				assertEquals(a.inliers.size, b.inliers.size);
+				for (int j = 0; j < 9; j++) {
+					assertEquals(a.F.data[j], b.F.data[j], 0.0);
+				}
+			}
+		}
+	}
+}
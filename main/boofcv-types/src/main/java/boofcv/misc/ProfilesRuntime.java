@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.misc;
+
+/**
+ * Algorithm which records how long each of its internal stages takes using a {@link RuntimeProfiler}. Pipelines
+ * share their profiler with their components so that all the results can be found in one place.
+ *
+ * @author Peter Abeles
+ */
+public interface ProfilesRuntime {
+	/**
+	 * Returns the profiler which results are recorded in
+	 */
+	RuntimeProfiler getProfiler();
+
+	/**
+	 * Changes the profiler which results are recorded in. Implementations pass it on to their components.
+	 */
+	void setProfiler( RuntimeProfiler profiler );
+
+	/**
+	 * Turns profiling on or off
+	 */
+	default void setProfilerState( boolean active ) {
+		getProfiler().setEnabled(active);
+	}
+
+	/**
+	 * Discards all the profiling results
+	 */
+	default void resetRuntimeProfiling() {
+		getProfiler().reset();
+	}
+}
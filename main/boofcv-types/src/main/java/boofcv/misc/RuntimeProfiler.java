@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.misc;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.annotation.Nullable;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.*;
+
+/**
+ * <p>
+ * Records how long each stage in a pipeline takes, counters, and optionally an estimate of how much memory was
+ * allocated in each stage. Results can be accessed programmatically through {@link #getStages()},
+ * {@link #getCounters()}, and {@link #toMap()} or printed with {@link #printSummary}.
+ * </p>
+ *
+ * <p>
+ * Profiling is disabled by default and {@link #begin}/{@link #end} do nothing until it's enabled. The same
+ * profiler can be shared by a pipeline and its components. To avoid name collisions each class prefixes its stages,
+ * e.g. "qrcode.binary". Stages are listed in the order they were first seen. This class is not thread safe. Only
+ * call it from the thread which invokes the algorithm.
+ * </p>
+ *
+ * <p>
+ * Allocation estimates use the per thread allocation counter which is provided by HotSpot JVMs. On other
+ * platforms, e.g. Android, allocations are always reported as -1.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RuntimeProfiler {
+	/** If false then nothing is recorded */
+	@Getter @Setter boolean enabled = false;
+
+	/** If true then the number of bytes allocated in each stage is estimated */
+	@Getter @Setter boolean trackAllocations = false;
+
+	/** Decay used in the moving average of a stage's time. 0 = only most recent, 1 = never changes */
+	@Getter double decay = 0.8;
+
+	// Stages in the order they were first seen
+	final List<Stage> stages = new ArrayList<>();
+	final Map<String, Stage> nameToStage = new HashMap<>();
+
+	// Counters in the order they were first seen
+	final Map<String, Counter> counters = new LinkedHashMap<>();
+
+	/**
+	 * Marks the beginning of a stage
+	 */
+	public void begin( String stage ) {
+		if( !enabled )
+			return;
+		Stage s = lookupStage(stage);
+		if( trackAllocations )
+			s.startBytes = Allocations.currentThread();
+		s.startNano = System.nanoTime();
+	}
+
+	/**
+	 * Marks the end of a stage which was started by {@link #begin}. If the stage was never started, e.g. the
+	 * profiler was enabled after {@link #begin} was called, then nothing is recorded.
+	 */
+	public void end( String stage ) {
+		if( !enabled )
+			return;
+		long nano = System.nanoTime();
+		Stage s = nameToStage.get(stage);
+		if( s == null || s.startNano == 0 )
+			return;
+
+		long bytes = -1;
+		if( trackAllocations && s.startBytes >= 0 ) {
+			long current = Allocations.currentThread();
+			if( current >= 0 )
+				bytes = current - s.startBytes;
+		}
+		s.update((nano - s.startNano)*1e-6, bytes);
+		s.startNano = 0;
+	}
+
+	/**
+	 * Records the time for a stage which was measured externally
+	 *
+	 * @param stage Name of the stage
+	 * @param milliseconds How long the stage took
+	 */
+	public void recordMilli( String stage, double milliseconds ) {
+		if( !enabled )
+			return;
+		lookupStage(stage).update(milliseconds, -1);
+	}
+
+	/**
+	 * Sets a counter to the specified value
+	 */
+	public void count( String name, long value ) {
+		if( !enabled )
+			return;
+		lookupCounter(name).value = value;
+	}
+
+	/**
+	 * Adds the amount to the counter's current value
+	 */
+	public void increment( String name, long amount ) {
+		if( !enabled )
+			return;
+		lookupCounter(name).value += amount;
+	}
+
+	/**
+	 * Discards all the recorded results
+	 */
+	public void reset() {
+		stages.clear();
+		nameToStage.clear();
+		counters.clear();
+	}
+
+	private Stage lookupStage( String name ) {
+		Stage s = nameToStage.get(name);
+		if( s == null ) {
+			s = new Stage(name);
+			stages.add(s);
+			nameToStage.put(name, s);
+		}
+		return s;
+	}
+
+	private Counter lookupCounter( String name ) {
+		Counter c = counters.get(name);
+		if( c == null ) {
+			c = new Counter();
+			counters.put(name, c);
+		}
+		return c;
+	}
+
+	/**
+	 * Returns all the stages in the order they were first seen
+	 */
+	public List<Stage> getStages() {
+		return Collections.unmodifiableList(stages);
+	}
+
+	/**
+	 * Returns the stage with the specified name or null if it hasn't been seen
+	 */
+	public @Nullable Stage getStage( String name ) {
+		return nameToStage.get(name);
+	}
+
+	/**
+	 * Returns the moving average of the stage's time in milliseconds or 0 if it hasn't been seen
+	 */
+	public double getAverageMilli( String stage ) {
+		Stage s = nameToStage.get(stage);
+		return s == null ? 0.0 : s.averageMilli;
+	}
+
+	/**
+	 * Returns the value of each counter in the order they were first seen
+	 */
+	public Map<String, Long> getCounters() {
+		Map<String, Long> out = new LinkedHashMap<>();
+		for (Map.Entry<String, Counter> e : counters.entrySet()) {
+			out.put(e.getKey(), e.getValue().value);
+		}
+		return out;
+	}
+
+	/**
+	 * Returns the value of a counter or 0 if it hasn't been seen
+	 */
+	public long getCounter( String name ) {
+		Counter c = counters.get(name);
+		return c == null ? 0 : c.value;
+	}
+
+	/**
+	 * Exports all the results in a flat map. Stages are exported as "name.average_ms", "name.last_ms",
+	 * "name.max_ms", "name.calls", and "name.allocated_bytes" if allocations are known. Counters are exported using
+	 * their name.
+	 */
+	public Map<String, Double> toMap() {
+		Map<String, Double> out = new LinkedHashMap<>();
+		for (int i = 0; i < stages.size(); i++) {
+			Stage s = stages.get(i);
+			out.put(s.name + ".average_ms", s.averageMilli);
+			out.put(s.name + ".last_ms", s.lastMilli);
+			out.put(s.name + ".max_ms", s.maxMilli);
+			out.put(s.name + ".calls", (double)s.calls);
+			if( s.lastAllocatedBytes >= 0 )
+				out.put(s.name + ".allocated_bytes", (double)s.lastAllocatedBytes);
+		}
+		for (Map.Entry<String, Counter> e : counters.entrySet()) {
+			out.put(e.getKey(), (double)e.getValue().value);
+		}
+		return out;
+	}
+
+	/**
+	 * Prints a table with the results for each stage followed by the counters
+	 */
+	public void printSummary( PrintStream out ) {
+		out.printf("%-30s %9s %9s %9s %7s %12s\n", "stage", "avg ms", "last ms", "max ms", "calls", "alloc bytes");
+		for (int i = 0; i < stages.size(); i++) {
+			Stage s = stages.get(i);
+			out.printf("%-30s %9.3f %9.3f %9.3f %7d %12d\n",
+					s.name, s.averageMilli, s.lastMilli, s.maxMilli, s.calls, s.lastAllocatedBytes);
+		}
+		for (Map.Entry<String, Counter> e : counters.entrySet()) {
+			out.printf("%-30s %d\n", e.getKey(), e.getValue().value);
+		}
+	}
+
+	public void setDecay( double decay ) {
+		if( decay < 0 || decay > 1.0 )
+			throw new IllegalArgumentException("Decay must be from 0 to 1, inclusive");
+		this.decay = decay;
+	}
+
+	/**
+	 * Timing and allocation results for a single stage
+	 */
+	public class Stage {
+		/** Name of the stage */
+		@Getter final String name;
+		/** Number of times the stage was recorded */
+		@Getter int calls;
+		/** Time in milliseconds */
+		@Getter double lastMilli, averageMilli, maxMilli, totalMilli;
+		/** Bytes allocated in the most recent call and all calls. -1 if unknown */
+		@Getter long lastAllocatedBytes = -1, totalAllocatedBytes = -1;
+
+		// Values when the stage began
+		long startNano;
+		long startBytes = -1;
+
+		Stage( String name ) {
+			this.name = name;
+		}
+
+		void update( double milli, long bytes ) {
+			lastMilli = milli;
+			averageMilli = calls == 0 ? milli : averageMilli*decay + (1.0 - decay)*milli;
+			maxMilli = Math.max(maxMilli, milli);
+			totalMilli += milli;
+			calls++;
+
+			lastAllocatedBytes = bytes;
+			if( bytes >= 0 )
+				totalAllocatedBytes = Math.max(0, totalAllocatedBytes) + bytes;
+		}
+	}
+
+	static class Counter {
+		long value;
+	}
+
+	/**
+	 * Looks up the HotSpot specific function for the number of bytes a thread has allocated
+	 */
+	static class Allocations {
+		static final @Nullable ThreadMXBean bean;
+		static final @Nullable Method function;
+
+		static {
+			ThreadMXBean b = null;
+			Method m = null;
+			try {
+				b = ManagementFactory.getThreadMXBean();
+				m = Class.forName("com.sun.management.ThreadMXBean").getMethod("getThreadAllocatedBytes", long.class);
+				if( !m.getDeclaringClass().isInstance(b) )
+					m = null;
+			} catch( Throwable ignore ) {
+				// not supported on this platform
+			}
+			bean = b;
+			function = m;
+		}
+
+		/**
+		 * Number of bytes the current thread has allocated or -1 if unknown
+		 */
+		static long currentThread() {
+			if( function == null )
+				return -1;
+			try {
+				return (Long)function.invoke(bean, Thread.currentThread().getId());
+			} catch( Exception e ) {
+				return -1;
+			}
+		}
+	}
+}
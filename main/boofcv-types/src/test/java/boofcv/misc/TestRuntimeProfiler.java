@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.misc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestRuntimeProfiler {
+	@Test
+	void disabled_recordsNothing() {
+		RuntimeProfiler alg = new RuntimeProfiler();
+		alg.begin("a");
+		alg.end("a");
+		alg.recordMilli("b", 2.0);
+		alg.count("c", 5);
+		assertEquals(0, alg.getStages().size());
+		assertEquals(0, alg.getCounters().size());
+	}
+
+	@Test
+	void stages() throws InterruptedException {
+		RuntimeProfiler alg = new RuntimeProfiler();
+		alg.setEnabled(true);
+
+		alg.begin("b");
+		Thread.sleep(2);
+		alg.end("b");
+		alg.recordMilli("a", 4.0);
+		alg.recordMilli("a", 2.0);
+
+		// order they were first seen
+		assertEquals(2, alg.getStages().size());
+		assertEquals("b", alg.getStages().get(0).getName());
+		assertEquals("a", alg.getStages().get(1).getName());
+
+		assertTrue(alg.getAverageMilli("b") >= 2.0);
+		RuntimeProfiler.Stage a = alg.getStage("a");
+		assertNotNull(a);
+		assertEquals(2, a.getCalls());
+		assertEquals(2.0, a.getLastMilli(), 1e-8);
+		assertEquals(4.0, a.getMaxMilli(), 1e-8);
+		assertEquals(6.0, a.getTotalMilli(), 1e-8);
+		assertEquals(4.0*0.8 + 2.0*0.2, a.getAverageMilli(), 1e-8);
+		assertEquals(-1, a.getLastAllocatedBytes());
+
+		assertEquals(0.0, alg.getAverageMilli("c"));
+		assertNull(alg.getStage("c"));
+	}
+
+	/**
+	 * An unmatched end() can happen if the profiler is enabled in the middle of a stage and must be ignored
+	 */
+	@Test
+	void end_neverStarted() {
+		RuntimeProfiler alg = new RuntimeProfiler();
+		alg.begin("a");
+		alg.setEnabled(true);
+		alg.end("a");
+		alg.end("b");
+		assertNull(alg.getStage("a"));
+		assertNull(alg.getStage("b"));
+
+		// should work normally after that
+		alg.begin("a");
+		alg.end("a");
+		assertEquals(1, alg.getStage("a").getCalls());
+
+		// ending twice should only record it once
+		alg.end("a");
+		assertEquals(1, alg.getStage("a").getCalls());
+	}
+
+	@Test
+	void counters() {
+		RuntimeProfiler alg = new RuntimeProfiler();
+		alg.setEnabled(true);
+		alg.count("a", 5);
+		alg.increment("b", 2);
+		alg.increment("b", 3);
+		alg.count("a", 1);
+
+		assertEquals(1, alg.getCounter("a"));
+		assertEquals(5, alg.getCounter("b"));
+		assertEquals(0, alg.getCounter("c"));
+		assertEquals(2, alg.getCounters().size());
+	}
+
+	@Test
+	void trackAllocations() {
+		RuntimeProfiler alg = new RuntimeProfiler();
+		alg.setEnabled(true);
+		alg.setTrackAllocations(true);
+
+		alg.begin("a");
+		int[] data = new int[100_000];
+		alg.end("a");
+		data[10] = 2;
+
+		// not every JVM supports this
+		long bytes = alg.getStage("a").getLastAllocatedBytes();
+		if( bytes >= 0 )
+			assertTrue(bytes >= 400_000);
+	}
+
+	@Test
+	void toMap() {
+		RuntimeProfiler alg = new RuntimeProfiler();
+		alg.setEnabled(true);
+		alg.recordMilli("a", 3.0);
+		alg.count("b", 7);
+
+		Map<String, Double> found = alg.toMap();
+		assertEquals(3.0, found.get("a.average_ms"), 1e-8);
+		assertEquals(3.0, found.get("a.last_ms"), 1e-8);
+		assertEquals(1.0, found.get("a.calls"), 1e-8);
+		assertEquals(7.0, found.get("b"), 1e-8);
+		assertFalse(found.containsKey("a.allocated_bytes"));
+	}
+
+	@Test
+	void reset() {
+		RuntimeProfiler alg = new RuntimeProfiler();
+		alg.setEnabled(true);
+		alg.recordMilli("a", 3.0);
+		alg.count("b", 7);
+		alg.reset();
+		assertEquals(0, alg.getStages().size());
+		assertEquals(0, alg.getCounters().size());
+		assertTrue(alg.isEnabled());
+	}
+}